@@ -0,0 +1,133 @@
+package com.globaltech.inventory.benchmark;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import com.globaltech.inventory.model.domain.order.OrderStatus;
+import com.globaltech.inventory.model.repository.inventory.InventoryRepository;
+import com.globaltech.inventory.model.repository.inventory.ProductStockRepository;
+import com.globaltech.inventory.model.repository.order.OrderItemRepository;
+import com.globaltech.inventory.model.repository.order.OrderRepository;
+import com.globaltech.inventory.model.repository.order.ProductSalesRepository;
+import com.globaltech.inventory.model.service.base.OptimisticRetryTemplate;
+import com.globaltech.inventory.model.service.inventory.ProductStockServiceImpl;
+import com.globaltech.inventory.model.service.inventory.StockLedger;
+import com.globaltech.inventory.model.service.metrics.InventoryCounters;
+import com.globaltech.inventory.model.service.order.AllocationResult;
+import com.globaltech.inventory.model.service.order.OrderAllocationService;
+import com.globaltech.inventory.model.service.order.OrderAllocationServiceImpl;
+import com.globaltech.inventory.model.service.order.ProductSalesServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Orders allocated per second at several batch sizes. Every invocation works through the
+ * same number of pending orders, one allocatePendingOrders call per batch, from a freshly
+ * restored backlog and stock, so the score is the orders considered per second; the orders
+ * actually allocated per second are reported next to it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(AllocationBenchmark.ORDERS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocationBenchmark {
+    
+    static final int ORDERS = 2000;
+    
+    @Param({"200000"})
+    private int movements;
+    
+    @Param({"10", "100", "1000"})
+    private int batchSize;
+    
+    private BenchmarkDatabase database;
+    private OrderAllocationService allocationService;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new BenchmarkDatabase(movements, 1000, new Properties());
+        JpaTransactionManager transactionManager = new JpaTransactionManager(database.getEntityManagerFactory());
+        allocationService = database.createTransactionalService(new OrderAllocationServiceImpl(
+                database.getRepository(OrderRepository.class), database.getRepository(OrderItemRepository.class),
+                database.getRepository(InventoryRepository.class),
+                new ProductSalesServiceImpl(database.getRepository(ProductSalesRepository.class)),
+                new ProductStockServiceImpl(database.getRepository(ProductStockRepository.class)), new StockLedger(false, 64),
+                new OptimisticRetryTemplate(transactionManager, 5, 1, 50), new InventoryCounters(new SimpleMeterRegistry())),
+                OrderAllocationService.class, transactionManager);
+        long pendingOrders = database.getRepository(OrderRepository.class).countByStatus(OrderStatus.PENDING);
+        if (pendingOrders < ORDERS) {
+            throw new IllegalStateException("Need at least " + ORDERS + " pending orders, seeded " + pendingOrders);
+        }
+    }
+    
+    /**
+     * Put the seeded pending orders back and restore the stock they took. An invocation takes
+     * seconds, so restoring before each one does not disturb the measurement.
+     */
+    @Setup(Level.Invocation)
+    public void restoreBacklog() throws SQLException {
+        try (Connection connection = database.getDataSource().getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE orders SET status = 'PENDING' WHERE status = 'PROCESSING' AND MOD(id - 1, " +
+                    OrderStatus.values().length + ") = " + OrderStatus.PENDING.ordinal());
+            statement.executeUpdate("UPDATE inventory_items SET quantity = MOD((id - 1) * 31, 600)");
+            statement.executeUpdate("DELETE FROM stock_movements WHERE reference_number LIKE 'ORD-%'");
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+    
+    @Benchmark
+    public int allocateBacklog(Outcomes outcomes) {
+        int considered = 0;
+        while (considered < ORDERS) {
+            AllocationResult result = allocationService.allocatePendingOrders(Math.min(batchSize, ORDERS - considered));
+            if (result.getOrdersConsidered() == 0) {
+                throw new IllegalStateException("Ran out of pending orders after " + considered);
+            }
+            considered += result.getOrdersConsidered();
+            outcomes.allocated += result.getOrdersAllocated();
+        }
+        return considered;
+    }
+    
+    /**
+     * Orders allocated, reported per second
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcomes {
+        
+        public long allocated;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            allocated = 0;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.globaltech.inventory.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Properties;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.util.ReflectionUtils;
+
+import com.globaltech.inventory.model.domain.base.PooledIdGenerator;
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+import com.globaltech.inventory.model.domain.order.OrderStatus;
+import com.globaltech.inventory.model.repository.base.BaseRepositoryImpl;
+
+/**
+ * Embedded H2 database seeded with a configurable number of stock movements, used by the
+ * repository benchmarks. Products, locations, inventory items and orders are scaled from
+ * the number of movements. H2 runs in MySQL mode, so the native statements written for the
+ * production database run unchanged.
+ */
+public class BenchmarkDatabase implements AutoCloseable {
+    
+    public static final int LOCATIONS = 10;
+    
+    private static final int BATCH_SIZE = 1000;
+    
+    private static final String[] SEEDED_TABLES = {"product_categories", "suppliers", "products", "locations", 
+        "inventory_items", "stock_movements", "orders", "order_items", "product_sales", "product_stock"};
+    
+    private final BasicDataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final JpaRepositoryFactory repositoryFactory;
+    private final int movements;
+    private final int products;
+    private final int orders;
+    private final int idIncrementSize;
+    
+    public BenchmarkDatabase(int movements) throws SQLException {
+        this(movements, new Properties());
+    }
+    
+    /**
+     * @param movements the number of stock movements to seed
+     * @param extraProperties Hibernate properties added to or overriding the defaults, such as the
+     *        {@link PooledIdGenerator} settings
+     */
+    public BenchmarkDatabase(int movements, Properties extraProperties) throws SQLException {
+        this(movements, Math.max(100, movements / 1000), extraProperties);
+    }
+    
+    /**
+     * @param movements the number of stock movements to seed
+     * @param products the number of products to seed, each stocked at every location
+     * @param extraProperties Hibernate properties added to or overriding the defaults
+     */
+    public BenchmarkDatabase(int movements, int products, Properties extraProperties) throws SQLException {
+        this.movements = movements;
+        this.products = products;
+        this.orders = Math.max(10, movements / 10);
+        
+        dataSource = new BasicDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:mem:benchmark" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.setProperty("hibernate.hbm2ddl.auto", "create");
+        properties.setProperty("hibernate.jdbc.batch_size", String.valueOf(BATCH_SIZE));
+        properties.setProperty("hibernate.order_inserts", "true");
+        properties.setProperty("javax.persistence.validation.mode", "none");
+        properties.putAll(extraProperties);
+        this.idIncrementSize = Integer.parseInt(properties.getProperty(PooledIdGenerator.INCREMENT_SIZE_SETTING, 
+                PooledIdGenerator.DEFAULT_INCREMENT_SIZE));
+        
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.globaltech.inventory.model.domain");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaProperties(properties);
+        factoryBean.afterPropertiesSet();
+        
+        entityManagerFactory = factoryBean.getObject();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        repositoryFactory = new JpaRepositoryFactory(entityManager);
+        repositoryFactory.setRepositoryBaseClass(BaseRepositoryImpl.class);
+        seed();
+    }
+    
+    /**
+     * Create a repository backed by this database, with BaseRepositoryImpl as its base class
+     * 
+     * @param repositoryInterface the repository interface
+     * @return the repository
+     */
+    public <R> R getRepository(Class<R> repositoryInterface) {
+        return repositoryFactory.getRepository(repositoryInterface);
+    }
+    
+    /**
+     * Prepare a service the way the application context does: its {@code @PersistenceContext}
+     * fields get the shared entity manager, and its {@code @Transactional} methods run in
+     * transactions of the given manager
+     * 
+     * @param service the service
+     * @param serviceInterface the interface to proxy
+     * @param transactionManager the transaction manager
+     * @return the transactional proxy of the service
+     */
+    public <S> S createTransactionalService(S service, Class<S> serviceInterface, PlatformTransactionManager transactionManager) {
+        ReflectionUtils.doWithFields(service.getClass(), field -> {
+            ReflectionUtils.makeAccessible(field);
+            ReflectionUtils.setField(field, service, entityManager);
+        }, field -> field.isAnnotationPresent(PersistenceContext.class));
+        ProxyFactory proxyFactory = new ProxyFactory(service);
+        proxyFactory.setInterfaces(serviceInterface);
+        TransactionInterceptor transactionInterceptor = new TransactionInterceptor();
+        transactionInterceptor.setTransactionManager(transactionManager);
+        transactionInterceptor.setTransactionAttributeSource(new AnnotationTransactionAttributeSource());
+        proxyFactory.addAdvice(transactionInterceptor);
+        return serviceInterface.cast(proxyFactory.getProxy());
+    }
+    
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+    
+    public EntityManagerFactory getEntityManagerFactory() {
+        return entityManagerFactory;
+    }
+    
+    public int getMovements() {
+        return movements;
+    }
+    
+    public int getProducts() {
+        return products;
+    }
+    
+    public int getOrders() {
+        return orders;
+    }
+    
+    private void seed() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            
+            batch(connection, "INSERT INTO product_categories (id, name, created_date) VALUES (?, ?, ?)", 1, (statement, i) -> {
+                statement.setLong(1, 1);
+                statement.setString(2, "Category");
+                statement.setTimestamp(3, now);
+            });
+            batch(connection, "INSERT INTO suppliers (id, company_name, contact_name, created_date) VALUES (?, ?, ?, ?)", 1, (statement, i) -> {
+                statement.setLong(1, 1);
+                statement.setString(2, "Supplier");
+                statement.setString(3, "Contact");
+                statement.setTimestamp(4, now);
+            });
+            batch(connection, "INSERT INTO products (id, name, description, price, sku, category_id, supplier_id, created_date) " +
+                    "VALUES (?, ?, ?, ?, ?, 1, 1, ?)", products, (statement, i) -> {
+                statement.setLong(1, i + 1);
+                statement.setString(2, "Product " + i);
+                statement.setString(3, "Description of product " + i);
+                statement.setBigDecimal(4, BigDecimal.valueOf(100 + i % 900, 2));
+                statement.setString(5, "SKU-" + i);
+                statement.setTimestamp(6, now);
+            });
+            batch(connection, "INSERT INTO locations (id, name, active, created_date) VALUES (?, ?, TRUE, ?)", LOCATIONS, (statement, i) -> {
+                statement.setLong(1, i + 1);
+                statement.setString(2, "Location " + i);
+                statement.setTimestamp(3, now);
+            });
+            batch(connection, "INSERT INTO inventory_items (id, product_id, location_id, quantity, min_stock_level, max_stock_level, " +
+                    "reorder_point, version, created_date) VALUES (?, ?, ?, ?, 10, 500, 20, 0, ?)", products * LOCATIONS, (statement, i) -> {
+                statement.setLong(1, i + 1);
+                statement.setLong(2, i / LOCATIONS + 1);
+                statement.setLong(3, i % LOCATIONS + 1);
+                statement.setInt(4, (i * 31) % 600);
+                statement.setTimestamp(5, now);
+            });
+            batch(connection, "INSERT INTO stock_movements (id, product_id, source_location_id, target_location_id, quantity, " +
+                    "movement_type, movement_date, created_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", movements, (statement, i) -> {
+                MovementType type = MovementType.values()[i % MovementType.values().length];
+                statement.setLong(1, i + 1);
+                statement.setLong(2, i % products + 1);
+                statement.setLong(3, i % LOCATIONS + 1);
+                statement.setLong(4, (i + 1) % LOCATIONS + 1);
+                statement.setInt(5, i % 50 + 1);
+                statement.setString(6, type.name());
+                statement.setTimestamp(7, Timestamp.valueOf(LocalDateTime.now().minusMinutes(movements - i)));
+                statement.setTimestamp(8, now);
+            });
+            batch(connection, "INSERT INTO orders (id, order_number, order_date, customer_name, subtotal, tax, shipping_cost, total, " +
+                    "status, version, created_date) VALUES (?, ?, ?, ?, 0, 0, 0, 0, ?, 0, ?)", orders, (statement, i) -> {
+                statement.setLong(1, i + 1);
+                statement.setString(2, "ORD-" + i);
+                statement.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now().minusMinutes(orders - i)));
+                statement.setString(4, "Customer " + i % 1000);
+                statement.setString(5, OrderStatus.values()[i % OrderStatus.values().length].name());
+                statement.setTimestamp(6, now);
+            });
+            batch(connection, "INSERT INTO order_items (id, order_id, product_id, quantity, unit_price, subtotal, created_date) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)", orders * 2, (statement, i) -> {
+                int quantity = i % 5 + 1;
+                BigDecimal unitPrice = BigDecimal.valueOf(100 + i % 900, 2);
+                statement.setLong(1, i + 1);
+                statement.setLong(2, i / 2 + 1);
+                statement.setLong(3, (i * 7) % products + 1);
+                statement.setInt(4, quantity);
+                statement.setBigDecimal(5, unitPrice);
+                statement.setBigDecimal(6, unitPrice.multiply(BigDecimal.valueOf(quantity)));
+                statement.setTimestamp(7, now);
+            });
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("INSERT INTO product_sales (id, product_id, total_quantity, total_revenue) " +
+                        "SELECT ROWNUM(), s.* FROM (SELECT oi.product_id, SUM(oi.quantity), SUM(oi.subtotal) FROM order_items oi " +
+                        "JOIN orders o ON o.id = oi.order_id WHERE o.status IN ('PROCESSING', 'SHIPPED', 'DELIVERED') " +
+                        "GROUP BY oi.product_id) s");
+            }
+            seedProductStock(connection);
+            for (String table : SEEDED_TABLES) {
+                restartIdGenerator(connection, table);
+            }
+            connection.commit();
+        }
+    }
+    
+    /**
+     * Seed the product stock totals from the inventory items and pending orders. The totals are
+     * summed separately and joined here, as H2 evaluates the joined aggregates once per product.
+     */
+    private void seedProductStock(Connection connection) throws SQLException {
+        long[] onHand = new long[products + 1];
+        long[] reserved = new long[products + 1];
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT product_id, SUM(quantity) FROM inventory_items GROUP BY product_id")) {
+                while (resultSet.next()) {
+                    onHand[resultSet.getInt(1)] = resultSet.getLong(2);
+                }
+            }
+            try (ResultSet resultSet = statement.executeQuery("SELECT oi.product_id, SUM(oi.quantity) FROM order_items oi " +
+                    "JOIN orders o ON o.id = oi.order_id WHERE o.status = 'PENDING' GROUP BY oi.product_id")) {
+                while (resultSet.next()) {
+                    reserved[resultSet.getInt(1)] = resultSet.getLong(2);
+                }
+            }
+        }
+        batch(connection, "INSERT INTO product_stock (id, product_id, on_hand, reserved) VALUES (?, ?, ?, ?)", products, 
+                (statement, i) -> {
+            statement.setLong(1, i + 1);
+            statement.setLong(2, i + 1);
+            statement.setLong(3, onHand[i + 1]);
+            statement.setLong(4, reserved[i + 1]);
+        });
+    }
+    
+    /**
+     * Move the ID sequence (or sequence table) of a seeded table past its highest ID, so that rows
+     * inserted by a benchmark do not collide with the seeded rows. The extra increment keeps the
+     * first block clear of the seeded IDs whichever optimizer is configured.
+     */
+    private void restartIdGenerator(Connection connection, String table) throws SQLException {
+        String sequence = table + PooledIdGenerator.SEQUENCE_SUFFIX;
+        try (Statement statement = connection.createStatement()) {
+            long next;
+            try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+                resultSet.next();
+                next = resultSet.getLong(1) + idIncrementSize;
+            }
+            boolean sequenceTable;
+            try (ResultSet tables = connection.getMetaData().getTables(null, null, sequence.toUpperCase(), new String[] {"TABLE"})) {
+                sequenceTable = tables.next();
+            }
+            if (sequenceTable) {
+                statement.executeUpdate("UPDATE " + sequence + " SET next_val = " + next);
+            } else {
+                statement.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+            }
+        }
+    }
+    
+    private static void batch(Connection connection, String sql, int rows, RowBinder binder) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < rows; i++) {
+                binder.bind(statement, i);
+                statement.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+    
+    @Override
+    public void close() throws SQLException {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+    
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement statement, int row) throws SQLException;
+    }
+}
@@ -0,0 +1,93 @@
+package com.globaltech.inventory.benchmark;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.globaltech.inventory.model.domain.product.Product;
+import com.globaltech.inventory.model.repository.product.CategoryRepository;
+import com.globaltech.inventory.model.repository.product.ProductRepository;
+import com.globaltech.inventory.model.service.product.CatalogCacheService;
+import com.globaltech.inventory.model.service.product.CatalogCacheServiceImpl;
+import com.globaltech.inventory.model.service.product.CatalogCacheStatistics;
+
+/**
+ * Read-heavy catalogue load with and without the second-level and query cache. Every
+ * operation uses a new persistence context, as a web request would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class CatalogCacheBenchmark {
+    
+    @Param({"true", "false"})
+    private boolean cached;
+    
+    private BenchmarkDatabase database;
+    private ProductRepository productRepository;
+    private CategoryRepository categoryRepository;
+    private CatalogCacheService catalogCacheService;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.cache.use_second_level_cache", String.valueOf(cached));
+        properties.setProperty("hibernate.cache.use_query_cache", String.valueOf(cached));
+        database = new BenchmarkDatabase(10000, properties);
+        productRepository = database.getRepository(ProductRepository.class);
+        categoryRepository = database.getRepository(CategoryRepository.class);
+        catalogCacheService = new CatalogCacheServiceImpl(database.getEntityManagerFactory());
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        for (CatalogCacheStatistics statistics : catalogCacheService.getStatistics()) {
+            System.out.println(statistics);
+        }
+        database.close();
+    }
+    
+    @Benchmark
+    public String loadProductWithCategoryAndSupplier() {
+        EntityManager entityManager = database.getEntityManagerFactory().createEntityManager();
+        try {
+            long productId = ThreadLocalRandom.current().nextInt(database.getProducts()) + 1;
+            Product product = entityManager.find(Product.class, productId);
+            return product.getName() + product.getCategory().getName() + product.getSupplier().getCompanyName();
+        } finally {
+            entityManager.close();
+        }
+    }
+    
+    @Benchmark
+    public List<Product> findProductsByCategory() {
+        return productRepository.findByCategoryId(1L);
+    }
+    
+    @Benchmark
+    public int findAllCategories() {
+        return categoryRepository.findAll().size();
+    }
+}
@@ -0,0 +1,96 @@
+package com.globaltech.inventory.benchmark;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.globaltech.inventory.model.domain.inventory.InventoryItem;
+import com.globaltech.inventory.model.domain.inventory.StockLevelRow;
+import com.globaltech.inventory.model.repository.inventory.InventoryRepository;
+import com.globaltech.inventory.model.service.inventory.InventoryDashboardService;
+import com.globaltech.inventory.model.service.inventory.InventoryDashboardServiceImpl;
+
+/**
+ * Stock level dashboard read through managed entities versus the projection rows of
+ * InventoryDashboardService. Run with -prof gc to compare the allocation per operation, which
+ * includes the entity instances and the dirty-checking snapshots of the persistence context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardProjectionBenchmark {
+    
+    private static final String ENTITY_QUERY = "SELECT i FROM InventoryItem i JOIN FETCH i.product p " +
+            "JOIN FETCH i.location l ORDER BY p.name, l.name";
+    
+    @Param({"500000"})
+    private int rows;
+    
+    private BenchmarkDatabase database;
+    private TransactionTemplate transactionTemplate;
+    private InventoryDashboardService dashboardService;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.cache.use_second_level_cache", "false");
+        properties.setProperty("hibernate.cache.use_query_cache", "false");
+        database = new BenchmarkDatabase(rows, properties);
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(database.getEntityManagerFactory()));
+        dashboardService = new InventoryDashboardServiceImpl(database.getRepository(InventoryRepository.class));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+    
+    @Benchmark
+    public int stockLevelsFromEntities() {
+        return transactionTemplate.execute(status -> {
+            int total = 0;
+            for (InventoryItem item : loadEntities()) {
+                total += item.getProduct().getName().length() + item.getLocation().getName().length() + item.getQuantity();
+            }
+            return total;
+        });
+    }
+    
+    @Benchmark
+    public int stockLevelsFromProjection() {
+        return transactionTemplate.execute(status -> {
+            int total = 0;
+            for (StockLevelRow row : dashboardService.findStockLevels()) {
+                total += row.getProductName().length() + row.getLocationName().length() + row.getQuantity();
+            }
+            return total;
+        });
+    }
+    
+    private List<InventoryItem> loadEntities() {
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(database.getEntityManagerFactory());
+        return entityManager.createQuery(ENTITY_QUERY, InventoryItem.class).getResultList();
+    }
+}
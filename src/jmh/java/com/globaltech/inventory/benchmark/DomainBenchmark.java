@@ -0,0 +1,96 @@
+package com.globaltech.inventory.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.globaltech.inventory.model.domain.inventory.InventoryItem;
+import com.globaltech.inventory.model.domain.order.Order;
+import com.globaltech.inventory.model.domain.order.OrderItem;
+
+/**
+ * Benchmarks for the in-memory domain hot paths
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainBenchmark {
+    
+    @Param({"10", "100", "1000", "10000"})
+    private int lines;
+    
+    private Order order;
+    private OrderItem orderItem;
+    private InventoryItem inventoryItem;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        order = new Order("ORD-1", "Customer");
+        order.setTax(new BigDecimal("12.50"));
+        order.setShippingCost(new BigDecimal("4.99"));
+        for (int i = 0; i < lines; i++) {
+            order.addItem(new OrderItem(null, null, i % 5 + 1, BigDecimal.valueOf(100 + i % 900, 2)));
+        }
+        orderItem = new OrderItem(null, null, 3, new BigDecimal("19.99"));
+        inventoryItem = new InventoryItem(null, null, 1000);
+    }
+    
+    @Benchmark
+    public BigDecimal orderCalculateTotals() {
+        order.calculateTotals();
+        return order.getTotal();
+    }
+    
+    @Benchmark
+    public BigDecimal orderBuildWithAddItem() {
+        Order built = new Order("ORD-2", "Customer");
+        for (int i = 0; i < lines; i++) {
+            built.addItem(new OrderItem(null, null, i % 5 + 1, BigDecimal.valueOf(100 + i % 900, 2)));
+        }
+        return built.getTotal();
+    }
+    
+    @Benchmark
+    public BigDecimal orderFullRecalculationOnAddItem() {
+        Order built = new Order("ORD-3", "Customer");
+        for (int i = 0; i < lines; i++) {
+            built.addItem(new OrderItem(null, null, i % 5 + 1, BigDecimal.valueOf(100 + i % 900, 2)));
+            built.calculateTotals();
+        }
+        return built.getTotal();
+    }
+    
+    @Benchmark
+    public BigDecimal orderItemSetQuantity() {
+        OrderItem item = order.getItems().get(0);
+        item.setQuantity(item.getQuantity() % 5 + 1);
+        return order.getTotal();
+    }
+    
+    @Benchmark
+    public BigDecimal orderItemCalculateSubtotal() {
+        orderItem.calculateSubtotal();
+        return orderItem.getSubtotal();
+    }
+    
+    @Benchmark
+    public int inventoryItemAddAndRemoveQuantity() {
+        inventoryItem.addQuantity(5);
+        return inventoryItem.removeQuantity(5);
+    }
+}
@@ -0,0 +1,158 @@
+package com.globaltech.inventory.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.globaltech.inventory.model.domain.inventory.StockMovement;
+import com.globaltech.inventory.model.repository.inventory.StockMovementRepository;
+import com.globaltech.inventory.model.service.base.ExportFormat;
+import com.globaltech.inventory.model.service.base.ExportResult;
+import com.globaltech.inventory.model.service.base.ExportWriter;
+import com.globaltech.inventory.model.service.inventory.MovementArchive;
+import com.globaltech.inventory.model.service.inventory.StockMovementExportServiceImpl;
+
+/**
+ * Exporting every stock movement through the streaming exporter, as CSV, gzipped CSV, JSON
+ * lines and in parallel date slices, against loading the range with findByMovementDateBetween
+ * and writing the entities. The list baseline writes only the columns held by the movement
+ * itself, so it does not pay for loading products or locations. The exports print their
+ * throughput in bytes per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ExportBenchmark {
+    
+    private static final List<String> BASELINE_COLUMNS = Arrays.asList("movement_id", "movement_date", "movement_type",
+            "product_id", "quantity", "reference_number", "notes");
+    
+    @Param({"500000"})
+    private int rows;
+    
+    private BenchmarkDatabase database;
+    private StockMovementRepository repository;
+    private TransactionTemplate transactionTemplate;
+    private StockMovementExportServiceImpl exportService;
+    private Path directory;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new BenchmarkDatabase(rows, 1000, new Properties());
+        repository = database.getRepository(StockMovementRepository.class);
+        JpaTransactionManager transactionManager = new JpaTransactionManager(database.getEntityManagerFactory());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        // An archive that is never opened is empty, every movement stays in the table
+        exportService = new StockMovementExportServiceImpl(database.getEntityManagerFactory(), 
+                new MovementArchive("movement-archive"), transactionManager, 0);
+        directory = Files.createTempDirectory("export-benchmark");
+        endDate = LocalDateTime.now().plusDays(1);
+        startDate = endDate.minusMinutes(rows).minusDays(2);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        exportService.destroy();
+        database.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+    
+    @Benchmark
+    public ExportResult exportCsv() throws IOException {
+        return export(ExportFormat.CSV, false);
+    }
+    
+    @Benchmark
+    public ExportResult exportCsvGzip() throws IOException {
+        return export(ExportFormat.CSV, true);
+    }
+    
+    @Benchmark
+    public ExportResult exportJsonLines() throws IOException {
+        return export(ExportFormat.JSON_LINES, false);
+    }
+    
+    @Benchmark
+    public ExportResult exportCsvSliced() {
+        ExportResult result = exportService.exportMovements(startDate, endDate, ExportFormat.CSV, false,
+                directory.resolve("movements-sliced.csv"), 4);
+        System.out.println(result);
+        return result;
+    }
+    
+    @Benchmark
+    public long listAndWriteCsv() throws IOException {
+        try (FileChannel channel = open("movements-list.csv")) {
+            return transactionTemplate.execute(status -> {
+                try {
+                    List<StockMovement> movements = repository.findByMovementDateBetween(startDate, endDate);
+                    ExportWriter writer = new ExportWriter(channel, ExportFormat.CSV, false, BASELINE_COLUMNS);
+                    writer.writeHeader();
+                    for (StockMovement movement : movements) {
+                        writer.beginRow();
+                        writer.writeLong(movement.getId());
+                        writer.writeDateTime(movement.getMovementDate());
+                        writer.writeString(movement.getMovementType().name());
+                        writer.writeLong(movement.getProduct().getId());
+                        writer.writeLong(movement.getQuantity());
+                        writer.writeString(movement.getReferenceNumber());
+                        writer.writeString(movement.getNotes());
+                        writer.endRow();
+                    }
+                    return writer.finish();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+    
+    private ExportResult export(ExportFormat format, boolean gzip) throws IOException {
+        try (FileChannel channel = open("movements." + format.getExtension() + (gzip ? ".gz" : ""))) {
+            ExportResult result = exportService.exportMovements(startDate, endDate, format, gzip, channel);
+            System.out.println(result);
+            return result;
+        }
+    }
+    
+    private FileChannel open(String name) throws IOException {
+        return FileChannel.open(directory.resolve(name), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+}
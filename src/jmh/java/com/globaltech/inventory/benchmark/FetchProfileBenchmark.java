@@ -0,0 +1,124 @@
+package com.globaltech.inventory.benchmark;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.globaltech.inventory.model.repository.base.FetchProfile;
+import com.globaltech.inventory.model.repository.inventory.InventoryRepository;
+import com.globaltech.inventory.model.repository.inventory.StockMovementRepository;
+import com.globaltech.inventory.model.repository.order.OrderItemRepository;
+
+/**
+ * Listing finders with and without their fetch graph, rendering every row with toString()
+ * inside the transaction as a listing page would. The second-level cache is disabled so
+ * that lazy product loads show up as selects. Setup fails if a DETAILS finder issues more
+ * than one statement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FetchProfileBenchmark {
+    
+    @Param({"MINIMAL", "DETAILS"})
+    private FetchProfile profile;
+    
+    @Param({"200000"})
+    private int rows;
+    
+    private BenchmarkDatabase database;
+    private StatementCounter statementCounter;
+    private TransactionTemplate transactionTemplate;
+    private InventoryRepository inventoryRepository;
+    private StockMovementRepository stockMovementRepository;
+    private OrderItemRepository orderItemRepository;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        statementCounter = new StatementCounter();
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.cache.use_second_level_cache", "false");
+        properties.setProperty("hibernate.cache.use_query_cache", "false");
+        properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+        database = new BenchmarkDatabase(rows, properties);
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(database.getEntityManagerFactory()));
+        transactionTemplate.setReadOnly(true);
+        inventoryRepository = database.getRepository(InventoryRepository.class);
+        stockMovementRepository = database.getRepository(StockMovementRepository.class);
+        orderItemRepository = database.getRepository(OrderItemRepository.class);
+        
+        int maxStatements = profile == FetchProfile.DETAILS ? 1 : Integer.MAX_VALUE;
+        check(maxStatements, "findLowStockItems", this::lowStockItems);
+        check(maxStatements, "findItemsNeedingReorder",
+                () -> inTransaction(() -> render(inventoryRepository.findItemsNeedingReorder(profile))));
+        check(maxStatements, "findOverstockedItems", this::overstockedItems);
+        check(maxStatements, "findMostRecentMovementsForProduct", this::recentMovementsForProduct);
+        check(maxStatements, "OrderItemRepository.findByOrderId", this::orderItems);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+    
+    @Benchmark
+    public int lowStockItems() {
+        return inTransaction(() -> render(inventoryRepository.findLowStockItems(profile)));
+    }
+    
+    @Benchmark
+    public int overstockedItems() {
+        return inTransaction(() -> render(inventoryRepository.findOverstockedItems(profile)));
+    }
+    
+    @Benchmark
+    public int recentMovementsForProduct() {
+        long productId = ThreadLocalRandom.current().nextInt(database.getProducts()) + 1;
+        return inTransaction(() -> render(stockMovementRepository.findMostRecentMovementsForProduct(productId, profile)));
+    }
+    
+    @Benchmark
+    public int orderItems() {
+        long orderId = ThreadLocalRandom.current().nextInt(database.getOrders()) + 1;
+        return inTransaction(() -> render(orderItemRepository.findByOrderId(orderId, profile)));
+    }
+    
+    private void check(int maxStatements, String finder, Supplier<Integer> listing) {
+        statementCounter.assertAtMost(maxStatements, finder + " with " + profile, listing);
+        System.out.println(finder + " with " + profile + ": " + statementCounter.getCount() + " statements");
+    }
+    
+    private int inTransaction(Supplier<Integer> listing) {
+        return transactionTemplate.execute(status -> listing.get());
+    }
+    
+    private static int render(List<?> rows) {
+        int length = 0;
+        for (Object row : rows) {
+            length += row.toString().length();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,95 @@
+package com.globaltech.inventory.benchmark;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.globaltech.inventory.model.domain.inventory.InventoryItem;
+import com.globaltech.inventory.model.domain.product.Product;
+import com.globaltech.inventory.model.repository.base.JpaSpecification;
+import com.globaltech.inventory.model.repository.inventory.InventoryRepository;
+import com.globaltech.inventory.model.repository.product.ProductRepository;
+
+/**
+ * The generic BaseRepository field finders on their cached-query path, against the derived
+ * findBySku query and a JpaSpecification built into a Criteria query on every call. The
+ * concurrent variant runs the same lookup from several threads sharing the query cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FieldFinderBenchmark {
+    
+    @Param({"1000"})
+    private int products;
+    
+    private BenchmarkDatabase database;
+    private ProductRepository productRepository;
+    private InventoryRepository inventoryRepository;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new BenchmarkDatabase(1000, products, new Properties());
+        productRepository = database.getRepository(ProductRepository.class);
+        inventoryRepository = database.getRepository(InventoryRepository.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+    
+    private String randomSku() {
+        return "SKU-" + ThreadLocalRandom.current().nextInt(products);
+    }
+    
+    @Benchmark
+    public Product findOneByField() {
+        return productRepository.findOneByField("sku", randomSku()).orElse(null);
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public Product findOneByFieldConcurrent() {
+        return productRepository.findOneByField("sku", randomSku()).orElse(null);
+    }
+    
+    @Benchmark
+    public Product derivedFindBySku() {
+        return productRepository.findBySku(randomSku());
+    }
+    
+    @Benchmark
+    public Product specificationFindOne() {
+        return productRepository.findOne(JpaSpecification.fieldEquals("sku", randomSku())).orElse(null);
+    }
+    
+    @Benchmark
+    public List<InventoryItem> findByField() {
+        return inventoryRepository.findByField("quantity", ThreadLocalRandom.current().nextInt(600));
+    }
+    
+    @Benchmark
+    public List<InventoryItem> specificationFindAll() {
+        return inventoryRepository.findAll(JpaSpecification.fieldEquals("quantity", ThreadLocalRandom.current().nextInt(600)));
+    }
+}
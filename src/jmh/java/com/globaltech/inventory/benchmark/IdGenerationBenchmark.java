@@ -0,0 +1,96 @@
+package com.globaltech.inventory.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.globaltech.inventory.model.domain.base.PooledIdGenerator;
+import com.globaltech.inventory.model.domain.order.Order;
+import com.globaltech.inventory.model.domain.order.OrderItem;
+import com.globaltech.inventory.model.domain.product.Product;
+
+/**
+ * Saves 100k order items through Hibernate under each ID generation strategy. The strategy is
+ * written as optimizer/increment size; none/1 takes one sequence call per row like the old
+ * IDENTITY mapping, the other strategies hand out IDs in blocks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IdGenerationBenchmark {
+    
+    private static final int ITEMS = 100_000;
+    private static final int FLUSH_INTERVAL = 1000;
+    
+    @Param({"none/1", "pooled-lo/50", "pooled-lo/1000", "hilo/50"})
+    private String strategy;
+    
+    @Param({"false", "true"})
+    private boolean forceTable;
+    
+    private BenchmarkDatabase database;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        String[] parts = strategy.split("/");
+        Properties properties = new Properties();
+        properties.setProperty(PooledIdGenerator.OPTIMIZER_SETTING, parts[0]);
+        properties.setProperty(PooledIdGenerator.INCREMENT_SIZE_SETTING, parts[1]);
+        properties.setProperty(PooledIdGenerator.FORCE_TABLE_SETTING, String.valueOf(forceTable));
+        database = new BenchmarkDatabase(1000, properties);
+    }
+    
+    @TearDown(Level.Iteration)
+    public void deleteSavedItems() throws Exception {
+        try (Connection connection = database.getDataSource().getConnection(); 
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM order_items WHERE id > " + database.getOrders() * 2);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+    
+    @Benchmark
+    public void saveOrderItems() {
+        EntityManager entityManager = database.getEntityManagerFactory().createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            for (int i = 0; i < ITEMS; i++) {
+                Order order = entityManager.getReference(Order.class, (long) (i % database.getOrders() + 1));
+                Product product = entityManager.getReference(Product.class, (long) (i % database.getProducts() + 1));
+                entityManager.persist(new OrderItem(order, product, i % 5 + 1, BigDecimal.valueOf(100 + i % 900, 2)));
+                if ((i + 1) % FLUSH_INTERVAL == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.globaltech.inventory.benchmark;
+
+import java.io.BufferedWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.globaltech.inventory.model.domain.product.Product;
+import com.globaltech.inventory.model.repository.inventory.ProductStockRepository;
+import com.globaltech.inventory.model.repository.product.ProductRepository;
+import com.globaltech.inventory.model.service.base.ImportResult;
+import com.globaltech.inventory.model.service.base.OptimisticRetryTemplate;
+import com.globaltech.inventory.model.service.inventory.InventoryCountImportServiceImpl;
+import com.globaltech.inventory.model.service.inventory.ProductStockServiceImpl;
+import com.globaltech.inventory.model.service.inventory.StockLedger;
+import com.globaltech.inventory.model.service.metrics.InventoryCounters;
+import com.globaltech.inventory.model.service.product.ProductImportServiceImpl;
+import com.globaltech.inventory.model.service.product.ProductSearchIndex;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Streaming CSV imports of new products and of cycle counts for existing inventory items,
+ * against building the same new products as entities and saving them with saveAll in one
+ * transaction. Every iteration writes fresh files, so each product import creates new
+ * products and each count import changes every counted quantity. The importers print their
+ * throughput in rows per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ImportBenchmark {
+    
+    private static final int PRODUCTS = 10_000;
+    
+    @Param({"100000"})
+    private int rows;
+    
+    private BenchmarkDatabase database;
+    private TransactionTemplate transactionTemplate;
+    private ProductImportServiceImpl productImportService;
+    private InventoryCountImportServiceImpl countImportService;
+    private Path directory;
+    private Path productsFile;
+    private Path countsFile;
+    private int iteration;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new BenchmarkDatabase(1000, PRODUCTS, new Properties());
+        JpaTransactionManager transactionManager = new JpaTransactionManager(database.getEntityManagerFactory());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        productImportService = new ProductImportServiceImpl(database.getEntityManagerFactory(), transactionManager, 
+                new ProductSearchIndex(), 1000, 0);
+        countImportService = new InventoryCountImportServiceImpl(database.getEntityManagerFactory(), transactionManager, 
+                new OptimisticRetryTemplate(transactionManager, 5, 1, 50), 
+                new ProductStockServiceImpl(database.getRepository(ProductStockRepository.class)), new StockLedger(false, 1), 
+                new InventoryCounters(new SimpleMeterRegistry()), 1000, 0);
+        directory = Files.createTempDirectory("import-benchmark");
+    }
+    
+    @Setup(Level.Iteration)
+    public void writeFiles() throws Exception {
+        iteration++;
+        productsFile = directory.resolve("products-" + iteration + ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(productsFile, StandardCharsets.UTF_8)) {
+            writer.write("sku,name,description,price\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write("IMP-" + iteration + "-" + i + ",Imported product " + i + ",\"Imported, described product " + i + "\","
+                        + BigDecimal.valueOf(100 + i % 900, 2) + "\n");
+            }
+        }
+        countsFile = directory.resolve("counts-" + iteration + ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(countsFile, StandardCharsets.UTF_8)) {
+            writer.write("sku,location,quantity\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write("SKU-" + i % PRODUCTS + ",Location " + i / PRODUCTS % BenchmarkDatabase.LOCATIONS + "," 
+                        + (i + iteration) % 600 + "\n");
+            }
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        productImportService.destroy();
+        countImportService.destroy();
+        database.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+    
+    @Benchmark
+    public ImportResult importProducts() {
+        ImportResult result = productImportService.importProducts(productsFile, directory.resolve("products-errors.csv"));
+        System.out.println(result);
+        return result;
+    }
+    
+    @Benchmark
+    public ImportResult importCounts() {
+        ImportResult result = countImportService.importCounts(countsFile, directory.resolve("counts-errors.csv"));
+        System.out.println(result);
+        return result;
+    }
+    
+    @Benchmark
+    public List<Product> saveAllProducts() {
+        ProductRepository repository = database.getRepository(ProductRepository.class);
+        return transactionTemplate.execute(status -> {
+            List<Product> products = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                Product product = new Product("Saved product " + i, BigDecimal.valueOf(100 + i % 900, 2), null);
+                product.setSku("SAVE-" + iteration + "-" + i);
+                product.setDescription("Saved, described product " + i);
+                products.add(product);
+            }
+            return repository.saveAll(products);
+        });
+    }
+}
@@ -0,0 +1,108 @@
+package com.globaltech.inventory.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.globaltech.inventory.model.domain.inventory.Location;
+import com.globaltech.inventory.model.domain.inventory.StockMovement;
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+import com.globaltech.inventory.model.domain.product.Product;
+import com.globaltech.inventory.model.service.inventory.StockMovementJournal;
+
+/**
+ * Compares inserting stock movements one transaction per row through Hibernate with
+ * appending them to the write-behind journal, and with the durable journal writing each one
+ * in its own transaction. Every variant adds the movements to the rollups, the Hibernate one
+ * through MovementRollupEventListener. Scores are movements per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournalBenchmark {
+    
+    private static final int MOVEMENTS_PER_INVOCATION = 1000;
+    
+    private BenchmarkDatabase database;
+    private EntityManager entityManager;
+    private StockMovementJournal journal;
+    private StockMovementJournal durableJournal;
+    private TransactionTemplate transactionTemplate;
+    private Product product;
+    private Location location;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new BenchmarkDatabase(1000);
+        entityManager = database.getEntityManagerFactory().createEntityManager();
+        product = entityManager.getReference(Product.class, 1L);
+        location = entityManager.getReference(Location.class, 1L);
+        journal = new StockMovementJournal(database.getDataSource(), database.getEntityManagerFactory(), true, false, 500, 5, 65536, 5);
+        journal.afterPropertiesSet();
+        durableJournal = new StockMovementJournal(database.getDataSource(), database.getEntityManagerFactory(), true, true, 500, 5, 65536, 5);
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(database.getEntityManagerFactory()));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        journal.destroy();
+        entityManager.close();
+        database.close();
+    }
+    
+    private StockMovement movement(int i) {
+        StockMovement movement = new StockMovement(product, location, null, i % 50 + 1, MovementType.STOCK_OUT);
+        movement.setReferenceNumber("REF-" + i);
+        return movement;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(MOVEMENTS_PER_INVOCATION)
+    public void perRowInsert() {
+        for (int i = 0; i < MOVEMENTS_PER_INVOCATION; i++) {
+            entityManager.getTransaction().begin();
+            entityManager.persist(movement(i));
+            entityManager.getTransaction().commit();
+        }
+        entityManager.clear();
+        product = entityManager.getReference(Product.class, 1L);
+        location = entityManager.getReference(Location.class, 1L);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(MOVEMENTS_PER_INVOCATION)
+    public void journalAppendAndFlush() {
+        for (int i = 0; i < MOVEMENTS_PER_INVOCATION; i++) {
+            journal.append(movement(i));
+        }
+        journal.flush();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(MOVEMENTS_PER_INVOCATION)
+    public void durableAppendPerTransaction() {
+        for (int i = 0; i < MOVEMENTS_PER_INVOCATION; i++) {
+            StockMovement movement = movement(i);
+            transactionTemplate.executeWithoutResult(status -> durableJournal.append(movement));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.globaltech.inventory.benchmark;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.globaltech.inventory.model.domain.product.Product;
+import com.globaltech.inventory.model.repository.product.ProductRepository;
+import com.globaltech.inventory.model.service.metrics.InventoryMeterRegistry;
+import com.globaltech.inventory.model.service.metrics.MethodMetricsInterceptor;
+import com.globaltech.inventory.model.service.metrics.MetricsBeanPostProcessor;
+
+/**
+ * Overhead of the metrics layer per call. A proxy around an empty lookup, with and without the
+ * method interceptor, isolates the cost of timing a call and counting its rows; the repository
+ * and transaction pairs put that cost next to a real query and an empty read-only transaction,
+ * instrumented by the post-processor the way the application context does. The scrape
+ * benchmark renders the registry holding all of their meters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+    
+    @Param({"1000"})
+    private int products;
+    
+    private BenchmarkDatabase database;
+    private InventoryMeterRegistry meterRegistry;
+    private Lookup plainLookup;
+    private Lookup meteredLookup;
+    private ProductRepository plainRepository;
+    private ProductRepository meteredRepository;
+    private TransactionTemplate plainTransaction;
+    private TransactionTemplate meteredTransaction;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new BenchmarkDatabase(1000, products, new Properties());
+        meterRegistry = new InventoryMeterRegistry();
+        MetricsBeanPostProcessor postProcessor = new MetricsBeanPostProcessor(meterRegistry, true, true);
+        
+        Lookup lookup = key -> Collections.singletonList(key);
+        plainLookup = createProxy(lookup, null);
+        meteredLookup = createProxy(lookup, new MethodMetricsInterceptor(meterRegistry, "service", "Lookup", true));
+        
+        plainRepository = database.getRepository(ProductRepository.class);
+        meteredRepository = (ProductRepository) postProcessor.postProcessAfterInitialization(
+                database.getRepository(ProductRepository.class), "productRepository");
+        
+        plainTransaction = readOnlyTransaction(new JpaTransactionManager(database.getEntityManagerFactory()));
+        meteredTransaction = readOnlyTransaction((PlatformTransactionManager) postProcessor.postProcessAfterInitialization(
+                new JpaTransactionManager(database.getEntityManagerFactory()), "transactionManager"));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+    
+    private String randomSku() {
+        return "SKU-" + ThreadLocalRandom.current().nextInt(products);
+    }
+    
+    @Benchmark
+    public List<String> proxyPlain() {
+        return plainLookup.find(randomSku());
+    }
+    
+    @Benchmark
+    public List<String> proxyMetered() {
+        return meteredLookup.find(randomSku());
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public List<String> proxyMeteredConcurrent() {
+        return meteredLookup.find(randomSku());
+    }
+    
+    @Benchmark
+    public Product repositoryPlain() {
+        return plainRepository.findBySku(randomSku());
+    }
+    
+    @Benchmark
+    public Product repositoryMetered() {
+        return meteredRepository.findBySku(randomSku());
+    }
+    
+    @Benchmark
+    public Object transactionPlain() {
+        return plainTransaction.execute(status -> status);
+    }
+    
+    @Benchmark
+    public Object transactionMetered() {
+        return meteredTransaction.execute(status -> status);
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String scrape() {
+        return meterRegistry.scrape();
+    }
+    
+    private static Lookup createProxy(Lookup target, MethodMetricsInterceptor interceptor) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setInterfaces(Lookup.class);
+        if (interceptor != null) {
+            proxyFactory.addAdvice(interceptor);
+        }
+        return (Lookup) proxyFactory.getProxy();
+    }
+    
+    private static TransactionTemplate readOnlyTransaction(PlatformTransactionManager transactionManager) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate;
+    }
+    
+    /**
+     * Stand-in for a repository method returning rows
+     */
+    public interface Lookup {
+        
+        List<String> find(String key);
+    }
+}
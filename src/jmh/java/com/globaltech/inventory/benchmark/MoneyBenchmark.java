@@ -0,0 +1,73 @@
+package com.globaltech.inventory.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.globaltech.inventory.model.domain.order.Order;
+import com.globaltech.inventory.model.domain.order.OrderItem;
+
+/**
+ * Compares the BigDecimal pricing path with the minor unit (long cents) path.
+ * Run with -prof gc to compare the allocation rate per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+    
+    @Param({"10", "1000"})
+    private int lines;
+    
+    private Order order;
+    private OrderItem orderItem;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        order = new Order("ORD-1", "Customer");
+        order.setTax(new BigDecimal("12.50"));
+        order.setShippingCost(new BigDecimal("4.99"));
+        for (int i = 0; i < lines; i++) {
+            order.addItem(new OrderItem(null, null, i % 5 + 1, BigDecimal.valueOf(100 + i % 900, 2)));
+        }
+        orderItem = new OrderItem(null, null, 3, new BigDecimal("19.99"));
+    }
+    
+    @Benchmark
+    public BigDecimal orderTotalsBigDecimal() {
+        order.calculateTotals();
+        return order.getTotal();
+    }
+    
+    @Benchmark
+    public BigDecimal orderTotalsMinorUnits() {
+        order.calculateTotalsMinorUnits();
+        return order.getTotal();
+    }
+    
+    @Benchmark
+    public BigDecimal orderItemSubtotalBigDecimal() {
+        orderItem.calculateSubtotal();
+        return orderItem.getSubtotal();
+    }
+    
+    @Benchmark
+    public long orderItemSubtotalMinorUnits() {
+        return orderItem.calculateSubtotalMinorUnits();
+    }
+}
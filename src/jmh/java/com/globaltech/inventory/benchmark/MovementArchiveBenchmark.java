@@ -0,0 +1,195 @@
+package com.globaltech.inventory.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.globaltech.inventory.model.domain.inventory.MovementTypeQuantity;
+import com.globaltech.inventory.model.domain.inventory.ProductQuantity;
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+import com.globaltech.inventory.model.repository.inventory.StockMovementRepository;
+import com.globaltech.inventory.model.service.inventory.MovementArchive;
+import com.globaltech.inventory.model.service.inventory.StockMovementArchiveService;
+import com.globaltech.inventory.model.service.inventory.StockMovementArchiveServiceImpl;
+
+/**
+ * One-year movement totals read from a database holding every movement versus from a copy
+ * whose movements older than 30 days have been moved into the columnar archive. The seeded
+ * movements are one minute apart, so the year spans about 480,000 archived and 43,000 live
+ * movements. Setup checks that the copy gives the same totals before and after archiving.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class MovementArchiveBenchmark {
+    
+    @Param({"1000000"})
+    private int rows;
+    
+    @Param({"20"})
+    private int products;
+    
+    private BenchmarkDatabase liveDatabase;
+    private BenchmarkDatabase archivedDatabase;
+    private Path archiveDirectory;
+    private StockMovementRepository liveRepository;
+    private TransactionTemplate liveTransactionTemplate;
+    private StockMovementArchiveService archiveService;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        liveDatabase = new BenchmarkDatabase(rows, products, new Properties());
+        liveRepository = liveDatabase.getRepository(StockMovementRepository.class);
+        liveTransactionTemplate = new TransactionTemplate(new JpaTransactionManager(liveDatabase.getEntityManagerFactory()));
+        liveTransactionTemplate.setReadOnly(true);
+        
+        archivedDatabase = new BenchmarkDatabase(rows, products, new Properties());
+        archiveDirectory = Files.createTempDirectory("movement-archive");
+        MovementArchive archive = new MovementArchive(archiveDirectory.toString());
+        archive.afterPropertiesSet();
+        archiveService = new StockMovementArchiveServiceImpl(archivedDatabase.getRepository(StockMovementRepository.class), 
+                archive, new JpaTransactionManager(archivedDatabase.getEntityManagerFactory()), 30, 7);
+        
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime[][] ranges = {
+            {now.minusDays(365), now}, 
+            {now.minusDays(400).plusMinutes(7), now.minusDays(40)}, 
+            {now.minusDays(31), now.minusDays(29)}
+        };
+        StockMovementRepository archivedRepository = archivedDatabase.getRepository(StockMovementRepository.class);
+        TransactionTemplate archivedTransactionTemplate = new TransactionTemplate(
+                new JpaTransactionManager(archivedDatabase.getEntityManagerFactory()));
+        List<Object> expected = new ArrayList<>();
+        for (LocalDateTime[] range : ranges) {
+            for (MovementType movementType : MovementType.values()) {
+                expected.add(totalsByProduct(archivedRepository, archivedTransactionTemplate, movementType, range[0], range[1]));
+            }
+            for (long productId = 1; productId <= products; productId++) {
+                expected.add(totalsByType(archivedRepository, archivedTransactionTemplate, productId, range[0], range[1]));
+            }
+        }
+        
+        long start = System.nanoTime();
+        long archived = archiveService.archive();
+        long bytes;
+        try (Stream<Path> files = Files.list(archiveDirectory)) {
+            bytes = files.mapToLong(file -> file.toFile().length()).sum();
+        }
+        System.out.println("Archived " + archived + " movements into " + bytes + " bytes (" 
+                + String.format("%.1f", bytes / (double) archived) + " bytes per movement) in " 
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        
+        Iterator<Object> totals = expected.iterator();
+        for (LocalDateTime[] range : ranges) {
+            for (MovementType movementType : MovementType.values()) {
+                check(totals.next(), archiveService.getTotalQuantitiesByProduct(movementType, range[0], range[1]), 
+                        movementType + " from " + range[0]);
+            }
+            for (long productId = 1; productId <= products; productId++) {
+                check(totals.next(), archiveService.getTotalQuantities(productId, range[0], range[1]), 
+                        "product " + productId + " from " + range[0]);
+            }
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        liveDatabase.close();
+        archivedDatabase.close();
+        try (Stream<Path> files = Files.walk(archiveDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+    
+    @Benchmark
+    public Map<Long, Long> yearTotalsByProductFromLiveTable() {
+        LocalDateTime to = LocalDateTime.now();
+        return totalsByProduct(liveRepository, liveTransactionTemplate, randomMovementType(), to.minusDays(365), to);
+    }
+    
+    @Benchmark
+    public Map<Long, Long> yearTotalsByProductFromArchive() {
+        LocalDateTime to = LocalDateTime.now();
+        return archiveService.getTotalQuantitiesByProduct(randomMovementType(), to.minusDays(365), to);
+    }
+    
+    @Benchmark
+    public Map<MovementType, Long> yearTotalsByTypeFromLiveTable() {
+        LocalDateTime to = LocalDateTime.now();
+        return totalsByType(liveRepository, liveTransactionTemplate, ThreadLocalRandom.current().nextInt(products) + 1L, 
+                to.minusDays(365), to);
+    }
+    
+    @Benchmark
+    public Map<MovementType, Long> yearTotalsByTypeFromArchive() {
+        LocalDateTime to = LocalDateTime.now();
+        return archiveService.getTotalQuantities(ThreadLocalRandom.current().nextInt(products) + 1L, to.minusDays(365), to);
+    }
+    
+    private static void check(Object expected, Object archived, String description) {
+        if (!expected.equals(archived)) {
+            throw new IllegalStateException("Totals " + archived + " after archiving differ from " + expected 
+                    + " before for " + description);
+        }
+    }
+    
+    private static Map<Long, Long> totalsByProduct(StockMovementRepository repository, TransactionTemplate transactionTemplate, 
+                                                   MovementType movementType, LocalDateTime from, LocalDateTime to) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, Long> totals = new HashMap<>();
+            for (ProductQuantity quantity : repository.summarizeByProduct(movementType, from, to)) {
+                totals.put(quantity.getProductId(), quantity.getTotalQuantity());
+            }
+            return totals;
+        });
+    }
+    
+    private static Map<MovementType, Long> totalsByType(StockMovementRepository repository, TransactionTemplate transactionTemplate, 
+                                                        Long productId, LocalDateTime from, LocalDateTime to) {
+        return transactionTemplate.execute(status -> {
+            Map<MovementType, Long> totals = new EnumMap<>(MovementType.class);
+            for (MovementType movementType : MovementType.values()) {
+                totals.put(movementType, 0L);
+            }
+            for (MovementTypeQuantity quantity : repository.summarizeByMovementType(productId, null, from, to)) {
+                totals.merge(quantity.getMovementType(), quantity.getTotalQuantity(), Long::sum);
+            }
+            return totals;
+        });
+    }
+    
+    private static MovementType randomMovementType() {
+        MovementType[] movementTypes = MovementType.values();
+        return movementTypes[ThreadLocalRandom.current().nextInt(movementTypes.length)];
+    }
+}
@@ -0,0 +1,116 @@
+package com.globaltech.inventory.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import com.globaltech.inventory.model.domain.inventory.MovementTypeQuantity;
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+import com.globaltech.inventory.model.repository.inventory.DailyMovementRollupRepository;
+import com.globaltech.inventory.model.repository.inventory.HourlyMovementRollupRepository;
+import com.globaltech.inventory.model.repository.inventory.StockMovementRepository;
+import com.globaltech.inventory.model.service.inventory.MovementArchive;
+import com.globaltech.inventory.model.service.inventory.StockMovementRollupService;
+import com.globaltech.inventory.model.service.inventory.StockMovementRollupServiceImpl;
+
+/**
+ * One-year movement totals for a product summed from the raw movements versus answered from
+ * the hourly and daily rollups. The seeded movements are one minute apart, so a year holds
+ * about 525,000 of them. Setup backfills the rollups and checks both paths agree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class MovementRollupBenchmark {
+    
+    @Param({"1000000"})
+    private int rows;
+    
+    @Param({"20"})
+    private int products;
+    
+    private BenchmarkDatabase database;
+    private StockMovementRepository stockMovementRepository;
+    private StockMovementRollupService rollupService;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new BenchmarkDatabase(rows, products, new Properties());
+        stockMovementRepository = database.getRepository(StockMovementRepository.class);
+        // An archive that is never opened is empty, every movement stays in the table
+        rollupService = new StockMovementRollupServiceImpl(stockMovementRepository, new MovementArchive("movement-archive"),
+                database.getRepository(HourlyMovementRollupRepository.class),
+                database.getRepository(DailyMovementRollupRepository.class),
+                new JpaTransactionManager(database.getEntityManagerFactory()), 2);
+        
+        long start = System.nanoTime();
+        int rollups = rollupService.rollUp();
+        System.out.println("Backfilled " + rollups + " rollups in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        
+        LocalDateTime to = LocalDateTime.now();
+        for (long productId = 1; productId <= products; productId++) {
+            for (LocalDateTime from : new LocalDateTime[] {to.minusDays(365).plusMinutes(17), to.minusHours(30)}) {
+                Map<MovementType, Long> raw = sum(stockMovementRepository.summarizeByMovementType(productId, null, from, to));
+                Map<MovementType, Long> rolledUp = rollupService.getTotalQuantities(productId, null, from, to);
+                if (!raw.equals(rolledUp)) {
+                    throw new IllegalStateException("Rollup totals " + rolledUp + " differ from raw totals " + raw
+                            + " for product " + productId + " from " + from);
+                }
+            }
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+    
+    @Benchmark
+    public List<MovementTypeQuantity> yearTotalsFromRawMovements() {
+        LocalDateTime to = LocalDateTime.now();
+        return stockMovementRepository.summarizeByMovementType(randomProductId(), null, to.minusDays(365), to);
+    }
+    
+    @Benchmark
+    public Map<MovementType, Long> yearTotalsFromRollups() {
+        LocalDateTime to = LocalDateTime.now();
+        return rollupService.getTotalQuantities(randomProductId(), null, to.minusDays(365), to);
+    }
+    
+    private long randomProductId() {
+        return ThreadLocalRandom.current().nextInt(products) + 1;
+    }
+    
+    private static Map<MovementType, Long> sum(List<MovementTypeQuantity> quantities) {
+        Map<MovementType, Long> totals = new EnumMap<>(MovementType.class);
+        for (MovementType movementType : MovementType.values()) {
+            totals.put(movementType, 0L);
+        }
+        for (MovementTypeQuantity quantity : quantities) {
+            totals.merge(quantity.getMovementType(), quantity.getTotalQuantity(), Long::sum);
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,129 @@
+package com.globaltech.inventory.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.globaltech.inventory.model.domain.inventory.InventoryItem;
+import com.globaltech.inventory.model.repository.inventory.InventoryRepository;
+import com.globaltech.inventory.model.repository.inventory.ProductStockRepository;
+import com.globaltech.inventory.model.repository.inventory.StockMovementRepository;
+import com.globaltech.inventory.model.service.base.OptimisticRetryTemplate;
+import com.globaltech.inventory.model.service.inventory.InventoryServiceImpl;
+import com.globaltech.inventory.model.service.inventory.ProductStockServiceImpl;
+import com.globaltech.inventory.model.service.inventory.StockLedger;
+import com.globaltech.inventory.model.service.inventory.StockMovementJournal;
+import com.globaltech.inventory.model.service.metrics.InventoryCounters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Concurrent read-modify-write of a few hot inventory items, either through the optimistic
+ * retry of InventoryService.update or under a pessimistic SELECT ... FOR UPDATE row lock. The
+ * attempts, conflicts and exhausted retries of the optimistic runs are reported per second next
+ * to the updates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class OptimisticRetryBenchmark {
+    
+    @Param({"1", "16", "256"})
+    private int hotItems;
+    
+    private BenchmarkDatabase database;
+    private InventoryRepository inventoryRepository;
+    private TransactionTemplate transactionTemplate;
+    private InventoryServiceImpl inventoryService;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new BenchmarkDatabase(1000);
+        JpaTransactionManager transactionManager = new JpaTransactionManager(database.getEntityManagerFactory());
+        inventoryRepository = database.getRepository(InventoryRepository.class);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        OptimisticRetryTemplate retryTemplate = new OptimisticRetryTemplate(transactionManager, 10, 1, 50);
+        inventoryService = new InventoryServiceImpl(inventoryRepository, database.getRepository(StockMovementRepository.class),
+                new StockMovementJournal(database.getDataSource(), database.getEntityManagerFactory(), false, true, 500, 20, 65536, 5),
+                new ProductStockServiceImpl(database.getRepository(ProductStockRepository.class)), retryTemplate,
+                new StockLedger(false, 1), new InventoryCounters(new SimpleMeterRegistry()));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+    
+    @Benchmark
+    public InventoryItem optimisticUpdate(Contention contention) {
+        long attempts = contention.attempts;
+        try {
+            InventoryItem updated = inventoryService.update(hotItemId(), item -> {
+                contention.attempts++;
+                item.setReorderPoint(item.getReorderPoint() + 1);
+            });
+            contention.conflicts += contention.attempts - attempts - 1;
+            return updated;
+        } catch (OptimisticLockingFailureException e) {
+            contention.conflicts += contention.attempts - attempts;
+            contention.exhausted++;
+            return null;
+        }
+    }
+    
+    @Benchmark
+    public InventoryItem pessimisticUpdate() {
+        return transactionTemplate.execute(status -> {
+            Long id = hotItemId();
+            InventoryItem item = inventoryRepository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new IllegalStateException("Inventory item not found: " + id));
+            item.setReorderPoint(item.getReorderPoint() + 1);
+            return item;
+        });
+    }
+    
+    private Long hotItemId() {
+        return (long) ThreadLocalRandom.current().nextInt(hotItems) + 1;
+    }
+    
+    /**
+     * Update attempts, conflicts and exhausted retries of one thread, reported per second
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Contention {
+        
+        public long attempts;
+        public long conflicts;
+        public long exhausted;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            attempts = 0;
+            conflicts = 0;
+            exhausted = 0;
+        }
+    }
+}
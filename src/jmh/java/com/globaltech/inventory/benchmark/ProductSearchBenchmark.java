@@ -0,0 +1,124 @@
+package com.globaltech.inventory.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.globaltech.inventory.model.domain.product.Product;
+import com.globaltech.inventory.model.repository.product.ProductRepository;
+import com.globaltech.inventory.model.service.product.ProductSearchIndex;
+import com.globaltech.inventory.model.service.product.ProductSearchResult;
+
+/**
+ * Search latency of the in-memory product index against the LIKE query, reported as
+ * percentiles. The same generated catalogue is loaded into the index and the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductSearchBenchmark {
+    
+    private static final String[] ADJECTIVES = {"compact", "heavy", "portable", "wireless", "industrial", "premium", 
+        "classic", "modern", "rugged", "slim", "deluxe", "ergonomic", "foldable", "adjustable", "digital", "manual"};
+    private static final String[] MATERIALS = {"steel", "aluminium", "oak", "bamboo", "plastic", "leather", "glass", 
+        "ceramic", "copper", "titanium", "cotton", "rubber"};
+    private static final String[] NOUNS = {"widget", "bracket", "hammer", "drill", "lamp", "chair", "desk", "shelf", 
+        "cable", "adapter", "kettle", "blender", "backpack", "bottle", "monitor", "keyboard", "speaker", "router", 
+        "stapler", "organizer"};
+    private static final String[] COLOURS = {"black", "white", "blue", "red", "green", "grey", "silver", "yellow"};
+    private static final String[] FILLER = {"durable", "design", "for", "home", "and", "office", "use", "with", 
+        "easy", "assembly", "warranty", "included", "lightweight", "finish", "suitable", "daily", "professional", 
+        "quality", "reliable", "performance"};
+    
+    private static final int PAGE_SIZE = 20;
+    
+    @Param({"1000000"})
+    private int products;
+    
+    @Param({"widget", "blue stee", "wdiget", "SKU-0004242"})
+    private String query;
+    
+    private BenchmarkDatabase database;
+    private ProductRepository productRepository;
+    private ProductSearchIndex index;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new BenchmarkDatabase(1000);
+        productRepository = database.getRepository(ProductRepository.class);
+        index = new ProductSearchIndex();
+        
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Random random = new Random(42);
+        try (Connection connection = database.getDataSource().getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO products (id, name, description, " +
+                    "price, sku, category_id, supplier_id, created_date) VALUES (?, ?, ?, ?, ?, 1, 1, ?)")) {
+                for (int i = database.getProducts(); i < products; i++) {
+                    long id = i + 1;
+                    String name = pick(random, ADJECTIVES) + " " + pick(random, COLOURS) + " " + pick(random, MATERIALS) + 
+                            " " + pick(random, NOUNS);
+                    StringBuilder description = new StringBuilder();
+                    for (int word = 0; word < 12; word++) {
+                        description.append(word > 0 ? " " : "").append(pick(random, word % 4 == 0 ? MATERIALS : FILLER));
+                    }
+                    String sku = String.format("SKU-%07d", id);
+                    statement.setLong(1, id);
+                    statement.setString(2, name);
+                    statement.setString(3, description.toString());
+                    statement.setBigDecimal(4, BigDecimal.valueOf(100 + i % 900, 2));
+                    statement.setString(5, sku);
+                    statement.setTimestamp(6, now);
+                    statement.addBatch();
+                    if ((i + 1) % 1000 == 0) {
+                        statement.executeBatch();
+                    }
+                    index.index(id, name, description.toString(), sku);
+                }
+                statement.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+    
+    private static String pick(Random random, String[] words) {
+        return words[random.nextInt(words.length)];
+    }
+    
+    @Benchmark
+    public ProductSearchResult indexSearch() {
+        return index.search(query, 0, PAGE_SIZE);
+    }
+    
+    @Benchmark
+    public List<Product> sqlLikeSearch() {
+        return productRepository.searchByNameOrDescription(query);
+    }
+}
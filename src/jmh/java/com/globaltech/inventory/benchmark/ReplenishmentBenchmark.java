@@ -0,0 +1,72 @@
+package com.globaltech.inventory.benchmark;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import com.globaltech.inventory.model.repository.inventory.InventoryRepository;
+import com.globaltech.inventory.model.repository.inventory.ProductStockRepository;
+import com.globaltech.inventory.model.repository.inventory.StockMovementRepository;
+import com.globaltech.inventory.model.service.inventory.ReplenishmentServiceImpl;
+import com.globaltech.inventory.model.service.inventory.SupplierReplenishment;
+
+/**
+ * Full replenishment plan over products * 10 inventory items, e.g. -p products=100000 for
+ * one million items, with one worker per location up to the configured parallelism.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ReplenishmentBenchmark {
+    
+    @Param({"100000"})
+    private int products;
+    
+    @Param({"1", "4"})
+    private int parallelism;
+    
+    private BenchmarkDatabase database;
+    private ReplenishmentServiceImpl replenishmentService;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new BenchmarkDatabase(1_000_000, products, new Properties());
+        replenishmentService = new ReplenishmentServiceImpl(database.getRepository(InventoryRepository.class),
+                database.getRepository(StockMovementRepository.class), database.getRepository(ProductStockRepository.class),
+                new JpaTransactionManager(database.getEntityManagerFactory()), 30, 7, parallelism);
+        
+        List<SupplierReplenishment> plan = replenishmentService.plan();
+        long suggestions = plan.stream().mapToLong(supplier -> supplier.getSuggestions().size()).sum();
+        System.out.println(plan.size() + " suppliers, " + suggestions + " suggestions for "
+                + products * BenchmarkDatabase.LOCATIONS + " inventory items");
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        replenishmentService.destroy();
+        database.close();
+    }
+    
+    @Benchmark
+    public List<SupplierReplenishment> plan() {
+        return replenishmentService.plan();
+    }
+}
@@ -0,0 +1,173 @@
+package com.globaltech.inventory.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.globaltech.inventory.model.domain.inventory.InventoryItem;
+import com.globaltech.inventory.model.domain.inventory.ProductStock;
+import com.globaltech.inventory.model.domain.inventory.StockMovement;
+import com.globaltech.inventory.model.domain.order.Order;
+import com.globaltech.inventory.model.domain.order.OrderItem;
+import com.globaltech.inventory.model.domain.order.OrderStatus;
+import com.globaltech.inventory.model.domain.order.ProductSales;
+import com.globaltech.inventory.model.domain.order.ProductSalesSummary;
+import com.globaltech.inventory.model.repository.inventory.InventoryRepository;
+import com.globaltech.inventory.model.repository.inventory.ProductStockRepository;
+import com.globaltech.inventory.model.repository.inventory.StockMovementRepository;
+import com.globaltech.inventory.model.repository.order.OrderItemRepository;
+import com.globaltech.inventory.model.repository.order.OrderRepository;
+import com.globaltech.inventory.model.repository.order.ProductSalesRepository;
+
+/**
+ * Benchmarks for the main repository queries against an embedded H2 database.
+ * The data volume is controlled by the number of stock movements, e.g. -p rows=1000000.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+    
+    private static final int PAGE_SIZE = 100;
+    
+    @Param({"10000"})
+    private int rows;
+    
+    private BenchmarkDatabase database;
+    private InventoryRepository inventoryRepository;
+    private StockMovementRepository stockMovementRepository;
+    private OrderRepository orderRepository;
+    private OrderItemRepository orderItemRepository;
+    private ProductSalesRepository productSalesRepository;
+    private ProductStockRepository productStockRepository;
+    private LocalDateTime keysetDate;
+    private Long keysetId;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new BenchmarkDatabase(rows);
+        inventoryRepository = database.getRepository(InventoryRepository.class);
+        stockMovementRepository = database.getRepository(StockMovementRepository.class);
+        orderRepository = database.getRepository(OrderRepository.class);
+        orderItemRepository = database.getRepository(OrderItemRepository.class);
+        productSalesRepository = database.getRepository(ProductSalesRepository.class);
+        productStockRepository = database.getRepository(ProductStockRepository.class);
+        
+        StockMovement middle = stockMovementRepository.findById((long) rows / 2).get();
+        keysetDate = middle.getMovementDate();
+        keysetId = middle.getId();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+    
+    private long randomProductId() {
+        return ThreadLocalRandom.current().nextInt(database.getProducts()) + 1;
+    }
+    
+    private long randomOrderId() {
+        return ThreadLocalRandom.current().nextInt(database.getOrders()) + 1;
+    }
+    
+    @Benchmark
+    public InventoryItem inventoryFindByProductIdAndLocationId() {
+        long locationId = ThreadLocalRandom.current().nextInt(BenchmarkDatabase.LOCATIONS) + 1;
+        return inventoryRepository.findByProductIdAndLocationId(randomProductId(), locationId).orElse(null);
+    }
+    
+    @Benchmark
+    public int inventoryGetTotalQuantityByProductId() {
+        return inventoryRepository.getTotalQuantityByProductId(randomProductId());
+    }
+    
+    @Benchmark
+    public long productStockAvailableByProductId() {
+        return productStockRepository.findByProductId(randomProductId()).map(ProductStock::getAvailable).orElse(0L);
+    }
+    
+    @Benchmark
+    public List<InventoryItem> inventoryFindItemsNeedingReorder() {
+        return inventoryRepository.findItemsNeedingReorder();
+    }
+    
+    @Benchmark
+    public List<StockMovement> stockMovementFindMostRecentMovementsForProduct() {
+        return stockMovementRepository.findMostRecentMovementsForProduct(randomProductId());
+    }
+    
+    @Benchmark
+    public Integer stockMovementGetTotalQuantityByProductAndMovementType() {
+        return stockMovementRepository.getTotalQuantityByProductAndMovementType(randomProductId(), 
+                StockMovement.MovementType.STOCK_OUT);
+    }
+    
+    @Benchmark
+    public List<StockMovement> stockMovementOffsetPageFromMiddle() {
+        int page = database.getMovements() / 2 / PAGE_SIZE;
+        return stockMovementRepository.findAll(PageRequest.of(page, PAGE_SIZE, Sort.by("movementDate", "id"))).getContent();
+    }
+    
+    @Benchmark
+    public List<StockMovement> stockMovementKeysetPageFromMiddle() {
+        return stockMovementRepository.findByMovementDateAfter(keysetDate, keysetId, LocalDateTime.now(), 
+                PageRequest.of(0, PAGE_SIZE));
+    }
+    
+    @Benchmark
+    public List<Order> orderFindByStatusAndOrderDateBetween() {
+        LocalDateTime end = LocalDateTime.now();
+        return orderRepository.findByStatusAndOrderDateBetween(OrderStatus.PENDING, end.minusHours(1), end);
+    }
+    
+    @Benchmark
+    public long orderCountByStatus() {
+        return orderRepository.countByStatus(OrderStatus.PENDING);
+    }
+    
+    @Benchmark
+    public List<OrderItem> orderItemFindByOrderId() {
+        return orderItemRepository.findByOrderId(randomOrderId());
+    }
+    
+    @Benchmark
+    public List<ProductSalesSummary> orderItemFindTopSellingProductsByQuantity() {
+        return orderItemRepository.findTopSellingProductsByQuantity(10);
+    }
+    
+    @Benchmark
+    public List<ProductSalesSummary> orderItemFindTopSellingProductsByRevenue() {
+        return orderItemRepository.findTopSellingProductsByRevenue(10);
+    }
+    
+    @Benchmark
+    public List<ProductSales> productSalesFindTopByQuantity() {
+        return productSalesRepository.findTopByQuantity(10);
+    }
+    
+    @Benchmark
+    public List<ProductSales> productSalesFindTopByRevenue() {
+        return productSalesRepository.findTopByRevenue(10);
+    }
+}
@@ -0,0 +1,162 @@
+package com.globaltech.inventory.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import com.globaltech.inventory.model.repository.inventory.InventoryRepository;
+import com.globaltech.inventory.model.repository.inventory.ProductStockRepository;
+import com.globaltech.inventory.model.repository.inventory.StockMovementRepository;
+import com.globaltech.inventory.model.service.base.OptimisticRetryTemplate;
+import com.globaltech.inventory.model.service.inventory.InventoryService;
+import com.globaltech.inventory.model.service.inventory.InventoryServiceImpl;
+import com.globaltech.inventory.model.service.inventory.ProductStockServiceImpl;
+import com.globaltech.inventory.model.service.inventory.StockLedger;
+import com.globaltech.inventory.model.service.inventory.StockLedgerLoader;
+import com.globaltech.inventory.model.service.inventory.StockMovementJournal;
+import com.globaltech.inventory.model.service.metrics.InventoryCounters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Concurrency test of reservations: dozens of threads reserving one unit each of the same SKU
+ * at the same location through the transactional InventoryService, with and without the stock
+ * ledger in front of the database. Every thread makes a fixed number of attempts per
+ * iteration, and the stock is smaller than all attempts together, so every iteration sells
+ * out and refuses the rest; the score is the time the whole iteration took.
+ * 
+ * After every iteration the stored quantity, the granted and refused reservations and the
+ * STOCK_OUT movements are checked against each other, and the run fails if any stock was
+ * oversold or lost, or if no reservation was refused.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, batchSize = ReservationBenchmark.ATTEMPTS_PER_THREAD)
+@Measurement(iterations = 5, batchSize = ReservationBenchmark.ATTEMPTS_PER_THREAD)
+@Threads(ReservationBenchmark.THREADS)
+@Fork(1)
+public class ReservationBenchmark {
+    
+    static final int THREADS = 32;
+    static final int ATTEMPTS_PER_THREAD = 50;
+    
+    private static final long PRODUCT_ID = 1;
+    private static final long LOCATION_ID = 1;
+    private static final String REFERENCE_NUMBER = "RESERVATION-BENCHMARK";
+    
+    /** Half of the attempts of an iteration at the default thread count */
+    @Param({"800"})
+    private int stock;
+    
+    @Param({"false", "true"})
+    private boolean ledger;
+    
+    private BenchmarkDatabase database;
+    private InventoryService inventoryService;
+    private StockLedgerLoader stockLedgerLoader;
+    private final LongAdder granted = new LongAdder();
+    private final LongAdder refused = new LongAdder();
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new BenchmarkDatabase(1000, 100, new Properties());
+        JpaTransactionManager transactionManager = new JpaTransactionManager(database.getEntityManagerFactory());
+        InventoryRepository inventoryRepository = database.getRepository(InventoryRepository.class);
+        StockLedger stockLedger = new StockLedger(ledger, 64);
+        stockLedgerLoader = new StockLedgerLoader(stockLedger, inventoryRepository, transactionManager);
+        inventoryService = database.createTransactionalService(new InventoryServiceImpl(inventoryRepository,
+                database.getRepository(StockMovementRepository.class),
+                new StockMovementJournal(database.getDataSource(), database.getEntityManagerFactory(), false, true, 500, 20, 65536, 5),
+                new ProductStockServiceImpl(database.getRepository(ProductStockRepository.class)),
+                new OptimisticRetryTemplate(transactionManager, 5, 1, 50), stockLedger,
+                new InventoryCounters(new SimpleMeterRegistry())),
+                InventoryService.class, transactionManager);
+    }
+    
+    @Setup(Level.Iteration)
+    public void resetStock() throws SQLException {
+        try (Connection connection = database.getDataSource().getConnection()) {
+            execute(connection, "UPDATE inventory_items SET quantity = " + stock + " WHERE product_id = " + PRODUCT_ID +
+                    " AND location_id = " + LOCATION_ID);
+            execute(connection, "DELETE FROM stock_movements WHERE reference_number = '" + REFERENCE_NUMBER + "'");
+        }
+        if (ledger) {
+            stockLedgerLoader.load();
+        }
+        granted.reset();
+        refused.reset();
+    }
+    
+    /**
+     * Fail the run if the granted reservations do not add up to the stock taken, took more than
+     * there was, or did not take all of it although attempts were refused
+     */
+    @TearDown(Level.Iteration)
+    public void checkNotOversold() throws SQLException {
+        long quantity;
+        long movements;
+        try (Connection connection = database.getDataSource().getConnection()) {
+            quantity = queryLong(connection, "SELECT quantity FROM inventory_items WHERE product_id = " + PRODUCT_ID +
+                    " AND location_id = " + LOCATION_ID);
+            movements = queryLong(connection, "SELECT COUNT(*) FROM stock_movements WHERE reference_number = '" +
+                    REFERENCE_NUMBER + "' AND movement_type = 'STOCK_OUT'");
+        }
+        long reserved = granted.sum();
+        long refusals = refused.sum();
+        if (quantity < 0 || reserved > stock || stock - reserved != quantity || movements != reserved) {
+            throw new IllegalStateException("Stock oversold or lost: started with " + stock + ", granted " + reserved +
+                    " reservations, " + quantity + " left, " + movements + " movements");
+        }
+        if (refusals == 0 || quantity != 0) {
+            throw new IllegalStateException("Stock did not run out: started with " + stock + ", granted " + reserved +
+                    " and refused " + refusals + " reservations, " + quantity + " left; use a stock below the " +
+                    (reserved + refusals) + " attempts");
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+    
+    @Benchmark
+    public boolean reserveStock() {
+        boolean reserved = inventoryService.reserveStock(PRODUCT_ID, LOCATION_ID, 1, REFERENCE_NUMBER);
+        (reserved ? granted : refused).increment();
+        return reserved;
+    }
+    
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.executeUpdate();
+        }
+    }
+    
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql); ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.globaltech.inventory.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.globaltech.inventory.model.domain.inventory.InventorySnapshot;
+import com.globaltech.inventory.model.repository.inventory.InventoryRepository;
+import com.globaltech.inventory.model.repository.inventory.InventorySnapshotItemRepository;
+import com.globaltech.inventory.model.repository.inventory.InventorySnapshotRepository;
+import com.globaltech.inventory.model.repository.inventory.StockMovementRepository;
+import com.globaltech.inventory.model.service.inventory.InventorySnapshotService;
+import com.globaltech.inventory.model.service.inventory.InventorySnapshotServiceImpl;
+import com.globaltech.inventory.model.service.inventory.MovementArchive;
+
+/**
+ * Stock of a product at a location as of now, answered from a snapshot taken a month ago plus
+ * the movements since versus by replaying every movement. The seeded movements are one minute
+ * apart, so a month holds about 43,000 of them. Setup sets the inventory to the replayed stock
+ * as of now and snapshots it with a settle period of a month, so the snapshot takes the last
+ * month of movements back out, then checks both paths agree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SnapshotReplayBenchmark {
+    
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1000, 1, 1, 0, 0);
+    
+    @Param({"1000000"})
+    private int rows;
+    
+    @Param({"20"})
+    private int products;
+    
+    private BenchmarkDatabase database;
+    private StockMovementRepository stockMovementRepository;
+    private InventorySnapshotService snapshotService;
+    private TransactionTemplate transactionTemplate;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new BenchmarkDatabase(rows, products, new Properties());
+        stockMovementRepository = database.getRepository(StockMovementRepository.class);
+        JpaTransactionManager transactionManager = new JpaTransactionManager(database.getEntityManagerFactory());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        // An archive that is never opened is empty, every movement stays in the table
+        snapshotService = new InventorySnapshotServiceImpl(database.getRepository(InventoryRepository.class),
+                stockMovementRepository, new MovementArchive("movement-archive"), 
+                database.getRepository(InventorySnapshotRepository.class),
+                database.getRepository(InventorySnapshotItemRepository.class), database.getDataSource(),
+                transactionManager, 1000, (int) TimeUnit.DAYS.toSeconds(30));
+        
+        LocalDateTime now = LocalDateTime.now();
+        try (Connection connection = database.getDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "UPDATE inventory_items SET quantity = ? WHERE product_id = ? AND location_id = ?")) {
+            for (long productId = 1; productId <= products; productId++) {
+                for (long locationId = 1; locationId <= BenchmarkDatabase.LOCATIONS; locationId++) {
+                    statement.setLong(1, replay(productId, locationId, now));
+                    statement.setLong(2, productId);
+                    statement.setLong(3, locationId);
+                    statement.addBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+        long start = System.nanoTime();
+        InventorySnapshot snapshot = snapshotService.takeSnapshot();
+        System.out.println("Snapshot of " + snapshot.getItemCount() + " items taken in " 
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        
+        for (LocalDateTime asOf : new LocalDateTime[] {now, now.minusDays(10), now.minusDays(90)}) {
+            for (long productId = 1; productId <= products; productId++) {
+                Map<Long, Long> replayed = new HashMap<>();
+                for (long locationId = 1; locationId <= BenchmarkDatabase.LOCATIONS; locationId++) {
+                    long expected = replay(productId, locationId, asOf);
+                    long fromSnapshot = snapshotService.getQuantityAsOf(productId, locationId, asOf);
+                    if (expected != fromSnapshot) {
+                        throw new IllegalStateException("Stock of product " + productId + " at location " + locationId 
+                                + " as of " + asOf + " is " + fromSnapshot + " from the snapshot but " + expected + " replayed");
+                    }
+                    replayed.put(locationId, expected);
+                }
+                Map<Long, Long> fromSnapshot = snapshotService.getQuantitiesAsOf(productId, asOf);
+                fromSnapshot.values().removeIf(quantity -> quantity == 0);
+                replayed.values().removeIf(quantity -> quantity == 0);
+                if (!replayed.equals(fromSnapshot)) {
+                    throw new IllegalStateException("Stock of product " + productId + " as of " + asOf + " is " 
+                            + fromSnapshot + " from the snapshot but " + replayed + " replayed");
+                }
+            }
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+    
+    @Benchmark
+    public long stockAsOfByFullReplay() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return replay(random.nextInt(products) + 1L, random.nextInt(BenchmarkDatabase.LOCATIONS) + 1L, LocalDateTime.now());
+    }
+    
+    @Benchmark
+    public long stockAsOfFromSnapshot() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return snapshotService.getQuantityAsOf(random.nextInt(products) + 1L, random.nextInt(BenchmarkDatabase.LOCATIONS) + 1L, 
+                LocalDateTime.now());
+    }
+    
+    private long replay(long productId, long locationId, LocalDateTime asOf) {
+        return transactionTemplate.execute(status -> stockMovementRepository.sumNetQuantity(productId, locationId, BEGINNING, asOf));
+    }
+}
@@ -0,0 +1,140 @@
+package com.globaltech.inventory.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.globaltech.inventory.model.domain.product.Product;
+import com.globaltech.inventory.model.repository.base.Filter;
+import com.globaltech.inventory.model.repository.base.FilterPlanCache;
+import com.globaltech.inventory.model.repository.base.JpaSpecification;
+import com.globaltech.inventory.model.repository.product.ProductRepository;
+
+/**
+ * Benchmarks for building JpaSpecification filters into Criteria predicates and executing them,
+ * against running the same filter as a Filter through the compiled plan cache. The prepare
+ * benchmarks create the query ready to run, the execute benchmarks also run it on the same
+ * entity manager.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecificationBenchmark {
+    
+    @Param({"10000"})
+    private int rows;
+    
+    private BenchmarkDatabase database;
+    private EntityManager entityManager;
+    private ProductRepository productRepository;
+    private FilterPlanCache filterPlanCache;
+    private List<String> skus;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new BenchmarkDatabase(rows);
+        entityManager = database.getEntityManagerFactory().createEntityManager();
+        productRepository = database.getRepository(ProductRepository.class);
+        filterPlanCache = new FilterPlanCache(1024);
+        skus = Arrays.asList("SKU-1", "SKU-10", "SKU-100");
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        entityManager.close();
+        database.close();
+    }
+    
+    private static Specification<Product> filter() {
+        return JpaSpecification.and(
+                JpaSpecification.fieldContains("name", "Product 1"),
+                JpaSpecification.fieldGreaterThan("price", new BigDecimal("2.00")),
+                JpaSpecification.fieldLessThan("price", new BigDecimal("8.00")),
+                JpaSpecification.fieldIsNotNull("sku"),
+                JpaSpecification.or(
+                        JpaSpecification.fieldIn("sku", Arrays.asList("SKU-1", "SKU-10", "SKU-100")),
+                        JpaSpecification.fieldContains("description", "product 1")));
+    }
+    
+    private Filter<Product> compiledFilter() {
+        return Filter.where(Product.class)
+                .fieldContains("name", "Product 1")
+                .fieldGreaterThan("price", new BigDecimal("2.00"))
+                .fieldLessThan("price", new BigDecimal("8.00"))
+                .fieldIsNotNull("sku")
+                .or(any -> any
+                        .fieldIn("sku", skus)
+                        .fieldContains("description", "product 1"));
+    }
+    
+    @Benchmark
+    public Predicate buildPredicate() {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = builder.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+        return filter().toPredicate(root, query, builder);
+    }
+    
+    @Benchmark
+    public List<Product> buildAndExecute() {
+        return productRepository.findAll(filter());
+    }
+    
+    @Benchmark
+    public TypedQuery<Product> prepareCriteria() {
+        return createCriteriaQuery();
+    }
+    
+    @Benchmark
+    public TypedQuery<Product> prepareCompiled() {
+        return filterPlanCache.createQuery(entityManager, compiledFilter(), null);
+    }
+    
+    @Benchmark
+    public List<Product> executeCriteria() {
+        List<Product> products = createCriteriaQuery().getResultList();
+        entityManager.clear();
+        return products;
+    }
+    
+    @Benchmark
+    public List<Product> executeCompiled() {
+        List<Product> products = filterPlanCache.createQuery(entityManager, compiledFilter(), null).getResultList();
+        entityManager.clear();
+        return products;
+    }
+    
+    private TypedQuery<Product> createCriteriaQuery() {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = builder.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(root).where(filter().toPredicate(root, query, builder));
+        return entityManager.createQuery(query);
+    }
+}
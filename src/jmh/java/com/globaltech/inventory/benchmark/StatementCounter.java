@@ -0,0 +1,59 @@
+package com.globaltech.inventory.benchmark;
+
+import java.util.function.Supplier;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the calling thread. Register it through
+ * {@link AvailableSettings#STATEMENT_INSPECTOR} and use {@link #assertAtMost} to fail when a
+ * finder issues more statements than expected, such as one select per lazy association.
+ */
+public class StatementCounter implements StatementInspector {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final transient ThreadLocal<int[]> count = ThreadLocal.withInitial(() -> new int[1]);
+    
+    @Override
+    public String inspect(String sql) {
+        count.get()[0]++;
+        return sql;
+    }
+    
+    /**
+     * Get the number of statements prepared on this thread since the last reset
+     * 
+     * @return the number of statements
+     */
+    public int getCount() {
+        return count.get()[0];
+    }
+    
+    /**
+     * Reset the statement count of this thread
+     */
+    public void reset() {
+        count.get()[0] = 0;
+    }
+    
+    /**
+     * Run an action and check the number of statements it prepared on this thread
+     * 
+     * @param maxStatements the maximum number of statements allowed
+     * @param description what the action does, used in the failure message
+     * @param action the action to run
+     * @return the result of the action
+     * @throws AssertionError if the action prepared more than maxStatements statements
+     */
+    public <T> T assertAtMost(int maxStatements, String description, Supplier<T> action) {
+        reset();
+        T result = action.get();
+        int statements = getCount();
+        if (statements > maxStatements) {
+            throw new AssertionError(description + " issued " + statements + " statements, expected at most " + maxStatements);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+package com.globaltech.inventory.benchmark;
+
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.globaltech.inventory.model.repository.inventory.InventoryRepository;
+import com.globaltech.inventory.model.service.inventory.StockLedger;
+import com.globaltech.inventory.model.service.inventory.StockLedgerLoader;
+
+/**
+ * Check-and-reserve of one unit at a random product and location, either as a conditional
+ * decrement in a database transaction (rolled back so the stock never runs out) or as a check
+ * and tentative hold in the stock ledger, released right away. Run once per thread count to
+ * see how each scales, e.g. -t 1, -t 4, -t 16 and -t 64.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockLedgerBenchmark {
+    
+    @Param({"10000"})
+    private int products;
+    
+    private BenchmarkDatabase database;
+    private InventoryRepository inventoryRepository;
+    private TransactionTemplate transactionTemplate;
+    private JpaTransactionManager transactionManager;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new BenchmarkDatabase(1000, products, new Properties());
+        inventoryRepository = database.getRepository(InventoryRepository.class);
+        transactionManager = new JpaTransactionManager(database.getEntityManagerFactory());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+    
+    /**
+     * The ledger with its own stripe count, loaded from the benchmark database
+     */
+    @State(Scope.Benchmark)
+    public static class Ledger {
+        
+        @Param({"1", "64"})
+        private int stripes;
+        
+        private StockLedger stockLedger;
+        
+        @Setup(Level.Trial)
+        public void setUp(StockLedgerBenchmark benchmark) {
+            stockLedger = new StockLedger(true, stripes);
+            new StockLedgerLoader(stockLedger, benchmark.inventoryRepository, benchmark.transactionManager).load();
+        }
+    }
+    
+    @Benchmark
+    public boolean checkAndReserveInDatabase() {
+        Long productId = randomProductId();
+        Long locationId = randomLocationId();
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return inventoryRepository.decrementQuantity(productId, locationId, 1) > 0;
+        });
+    }
+    
+    @Benchmark
+    public boolean checkAndReserveInLedger(Ledger ledger) {
+        Long productId = randomProductId();
+        Long locationId = randomLocationId();
+        StockLedger stockLedger = ledger.stockLedger;
+        if (stockLedger.getAvailable(productId, locationId) < 1
+                || stockLedger.tryHold(productId, locationId, 1) != StockLedger.Hold.HELD) {
+            return false;
+        }
+        stockLedger.release(productId, locationId, 1);
+        return true;
+    }
+    
+    private Long randomProductId() {
+        return (long) ThreadLocalRandom.current().nextInt(products) + 1;
+    }
+    
+    private static Long randomLocationId() {
+        return (long) ThreadLocalRandom.current().nextInt(BenchmarkDatabase.LOCATIONS) + 1;
+    }
+}
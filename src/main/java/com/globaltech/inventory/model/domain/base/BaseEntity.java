@@ -4,10 +4,11 @@ import java.io.Serializable;
 import java.util.Objects;
 
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
 
+import org.hibernate.annotations.GenericGenerator;
+
 /**
  * Base entity class that provides common properties for all entities
  */
@@ -17,7 +18,8 @@ public abstract class BaseEntity implements Serializable {
     private static final long serialVersionUID = 1L;
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "pooled-id")
+    @GenericGenerator(name = "pooled-id", strategy = "com.globaltech.inventory.model.domain.base.PooledIdGenerator")
     private Long id;
     
     public Long getId() {
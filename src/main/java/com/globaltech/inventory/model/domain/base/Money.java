@@ -0,0 +1,169 @@
+package com.globaltech.inventory.model.domain.base;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable monetary amount stored as a long count of minor units (cents).
+ * All arithmetic is overflow-checked and throws ArithmeticException instead of wrapping.
+ * Conversions that would lose precision use an explicit rounding mode, defaulting to
+ * {@link #DEFAULT_ROUNDING}.
+ */
+public final class Money implements Comparable<Money>, Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * Number of decimal places held in the minor units
+     */
+    public static final int SCALE = 2;
+    
+    /**
+     * Rounding mode used when a conversion or multiplication does not fit the scale
+     */
+    public static final RoundingMode DEFAULT_ROUNDING = RoundingMode.HALF_EVEN;
+    
+    public static final Money ZERO = new Money(0);
+    
+    private final long minorUnits;
+    
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+    
+    /**
+     * Create an amount from a count of minor units
+     * 
+     * @param minorUnits the amount in minor units
+     * @return the amount
+     */
+    public static Money ofMinorUnits(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+    
+    /**
+     * Create an amount from a decimal value, rounding with the default rounding mode
+     * 
+     * @param value the decimal value
+     * @return the amount
+     * @throws ArithmeticException if the value does not fit in a long count of minor units
+     */
+    public static Money of(BigDecimal value) {
+        return of(value, DEFAULT_ROUNDING);
+    }
+    
+    /**
+     * Create an amount from a decimal value
+     * 
+     * @param value the decimal value
+     * @param roundingMode the rounding mode used if the value has more than two decimal places
+     * @return the amount
+     * @throws ArithmeticException if the value does not fit in a long count of minor units
+     */
+    public static Money of(BigDecimal value, RoundingMode roundingMode) {
+        return ofMinorUnits(toMinorUnits(value, roundingMode));
+    }
+    
+    /**
+     * Convert a decimal value to a count of minor units
+     * 
+     * @param value the decimal value
+     * @param roundingMode the rounding mode used if the value has more than two decimal places
+     * @return the value in minor units
+     * @throws ArithmeticException if the value does not fit in a long count of minor units
+     */
+    public static long toMinorUnits(BigDecimal value, RoundingMode roundingMode) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        return value.setScale(SCALE, roundingMode).unscaledValue().longValueExact();
+    }
+    
+    /**
+     * Convert a count of minor units to a decimal value with a scale of two
+     * 
+     * @param minorUnits the amount in minor units
+     * @return the decimal value
+     */
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+    
+    /**
+     * Multiply a count of minor units by a quantity without allocating
+     * 
+     * @param minorUnits the amount in minor units
+     * @param quantity the quantity
+     * @return the product in minor units
+     * @throws ArithmeticException if the result overflows
+     */
+    public static long multiply(long minorUnits, long quantity) {
+        return Math.multiplyExact(minorUnits, quantity);
+    }
+    
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+    
+    public BigDecimal toBigDecimal() {
+        return toBigDecimal(minorUnits);
+    }
+    
+    public Money plus(Money other) {
+        return ofMinorUnits(Math.addExact(minorUnits, other.minorUnits));
+    }
+    
+    public Money minus(Money other) {
+        return ofMinorUnits(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+    
+    public Money times(long quantity) {
+        return ofMinorUnits(multiply(minorUnits, quantity));
+    }
+    
+    /**
+     * Multiply the amount by a rate, for example a tax rate, rounding the result
+     * 
+     * @param rate the rate
+     * @param roundingMode the rounding mode applied to the result
+     * @return the rounded product
+     */
+    public Money times(BigDecimal rate, RoundingMode roundingMode) {
+        return of(toBigDecimal().multiply(rate), roundingMode);
+    }
+    
+    public Money negate() {
+        return ofMinorUnits(Math.negateExact(minorUnits));
+    }
+    
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+    
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+    
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return minorUnits == ((Money) o).minorUnits;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+    
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
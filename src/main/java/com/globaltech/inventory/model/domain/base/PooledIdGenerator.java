@@ -0,0 +1,70 @@
+package com.globaltech.inventory.model.domain.base;
+
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Identifier generator used by all entities. Each table gets its own sequence named
+ * {@code <table>_seq}, or a single-row table of the same name on databases without
+ * sequences such as MySQL. IDs are handed out in blocks by an optimizer, so inserts
+ * can be batched by Hibernate (hibernate.jdbc.batch_size and hibernate.order_inserts).
+ * 
+ * The strategy is configured through these settings:
+ * <ul>
+ * <li>{@value #INCREMENT_SIZE_SETTING}: number of IDs per block (default 50)</li>
+ * <li>{@value #OPTIMIZER_SETTING}: pooled-lo, pooled, hilo or none (default pooled-lo)</li>
+ * <li>{@value #FORCE_TABLE_SETTING}: use a table even if the database supports sequences (default false)</li>
+ * </ul>
+ */
+public class PooledIdGenerator extends SequenceStyleGenerator {
+    
+    public static final String INCREMENT_SIZE_SETTING = "inventory.id.increment_size";
+    public static final String OPTIMIZER_SETTING = "inventory.id.optimizer";
+    public static final String FORCE_TABLE_SETTING = "inventory.id.force_table";
+    
+    public static final String DEFAULT_INCREMENT_SIZE = "50";
+    public static final String DEFAULT_OPTIMIZER = "pooled-lo";
+    
+    /**
+     * Suffix appended to the table name to form the sequence name
+     */
+    public static final String SEQUENCE_SUFFIX = "_seq";
+    
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        params.setProperty(SEQUENCE_PARAM, params.getProperty(PersistentIdentifierGenerator.TABLE) + SEQUENCE_SUFFIX);
+        params.setProperty(INCREMENT_PARAM, setting(settings, INCREMENT_SIZE_SETTING, DEFAULT_INCREMENT_SIZE));
+        params.setProperty(OPT_PARAM, setting(settings, OPTIMIZER_SETTING, DEFAULT_OPTIMIZER));
+        params.setProperty(FORCE_TBL_PARAM, setting(settings, FORCE_TABLE_SETTING, "false"));
+        super.configure(type, params, serviceRegistry);
+    }
+    
+    /**
+     * Generate the next ID for an entity outside of a persist call, for rows written with
+     * plain JDBC. The ID comes from the same block as the IDs assigned by Hibernate.
+     * 
+     * @param session the session to generate the ID with
+     * @param entityClass the entity class
+     * @return the next ID
+     */
+    public static Long nextId(SharedSessionContractImplementor session, Class<?> entityClass) {
+        IdentifierGenerator generator = session.getFactory().getMetamodel()
+                .entityPersister(entityClass).getIdentifierGenerator();
+        return (Long) generator.generate(session, null);
+    }
+    
+    private static String setting(Map<?, ?> settings, String name, String defaultValue) {
+        Object value = settings.get(name);
+        return value != null ? value.toString() : defaultValue;
+    }
+}
@@ -0,0 +1,41 @@
+package com.globaltech.inventory.model.domain.inventory;
+
+import java.time.LocalDate;
+
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+
+/**
+ * Stock movements rolled up per day, built from the hourly rollup
+ */
+@Entity
+@Table(name = "stock_movement_daily", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_stock_movement_daily", columnNames = {"product_id", "bucket_start", "location_id", "movement_type"})
+}, indexes = {
+    @Index(name = "idx_stock_movement_daily_bucket", columnList = "bucket_start")
+})
+public class DailyMovementRollup extends MovementRollup {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public DailyMovementRollup() {
+    }
+    
+    /**
+     * Constructor used by queries that group hourly rollups by the parts of their day
+     */
+    public DailyMovementRollup(Integer year, Integer month, Integer day, Long productId, Long locationId, 
+                               MovementType movementType, Long quantity, Long movementCount) {
+        super(LocalDate.of(year, month, day).atStartOfDay(), productId, locationId, movementType, quantity, movementCount);
+    }
+    
+    @Override
+    public String toString() {
+        return "DailyMovementRollup [day=" + getBucketStart().toLocalDate() + ", productId=" + getProductId() + 
+                ", locationId=" + getLocationId() + ", type=" + getMovementType() + ", quantity=" + getQuantity() + "]";
+    }
+}
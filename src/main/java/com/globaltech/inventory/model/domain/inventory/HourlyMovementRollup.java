@@ -0,0 +1,41 @@
+package com.globaltech.inventory.model.domain.inventory;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+
+/**
+ * Stock movements rolled up per hour
+ */
+@Entity
+@Table(name = "stock_movement_hourly", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_stock_movement_hourly", columnNames = {"product_id", "bucket_start", "location_id", "movement_type"})
+}, indexes = {
+    @Index(name = "idx_stock_movement_hourly_bucket", columnList = "bucket_start")
+})
+public class HourlyMovementRollup extends MovementRollup {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public HourlyMovementRollup() {
+    }
+    
+    /**
+     * Constructor used by queries that group movements by the parts of their hour
+     */
+    public HourlyMovementRollup(Integer year, Integer month, Integer day, Integer hour, Long productId, Long locationId, 
+                                MovementType movementType, Long quantity, Long movementCount) {
+        super(LocalDateTime.of(year, month, day, hour, 0), productId, locationId, movementType, quantity, movementCount);
+    }
+    
+    @Override
+    public String toString() {
+        return "HourlyMovementRollup [hour=" + getBucketStart() + ", productId=" + getProductId() + 
+                ", locationId=" + getLocationId() + ", type=" + getMovementType() + ", quantity=" + getQuantity() + "]";
+    }
+}
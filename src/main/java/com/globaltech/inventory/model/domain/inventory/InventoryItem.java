@@ -5,8 +5,15 @@ import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.PostUpdate;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
@@ -17,6 +24,10 @@ import com.globaltech.inventory.model.domain.product.Product;
  * Entity representing an inventory item with quantity and location
  */
 @Entity
+@NamedEntityGraph(name = InventoryItem.DETAILS_GRAPH, attributeNodes = {
+    @NamedAttributeNode("product"),
+    @NamedAttributeNode("location")
+})
 @Table(name = "inventory_items", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"product_id", "location_id"})
 })
@@ -24,6 +35,11 @@ public class InventoryItem extends AuditableEntity {
     
     private static final long serialVersionUID = 1L;
     
+    /**
+     * Entity graph fetching the product and location shown in inventory listings
+     */
+    public static final String DETAILS_GRAPH = "InventoryItem.details";
+    
     @NotNull(message = "Product is required")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
@@ -49,6 +65,16 @@ public class InventoryItem extends AuditableEntity {
     @Column(name = "reorder_point")
     private int reorderPoint;
     
+    /**
+     * Optimistic lock version, also incremented by the bulk quantity updates
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
+    @Transient
+    private int savedQuantity;
+    
     public InventoryItem() {
     }
     
@@ -106,6 +132,14 @@ public class InventoryItem extends AuditableEntity {
         this.reorderPoint = reorderPoint;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     /**
      * Adds the specified quantity to the current quantity.
      * 
@@ -138,6 +172,27 @@ public class InventoryItem extends AuditableEntity {
         return this.quantity;
     }
     
+    /**
+     * Gets the change of the quantity since the item was loaded or last saved.
+     * For a new item this is the whole quantity.
+     * 
+     * @return the unsaved quantity change
+     */
+    public int getUnsavedQuantityChange() {
+        return this.quantity - this.savedQuantity;
+    }
+    
+    /**
+     * Records the current quantity as saved. Called when the item is loaded or written,
+     * and by services once they have accounted for the unsaved change.
+     */
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    public void markQuantitySaved() {
+        this.savedQuantity = this.quantity;
+    }
+    
     /**
      * Checks if the item needs to be reordered.
      * 
@@ -0,0 +1,70 @@
+package com.globaltech.inventory.model.domain.inventory;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import com.globaltech.inventory.model.domain.base.BaseEntity;
+
+/**
+ * Entity recording that the quantity of every inventory item was captured at a point in
+ * time. The quantities themselves are held by {@link InventorySnapshotItem}; a snapshot is
+ * only used for point-in-time queries once it is complete.
+ */
+@Entity
+@Table(name = "inventory_snapshots", indexes = {
+    @Index(name = "idx_inventory_snapshots_taken_at", columnList = "taken_at")
+})
+public class InventorySnapshot extends BaseEntity {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+    
+    @Column(name = "item_count", nullable = false)
+    private long itemCount;
+    
+    @Column(name = "complete", nullable = false)
+    private boolean complete;
+    
+    public InventorySnapshot() {
+    }
+    
+    public InventorySnapshot(LocalDateTime takenAt) {
+        this.takenAt = takenAt;
+    }
+    
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+    
+    public void setTakenAt(LocalDateTime takenAt) {
+        this.takenAt = takenAt;
+    }
+    
+    public long getItemCount() {
+        return itemCount;
+    }
+    
+    public void setItemCount(long itemCount) {
+        this.itemCount = itemCount;
+    }
+    
+    public boolean isComplete() {
+        return complete;
+    }
+    
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+    
+    @Override
+    public String toString() {
+        return "InventorySnapshot [id=" + getId() + ", takenAt=" + takenAt + ", itemCount=" + itemCount + 
+                ", complete=" + complete + "]";
+    }
+}
@@ -0,0 +1,68 @@
+package com.globaltech.inventory.model.domain.inventory;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+/**
+ * Entity holding the quantity of a product at a location when a snapshot was taken. Rows are
+ * keyed by snapshot, product and location only, without a generated ID, to keep the table
+ * compact; they are written in JDBC batches by InventorySnapshotService and never updated.
+ */
+@Entity
+@Table(name = "inventory_snapshot_items")
+public class InventorySnapshotItem implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @EmbeddedId
+    private InventorySnapshotItemId id;
+    
+    @Column(name = "quantity", nullable = false)
+    private int quantity;
+    
+    public InventorySnapshotItem() {
+    }
+    
+    public InventorySnapshotItem(Long snapshotId, Long productId, Long locationId, int quantity) {
+        this.id = new InventorySnapshotItemId(snapshotId, productId, locationId);
+        this.quantity = quantity;
+    }
+    
+    public InventorySnapshotItemId getId() {
+        return id;
+    }
+    
+    public void setId(InventorySnapshotItemId id) {
+        this.id = id;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InventorySnapshotItem that = (InventorySnapshotItem) o;
+        return id != null && id.equals(that.id);
+    }
+    
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : 0;
+    }
+    
+    @Override
+    public String toString() {
+        return "InventorySnapshotItem [id=" + id + ", quantity=" + quantity + "]";
+    }
+}
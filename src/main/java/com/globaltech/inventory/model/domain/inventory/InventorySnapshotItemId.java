@@ -0,0 +1,66 @@
+package com.globaltech.inventory.model.domain.inventory;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+/**
+ * Key of an {@link InventorySnapshotItem}: the snapshot, product and location
+ */
+@Embeddable
+public class InventorySnapshotItemId implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @Column(name = "snapshot_id", nullable = false)
+    private Long snapshotId;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(name = "location_id", nullable = false)
+    private Long locationId;
+    
+    public InventorySnapshotItemId() {
+    }
+    
+    public InventorySnapshotItemId(Long snapshotId, Long productId, Long locationId) {
+        this.snapshotId = snapshotId;
+        this.productId = productId;
+        this.locationId = locationId;
+    }
+    
+    public Long getSnapshotId() {
+        return snapshotId;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public Long getLocationId() {
+        return locationId;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InventorySnapshotItemId that = (InventorySnapshotItemId) o;
+        return Objects.equals(snapshotId, that.snapshotId) && Objects.equals(productId, that.productId) && 
+                Objects.equals(locationId, that.locationId);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(snapshotId, productId, locationId);
+    }
+    
+    @Override
+    public String toString() {
+        return "InventorySnapshotItemId [snapshotId=" + snapshotId + ", productId=" + productId + 
+                ", locationId=" + locationId + "]";
+    }
+}
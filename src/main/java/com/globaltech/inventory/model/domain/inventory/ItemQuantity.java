@@ -0,0 +1,13 @@
+package com.globaltech.inventory.model.domain.inventory;
+
+/**
+ * Projection of the quantity of a product at a location
+ */
+public interface ItemQuantity {
+    
+    Long getProductId();
+    
+    Long getLocationId();
+    
+    Integer getQuantity();
+}
@@ -0,0 +1,11 @@
+package com.globaltech.inventory.model.domain.inventory;
+
+/**
+ * Projection of a quantity summed per location
+ */
+public interface LocationQuantity {
+    
+    Long getLocationId();
+    
+    Long getTotalQuantity();
+}
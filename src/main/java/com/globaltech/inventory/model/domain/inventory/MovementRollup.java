@@ -0,0 +1,108 @@
+package com.globaltech.inventory.model.domain.inventory;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.MappedSuperclass;
+
+import com.globaltech.inventory.model.domain.base.BaseEntity;
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+
+/**
+ * Base class for the stock movement rollups: the quantity and number of movements of one
+ * type for a product at a location within a time bucket. A movement counts towards its
+ * source location, or its target location if it has no source; movements without either
+ * are rolled up under location {@value #NO_LOCATION}.
+ */
+@MappedSuperclass
+public abstract class MovementRollup extends BaseEntity {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * Location ID used for movements without a source or target location
+     */
+    public static final long NO_LOCATION = 0L;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(name = "location_id", nullable = false)
+    private Long locationId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false)
+    private MovementType movementType;
+    
+    @Column(name = "quantity", nullable = false)
+    private long quantity;
+    
+    @Column(name = "movement_count", nullable = false)
+    private long movementCount;
+    
+    protected MovementRollup() {
+    }
+    
+    protected MovementRollup(LocalDateTime bucketStart, Long productId, Long locationId, MovementType movementType, 
+                             long quantity, long movementCount) {
+        this.bucketStart = bucketStart;
+        this.productId = productId;
+        this.locationId = locationId;
+        this.movementType = movementType;
+        this.quantity = quantity;
+        this.movementCount = movementCount;
+    }
+    
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Long getLocationId() {
+        return locationId;
+    }
+    
+    public void setLocationId(Long locationId) {
+        this.locationId = locationId;
+    }
+    
+    public MovementType getMovementType() {
+        return movementType;
+    }
+    
+    public void setMovementType(MovementType movementType) {
+        this.movementType = movementType;
+    }
+    
+    public long getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+    
+    public long getMovementCount() {
+        return movementCount;
+    }
+    
+    public void setMovementCount(long movementCount) {
+        this.movementCount = movementCount;
+    }
+}
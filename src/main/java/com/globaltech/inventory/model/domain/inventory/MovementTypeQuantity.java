@@ -0,0 +1,13 @@
+package com.globaltech.inventory.model.domain.inventory;
+
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+
+/**
+ * Projection of a quantity summed per movement type
+ */
+public interface MovementTypeQuantity {
+    
+    MovementType getMovementType();
+    
+    Long getTotalQuantity();
+}
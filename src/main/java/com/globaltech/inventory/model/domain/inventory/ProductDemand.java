@@ -0,0 +1,55 @@
+package com.globaltech.inventory.model.domain.inventory;
+
+/**
+ * Read-only row with the open order demand of a product, the quantity on hand it has to be
+ * met from and the number of locations stocking the product
+ */
+public class ProductDemand {
+    
+    private final Long productId;
+    private final long onHand;
+    private final long reserved;
+    private final long locationCount;
+    
+    public ProductDemand(Long productId, long onHand, long reserved, long locationCount) {
+        this.productId = productId;
+        this.onHand = onHand;
+        this.reserved = reserved;
+        this.locationCount = locationCount;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public long getOnHand() {
+        return onHand;
+    }
+    
+    public long getReserved() {
+        return reserved;
+    }
+    
+    public long getLocationCount() {
+        return locationCount;
+    }
+    
+    /**
+     * Get the part of the open demand expected to be met from one location. Demand is shared
+     * in proportion to the quantity on hand, or evenly if the product is out of stock everywhere.
+     * 
+     * @param quantity the quantity on hand at the location
+     * @return the demand charged to the location
+     */
+    public double getShare(int quantity) {
+        if (onHand > 0) {
+            return (double) reserved * Math.max(0, quantity) / onHand;
+        }
+        return locationCount > 0 ? (double) reserved / locationCount : reserved;
+    }
+    
+    @Override
+    public String toString() {
+        return "ProductDemand [productId=" + productId + ", onHand=" + onHand + ", reserved=" + reserved + "]";
+    }
+}
@@ -0,0 +1,13 @@
+package com.globaltech.inventory.model.domain.inventory;
+
+/**
+ * Projection of a quantity summed per product and location
+ */
+public interface ProductLocationQuantity {
+    
+    Long getProductId();
+    
+    Long getLocationId();
+    
+    Long getTotalQuantity();
+}
@@ -0,0 +1,11 @@
+package com.globaltech.inventory.model.domain.inventory;
+
+/**
+ * Projection of a quantity summed per product
+ */
+public interface ProductQuantity {
+    
+    Long getProductId();
+    
+    Long getTotalQuantity();
+}
@@ -0,0 +1,75 @@
+package com.globaltech.inventory.model.domain.inventory;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+import com.globaltech.inventory.model.domain.base.BaseEntity;
+
+/**
+ * Entity holding the materialised stock totals of a product: the quantity on hand across
+ * all locations, the quantity reserved by orders that have not been allocated yet, and
+ * the quantity still available for new orders
+ */
+@Entity
+@Table(name = "product_stock")
+public class ProductStock extends BaseEntity {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @Column(name = "product_id", nullable = false, unique = true)
+    private Long productId;
+    
+    @Column(name = "on_hand", nullable = false)
+    private long onHand;
+    
+    @Column(name = "reserved", nullable = false)
+    private long reserved;
+    
+    public ProductStock() {
+    }
+    
+    public ProductStock(Long productId, long onHand, long reserved) {
+        this.productId = productId;
+        this.onHand = onHand;
+        this.reserved = reserved;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public long getOnHand() {
+        return onHand;
+    }
+    
+    public void setOnHand(long onHand) {
+        this.onHand = onHand;
+    }
+    
+    public long getReserved() {
+        return reserved;
+    }
+    
+    public void setReserved(long reserved) {
+        this.reserved = reserved;
+    }
+    
+    /**
+     * Get the quantity that can still be promised to new orders
+     * 
+     * @return the quantity on hand minus the reserved quantity, never negative
+     */
+    public long getAvailable() {
+        return Math.max(0, onHand - reserved);
+    }
+    
+    @Override
+    public String toString() {
+        return "ProductStock [productId=" + productId + ", onHand=" + onHand + ", reserved=" + reserved + "]";
+    }
+}
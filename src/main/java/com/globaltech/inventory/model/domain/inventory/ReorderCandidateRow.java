@@ -0,0 +1,100 @@
+package com.globaltech.inventory.model.domain.inventory;
+
+/**
+ * Read-only row for an inventory item at or below its reorder point, with the supplier to
+ * order from, built directly from query results without loading any entities
+ */
+public class ReorderCandidateRow {
+    
+    private final Long productId;
+    private final String sku;
+    private final String productName;
+    private final Long locationId;
+    private final String locationName;
+    private final int quantity;
+    private final int reorderPoint;
+    private final int maxStockLevel;
+    private final Long supplierId;
+    private final String supplierName;
+    private final String supplierEmail;
+    
+    public ReorderCandidateRow(Long productId, String sku, String productName, Long locationId, String locationName, 
+                               int quantity, int reorderPoint, int maxStockLevel, 
+                               Long supplierId, String supplierName, String supplierEmail) {
+        this.productId = productId;
+        this.sku = sku;
+        this.productName = productName;
+        this.locationId = locationId;
+        this.locationName = locationName;
+        this.quantity = quantity;
+        this.reorderPoint = reorderPoint;
+        this.maxStockLevel = maxStockLevel;
+        this.supplierId = supplierId;
+        this.supplierName = supplierName;
+        this.supplierEmail = supplierEmail;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public String getSku() {
+        return sku;
+    }
+    
+    public String getProductName() {
+        return productName;
+    }
+    
+    public Long getLocationId() {
+        return locationId;
+    }
+    
+    public String getLocationName() {
+        return locationName;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public int getReorderPoint() {
+        return reorderPoint;
+    }
+    
+    public int getMaxStockLevel() {
+        return maxStockLevel;
+    }
+    
+    /**
+     * Get the supplier ID
+     * 
+     * @return the supplier ID, or null if the product has no supplier
+     */
+    public Long getSupplierId() {
+        return supplierId;
+    }
+    
+    public String getSupplierName() {
+        return supplierName;
+    }
+    
+    public String getSupplierEmail() {
+        return supplierEmail;
+    }
+    
+    /**
+     * Get the quantity needed to bring the item back to its maximum stock level
+     * 
+     * @return the quantity to order, never negative
+     */
+    public int getSuggestedOrderQuantity() {
+        return Math.max(0, maxStockLevel - quantity);
+    }
+    
+    @Override
+    public String toString() {
+        return "ReorderCandidateRow [product=" + productName + ", location=" + locationName + 
+                ", quantity=" + quantity + ", supplier=" + supplierName + "]";
+    }
+}
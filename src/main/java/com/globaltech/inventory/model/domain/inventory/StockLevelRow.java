@@ -0,0 +1,74 @@
+package com.globaltech.inventory.model.domain.inventory;
+
+/**
+ * Read-only row with the stock level of a product at a location, built directly from
+ * query results without loading InventoryItem, Product or Location entities
+ */
+public class StockLevelRow {
+    
+    private final Long productId;
+    private final String sku;
+    private final String productName;
+    private final Long locationId;
+    private final String locationName;
+    private final int quantity;
+    private final int minStockLevel;
+    private final int maxStockLevel;
+    
+    public StockLevelRow(Long productId, String sku, String productName, Long locationId, String locationName, 
+                         int quantity, int minStockLevel, int maxStockLevel) {
+        this.productId = productId;
+        this.sku = sku;
+        this.productName = productName;
+        this.locationId = locationId;
+        this.locationName = locationName;
+        this.quantity = quantity;
+        this.minStockLevel = minStockLevel;
+        this.maxStockLevel = maxStockLevel;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public String getSku() {
+        return sku;
+    }
+    
+    public String getProductName() {
+        return productName;
+    }
+    
+    public Long getLocationId() {
+        return locationId;
+    }
+    
+    public String getLocationName() {
+        return locationName;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public int getMinStockLevel() {
+        return minStockLevel;
+    }
+    
+    public int getMaxStockLevel() {
+        return maxStockLevel;
+    }
+    
+    public boolean isLowStock() {
+        return quantity < minStockLevel;
+    }
+    
+    public boolean isOverstocked() {
+        return quantity > maxStockLevel;
+    }
+    
+    @Override
+    public String toString() {
+        return "StockLevelRow [product=" + productName + ", location=" + locationName + ", quantity=" + quantity + "]";
+    }
+}
@@ -7,8 +7,11 @@ import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.FetchType;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.Table;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
@@ -20,11 +23,24 @@ import com.globaltech.inventory.model.domain.product.Product;
  * Entity representing a stock movement record
  */
 @Entity
-@Table(name = "stock_movements")
+@NamedEntityGraph(name = StockMovement.DETAILS_GRAPH, attributeNodes = {
+    @NamedAttributeNode("product"),
+    @NamedAttributeNode("sourceLocation"),
+    @NamedAttributeNode("targetLocation")
+})
+@Table(name = "stock_movements", indexes = {
+    @Index(name = "idx_stock_movements_date", columnList = "movement_date, id"),
+    @Index(name = "idx_stock_movements_product_date", columnList = "product_id, movement_date, id")
+})
 public class StockMovement extends AuditableEntity {
     
     private static final long serialVersionUID = 1L;
     
+    /**
+     * Entity graph fetching the product and locations shown in movement listings
+     */
+    public static final String DETAILS_GRAPH = "StockMovement.details";
+    
     /**
      * Enum representing the type of stock movement
      */
@@ -0,0 +1,23 @@
+package com.globaltech.inventory.model.domain.inventory;
+
+import java.time.LocalDateTime;
+
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+
+/**
+ * Projection of the columns of a stock movement kept in the movement archive
+ */
+public interface StockMovementRow {
+    
+    Long getProductId();
+    
+    Long getSourceLocationId();
+    
+    Long getTargetLocationId();
+    
+    Integer getQuantity();
+    
+    MovementType getMovementType();
+    
+    LocalDateTime getMovementDate();
+}
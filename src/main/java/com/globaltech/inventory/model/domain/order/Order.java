@@ -11,19 +11,27 @@ import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.FetchType;
+import javax.persistence.Index;
 import javax.persistence.OneToMany;
+import javax.persistence.PostLoad;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.Version;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
 import com.globaltech.inventory.model.domain.base.AuditableEntity;
+import com.globaltech.inventory.model.domain.base.Money;
 
 /**
  * Entity representing an order
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_status_date", columnList = "status, order_date, id"),
+    @Index(name = "idx_orders_date", columnList = "order_date, id")
+})
 public class Order extends AuditableEntity {
     
     private static final long serialVersionUID = 1L;
@@ -86,9 +94,22 @@ public class Order extends AuditableEntity {
     @Column(name = "notes")
     private String notes;
     
+    /**
+     * Optimistic lock version, also incremented by the batch status updates of order allocation
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<OrderItem> items = new ArrayList<>();
     
+    /**
+     * Status the sales and stock rollups last accounted for, null until the order is stored
+     */
+    @Transient
+    private OrderStatus savedStatus;
+    
     public Order() {
         this.orderDate = LocalDateTime.now();
     }
@@ -228,6 +249,26 @@ public class Order extends AuditableEntity {
         this.status = status;
     }
     
+    /**
+     * Gets the status the sales and stock rollups last accounted for: the stored status when
+     * the order was loaded, or the status recorded by the order service since. Null for an
+     * order that has not been stored.
+     * 
+     * @return the saved status
+     */
+    public OrderStatus getSavedStatus() {
+        return savedStatus;
+    }
+    
+    /**
+     * Records the current status as saved. Called when the order is loaded, and by the order
+     * service once it has updated the rollups for the status change.
+     */
+    @PostLoad
+    public void markStatusSaved() {
+        this.savedStatus = this.status;
+    }
+    
     public String getNotes() {
         return notes;
     }
@@ -236,6 +277,14 @@ public class Order extends AuditableEntity {
         this.notes = notes;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public List<OrderItem> getItems() {
         return items;
     }
@@ -252,7 +301,7 @@ public class Order extends AuditableEntity {
     public void addItem(OrderItem item) {
         items.add(item);
         item.setOrder(this);
-        calculateTotals();
+        applySubtotalChange(item.getSubtotal());
     }
     
     /**
@@ -261,15 +310,87 @@ public class Order extends AuditableEntity {
      * @param item the item to remove
      */
     public void removeItem(OrderItem item) {
-        items.remove(item);
-        item.setOrder(null);
-        calculateTotals();
+        int index = indexOfItem(item);
+        if (index >= 0) {
+            OrderItem removed = items.remove(index);
+            removed.setOrder(null);
+            if (removed.getSubtotal() != null) {
+                applySubtotalChange(removed.getSubtotal().negate());
+            }
+        }
+    }
+    
+    /**
+     * Find the position of an item, preferring the same instance over an equal one. Unsaved
+     * items without an ID are all equal to each other, so they are only found by instance.
+     */
+    private int indexOfItem(OrderItem item) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) == item) {
+                return i;
+            }
+        }
+        return item.getId() != null ? items.indexOf(item) : -1;
+    }
+    
+    /**
+     * Apply a change in the subtotal of one of the items to the order totals
+     * without recalculating the other items.
+     * 
+     * @param delta the change in the item subtotal
+     */
+    public void applySubtotalChange(BigDecimal delta) {
+        if (delta != null && delta.signum() != 0) {
+            this.subtotal = this.subtotal != null ? this.subtotal.add(delta) : delta;
+        }
+        updateTotal();
     }
     
     /**
-     * Calculate the order totals (subtotal, tax, shipping, total)
+     * Calculate the order totals (subtotal, tax, shipping, total) from all items
      */
     public void calculateTotals() {
+        this.subtotal = sumItemSubtotals();
+        updateTotal();
+    }
+    
+    /**
+     * Calculate the order totals like {@link #calculateTotals()}, but sum the items in minor
+     * units (cents) so that no BigDecimal is allocated per item. Item subtotals are derived
+     * from quantity and unit price.
+     * 
+     * @throws ArithmeticException if a total overflows
+     */
+    public void calculateTotalsMinorUnits() {
+        long calculatedSubtotal = 0;
+        for (OrderItem item : items) {
+            calculatedSubtotal = Math.addExact(calculatedSubtotal, item.calculateSubtotalMinorUnits());
+        }
+        
+        long calculatedTotal = calculatedSubtotal;
+        if (this.tax != null) {
+            calculatedTotal = Math.addExact(calculatedTotal, Money.toMinorUnits(this.tax, Money.DEFAULT_ROUNDING));
+        }
+        if (this.shippingCost != null) {
+            calculatedTotal = Math.addExact(calculatedTotal, Money.toMinorUnits(this.shippingCost, Money.DEFAULT_ROUNDING));
+        }
+        
+        this.subtotal = Money.toBigDecimal(calculatedSubtotal);
+        this.total = Money.toBigDecimal(calculatedTotal);
+    }
+    
+    /**
+     * Check that the incrementally maintained subtotal matches a full recalculation
+     * over all items. The totals are not changed.
+     * 
+     * @return true if the subtotal matches the sum of the item subtotals
+     */
+    public boolean verifyTotals() {
+        BigDecimal current = this.subtotal != null ? this.subtotal : BigDecimal.ZERO;
+        return current.compareTo(sumItemSubtotals()) == 0;
+    }
+    
+    private BigDecimal sumItemSubtotals() {
         BigDecimal calculatedSubtotal = BigDecimal.ZERO;
         
         for (OrderItem item : items) {
@@ -278,10 +399,11 @@ public class Order extends AuditableEntity {
             }
         }
         
-        this.subtotal = calculatedSubtotal;
-        
-        // Calculate the total
-        this.total = this.subtotal;
+        return calculatedSubtotal;
+    }
+    
+    private void updateTotal() {
+        this.total = this.subtotal != null ? this.subtotal : BigDecimal.ZERO;
         
         if (this.tax != null) {
             this.total = this.total.add(this.tax);
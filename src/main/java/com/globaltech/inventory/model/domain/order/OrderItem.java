@@ -7,23 +7,35 @@ import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 import com.globaltech.inventory.model.domain.base.AuditableEntity;
+import com.globaltech.inventory.model.domain.base.Money;
 import com.globaltech.inventory.model.domain.product.Product;
 
 /**
  * Entity representing an order line item
  */
 @Entity
+@NamedEntityGraph(name = OrderItem.DETAILS_GRAPH, attributeNodes = @NamedAttributeNode("product"))
 @Table(name = "order_items")
 public class OrderItem extends AuditableEntity {
     
     private static final long serialVersionUID = 1L;
     
+    /**
+     * Entity graph fetching the product shown in order item listings
+     */
+    public static final String DETAILS_GRAPH = "OrderItem.details";
+    
+    private static final long UNIT_PRICE_NOT_CONVERTED = Long.MIN_VALUE;
+    
     @NotNull(message = "Order is required")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
@@ -50,6 +62,9 @@ public class OrderItem extends AuditableEntity {
     @Column(name = "notes")
     private String notes;
     
+    @Transient
+    private long unitPriceMinorUnits = UNIT_PRICE_NOT_CONVERTED;
+    
     public OrderItem() {
     }
     
@@ -83,7 +98,7 @@ public class OrderItem extends AuditableEntity {
     
     public void setQuantity(int quantity) {
         this.quantity = quantity;
-        calculateSubtotal();
+        updateSubtotal();
     }
     
     public BigDecimal getUnitPrice() {
@@ -92,7 +107,8 @@ public class OrderItem extends AuditableEntity {
     
     public void setUnitPrice(BigDecimal unitPrice) {
         this.unitPrice = unitPrice;
-        calculateSubtotal();
+        this.unitPriceMinorUnits = UNIT_PRICE_NOT_CONVERTED;
+        updateSubtotal();
     }
     
     public BigDecimal getSubtotal() {
@@ -122,6 +138,35 @@ public class OrderItem extends AuditableEntity {
         }
     }
     
+    /**
+     * Calculate the subtotal in minor units (cents) based on quantity and unit price.
+     * The unit price is converted once and cached, so repeated calls do not allocate.
+     * The subtotal field is not changed.
+     * 
+     * @return the subtotal in minor units
+     * @throws ArithmeticException if the subtotal overflows
+     */
+    public long calculateSubtotalMinorUnits() {
+        if (quantity <= 0 || unitPrice == null) {
+            return 0;
+        }
+        if (unitPriceMinorUnits == UNIT_PRICE_NOT_CONVERTED) {
+            unitPriceMinorUnits = Money.toMinorUnits(unitPrice, Money.DEFAULT_ROUNDING);
+        }
+        return Money.multiply(unitPriceMinorUnits, quantity);
+    }
+    
+    /**
+     * Recalculate the subtotal and push the change to the order totals
+     */
+    private void updateSubtotal() {
+        BigDecimal previous = this.subtotal;
+        calculateSubtotal();
+        if (order != null) {
+            order.applySubtotalChange(previous != null ? this.subtotal.subtract(previous) : this.subtotal);
+        }
+    }
+    
     @Override
     public String toString() {
         return "OrderItem [id=" + getId() + ", product=" + (product != null ? product.getName() : "null") + 
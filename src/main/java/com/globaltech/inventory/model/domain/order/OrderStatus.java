@@ -28,6 +28,24 @@ public enum OrderStatus {
         return description;
     }
     
+    /**
+     * Check if orders in this status count towards product sales
+     * 
+     * @return true for orders that are being processed, shipped or delivered
+     */
+    public boolean isCountedAsSale() {
+        return this == PROCESSING || this == SHIPPED || this == DELIVERED;
+    }
+    
+    /**
+     * Check if orders in this status reserve stock that has not been taken from inventory yet
+     * 
+     * @return true for pending orders
+     */
+    public boolean isReservingStock() {
+        return this == PENDING;
+    }
+    
     @Override
     public String toString() {
         return this.displayName;
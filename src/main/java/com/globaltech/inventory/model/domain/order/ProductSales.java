@@ -0,0 +1,75 @@
+package com.globaltech.inventory.model.domain.order;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import com.globaltech.inventory.model.domain.base.BaseEntity;
+
+/**
+ * Entity holding the pre-aggregated quantity sold and revenue for a product, counting
+ * the items of orders whose status is counted as a sale
+ */
+@Entity
+@Table(name = "product_sales", indexes = {
+    @Index(name = "idx_product_sales_quantity", columnList = "total_quantity"),
+    @Index(name = "idx_product_sales_revenue", columnList = "total_revenue")
+})
+public class ProductSales extends BaseEntity implements ProductSalesSummary {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @Column(name = "product_id", nullable = false, unique = true)
+    private Long productId;
+    
+    @Column(name = "total_quantity", nullable = false)
+    private Long totalQuantity = 0L;
+    
+    @Column(name = "total_revenue", nullable = false)
+    private BigDecimal totalRevenue = BigDecimal.ZERO;
+    
+    public ProductSales() {
+    }
+    
+    public ProductSales(Long productId, long totalQuantity, BigDecimal totalRevenue) {
+        this.productId = productId;
+        this.totalQuantity = totalQuantity;
+        this.totalRevenue = totalRevenue;
+    }
+    
+    @Override
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    @Override
+    public Long getTotalQuantity() {
+        return totalQuantity;
+    }
+    
+    public void setTotalQuantity(Long totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+    
+    @Override
+    public BigDecimal getTotalRevenue() {
+        return totalRevenue;
+    }
+    
+    public void setTotalRevenue(BigDecimal totalRevenue) {
+        this.totalRevenue = totalRevenue;
+    }
+    
+    @Override
+    public String toString() {
+        return "ProductSales [productId=" + productId + ", totalQuantity=" + totalQuantity + 
+                ", totalRevenue=" + totalRevenue + "]";
+    }
+}
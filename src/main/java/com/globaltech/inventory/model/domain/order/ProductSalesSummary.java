@@ -0,0 +1,15 @@
+package com.globaltech.inventory.model.domain.order;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of the quantity sold and revenue for a product
+ */
+public interface ProductSalesSummary {
+    
+    Long getProductId();
+    
+    Long getTotalQuantity();
+    
+    BigDecimal getTotalRevenue();
+}
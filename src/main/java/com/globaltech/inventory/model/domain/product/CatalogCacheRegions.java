@@ -0,0 +1,20 @@
+package com.globaltech.inventory.model.domain.product;
+
+/**
+ * Names of the second-level cache regions used by the product catalogue. Size and expiry
+ * of each region are configured in application.conf under caffeine.jcache; the names must
+ * not contain dots, as the configuration treats them as path separators.
+ */
+public final class CatalogCacheRegions {
+    
+    public static final String PRODUCT = "catalog-product";
+    public static final String CATEGORY = "catalog-category";
+    public static final String SUPPLIER = "catalog-supplier";
+    
+    public static final String PRODUCTS_BY_CATEGORY = "catalog-products-by-category";
+    public static final String PRODUCTS_BY_SUPPLIER = "catalog-products-by-supplier";
+    public static final String CATEGORIES = "catalog-categories";
+    
+    private CatalogCacheRegions() {
+    }
+}
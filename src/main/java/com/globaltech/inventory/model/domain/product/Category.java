@@ -1,17 +1,23 @@
 package com.globaltech.inventory.model.domain.product;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Table;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.globaltech.inventory.model.domain.base.AuditableEntity;
 
 /**
  * Entity representing a product category
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CatalogCacheRegions.CATEGORY)
 @Table(name = "product_categories")
 public class Category extends AuditableEntity {
     
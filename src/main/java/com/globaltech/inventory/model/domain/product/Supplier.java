@@ -1,5 +1,6 @@
 package com.globaltech.inventory.model.domain.product;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Table;
@@ -8,12 +9,17 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.globaltech.inventory.model.domain.base.AuditableEntity;
 
 /**
  * Entity representing a product supplier
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CatalogCacheRegions.SUPPLIER)
 @Table(name = "suppliers")
 public class Supplier extends AuditableEntity {
     
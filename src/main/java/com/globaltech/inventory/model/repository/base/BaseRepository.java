@@ -17,6 +17,13 @@ import org.springframework.data.repository.NoRepositoryBean;
 @NoRepositoryBean
 public interface BaseRepository<T, ID extends Serializable> extends JpaRepository<T, ID>, JpaSpecificationExecutor<T> {
     
+    /**
+     * JDBC fetch size used by Stream-returning finders. MySQL only honours it with
+     * useCursorFetch=true, which {@link CursorFetchPostProcessor} sets on the connection pool;
+     * otherwise the whole result is buffered.
+     */
+    String STREAM_FETCH_SIZE = "500";
+    
     /**
      * Find all entities sorted by the specified field
      * 
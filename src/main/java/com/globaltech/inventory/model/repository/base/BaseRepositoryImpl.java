@@ -0,0 +1,109 @@
+package com.globaltech.inventory.model.repository.base;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.metamodel.EntityType;
+
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+/**
+ * Base implementation of BaseRepository, to be set as the repository base class with
+ * {@code @EnableJpaRepositories(repositoryBaseClass = BaseRepositoryImpl.class)}.
+ * 
+ * The generic field finders resolve a field name against the JPA metamodel the first time it
+ * is used and cache the JPQL queries for it; unknown fields are rejected before any query is
+ * built, so caller input never reaches the query text. Later calls look the queries up without
+ * locking and only bind the value, and Hibernate finds the parsed query in its plan cache by
+ * the same text, so no query is parsed twice however many callers there are.
+ * 
+ * @param <T> the entity type
+ * @param <ID> the ID type
+ */
+public class BaseRepositoryImpl<T, ID extends Serializable> extends SimpleJpaRepository<T, ID> implements BaseRepository<T, ID> {
+    
+    private static final String ALIAS = "e";
+    
+    private final EntityManager entityManager;
+    private final Class<T> domainClass;
+    private final EntityType<T> entityType;
+    private final ConcurrentMap<String, FieldQueries> fieldQueries = new ConcurrentHashMap<>();
+    
+    public BaseRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityManager = entityManager;
+        this.domainClass = entityInformation.getJavaType();
+        this.entityType = entityManager.getMetamodel().entity(domainClass);
+    }
+    
+    @Override
+    public List<T> findAllOrderBy(String sortField) {
+        return entityManager.createQuery(getFieldQueries(sortField).orderBy, domainClass).getResultList();
+    }
+    
+    /**
+     * {@inheritDoc} A null value finds the entities where the field is null.
+     * 
+     * @throws IllegalArgumentException if the field does not exist
+     */
+    @Override
+    public List<T> findByField(String fieldName, Object value) {
+        return createFieldQuery(fieldName, value).getResultList();
+    }
+    
+    /**
+     * {@inheritDoc} A null value finds the entity where the field is null.
+     * 
+     * @throws IllegalArgumentException if the field does not exist
+     * @throws IncorrectResultSizeDataAccessException if more than one entity matches
+     */
+    @Override
+    public Optional<T> findOneByField(String fieldName, Object value) {
+        List<T> results = createFieldQuery(fieldName, value).setMaxResults(2).getResultList();
+        if (results.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException("More than one " + entityType.getName() + " has " + fieldName +
+                    " " + value, 1);
+        }
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+    
+    private TypedQuery<T> createFieldQuery(String fieldName, Object value) {
+        FieldQueries queries = getFieldQueries(fieldName);
+        if (value == null) {
+            return entityManager.createQuery(queries.isNull, domainClass);
+        }
+        return entityManager.createQuery(queries.equalTo, domainClass).setParameter(1, value);
+    }
+    
+    private FieldQueries getFieldQueries(String fieldName) {
+        if (fieldName == null) {
+            throw new IllegalArgumentException("Field name is required");
+        }
+        return ConcurrentMaps.getOrCompute(fieldQueries, fieldName,
+                name -> new FieldQueries(entityType.getName(), MetamodelPaths.resolve(entityType, ALIAS, name, false)));
+    }
+    
+    /**
+     * The queries for one field, built from its resolved path
+     */
+    private static class FieldQueries {
+        
+        private final String equalTo;
+        private final String isNull;
+        private final String orderBy;
+        
+        FieldQueries(String entityName, String path) {
+            String select = "SELECT " + ALIAS + " FROM " + entityName + " " + ALIAS;
+            this.equalTo = select + " WHERE " + path + " = ?1";
+            this.isNull = select + " WHERE " + path + " IS NULL";
+            this.orderBy = select + " ORDER BY " + path;
+        }
+    }
+}
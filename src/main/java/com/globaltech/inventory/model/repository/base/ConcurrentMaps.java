@@ -0,0 +1,27 @@
+package com.globaltech.inventory.model.repository.base;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Lookups on the concurrent maps used as caches on hot paths
+ */
+public final class ConcurrentMaps {
+    
+    private ConcurrentMaps() {
+    }
+    
+    /**
+     * Get the value of a key, computing it if absent. Reads the map first, as computeIfAbsent
+     * locks the bin even when the key is present on Java 8.
+     * 
+     * @param map the map
+     * @param key the key
+     * @param mappingFunction computes the value of an absent key
+     * @return the present or computed value
+     */
+    public static <K, V> V getOrCompute(ConcurrentMap<K, V> map, K key, Function<? super K, ? extends V> mappingFunction) {
+        V value = map.get(key);
+        return value != null ? value : map.computeIfAbsent(key, mappingFunction);
+    }
+}
@@ -0,0 +1,38 @@
+package com.globaltech.inventory.model.repository.base;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns on server-side cursors for MySQL connection pools, so the Stream-returning finders
+ * fetch {@link BaseRepository#STREAM_FETCH_SIZE} rows per round trip instead of Connector/J
+ * reading the whole result into memory before the first row is returned.
+ * 
+ * The property is added before the pool opens its first connection. A URL that already sets
+ * useCursorFetch is left as it is.
+ */
+@Component
+public class CursorFetchPostProcessor implements BeanPostProcessor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CursorFetchPostProcessor.class);
+    
+    private static final String MYSQL_URL_PREFIX = "jdbc:mysql:";
+    private static final String CURSOR_FETCH_PROPERTY = "useCursorFetch";
+    
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof BasicDataSource) {
+            BasicDataSource dataSource = (BasicDataSource) bean;
+            String url = dataSource.getUrl();
+            if (url != null && url.startsWith(MYSQL_URL_PREFIX) && !url.contains(CURSOR_FETCH_PROPERTY)) {
+                dataSource.addConnectionProperty(CURSOR_FETCH_PROPERTY, "true");
+                logger.info("Enabled {} on data source {} so streaming finders use server-side cursors",
+                        CURSOR_FETCH_PROPERTY, beanName);
+            }
+        }
+        return bean;
+    }
+}
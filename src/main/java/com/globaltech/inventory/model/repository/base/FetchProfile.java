@@ -0,0 +1,19 @@
+package com.globaltech.inventory.model.repository.base;
+
+/**
+ * How much of an entity graph a listing finder loads with its query
+ */
+public enum FetchProfile {
+    
+    /**
+     * Only the entities themselves. Associations are loaded lazily, with one select per
+     * distinct associated entity when they are first accessed.
+     */
+    MINIMAL,
+    
+    /**
+     * The entities together with the associations shown in listings, such as product
+     * and location, fetched in the same query
+     */
+    DETAILS
+}
@@ -0,0 +1,227 @@
+package com.globaltech.inventory.model.repository.base;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Dynamic filter over an entity, for filters run on every request. Unlike a {@link
+ * JpaSpecification} it builds no Criteria objects: it records the shape of the filter, the
+ * field paths and operators in order, together with the values to bind. {@link FilterPlanCache}
+ * compiles each distinct shape once into a JPQL query, so running a filter only binds its values.
+ * 
+ * Terms given a null value are left out, so optional filter fields need no branching; use
+ * {@link #fieldIsNull(String)} to match null. Field paths may navigate single-valued
+ * associations and embeddables, e.g. "category.name".
+ * 
+ * @param <T> the entity type
+ */
+public class Filter<T> {
+    
+    static final char EQUALS = '=';
+    static final char CONTAINS = '~';
+    static final char CONTAINS_IGNORE_CASE = 'i';
+    static final char GREATER_THAN = '>';
+    static final char LESS_THAN = '<';
+    static final char IN = '@';
+    static final char IN_NONE = '0';
+    static final char IS_NULL = 'n';
+    static final char IS_NOT_NULL = 'N';
+    static final char AND_GROUP = '[';
+    static final char OR_GROUP = '(';
+    static final char GROUP_END = ')';
+    static final char SEPARATOR = ';';
+    
+    private final Class<T> entityClass;
+    private final StringBuilder shape;
+    private final int shapeStart;
+    private final List<Object> values = new ArrayList<>();
+    
+    private Filter(Class<T> entityClass) {
+        this.entityClass = entityClass;
+        this.shape = new StringBuilder(64).append(entityClass.getName()).append(SEPARATOR);
+        this.shapeStart = shape.length();
+    }
+    
+    /**
+     * Start a filter whose terms must all match
+     * 
+     * @param entityClass the entity class
+     * @return the empty filter, matching every entity
+     */
+    public static <T> Filter<T> where(Class<T> entityClass) {
+        return new Filter<>(entityClass);
+    }
+    
+    /**
+     * Add a term matching entities where a field equals a value
+     * 
+     * @param fieldName the field path
+     * @param value the value, or null to leave the term out
+     * @return this filter
+     */
+    public Filter<T> fieldEquals(String fieldName, Object value) {
+        return value != null ? term(EQUALS, fieldName, value) : this;
+    }
+    
+    /**
+     * Add a term matching entities where a string field contains a value, case-sensitively
+     * 
+     * @param fieldName the field path
+     * @param value the value, or null to leave the term out
+     * @return this filter
+     */
+    public Filter<T> fieldContains(String fieldName, String value) {
+        return value != null ? term(CONTAINS, fieldName, value) : this;
+    }
+    
+    /**
+     * Add a term matching entities where a string field contains a value, ignoring case. The
+     * field is lower-cased by the database and the value in the root locale.
+     * 
+     * @param fieldName the field path
+     * @param value the value, or null to leave the term out
+     * @return this filter
+     */
+    public Filter<T> fieldContainsIgnoreCase(String fieldName, String value) {
+        return value != null ? term(CONTAINS_IGNORE_CASE, fieldName, value) : this;
+    }
+    
+    /**
+     * Add a term matching entities where a field is greater than a value
+     * 
+     * @param fieldName the field path
+     * @param value the value, or null to leave the term out
+     * @return this filter
+     */
+    public <Y extends Comparable<? super Y>> Filter<T> fieldGreaterThan(String fieldName, Y value) {
+        return value != null ? term(GREATER_THAN, fieldName, value) : this;
+    }
+    
+    /**
+     * Add a term matching entities where a field is less than a value
+     * 
+     * @param fieldName the field path
+     * @param value the value, or null to leave the term out
+     * @return this filter
+     */
+    public <Y extends Comparable<? super Y>> Filter<T> fieldLessThan(String fieldName, Y value) {
+        return value != null ? term(LESS_THAN, fieldName, value) : this;
+    }
+    
+    /**
+     * Add a term matching entities where a field is one of a collection of values. An empty
+     * collection matches no entity.
+     * 
+     * @param fieldName the field path
+     * @param values the values, or null to leave the term out
+     * @return this filter
+     */
+    public Filter<T> fieldIn(String fieldName, Collection<?> values) {
+        if (values == null) {
+            return this;
+        }
+        if (values.isEmpty()) {
+            appendShape(IN_NONE, fieldName);
+            return this;
+        }
+        return term(IN, fieldName, values);
+    }
+    
+    /**
+     * Add a term matching entities where a field is null
+     * 
+     * @param fieldName the field path
+     * @return this filter
+     */
+    public Filter<T> fieldIsNull(String fieldName) {
+        appendShape(IS_NULL, fieldName);
+        return this;
+    }
+    
+    /**
+     * Add a term matching entities where a field is not null
+     * 
+     * @param fieldName the field path
+     * @return this filter
+     */
+    public Filter<T> fieldIsNotNull(String fieldName) {
+        appendShape(IS_NOT_NULL, fieldName);
+        return this;
+    }
+    
+    /**
+     * Add a group of terms of which all must match. A group left without terms is dropped.
+     * 
+     * @param group adds the terms of the group to the filter it is given
+     * @return this filter
+     */
+    public Filter<T> and(Consumer<Filter<T>> group) {
+        return group(AND_GROUP, group);
+    }
+    
+    /**
+     * Add a group of terms of which at least one must match. A group left without terms is
+     * dropped.
+     * 
+     * @param group adds the terms of the group to the filter it is given
+     * @return this filter
+     */
+    public Filter<T> or(Consumer<Filter<T>> group) {
+        return group(OR_GROUP, group);
+    }
+    
+    public Class<T> getEntityClass() {
+        return entityClass;
+    }
+    
+    /**
+     * Get the key identifying the shape of the filter: the entity, and the operators, field paths
+     * and grouping of its terms. Filters with the same key differ only in their values.
+     * 
+     * @return the shape key
+     */
+    public String getShapeKey() {
+        return shape.toString();
+    }
+    
+    /**
+     * Get the text after the entity name in the shape key
+     */
+    String getShape() {
+        return shape.substring(shapeStart);
+    }
+    
+    /**
+     * Get the values to bind, in the order of their terms
+     */
+    List<Object> getValues() {
+        return values;
+    }
+    
+    private Filter<T> term(char operator, String fieldName, Object value) {
+        appendShape(operator, fieldName);
+        values.add(value);
+        return this;
+    }
+    
+    private void appendShape(char operator, String fieldName) {
+        if (fieldName == null || fieldName.isEmpty() || fieldName.indexOf(SEPARATOR) >= 0) {
+            throw new IllegalArgumentException("Invalid field name: " + fieldName);
+        }
+        shape.append(operator).append(fieldName).append(SEPARATOR);
+    }
+    
+    private Filter<T> group(char operator, Consumer<Filter<T>> group) {
+        int start = shape.length();
+        shape.append(operator).append(SEPARATOR);
+        group.accept(this);
+        if (shape.length() == start + 2) {
+            shape.setLength(start);
+        } else {
+            shape.append(GROUP_END).append(SEPARATOR);
+        }
+        return this;
+    }
+}
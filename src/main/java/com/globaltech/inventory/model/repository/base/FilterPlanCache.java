@@ -0,0 +1,238 @@
+package com.globaltech.inventory.model.repository.base;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.metamodel.EntityType;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of compiled {@link Filter} plans, keyed by filter shape. The first time a shape is run
+ * its field paths are resolved through the JPA metamodel and it is compiled into JPQL select
+ * and count queries with positional parameters; later runs of the same shape look the plan up
+ * and only bind the filter values. Hibernate in turn caches the parsed query by its JPQL text,
+ * so a cached shape skips both Criteria building and query translation.
+ * 
+ * Shapes come from code, so their number is bounded by the filter screens. The cache still
+ * stops adding plans at its maximum size; shapes beyond it are compiled on every run.
+ */
+@Component
+public class FilterPlanCache {
+    
+    private static final String ALIAS = "e";
+    
+    private final int maxSize;
+    private final ConcurrentMap<String, FilterPlan> plans = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    
+    public FilterPlanCache(@Value("${inventory.filter-plans.max-size:1024}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+    
+    /**
+     * Create the query selecting the entities matching a filter, with the filter values bound
+     * 
+     * @param entityManager the entity manager to create the query with
+     * @param filter the filter
+     * @param sort the order of the results, which may be unsorted
+     * @return the query, ready to run or to page
+     * @throws IllegalArgumentException if a field path does not resolve to a usable attribute
+     */
+    public <T> TypedQuery<T> createQuery(EntityManager entityManager, Filter<T> filter, Sort sort) {
+        FilterPlan plan = getPlan(entityManager, filter);
+        return plan.bind(entityManager.createQuery(plan.getSelect(sort), filter.getEntityClass()), filter);
+    }
+    
+    /**
+     * Create the query counting the entities matching a filter, with the filter values bound
+     * 
+     * @param entityManager the entity manager to create the query with
+     * @param filter the filter
+     * @return the count query
+     * @throws IllegalArgumentException if a field path does not resolve to a usable attribute
+     */
+    public TypedQuery<Long> createCountQuery(EntityManager entityManager, Filter<?> filter) {
+        FilterPlan plan = getPlan(entityManager, filter);
+        return plan.bind(entityManager.createQuery(plan.count, Long.class), filter);
+    }
+    
+    /**
+     * Get the number of cached plans
+     */
+    public int size() {
+        return plans.size();
+    }
+    
+    /**
+     * Get the number of runs that found their plan in the cache
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+    
+    /**
+     * Get the number of runs that compiled their plan
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+    
+    /**
+     * Remove all cached plans
+     */
+    public void clear() {
+        plans.clear();
+    }
+    
+    private FilterPlan getPlan(EntityManager entityManager, Filter<?> filter) {
+        String key = filter.getShapeKey();
+        FilterPlan plan = plans.get(key);
+        if (plan != null) {
+            hitCount.increment();
+            return plan;
+        }
+        missCount.increment();
+        plan = new FilterPlan(entityManager.getMetamodel().entity(filter.getEntityClass()), filter.getShape());
+        if (plans.size() < maxSize) {
+            FilterPlan cached = plans.putIfAbsent(key, plan);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return plan;
+    }
+    
+    /**
+     * Compiled filter shape. The select query is kept per sort order, as sort orders are as
+     * fixed as the shapes they are used with.
+     */
+    private static class FilterPlan {
+        
+        private final EntityType<?> entityType;
+        private final String select;
+        private final String count;
+        private final ConcurrentMap<Sort, String> sortedSelects = new ConcurrentHashMap<>();
+        
+        /** Operator of each parameter, as the LIKE terms bind their value as a pattern */
+        private char[] parameterOperators = new char[8];
+        private int parameter;
+        
+        private final String[] tokens;
+        private int index;
+        
+        FilterPlan(EntityType<?> entityType, String shape) {
+            this.entityType = entityType;
+            this.tokens = shape.isEmpty() ? new String[0] : shape.split(String.valueOf(Filter.SEPARATOR));
+            String where = compileGroup(" AND ");
+            this.parameterOperators = Arrays.copyOf(parameterOperators, parameter);
+            String from = " FROM " + entityType.getName() + " " + ALIAS + (where.isEmpty() ? "" : " WHERE " + where);
+            this.select = "SELECT " + ALIAS + from;
+            this.count = "SELECT COUNT(" + ALIAS + ")" + from;
+        }
+        
+        <Q extends TypedQuery<?>> Q bind(Q query, Filter<?> filter) {
+            List<Object> values = filter.getValues();
+            for (int i = 0; i < values.size(); i++) {
+                Object value = values.get(i);
+                if (parameterOperators[i] == Filter.CONTAINS) {
+                    value = "%" + value + "%";
+                } else if (parameterOperators[i] == Filter.CONTAINS_IGNORE_CASE) {
+                    value = "%" + ((String) value).toLowerCase(Locale.ROOT) + "%";
+                }
+                query.setParameter(i + 1, value);
+            }
+            return query;
+        }
+        
+        String getSelect(Sort sort) {
+            if (sort == null || sort.isUnsorted()) {
+                return select;
+            }
+            return ConcurrentMaps.getOrCompute(sortedSelects, sort, this::compileSort);
+        }
+        
+        private String compileGroup(String joiner) {
+            StringBuilder group = new StringBuilder();
+            while (index < tokens.length) {
+                String token = tokens[index++];
+                char operator = token.charAt(0);
+                if (operator == Filter.GROUP_END) {
+                    break;
+                }
+                if (group.length() > 0) {
+                    group.append(joiner);
+                }
+                if (operator == Filter.AND_GROUP || operator == Filter.OR_GROUP) {
+                    group.append('(').append(compileGroup(operator == Filter.AND_GROUP ? " AND " : " OR ")).append(')');
+                } else {
+                    group.append(compileTerm(operator, token.substring(1)));
+                }
+            }
+            return group.toString();
+        }
+        
+        private String compileTerm(char operator, String fieldName) {
+            boolean stringOperator = operator == Filter.CONTAINS || operator == Filter.CONTAINS_IGNORE_CASE;
+            String path = MetamodelPaths.resolve(entityType, ALIAS, fieldName, stringOperator);
+            switch (operator) {
+                case Filter.EQUALS:
+                    return path + " = ?" + addParameter(operator);
+                case Filter.CONTAINS:
+                    return path + " LIKE ?" + addParameter(operator);
+                case Filter.CONTAINS_IGNORE_CASE:
+                    return "LOWER(" + path + ") LIKE ?" + addParameter(operator);
+                case Filter.GREATER_THAN:
+                    return path + " > ?" + addParameter(operator);
+                case Filter.LESS_THAN:
+                    return path + " < ?" + addParameter(operator);
+                case Filter.IN:
+                    return path + " IN (?" + addParameter(operator) + ")";
+                case Filter.IN_NONE:
+                    return "1 = 0";
+                case Filter.IS_NULL:
+                    return path + " IS NULL";
+                case Filter.IS_NOT_NULL:
+                    return path + " IS NOT NULL";
+                default:
+                    throw new IllegalArgumentException("Unknown filter operator " + operator);
+            }
+        }
+        
+        private int addParameter(char operator) {
+            if (parameter == parameterOperators.length) {
+                parameterOperators = Arrays.copyOf(parameterOperators, parameter * 2);
+            }
+            parameterOperators[parameter++] = operator;
+            return parameter;
+        }
+        
+        private String compileSort(Sort sort) {
+            StringBuilder query = new StringBuilder(select).append(" ORDER BY ");
+            boolean first = true;
+            for (Sort.Order order : sort) {
+                if (!first) {
+                    query.append(", ");
+                }
+                first = false;
+                String path = MetamodelPaths.resolve(entityType, ALIAS, order.getProperty(), order.isIgnoreCase());
+                query.append(order.isIgnoreCase() ? "LOWER(" + path + ")" : path).append(order.isAscending() ? " ASC" : " DESC");
+                if (order.getNullHandling() == Sort.NullHandling.NULLS_FIRST) {
+                    query.append(" NULLS FIRST");
+                } else if (order.getNullHandling() == Sort.NullHandling.NULLS_LAST) {
+                    query.append(" NULLS LAST");
+                }
+            }
+            return query.toString();
+        }
+    }
+}
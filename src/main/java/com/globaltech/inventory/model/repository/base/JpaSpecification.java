@@ -50,9 +50,9 @@ public class JpaSpecification<T> {
      * @param value the field value
      * @return the specification
      */
-    public static <T> Specification<T> fieldGreaterThan(String fieldName, Comparable<?> value) {
+    public static <T, Y extends Comparable<? super Y>> Specification<T> fieldGreaterThan(String fieldName, Y value) {
         return (Root<T> root, CriteriaQuery<?> query, CriteriaBuilder builder) -> {
-            return builder.greaterThan(root.get(fieldName), value);
+            return builder.greaterThan(root.<Y>get(fieldName), value);
         };
     }
     
@@ -63,9 +63,9 @@ public class JpaSpecification<T> {
      * @param value the field value
      * @return the specification
      */
-    public static <T> Specification<T> fieldLessThan(String fieldName, Comparable<?> value) {
+    public static <T, Y extends Comparable<? super Y>> Specification<T> fieldLessThan(String fieldName, Y value) {
         return (Root<T> root, CriteriaQuery<?> query, CriteriaBuilder builder) -> {
-            return builder.lessThan(root.get(fieldName), value);
+            return builder.lessThan(root.<Y>get(fieldName), value);
         };
     }
     
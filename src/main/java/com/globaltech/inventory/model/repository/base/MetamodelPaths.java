@@ -0,0 +1,58 @@
+package com.globaltech.inventory.model.repository.base;
+
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.SingularAttribute;
+import javax.persistence.metamodel.Type;
+
+/**
+ * Resolution of field names against the JPA metamodel, so that generated queries only ever
+ * contain attribute names the metamodel knows
+ */
+final class MetamodelPaths {
+    
+    private MetamodelPaths() {
+    }
+    
+    /**
+     * Resolve a dotted field path into a JPQL path. Every step but the last must be a
+     * single-valued association or embeddable, and no step may be a collection.
+     * 
+     * @param root the type the path starts at
+     * @param alias the JPQL alias of the root
+     * @param fieldName the field path, e.g. "category.name"
+     * @param requireString whether the last attribute must be a string
+     * @return the JPQL path, starting with the alias
+     * @throws IllegalArgumentException if the path does not resolve to a usable attribute
+     */
+    static String resolve(ManagedType<?> root, String alias, String fieldName, boolean requireString) {
+        if (fieldName == null || fieldName.isEmpty()) {
+            throw new IllegalArgumentException("Field name is required");
+        }
+        ManagedType<?> type = root;
+        StringBuilder path = new StringBuilder(alias);
+        String[] names = fieldName.split("\\.", -1);
+        for (int i = 0; i < names.length; i++) {
+            Attribute<?, ?> attribute;
+            try {
+                attribute = type.getAttribute(names[i]);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown field " + fieldName + " of " + root.getJavaType().getSimpleName(), e);
+            }
+            if (attribute.isCollection()) {
+                throw new IllegalArgumentException("Collection attribute " + names[i] + " cannot be queried in " + fieldName);
+            }
+            path.append('.').append(attribute.getName());
+            if (i < names.length - 1) {
+                Type<?> attributeType = ((SingularAttribute<?, ?>) attribute).getType();
+                if (!(attributeType instanceof ManagedType)) {
+                    throw new IllegalArgumentException("Attribute " + names[i] + " has no fields, in " + fieldName);
+                }
+                type = (ManagedType<?>) attributeType;
+            } else if (requireString && attribute.getJavaType() != String.class) {
+                throw new IllegalArgumentException("Attribute " + fieldName + " is not a string");
+            }
+        }
+        return path.toString();
+    }
+}
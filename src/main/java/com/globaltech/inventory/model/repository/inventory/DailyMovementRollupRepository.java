@@ -0,0 +1,12 @@
+package com.globaltech.inventory.model.repository.inventory;
+
+import org.springframework.stereotype.Repository;
+
+import com.globaltech.inventory.model.domain.inventory.DailyMovementRollup;
+
+/**
+ * Repository interface for DailyMovementRollup entity
+ */
+@Repository
+public interface DailyMovementRollupRepository extends MovementRollupRepository<DailyMovementRollup> {
+}
@@ -0,0 +1,32 @@
+package com.globaltech.inventory.model.repository.inventory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.globaltech.inventory.model.domain.inventory.DailyMovementRollup;
+import com.globaltech.inventory.model.domain.inventory.HourlyMovementRollup;
+
+/**
+ * Repository interface for HourlyMovementRollup entity
+ */
+@Repository
+public interface HourlyMovementRollupRepository extends MovementRollupRepository<HourlyMovementRollup> {
+    
+    /**
+     * Sum the hourly rollups within a range into daily rollups. The returned rollups are not persisted.
+     * 
+     * @param from the first hour to include, inclusive
+     * @param to the hour to stop at, exclusive
+     * @return one unsaved daily rollup per day, product, location and movement type
+     */
+    @Query("SELECT new com.globaltech.inventory.model.domain.inventory.DailyMovementRollup(" +
+           "YEAR(r.bucketStart), MONTH(r.bucketStart), DAY(r.bucketStart), r.productId, r.locationId, r.movementType, " +
+           "SUM(r.quantity), SUM(r.movementCount)) FROM HourlyMovementRollup r " +
+           "WHERE r.bucketStart >= :from AND r.bucketStart < :to " +
+           "GROUP BY YEAR(r.bucketStart), MONTH(r.bucketStart), DAY(r.bucketStart), r.productId, r.locationId, r.movementType")
+    List<DailyMovementRollup> summarizeDaily(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -1,14 +1,29 @@
 package com.globaltech.inventory.model.repository.inventory;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.globaltech.inventory.model.domain.inventory.InventoryItem;
+import com.globaltech.inventory.model.domain.inventory.ItemQuantity;
+import com.globaltech.inventory.model.domain.inventory.ReorderCandidateRow;
+import com.globaltech.inventory.model.domain.inventory.StockLevelRow;
 import com.globaltech.inventory.model.repository.base.BaseRepository;
+import com.globaltech.inventory.model.repository.base.FetchProfile;
 
 /**
  * Repository interface for InventoryItem entity
@@ -66,7 +81,27 @@ public interface InventoryRepository extends BaseRepository<InventoryItem, Long>
     List<InventoryItem> findItemsNeedingReorder();
     
     /**
-     * Find total quantity of a product across all locations
+     * Find inventory items that need to be reordered (quantity <= reorder point), with their product and location fetched in the same query
+     * 
+     * @return list of inventory items that need to be reordered
+     */
+    @EntityGraph(InventoryItem.DETAILS_GRAPH)
+    @Query("SELECT i FROM InventoryItem i WHERE i.quantity <= i.reorderPoint")
+    List<InventoryItem> findItemsNeedingReorderWithDetails();
+    
+    /**
+     * Find inventory items that need to be reordered (quantity <= reorder point)
+     * 
+     * @param profile whether to fetch the product and location with the items
+     * @return list of inventory items that need to be reordered
+     */
+    default List<InventoryItem> findItemsNeedingReorder(FetchProfile profile) {
+        return profile == FetchProfile.DETAILS ? findItemsNeedingReorderWithDetails() : findItemsNeedingReorder();
+    }
+    
+    /**
+     * Find total quantity of a product across all locations. This sums the inventory items on
+     * every call; hot paths should read the materialised totals from ProductStockService instead.
      * 
      * @param productId the product ID
      * @return the total quantity of the specified product
@@ -82,6 +117,25 @@ public interface InventoryRepository extends BaseRepository<InventoryItem, Long>
     @Query("SELECT i FROM InventoryItem i WHERE i.quantity < i.minStockLevel")
     List<InventoryItem> findLowStockItems();
     
+    /**
+     * Find low stock items (quantity < min stock level), with their product and location fetched in the same query
+     * 
+     * @return list of inventory items with quantity less than minimum stock level
+     */
+    @EntityGraph(InventoryItem.DETAILS_GRAPH)
+    @Query("SELECT i FROM InventoryItem i WHERE i.quantity < i.minStockLevel")
+    List<InventoryItem> findLowStockItemsWithDetails();
+    
+    /**
+     * Find low stock items (quantity < min stock level)
+     * 
+     * @param profile whether to fetch the product and location with the items
+     * @return list of inventory items with quantity less than minimum stock level
+     */
+    default List<InventoryItem> findLowStockItems(FetchProfile profile) {
+        return profile == FetchProfile.DETAILS ? findLowStockItemsWithDetails() : findLowStockItems();
+    }
+    
     /**
      * Find overstocked items (quantity > max stock level)
      * 
@@ -89,4 +143,150 @@ public interface InventoryRepository extends BaseRepository<InventoryItem, Long>
      */
     @Query("SELECT i FROM InventoryItem i WHERE i.quantity > i.maxStockLevel")
     List<InventoryItem> findOverstockedItems();
-} 
\ No newline at end of file
+    
+    /**
+     * Find overstocked items (quantity > max stock level), with their product and location fetched in the same query
+     * 
+     * @return list of inventory items with quantity greater than maximum stock level
+     */
+    @EntityGraph(InventoryItem.DETAILS_GRAPH)
+    @Query("SELECT i FROM InventoryItem i WHERE i.quantity > i.maxStockLevel")
+    List<InventoryItem> findOverstockedItemsWithDetails();
+    
+    /**
+     * Find overstocked items (quantity > max stock level)
+     * 
+     * @param profile whether to fetch the product and location with the items
+     * @return list of inventory items with quantity greater than maximum stock level
+     */
+    default List<InventoryItem> findOverstockedItems(FetchProfile profile) {
+        return profile == FetchProfile.DETAILS ? findOverstockedItemsWithDetails() : findOverstockedItems();
+    }
+    
+    /**
+     * Atomically remove quantity from an inventory item if enough stock is available.
+     * The update is executed directly in the database without loading the entity,
+     * so managed InventoryItem instances are not refreshed. The version is incremented,
+     * so a concurrent update of a loaded item fails its optimistic lock check.
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID
+     * @param quantity the quantity to remove
+     * @return the number of rows updated (1 if the stock was removed, 0 otherwise)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE InventoryItem i SET i.quantity = i.quantity - :quantity, i.version = i.version + 1 " +
+           "WHERE i.product.id = :productId AND i.location.id = :locationId AND i.quantity >= :quantity")
+    int decrementQuantity(@Param("productId") Long productId, @Param("locationId") Long locationId, 
+                          @Param("quantity") int quantity);
+    
+    /**
+     * Atomically add quantity to an inventory item without loading the entity. The version
+     * is incremented like in {@link #decrementQuantity(Long, Long, int)}.
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID
+     * @param quantity the quantity to add
+     * @return the number of rows updated (1 if the item exists, 0 otherwise)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE InventoryItem i SET i.quantity = i.quantity + :quantity, i.version = i.version + 1 " +
+           "WHERE i.product.id = :productId AND i.location.id = :locationId")
+    int incrementQuantity(@Param("productId") Long productId, @Param("locationId") Long locationId, 
+                          @Param("quantity") int quantity);
+    
+    /**
+     * Find an inventory item by ID and lock its row until the transaction ends
+     * (SELECT ... FOR UPDATE). Must be called within a transaction.
+     * 
+     * @param id the inventory item ID
+     * @return optional of the locked inventory item
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM InventoryItem i WHERE i.id = :id")
+    Optional<InventoryItem> findByIdForUpdate(@Param("id") Long id);
+    
+    /**
+     * Find inventory items for any of the specified products
+     * 
+     * @param productIds the product IDs
+     * @return list of inventory items for the specified products
+     */
+    List<InventoryItem> findByProductIdIn(Collection<Long> productIds);
+    
+    /**
+     * Find the stock level of every product at every location, ordered by product and location name.
+     * Rows are built by the query and never enter the persistence context.
+     * 
+     * @return list of stock level rows
+     */
+    @Query("SELECT new com.globaltech.inventory.model.domain.inventory.StockLevelRow(p.id, p.sku, p.name, l.id, l.name, " +
+           "i.quantity, i.minStockLevel, i.maxStockLevel) FROM InventoryItem i JOIN i.product p JOIN i.location l " +
+           "ORDER BY p.name, l.name")
+    List<StockLevelRow> findStockLevels();
+    
+    /**
+     * Find the stock levels of all products at a location, ordered by product name
+     * 
+     * @param locationId the location ID
+     * @return list of stock level rows for the specified location
+     */
+    @Query("SELECT new com.globaltech.inventory.model.domain.inventory.StockLevelRow(p.id, p.sku, p.name, l.id, l.name, " +
+           "i.quantity, i.minStockLevel, i.maxStockLevel) FROM InventoryItem i JOIN i.product p JOIN i.location l " +
+           "WHERE l.id = :locationId ORDER BY p.name")
+    List<StockLevelRow> findStockLevelsByLocationId(@Param("locationId") Long locationId);
+    
+    /**
+     * Find the stock levels of a product at all locations, ordered by location name
+     * 
+     * @param productId the product ID
+     * @return list of stock level rows for the specified product
+     */
+    @Query("SELECT new com.globaltech.inventory.model.domain.inventory.StockLevelRow(p.id, p.sku, p.name, l.id, l.name, " +
+           "i.quantity, i.minStockLevel, i.maxStockLevel) FROM InventoryItem i JOIN i.product p JOIN i.location l " +
+           "WHERE p.id = :productId ORDER BY l.name")
+    List<StockLevelRow> findStockLevelsByProductId(@Param("productId") Long productId);
+    
+    /**
+     * Find the inventory items at or below their reorder point with the supplier of their product,
+     * ordered by supplier, product and location name
+     * 
+     * @return list of reorder candidate rows
+     */
+    @Query("SELECT new com.globaltech.inventory.model.domain.inventory.ReorderCandidateRow(p.id, p.sku, p.name, l.id, l.name, " +
+           "i.quantity, i.reorderPoint, i.maxStockLevel, s.id, s.companyName, s.email) " +
+           "FROM InventoryItem i JOIN i.product p JOIN i.location l LEFT JOIN p.supplier s " +
+           "WHERE i.quantity <= i.reorderPoint ORDER BY s.companyName, p.name, l.name")
+    List<ReorderCandidateRow> findReorderCandidates();
+    
+    /**
+     * Find the IDs of all locations holding inventory items
+     * 
+     * @return list of location IDs
+     */
+    @Query("SELECT DISTINCT i.location.id FROM InventoryItem i")
+    List<Long> findLocationIds();
+    
+    /**
+     * Stream every inventory item at a location as a reorder candidate row with its supplier,
+     * whatever its quantity. Must be called within a transaction and the stream must be closed after use.
+     * 
+     * @param locationId the location ID
+     * @return stream of rows for the inventory items at the specified location
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT new com.globaltech.inventory.model.domain.inventory.ReorderCandidateRow(p.id, p.sku, p.name, l.id, l.name, " +
+           "i.quantity, i.reorderPoint, i.maxStockLevel, s.id, s.companyName, s.email) " +
+           "FROM InventoryItem i JOIN i.product p JOIN i.location l LEFT JOIN p.supplier s WHERE l.id = :locationId")
+    Stream<ReorderCandidateRow> streamReplenishmentRowsByLocationId(@Param("locationId") Long locationId);
+    
+    /**
+     * Stream the quantity of every inventory item, without loading entities. Must be called
+     * within a transaction and the stream must be closed after use.
+     * 
+     * @return stream of product, location and quantity rows
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT i.product.id AS productId, i.location.id AS locationId, i.quantity AS quantity FROM InventoryItem i")
+    Stream<ItemQuantity> streamItemQuantities();
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.globaltech.inventory.model.repository.inventory;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.globaltech.inventory.model.domain.inventory.InventorySnapshotItem;
+import com.globaltech.inventory.model.domain.inventory.InventorySnapshotItemId;
+import com.globaltech.inventory.model.domain.inventory.LocationQuantity;
+import com.globaltech.inventory.model.repository.base.BaseRepository;
+
+/**
+ * Repository interface for InventorySnapshotItem entity
+ */
+@Repository
+public interface InventorySnapshotItemRepository extends BaseRepository<InventorySnapshotItem, InventorySnapshotItemId> {
+    
+    /**
+     * Find the quantity of a product at a location in a snapshot
+     * 
+     * @param snapshotId the snapshot ID
+     * @param productId the product ID
+     * @param locationId the location ID
+     * @return the captured quantity, or null if the product was not stocked at the location
+     */
+    @Query("SELECT i.quantity FROM InventorySnapshotItem i WHERE i.id.snapshotId = :snapshotId " +
+           "AND i.id.productId = :productId AND i.id.locationId = :locationId")
+    Integer findQuantity(@Param("snapshotId") Long snapshotId, 
+                         @Param("productId") Long productId, 
+                         @Param("locationId") Long locationId);
+    
+    /**
+     * Find the quantity of a product at each location in a snapshot
+     * 
+     * @param snapshotId the snapshot ID
+     * @param productId the product ID
+     * @return one row per location the product was stocked at
+     */
+    @Query("SELECT i.id.locationId AS locationId, SUM(i.quantity) AS totalQuantity FROM InventorySnapshotItem i " +
+           "WHERE i.id.snapshotId = :snapshotId AND i.id.productId = :productId GROUP BY i.id.locationId")
+    List<LocationQuantity> findQuantitiesByProductId(@Param("snapshotId") Long snapshotId, 
+                                                     @Param("productId") Long productId);
+    
+    /**
+     * Delete the items of a snapshot
+     * 
+     * @param snapshotId the snapshot ID
+     * @return the number of items deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM InventorySnapshotItem i WHERE i.id.snapshotId = :snapshotId")
+    int deleteBySnapshotId(@Param("snapshotId") Long snapshotId);
+}
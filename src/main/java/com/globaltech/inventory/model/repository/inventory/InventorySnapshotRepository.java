@@ -0,0 +1,33 @@
+package com.globaltech.inventory.model.repository.inventory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.stereotype.Repository;
+
+import com.globaltech.inventory.model.domain.inventory.InventorySnapshot;
+import com.globaltech.inventory.model.repository.base.BaseRepository;
+
+/**
+ * Repository interface for InventorySnapshot entity
+ */
+@Repository
+public interface InventorySnapshotRepository extends BaseRepository<InventorySnapshot, Long> {
+    
+    /**
+     * Find the latest complete snapshot taken at or before a point in time
+     * 
+     * @param asOf the point in time
+     * @return the nearest earlier complete snapshot, or empty if there is none
+     */
+    Optional<InventorySnapshot> findFirstByCompleteTrueAndTakenAtLessThanEqualOrderByTakenAtDesc(LocalDateTime asOf);
+    
+    /**
+     * Find snapshots taken before a point in time, complete or not
+     * 
+     * @param takenAt the point in time
+     * @return list of snapshots taken before the specified time
+     */
+    List<InventorySnapshot> findByTakenAtBefore(LocalDateTime takenAt);
+}
@@ -0,0 +1,58 @@
+package com.globaltech.inventory.model.repository.inventory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import com.globaltech.inventory.model.domain.inventory.MovementRollup;
+import com.globaltech.inventory.model.domain.inventory.MovementTypeQuantity;
+import com.globaltech.inventory.model.repository.base.BaseRepository;
+
+/**
+ * Queries shared by the hourly and daily stock movement rollup repositories
+ * 
+ * @param <T> the rollup entity type
+ */
+@NoRepositoryBean
+public interface MovementRollupRepository<T extends MovementRollup> extends BaseRepository<T, Long> {
+    
+    /**
+     * Find the start of the latest bucket holding any movements
+     * 
+     * @return the latest bucket start, or null if nothing has been rolled up
+     */
+    @Query("SELECT MAX(r.bucketStart) FROM #{#entityName} r")
+    LocalDateTime findLastBucketStart();
+    
+    /**
+     * Delete the rollups of the buckets starting within a range, so that they can be rebuilt
+     * 
+     * @param from the first bucket start to delete, inclusive
+     * @param to the bucket start to stop at, exclusive
+     * @return the number of rollups deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM #{#entityName} r WHERE r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteBuckets(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Sum the rolled up quantity of a product per movement type over the buckets starting within a range
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID, or null for all locations
+     * @param from the first bucket start to include, inclusive
+     * @param to the bucket start to stop at, exclusive
+     * @return one row per movement type
+     */
+    @Query("SELECT r.movementType AS movementType, SUM(r.quantity) AS totalQuantity FROM #{#entityName} r " +
+           "WHERE r.productId = :productId AND (:locationId IS NULL OR r.locationId = :locationId) " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to GROUP BY r.movementType")
+    List<MovementTypeQuantity> summarizeByMovementType(@Param("productId") Long productId, 
+                                                       @Param("locationId") Long locationId, 
+                                                       @Param("from") LocalDateTime from, 
+                                                       @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,89 @@
+package com.globaltech.inventory.model.repository.inventory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.globaltech.inventory.model.domain.inventory.ProductDemand;
+import com.globaltech.inventory.model.domain.inventory.ProductStock;
+import com.globaltech.inventory.model.domain.order.OrderStatus;
+import com.globaltech.inventory.model.repository.base.BaseRepository;
+
+/**
+ * Repository interface for the materialised ProductStock totals
+ */
+@Repository
+public interface ProductStockRepository extends BaseRepository<ProductStock, Long> {
+    
+    /**
+     * Find the stock totals of a product
+     * 
+     * @param productId the product ID
+     * @return optional of the stock totals for the specified product
+     */
+    Optional<ProductStock> findByProductId(Long productId);
+    
+    /**
+     * Find the stock totals of several products
+     * 
+     * @param productIds the product IDs
+     * @return list of stock totals for the specified products
+     */
+    List<ProductStock> findByProductIdIn(Collection<Long> productIds);
+    
+    /**
+     * Add to the quantity on hand of a product
+     * 
+     * @param productId the product ID
+     * @param quantity the quantity to add (negative to subtract)
+     * @return the number of rows updated (0 if the product has no totals yet)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ProductStock s SET s.onHand = s.onHand + :quantity WHERE s.productId = :productId")
+    int addOnHand(@Param("productId") Long productId, @Param("quantity") long quantity);
+    
+    /**
+     * Add to the reserved quantity of a product
+     * 
+     * @param productId the product ID
+     * @param quantity the quantity to add (negative to subtract)
+     * @return the number of rows updated (0 if the product has no totals yet)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ProductStock s SET s.reserved = s.reserved + :quantity WHERE s.productId = :productId")
+    int addReserved(@Param("productId") Long productId, @Param("quantity") long quantity);
+    
+    /**
+     * Sum the inventory items of every product into new, unsaved totals with nothing reserved
+     * 
+     * @return one row per product with inventory
+     */
+    @Query("SELECT new com.globaltech.inventory.model.domain.inventory.ProductStock(i.product.id, SUM(i.quantity), 0L) " +
+           "FROM InventoryItem i GROUP BY i.product.id")
+    List<ProductStock> summarizeInventory();
+    
+    /**
+     * Sum the items of all orders in the specified statuses into new, unsaved totals with nothing on hand
+     * 
+     * @param statuses the order statuses that reserve stock
+     * @return one row per ordered product
+     */
+    @Query("SELECT new com.globaltech.inventory.model.domain.inventory.ProductStock(oi.product.id, 0L, SUM(oi.quantity)) " +
+           "FROM OrderItem oi WHERE oi.order.status IN :statuses GROUP BY oi.product.id")
+    List<ProductStock> summarizeReservations(@Param("statuses") Collection<OrderStatus> statuses);
+    
+    /**
+     * Find the products with open order demand, with the number of locations stocking each.
+     * Rows are built by the query and never enter the persistence context.
+     * 
+     * @return one row per product with a reserved quantity
+     */
+    @Query("SELECT new com.globaltech.inventory.model.domain.inventory.ProductDemand(s.productId, s.onHand, s.reserved, " +
+           "(SELECT COUNT(i) FROM InventoryItem i WHERE i.product.id = s.productId)) FROM ProductStock s WHERE s.reserved > 0")
+    List<ProductDemand> findOpenDemand();
+}
\ No newline at end of file
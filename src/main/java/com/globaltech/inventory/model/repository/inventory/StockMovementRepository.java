@@ -1,15 +1,32 @@
 package com.globaltech.inventory.model.repository.inventory;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.globaltech.inventory.model.domain.inventory.HourlyMovementRollup;
+import com.globaltech.inventory.model.domain.inventory.LocationQuantity;
+import com.globaltech.inventory.model.domain.inventory.MovementTypeQuantity;
+import com.globaltech.inventory.model.domain.inventory.ProductLocationQuantity;
+import com.globaltech.inventory.model.domain.inventory.ProductQuantity;
 import com.globaltech.inventory.model.domain.inventory.StockMovement;
 import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+import com.globaltech.inventory.model.domain.inventory.StockMovementRow;
 import com.globaltech.inventory.model.repository.base.BaseRepository;
+import com.globaltech.inventory.model.repository.base.FetchProfile;
 
 /**
  * Repository interface for StockMovement entity
@@ -67,7 +84,8 @@ public interface StockMovementRepository extends BaseRepository<StockMovement, L
     List<StockMovement> findByMovementDateBetween(LocalDateTime startDate, LocalDateTime endDate);
     
     /**
-     * Find stock movements by product ID and movement date between the specified start and end dates
+     * Find stock movements by product ID and movement date between the specified start and end dates.
+     * For totals over a range use StockMovementRollupService, which reads the hourly and daily rollups.
      * 
      * @param productId the product ID
      * @param startDate the start date
@@ -77,13 +95,15 @@ public interface StockMovementRepository extends BaseRepository<StockMovement, L
     List<StockMovement> findByProductIdAndMovementDateBetween(Long productId, LocalDateTime startDate, LocalDateTime endDate);
     
     /**
-     * Get total quantity moved in for a product by movement type
+     * Get total quantity moved in for a product by movement type, summed from the daily rollups
+     * rather than the movements, so archived movements are included. StockMovementRollupService
+     * answers totals over a date range.
      * 
      * @param productId the product ID
      * @param movementType the movement type
      * @return the total quantity moved in for the specified product by movement type
      */
-    @Query("SELECT SUM(m.quantity) FROM StockMovement m WHERE m.product.id = :productId AND m.movementType = :movementType")
+    @Query("SELECT SUM(r.quantity) FROM DailyMovementRollup r WHERE r.productId = :productId AND r.movementType = :movementType")
     Integer getTotalQuantityByProductAndMovementType(@Param("productId") Long productId, @Param("movementType") MovementType movementType);
     
     /**
@@ -94,4 +114,293 @@ public interface StockMovementRepository extends BaseRepository<StockMovement, L
      */
     @Query("SELECT m FROM StockMovement m WHERE m.product.id = :productId ORDER BY m.movementDate DESC")
     List<StockMovement> findMostRecentMovementsForProduct(@Param("productId") Long productId);
-} 
\ No newline at end of file
+    
+    /**
+     * Get the most recent stock movements for a product, with their product and locations
+     * fetched in the same query
+     * 
+     * @param productId the product ID
+     * @return the stock movements for the specified product, most recent first
+     */
+    @EntityGraph(StockMovement.DETAILS_GRAPH)
+    @Query("SELECT m FROM StockMovement m WHERE m.product.id = :productId ORDER BY m.movementDate DESC")
+    List<StockMovement> findMostRecentMovementsForProductWithDetails(@Param("productId") Long productId);
+    
+    /**
+     * Get the most recent stock movements for a product
+     * 
+     * @param productId the product ID
+     * @param profile whether to fetch the product and locations with the movements
+     * @return the stock movements for the specified product, most recent first
+     */
+    default List<StockMovement> findMostRecentMovementsForProduct(Long productId, FetchProfile profile) {
+        return profile == FetchProfile.DETAILS 
+                ? findMostRecentMovementsForProductWithDetails(productId) 
+                : findMostRecentMovementsForProduct(productId);
+    }
+    
+    /**
+     * Find the first page of stock movements for a product, ordered by movement date and ID.
+     * Use {@link #findByProductIdAfter} with the last row of this page to continue.
+     * 
+     * @param productId the product ID
+     * @param pageable the page size
+     * @return the first stock movements for the specified product
+     */
+    List<StockMovement> findByProductIdOrderByMovementDateAscIdAsc(Long productId, Pageable pageable);
+    
+    /**
+     * Find the next page of stock movements for a product after the specified (date, ID) position
+     * 
+     * @param productId the product ID
+     * @param lastMovementDate the movement date of the last row already read
+     * @param lastId the ID of the last row already read
+     * @param pageable the page size
+     * @return the next stock movements for the specified product, ordered by movement date and ID
+     */
+    @Query("SELECT m FROM StockMovement m WHERE m.product.id = :productId AND " +
+           "m.movementDate >= :lastMovementDate AND (m.movementDate > :lastMovementDate OR m.id > :lastId) " +
+           "ORDER BY m.movementDate ASC, m.id ASC")
+    List<StockMovement> findByProductIdAfter(@Param("productId") Long productId, 
+                                             @Param("lastMovementDate") LocalDateTime lastMovementDate, 
+                                             @Param("lastId") Long lastId, Pageable pageable);
+    
+    /**
+     * Find the next page of stock movements within a date range after the specified (date, ID) position.
+     * Pass the start date and an ID of 0 to read the first page.
+     * 
+     * @param lastMovementDate the movement date of the last row already read
+     * @param lastId the ID of the last row already read
+     * @param endDate the end date
+     * @param pageable the page size
+     * @return the next stock movements up to the end date, ordered by movement date and ID
+     */
+    @Query("SELECT m FROM StockMovement m WHERE m.movementDate <= :endDate AND " +
+           "m.movementDate >= :lastMovementDate AND (m.movementDate > :lastMovementDate OR m.id > :lastId) " +
+           "ORDER BY m.movementDate ASC, m.id ASC")
+    List<StockMovement> findByMovementDateAfter(@Param("lastMovementDate") LocalDateTime lastMovementDate, 
+                                                @Param("lastId") Long lastId, 
+                                                @Param("endDate") LocalDateTime endDate, Pageable pageable);
+    
+    /**
+     * Stream stock movements for a product. Must be called within a transaction and the
+     * stream must be closed after use.
+     * Entities stay in the persistence context until it is cleared; use {@link
+     * com.globaltech.inventory.model.service.inventory.InventoryService#streamMovementsByProductId}
+     * to have each one detached as it is read.
+     * 
+     * @param productId the product ID
+     * @return stream of stock movements for the specified product
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    Stream<StockMovement> streamByProductId(Long productId);
+    
+    /**
+     * Stream stock movements by movement date between the specified start and end dates.
+     * Must be called within a transaction and the stream must be closed after use.
+     * Entities stay in the persistence context until it is cleared; use {@link
+     * com.globaltech.inventory.model.service.inventory.InventoryService#streamMovementsByMovementDateBetween}
+     * to have each one detached as it is read.
+     * 
+     * @param startDate the start date
+     * @param endDate the end date
+     * @return stream of stock movements within the specified date range
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    Stream<StockMovement> streamByMovementDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+    
+    /**
+     * Sum the quantity of movements of a type leaving a location since a date, per product
+     * 
+     * @param locationId the source location ID
+     * @param movementType the movement type
+     * @param since the earliest movement date to include
+     * @return one row per product moved out of the location
+     */
+    @Query("SELECT m.product.id AS productId, SUM(m.quantity) AS totalQuantity FROM StockMovement m " +
+           "WHERE m.sourceLocation.id = :locationId AND m.movementType = :movementType AND m.movementDate >= :since " +
+           "GROUP BY m.product.id")
+    List<ProductQuantity> summarizeOutgoingByProduct(@Param("locationId") Long locationId, 
+                                                    @Param("movementType") MovementType movementType, 
+                                                    @Param("since") LocalDateTime since);
+    
+    /**
+     * Find the movement date of the oldest stock movement
+     * 
+     * @return the oldest movement date, or null if there are no movements
+     */
+    @Query("SELECT MIN(m.movementDate) FROM StockMovement m")
+    LocalDateTime findFirstMovementDate();
+    
+    /**
+     * Sum the quantity of a product per movement type over a date range, from the raw movements.
+     * A movement belongs to its source location, or its target location if it has no source.
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID, or null for all locations
+     * @param from the start date, inclusive
+     * @param to the end date, exclusive
+     * @return one row per movement type
+     */
+    @Query("SELECT m.movementType AS movementType, SUM(m.quantity) AS totalQuantity FROM StockMovement m " +
+           "WHERE m.product.id = :productId AND m.movementDate >= :from AND m.movementDate < :to " +
+           "AND (:locationId IS NULL OR COALESCE(m.sourceLocation.id, m.targetLocation.id, 0) = :locationId) " +
+           "GROUP BY m.movementType")
+    List<MovementTypeQuantity> summarizeByMovementType(@Param("productId") Long productId, 
+                                                       @Param("locationId") Long locationId, 
+                                                       @Param("from") LocalDateTime from, 
+                                                       @Param("to") LocalDateTime to);
+    
+    /**
+     * Sum the movements within a date range into hourly rollups. The returned rollups are not persisted.
+     * 
+     * @param from the start date, inclusive
+     * @param to the end date, exclusive
+     * @return one unsaved hourly rollup per hour, product, location and movement type
+     */
+    @Query("SELECT new com.globaltech.inventory.model.domain.inventory.HourlyMovementRollup(" +
+           "YEAR(m.movementDate), MONTH(m.movementDate), DAY(m.movementDate), HOUR(m.movementDate), m.product.id, " +
+           "COALESCE(m.sourceLocation.id, m.targetLocation.id, 0), m.movementType, SUM(m.quantity), COUNT(m)) " +
+           "FROM StockMovement m WHERE m.movementDate >= :from AND m.movementDate < :to " +
+           "GROUP BY YEAR(m.movementDate), MONTH(m.movementDate), DAY(m.movementDate), HOUR(m.movementDate), m.product.id, " +
+           "COALESCE(m.sourceLocation.id, m.targetLocation.id, 0), m.movementType")
+    List<HourlyMovementRollup> summarizeHourly(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Sum the net change in the quantity of a product at a location over a date range. A movement
+     * adds its quantity to its target location and removes it from its source location.
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID
+     * @param after the start date, exclusive
+     * @param until the end date, inclusive
+     * @return the quantity moved in minus the quantity moved out
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN m.targetLocation.id = :locationId THEN m.quantity ELSE 0 END), 0) - " +
+           "COALESCE(SUM(CASE WHEN m.sourceLocation.id = :locationId THEN m.quantity ELSE 0 END), 0) " +
+           "FROM StockMovement m WHERE m.product.id = :productId AND m.movementDate > :after AND m.movementDate <= :until " +
+           "AND (m.sourceLocation.id = :locationId OR m.targetLocation.id = :locationId)")
+    Long sumNetQuantity(@Param("productId") Long productId, 
+                        @Param("locationId") Long locationId, 
+                        @Param("after") LocalDateTime after, 
+                        @Param("until") LocalDateTime until);
+    
+    /**
+     * Sum the quantity of a product moved into each location over a date range
+     * 
+     * @param productId the product ID
+     * @param after the start date, exclusive
+     * @param until the end date, inclusive
+     * @return one row per target location
+     */
+    @Query("SELECT m.targetLocation.id AS locationId, SUM(m.quantity) AS totalQuantity FROM StockMovement m " +
+           "WHERE m.product.id = :productId AND m.movementDate > :after AND m.movementDate <= :until " +
+           "AND m.targetLocation IS NOT NULL GROUP BY m.targetLocation.id")
+    List<LocationQuantity> summarizeIncomingByLocation(@Param("productId") Long productId, 
+                                                       @Param("after") LocalDateTime after, 
+                                                       @Param("until") LocalDateTime until);
+    
+    /**
+     * Sum the quantity of a product moved out of each location over a date range
+     * 
+     * @param productId the product ID
+     * @param after the start date, exclusive
+     * @param until the end date, inclusive
+     * @return one row per source location
+     */
+    @Query("SELECT m.sourceLocation.id AS locationId, SUM(m.quantity) AS totalQuantity FROM StockMovement m " +
+           "WHERE m.product.id = :productId AND m.movementDate > :after AND m.movementDate <= :until " +
+           "AND m.sourceLocation IS NOT NULL GROUP BY m.sourceLocation.id")
+    List<LocationQuantity> summarizeOutgoingByLocation(@Param("productId") Long productId, 
+                                                       @Param("after") LocalDateTime after, 
+                                                       @Param("until") LocalDateTime until);
+    
+    /**
+     * Sum the quantity moved into each location per product after a date
+     * 
+     * @param after the start date, exclusive
+     * @return one row per product and target location
+     */
+    @Query("SELECT m.product.id AS productId, m.targetLocation.id AS locationId, SUM(m.quantity) AS totalQuantity " +
+           "FROM StockMovement m WHERE m.movementDate > :after AND m.targetLocation IS NOT NULL " +
+           "GROUP BY m.product.id, m.targetLocation.id")
+    List<ProductLocationQuantity> summarizeIncomingAfter(@Param("after") LocalDateTime after);
+    
+    /**
+     * Sum the quantity moved out of each location per product after a date
+     * 
+     * @param after the start date, exclusive
+     * @return one row per product and source location
+     */
+    @Query("SELECT m.product.id AS productId, m.sourceLocation.id AS locationId, SUM(m.quantity) AS totalQuantity " +
+           "FROM StockMovement m WHERE m.movementDate > :after AND m.sourceLocation IS NOT NULL " +
+           "GROUP BY m.product.id, m.sourceLocation.id")
+    List<ProductLocationQuantity> summarizeOutgoingAfter(@Param("after") LocalDateTime after);
+    
+    /**
+     * Sum the quantity of movements of a type per product over a date range
+     * 
+     * @param movementType the movement type
+     * @param from the start date, inclusive
+     * @param to the end date, exclusive
+     * @return one row per product moved within the range
+     */
+    @Query("SELECT m.product.id AS productId, SUM(m.quantity) AS totalQuantity FROM StockMovement m " +
+           "WHERE m.movementType = :movementType AND m.movementDate >= :from AND m.movementDate < :to " +
+           "GROUP BY m.product.id")
+    List<ProductQuantity> summarizeByProduct(@Param("movementType") MovementType movementType, 
+                                             @Param("from") LocalDateTime from, 
+                                             @Param("to") LocalDateTime to);
+    
+    /**
+     * Stream the archived columns of the movements within a date range, ordered by movement date
+     * and ID. Must be called within a transaction and the stream must be closed after use.
+     * 
+     * @param from the start date, inclusive
+     * @param to the end date, exclusive
+     * @return stream of movement rows within the specified date range
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT m.product.id AS productId, s.id AS sourceLocationId, t.id AS targetLocationId, m.quantity AS quantity, " +
+           "m.movementType AS movementType, m.movementDate AS movementDate FROM StockMovement m " +
+           "LEFT JOIN m.sourceLocation s LEFT JOIN m.targetLocation t " +
+           "WHERE m.movementDate >= :from AND m.movementDate < :to ORDER BY m.movementDate ASC, m.id ASC")
+    Stream<StockMovementRow> streamRowsByMovementDateRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Count the movements within a date range
+     * 
+     * @param from the start date, inclusive
+     * @param to the end date, exclusive
+     * @return the number of movements within the specified date range
+     */
+    @Query("SELECT COUNT(m) FROM StockMovement m WHERE m.movementDate >= :from AND m.movementDate < :to")
+    long countByMovementDateRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Sum the quantity of the movements within a date range
+     * 
+     * @param from the start date, inclusive
+     * @param to the end date, exclusive
+     * @return the total quantity moved within the specified date range
+     */
+    @Query("SELECT COALESCE(SUM(m.quantity), 0) FROM StockMovement m WHERE m.movementDate >= :from AND m.movementDate < :to")
+    long sumQuantityByMovementDateRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Delete the movements within a date range, for example once they have been archived
+     * 
+     * @param from the start date, inclusive
+     * @param to the end date, exclusive
+     * @return the number of movements deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM StockMovement m WHERE m.movementDate >= :from AND m.movementDate < :to")
+    int deleteByMovementDateRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
\ No newline at end of file
@@ -1,14 +1,20 @@
 package com.globaltech.inventory.model.repository.order;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.globaltech.inventory.model.domain.order.OrderItem;
+import com.globaltech.inventory.model.domain.order.ProductSalesSummary;
 import com.globaltech.inventory.model.repository.base.BaseRepository;
+import com.globaltech.inventory.model.repository.base.FetchProfile;
 
 /**
  * Repository interface for OrderItem entity
@@ -24,6 +30,26 @@ public interface OrderItemRepository extends BaseRepository<OrderItem, Long> {
      */
     List<OrderItem> findByOrderId(Long orderId);
     
+    /**
+     * Find order items by order ID, with their product fetched in the same query
+     * 
+     * @param orderId the order ID
+     * @return list of order items for the specified order
+     */
+    @EntityGraph(OrderItem.DETAILS_GRAPH)
+    List<OrderItem> findWithDetailsByOrderId(Long orderId);
+    
+    /**
+     * Find order items by order ID
+     * 
+     * @param orderId the order ID
+     * @param profile whether to fetch the product with the items
+     * @return list of order items for the specified order
+     */
+    default List<OrderItem> findByOrderId(Long orderId, FetchProfile profile) {
+        return profile == FetchProfile.DETAILS ? findWithDetailsByOrderId(orderId) : findByOrderId(orderId);
+    }
+    
     /**
      * Find order items by product ID
      * 
@@ -81,8 +107,19 @@ public interface OrderItemRepository extends BaseRepository<OrderItem, Long> {
      * @param limit the number of products to return
      * @return list of top selling products by quantity
      */
-    @Query("SELECT oi.product.id, SUM(oi.quantity) as totalQuantity FROM OrderItem oi GROUP BY oi.product.id ORDER BY totalQuantity DESC")
-    List<Object[]> findTopSellingProductsByQuantity(@Param("limit") int limit);
+    default List<ProductSalesSummary> findTopSellingProductsByQuantity(int limit) {
+        return findTopSellingProductsByQuantity(PageRequest.of(0, limit));
+    }
+    
+    /**
+     * Find top selling products by quantity
+     * 
+     * @param pageable the page of products to return
+     * @return list of top selling products by quantity
+     */
+    @Query("SELECT oi.product.id AS productId, SUM(oi.quantity) AS totalQuantity, SUM(oi.subtotal) AS totalRevenue " +
+           "FROM OrderItem oi GROUP BY oi.product.id ORDER BY SUM(oi.quantity) DESC")
+    List<ProductSalesSummary> findTopSellingProductsByQuantity(Pageable pageable);
     
     /**
      * Find top selling products by revenue
@@ -90,6 +127,25 @@ public interface OrderItemRepository extends BaseRepository<OrderItem, Long> {
      * @param limit the number of products to return
      * @return list of top selling products by revenue
      */
-    @Query("SELECT oi.product.id, SUM(oi.subtotal) as totalRevenue FROM OrderItem oi GROUP BY oi.product.id ORDER BY totalRevenue DESC")
-    List<Object[]> findTopSellingProductsByRevenue(@Param("limit") int limit);
-} 
\ No newline at end of file
+    default List<ProductSalesSummary> findTopSellingProductsByRevenue(int limit) {
+        return findTopSellingProductsByRevenue(PageRequest.of(0, limit));
+    }
+    
+    /**
+     * Find top selling products by revenue
+     * 
+     * @param pageable the page of products to return
+     * @return list of top selling products by revenue
+     */
+    @Query("SELECT oi.product.id AS productId, SUM(oi.quantity) AS totalQuantity, SUM(oi.subtotal) AS totalRevenue " +
+           "FROM OrderItem oi GROUP BY oi.product.id ORDER BY SUM(oi.subtotal) DESC")
+    List<ProductSalesSummary> findTopSellingProductsByRevenue(Pageable pageable);
+    
+    /**
+     * Find order items for any of the specified orders
+     * 
+     * @param orderIds the order IDs
+     * @return list of order items for the specified orders
+     */
+    List<OrderItem> findByOrderIdIn(Collection<Long> orderIds);
+}
\ No newline at end of file
@@ -1,10 +1,18 @@
 package com.globaltech.inventory.model.repository.order;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -111,4 +119,87 @@ public interface OrderRepository extends BaseRepository<Order, Long> {
      * @return the number of orders with the specified status
      */
     long countByStatus(OrderStatus status);
-} 
\ No newline at end of file
+    
+    /**
+     * Find the IDs of orders with the specified status, oldest first
+     * 
+     * @param status the order status
+     * @param pageable the page to return
+     * @return list of order IDs with the specified status ordered by order date and ID
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status ORDER BY o.orderDate ASC, o.id ASC")
+    List<Long> findIdsByStatus(@Param("status") OrderStatus status, Pageable pageable);
+    
+    /**
+     * Find the IDs of orders with the specified status after the specified (date, ID) position
+     * 
+     * @param status the order status
+     * @param lastOrderDate the order date of the last order already read
+     * @param lastId the ID of the last order already read
+     * @param pageable the page size
+     * @return the next order IDs with the specified status ordered by order date and ID
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND " +
+           "o.orderDate >= :lastOrderDate AND (o.orderDate > :lastOrderDate OR o.id > :lastId) " +
+           "ORDER BY o.orderDate ASC, o.id ASC")
+    List<Long> findIdsByStatusAfter(@Param("status") OrderStatus status, @Param("lastOrderDate") LocalDateTime lastOrderDate,
+                                    @Param("lastId") Long lastId, Pageable pageable);
+    
+    /**
+     * Find the first page of orders with the specified status, ordered by order date and ID.
+     * Use {@link #findByStatusAfter} with the last row of this page to continue.
+     * 
+     * @param status the order status
+     * @param pageable the page size
+     * @return the first orders with the specified status
+     */
+    List<Order> findByStatusOrderByOrderDateAscIdAsc(OrderStatus status, Pageable pageable);
+    
+    /**
+     * Find the next page of orders with the specified status after the specified (date, ID) position
+     * 
+     * @param status the order status
+     * @param lastOrderDate the order date of the last row already read
+     * @param lastId the ID of the last row already read
+     * @param pageable the page size
+     * @return the next orders with the specified status, ordered by order date and ID
+     */
+    @Query("SELECT o FROM Order o WHERE o.status = :status AND " +
+           "o.orderDate >= :lastOrderDate AND (o.orderDate > :lastOrderDate OR o.id > :lastId) " +
+           "ORDER BY o.orderDate ASC, o.id ASC")
+    List<Order> findByStatusAfter(@Param("status") OrderStatus status, @Param("lastOrderDate") LocalDateTime lastOrderDate, 
+                                  @Param("lastId") Long lastId, Pageable pageable);
+    
+    /**
+     * Stream orders by status. Must be called within a transaction and the stream must be
+     * closed after use.
+     * Entities stay in the persistence context until it is cleared; use {@link
+     * com.globaltech.inventory.model.service.order.OrderService#streamByStatus}
+     * to have each one detached as it is read.
+     * 
+     * @param status the order status
+     * @return stream of orders with the specified status
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    Stream<Order> streamByStatus(OrderStatus status);
+    
+    /**
+     * Stream orders by order date between the specified start and end dates.
+     * Must be called within a transaction and the stream must be closed after use.
+     * Entities stay in the persistence context until it is cleared; use {@link
+     * com.globaltech.inventory.model.service.order.OrderService#streamByOrderDateBetween}
+     * to have each one detached as it is read.
+     * 
+     * @param startDate the start date
+     * @param endDate the end date
+     * @return stream of orders within the specified date range
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    Stream<Order> streamByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+}
\ No newline at end of file
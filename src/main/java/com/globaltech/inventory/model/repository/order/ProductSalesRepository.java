@@ -0,0 +1,116 @@
+package com.globaltech.inventory.model.repository.order;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.globaltech.inventory.model.domain.order.OrderStatus;
+import com.globaltech.inventory.model.domain.order.ProductSales;
+import com.globaltech.inventory.model.repository.base.BaseRepository;
+
+/**
+ * Repository interface for the ProductSales rollup
+ */
+@Repository
+public interface ProductSalesRepository extends BaseRepository<ProductSales, Long> {
+    
+    /**
+     * Find the sales rollup for a product
+     * 
+     * @param productId the product ID
+     * @return optional of the sales rollup for the specified product
+     */
+    Optional<ProductSales> findByProductId(Long productId);
+    
+    /**
+     * Find top selling products by quantity from the rollup
+     * 
+     * @param limit the number of products to return
+     * @return list of top selling products by quantity
+     */
+    default List<ProductSales> findTopByQuantity(int limit) {
+        return findAllByOrderByTotalQuantityDesc(PageRequest.of(0, limit));
+    }
+    
+    /**
+     * Find top selling products by revenue from the rollup
+     * 
+     * @param limit the number of products to return
+     * @return list of top selling products by revenue
+     */
+    default List<ProductSales> findTopByRevenue(int limit) {
+        return findAllByOrderByTotalRevenueDesc(PageRequest.of(0, limit));
+    }
+    
+    /**
+     * Find product sales ordered by quantity sold
+     * 
+     * @param pageable the page to return
+     * @return list of product sales ordered by quantity sold, highest first
+     */
+    List<ProductSales> findAllByOrderByTotalQuantityDesc(Pageable pageable);
+    
+    /**
+     * Find product sales ordered by revenue
+     * 
+     * @param pageable the page to return
+     * @return list of product sales ordered by revenue, highest first
+     */
+    List<ProductSales> findAllByOrderByTotalRevenueDesc(Pageable pageable);
+    
+    /**
+     * Add quantity and revenue to the rollup of a product
+     * 
+     * @param productId the product ID
+     * @param quantity the quantity to add (negative to subtract)
+     * @param revenue the revenue to add (negative to subtract)
+     * @return the number of rows updated (0 if the product has no rollup yet)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ProductSales s SET s.totalQuantity = s.totalQuantity + :quantity, " +
+           "s.totalRevenue = s.totalRevenue + :revenue WHERE s.productId = :productId")
+    int addSales(@Param("productId") Long productId, @Param("quantity") long quantity, 
+                 @Param("revenue") BigDecimal revenue);
+    
+    /**
+     * Lock every rollup row until the transaction ends (SELECT ... FOR UPDATE). On InnoDB at
+     * REPEATABLE READ the scan also locks the gaps between the rows, so no rollup row can be
+     * added either. Must be called within a transaction.
+     * 
+     * @return the IDs of the locked rows
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s.id FROM ProductSales s")
+    List<Long> lockAllSales();
+    
+    /**
+     * Delete all rollup rows
+     * 
+     * @return the number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM ProductSales s")
+    int deleteAllSales();
+    
+    /**
+     * Aggregate the items of all orders in the specified statuses into new, unsaved rollup rows
+     * 
+     * @param statuses the order statuses counted as sales
+     * @return one row per product
+     */
+    @Query("SELECT new com.globaltech.inventory.model.domain.order.ProductSales(oi.product.id, SUM(oi.quantity), " +
+           "COALESCE(SUM(oi.subtotal), 0)) FROM OrderItem oi WHERE oi.order.status IN :statuses " +
+           "GROUP BY oi.product.id")
+    List<ProductSales> summarizeOrderItems(@Param("statuses") Collection<OrderStatus> statuses);
+}
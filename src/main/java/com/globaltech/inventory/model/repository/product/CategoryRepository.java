@@ -1,9 +1,16 @@
 package com.globaltech.inventory.model.repository.product;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 import java.util.List;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.globaltech.inventory.model.domain.product.CatalogCacheRegions;
 import com.globaltech.inventory.model.domain.product.Category;
 import com.globaltech.inventory.model.repository.base.BaseRepository;
 
@@ -13,6 +20,18 @@ import com.globaltech.inventory.model.repository.base.BaseRepository;
 @Repository
 public interface CategoryRepository extends BaseRepository<Category, Long> {
     
+    /**
+     * Find all categories. The result is kept in the query cache until a category changes.
+     * 
+     * @return list of all categories
+     */
+    @Override
+    @QueryHints({
+        @QueryHint(name = HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HINT_CACHE_REGION, value = CatalogCacheRegions.CATEGORIES)
+    })
+    List<Category> findAll();
+    
     /**
      * Find categories by name containing the specified string (case insensitive)
      * 
@@ -27,6 +46,10 @@ public interface CategoryRepository extends BaseRepository<Category, Long> {
      * @param name the category name
      * @return the category with the specified name
      */
+    @QueryHints({
+        @QueryHint(name = HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HINT_CACHE_REGION, value = CatalogCacheRegions.CATEGORIES)
+    })
     Category findByNameIgnoreCase(String name);
     
     /**
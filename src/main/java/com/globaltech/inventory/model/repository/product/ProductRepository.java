@@ -1,12 +1,19 @@
 package com.globaltech.inventory.model.repository.product;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 import java.math.BigDecimal;
 import java.util.List;
 
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.globaltech.inventory.model.domain.product.CatalogCacheRegions;
 import com.globaltech.inventory.model.domain.product.Product;
 import com.globaltech.inventory.model.repository.base.BaseRepository;
 
@@ -30,6 +37,10 @@ public interface ProductRepository extends BaseRepository<Product, Long> {
      * @param categoryId the category ID
      * @return list of products in the specified category
      */
+    @QueryHints({
+        @QueryHint(name = HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HINT_CACHE_REGION, value = CatalogCacheRegions.PRODUCTS_BY_CATEGORY)
+    })
     List<Product> findByCategoryId(Long categoryId);
     
     /**
@@ -38,6 +49,10 @@ public interface ProductRepository extends BaseRepository<Product, Long> {
      * @param supplierId the supplier ID
      * @return list of products from the specified supplier
      */
+    @QueryHints({
+        @QueryHint(name = HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HINT_CACHE_REGION, value = CatalogCacheRegions.PRODUCTS_BY_SUPPLIER)
+    })
     List<Product> findBySupplierId(Long supplierId);
     
     /**
@@ -74,7 +89,8 @@ public interface ProductRepository extends BaseRepository<Product, Long> {
     Product findBySku(String sku);
     
     /**
-     * Search for products by name or description containing the specified string
+     * Search for products by name or description containing the specified string.
+     * This scans the whole table; interactive search should use ProductService.search.
      * 
      * @param searchTerm the search term
      * @return list of products with name or description containing the specified string
@@ -3,11 +3,25 @@ package com.globaltech.inventory.model.service.base;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.globaltech.inventory.model.repository.base.BaseRepository;
+import com.globaltech.inventory.model.repository.base.Filter;
+import com.globaltech.inventory.model.repository.base.FilterPlanCache;
 
 /**
  * Base implementation of CrudService
@@ -21,8 +35,18 @@ public abstract class BaseServiceImpl<T, ID extends Serializable, R extends Base
     
     protected final R repository;
     
+    @PersistenceContext
+    protected EntityManager entityManager;
+    
+    @Autowired
+    private FilterPlanCache filterPlanCache;
+    
+    private final Class<T> entityClass;
+    
+    @SuppressWarnings("unchecked")
     public BaseServiceImpl(R repository) {
         this.repository = repository;
+        this.entityClass = (Class<T>) GenericTypeResolver.resolveTypeArguments(getClass(), BaseServiceImpl.class)[0];
     }
     
     @Override
@@ -49,6 +73,31 @@ public abstract class BaseServiceImpl<T, ID extends Serializable, R extends Base
         return repository.findAll();
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public List<T> findAllAfter(ID lastId, int batchSize) {
+        String entityName = entityManager.getMetamodel().entity(entityClass).getName();
+        TypedQuery<T> query;
+        if (lastId == null) {
+            query = entityManager.createQuery("SELECT e FROM " + entityName + " e ORDER BY e.id", entityClass);
+        } else {
+            query = entityManager.createQuery("SELECT e FROM " + entityName + " e WHERE e.id > :lastId ORDER BY e.id", entityClass)
+                    .setParameter("lastId", lastId);
+        }
+        return query.setMaxResults(batchSize).getResultList();
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public Stream<T> streamAll() {
+        String entityName = entityManager.getMetamodel().entity(entityClass).getName();
+        return entityManager.createQuery("SELECT e FROM " + entityName + " e ORDER BY e.id", entityClass)
+                .setHint(QueryHints.HINT_FETCH_SIZE, Integer.valueOf(BaseRepository.STREAM_FETCH_SIZE))
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public List<T> findAllSorted(String sortField) {
@@ -67,6 +116,29 @@ public abstract class BaseServiceImpl<T, ID extends Serializable, R extends Base
         return repository.findOneByField(fieldName, value);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public List<T> findAll(Filter<T> filter) {
+        return filterPlanCache.createQuery(entityManager, filter, Sort.unsorted()).getResultList();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Page<T> findAll(Filter<T> filter, Pageable pageable) {
+        TypedQuery<T> query = filterPlanCache.createQuery(entityManager, filter, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(filter));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public long count(Filter<T> filter) {
+        return filterPlanCache.createCountQuery(entityManager, filter).getSingleResult();
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public long count() {
@@ -3,6 +3,12 @@ package com.globaltech.inventory.model.service.base;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.globaltech.inventory.model.repository.base.Filter;
 
 /**
  * Generic service interface for CRUD operations
@@ -43,6 +49,25 @@ public interface CrudService<T, ID extends Serializable> {
      */
     List<T> findAll();
     
+    /**
+     * Find the next batch of entities after the specified ID, ordered by ID. Pass null to
+     * read the first batch and the ID of the last entity of each batch to continue.
+     * 
+     * @param lastId the ID of the last entity already read, or null to start from the beginning
+     * @param batchSize the maximum number of entities to return
+     * @return list of entities with an ID greater than the specified ID
+     */
+    List<T> findAllAfter(ID lastId, int batchSize);
+    
+    /**
+     * Stream all entities ordered by ID using JDBC fetch-size streaming. Entities are
+     * read-only and detached as soon as they are handed to the stream, so memory use stays
+     * bounded. Must be called within a transaction and the stream must be closed after use.
+     * 
+     * @return stream of all entities
+     */
+    Stream<T> streamAll();
+    
     /**
      * Find all entities sorted by the specified field
      * 
@@ -69,6 +94,35 @@ public interface CrudService<T, ID extends Serializable> {
      */
     Optional<T> findOneByField(String fieldName, Object value);
     
+    /**
+     * Find the entities matching a filter. The filter's query is compiled once per filter shape
+     * and cached, so repeated filters only bind their values.
+     * 
+     * @param filter the filter
+     * @return list of matching entities
+     * @throws IllegalArgumentException if a filter field does not exist
+     */
+    List<T> findAll(Filter<T> filter);
+    
+    /**
+     * Find a page of the entities matching a filter, in the order of the page request
+     * 
+     * @param filter the filter
+     * @param pageable the page request
+     * @return the page of matching entities
+     * @throws IllegalArgumentException if a filter or sort field does not exist
+     */
+    Page<T> findAll(Filter<T> filter, Pageable pageable);
+    
+    /**
+     * Count the entities matching a filter
+     * 
+     * @param filter the filter
+     * @return the number of matching entities
+     * @throws IllegalArgumentException if a filter field does not exist
+     */
+    long count(Filter<T> filter);
+    
     /**
      * Count all entities
      * 
@@ -0,0 +1,503 @@
+package com.globaltech.inventory.model.service.base;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Base class of streaming CSV imports. The file is read in chunks of rows; the rows of a chunk
+ * are parsed and checked against the Bean Validation constraints in parallel, and the valid
+ * rows are then written by the subclass in one transaction per chunk, so memory use does not
+ * grow with the file. Given an OptimisticRetryTemplate, a chunk that fails on an optimistic lock
+ * conflict is rolled back and written again in a new transaction.
+ * 
+ * After each committed chunk the rejected rows are appended to the error report and the byte
+ * offset reached is saved to a checkpoint file next to the source. A run that finds a
+ * checkpoint continues from it, and the checkpoint is deleted once the whole file has been
+ * imported. A crash between a commit and its checkpoint writes that chunk again, so subclasses
+ * must write rows idempotently.
+ * 
+ * @param <R> the type of an imported row
+ */
+public abstract class CsvImporter<R> implements DisposableBean {
+    
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    
+    /** Rows validated per task, so small chunks do not pay for a task per worker */
+    private static final int MIN_ROWS_PER_TASK = 256;
+    
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    
+    protected final EntityManagerFactory entityManagerFactory;
+    
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticRetryTemplate retryTemplate;
+    private final ValidatorFactory validatorFactory;
+    private final Validator validator;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int chunkSize;
+    private final List<String> requiredColumns;
+    
+    protected CsvImporter(EntityManagerFactory entityManagerFactory, PlatformTransactionManager transactionManager,
+                          int chunkSize, int parallelism, List<String> requiredColumns) {
+        this(entityManagerFactory, transactionManager, null, chunkSize, parallelism, requiredColumns);
+    }
+    
+    protected CsvImporter(EntityManagerFactory entityManagerFactory, PlatformTransactionManager transactionManager,
+                          OptimisticRetryTemplate retryTemplate, int chunkSize, int parallelism, List<String> requiredColumns) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retryTemplate = retryTemplate;
+        // Constraint messages are plain text, so the interpolator does not need an expression language
+        this.validatorFactory = Validation.byDefaultProvider().configure()
+                .messageInterpolator(new ParameterMessageInterpolator()).buildValidatorFactory();
+        this.validator = validatorFactory.getValidator();
+        this.chunkSize = chunkSize;
+        this.parallelism = WorkerThreads.parallelism(parallelism);
+        this.requiredColumns = requiredColumns;
+        
+        this.executor = WorkerThreads.newFixedPool(getClass().getSimpleName(), this.parallelism);
+    }
+    
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        validatorFactory.close();
+    }
+    
+    /**
+     * Convert a row into the value to import. Called concurrently from several threads.
+     * 
+     * @param row the row, with its fields accessible by column name
+     * @return the value to import
+     * @throws IllegalArgumentException with the message to report if the row is invalid
+     */
+    protected abstract R parse(CsvRow row);
+    
+    /**
+     * Write the valid rows of a chunk. Called within the chunk's transaction; rows that cannot
+     * be written, for example because they refer to unknown entities, are rejected. With a retry
+     * template, a chunk may be written more than once, each time from rows that are not rejected.
+     * 
+     * @param rows the rows that passed parsing and validation
+     * @param source the file name of the import, e.g. for reference numbers
+     */
+    protected abstract void write(List<ImportRow<R>> rows, String source);
+    
+    /**
+     * Import a file, continuing from its checkpoint if an earlier run was interrupted
+     * 
+     * @param file the CSV file, with a header row naming its columns
+     * @param errorReport the file to write rejected rows to, or null to only count them
+     * @return the result of the run
+     * @throws IllegalArgumentException if a required column is missing
+     * @throws IllegalStateException if the file changed since its checkpoint was written
+     */
+    protected ImportResult importFile(Path file, Path errorReport) {
+        long start = System.nanoTime();
+        Path checkpointFile = file.resolveSibling(file.getFileName() + CHECKPOINT_SUFFIX);
+        String source = file.getFileName().toString();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Checkpoint checkpoint = Files.exists(checkpointFile) ? readCheckpoint(checkpointFile, file) : null;
+            boolean resumed = checkpoint != null;
+            CsvReader reader = new CsvReader(channel, 0, 0);
+            Map<String, Integer> columns = readHeader(reader);
+            if (resumed) {
+                reader = new CsvReader(channel, checkpoint.offset, checkpoint.lineNumber);
+            } else {
+                checkpoint = new Checkpoint(reader.getOffset(), reader.getLineNumber(), 0, 0, 0);
+            }
+            
+            long processed = 0;
+            try (Writer report = openErrorReport(errorReport, resumed)) {
+                List<ImportRow<R>> chunk;
+                while (!(chunk = readChunk(reader, columns)).isEmpty()) {
+                    parseChunk(chunk);
+                    List<ImportRow<R>> valid = new ArrayList<>(chunk.size());
+                    for (ImportRow<R> row : chunk) {
+                        if (!row.isRejected()) {
+                            valid.add(row);
+                        }
+                    }
+                    if (!valid.isEmpty()) {
+                        writeChunk(valid, source);
+                    }
+                    
+                    long rejected = 0;
+                    for (ImportRow<R> row : chunk) {
+                        if (row.isRejected()) {
+                            rejected++;
+                            if (report != null) {
+                                report.write(row.getLineNumber() + "," + quote(row.getError()) + "\n");
+                            }
+                        }
+                    }
+                    if (report != null) {
+                        report.flush();
+                    }
+                    processed += chunk.size();
+                    checkpoint = new Checkpoint(reader.getOffset(), reader.getLineNumber(), checkpoint.rowCount + chunk.size(),
+                            checkpoint.importedCount + chunk.size() - rejected, checkpoint.rejectedCount + rejected);
+                    writeCheckpoint(checkpointFile, file, checkpoint);
+                }
+            }
+            Files.deleteIfExists(checkpointFile);
+            
+            ImportResult result = new ImportResult(checkpoint.rowCount, checkpoint.importedCount, checkpoint.rejectedCount,
+                    processed, System.nanoTime() - start, resumed);
+            logger.info("Imported {}: {}", file, result);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not import " + file, e);
+        }
+    }
+    
+    private void writeChunk(List<ImportRow<R>> rows, String source) {
+        if (retryTemplate == null) {
+            transactionTemplate.execute(status -> {
+                write(rows, source);
+                return null;
+            });
+            return;
+        }
+        retryTemplate.execute(getClass().getSimpleName() + ".write", () -> {
+            // Rows rejected by an attempt that was rolled back are considered again
+            for (ImportRow<R> row : rows) {
+                row.error = null;
+            }
+            write(rows, source);
+            return null;
+        });
+    }
+    
+    /**
+     * Check a bean against its Bean Validation constraints
+     * 
+     * @param bean the bean to check
+     * @param properties the properties to check, or none to check the whole bean
+     * @throws IllegalArgumentException with the violation messages if the bean is invalid
+     */
+    protected void requireValid(Object bean, String... properties) {
+        Set<String> messages = new TreeSet<>();
+        if (properties.length == 0) {
+            for (ConstraintViolation<Object> violation : validator.validate(bean)) {
+                messages.add(violation.getMessage());
+            }
+        }
+        for (String property : properties) {
+            for (ConstraintViolation<Object> violation : validator.validateProperty(bean, property)) {
+                messages.add(violation.getMessage());
+            }
+        }
+        if (!messages.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", messages));
+        }
+    }
+    
+    /**
+     * Get the entity manager of the current chunk transaction
+     */
+    protected EntityManager getEntityManager() {
+        return EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+    }
+    
+    /**
+     * Run an action once the current chunk transaction has committed
+     */
+    protected static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    private Map<String, Integer> readHeader(CsvReader reader) throws IOException {
+        String[] header = reader.read();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            columns.putIfAbsent(header[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : requiredColumns) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("CSV file has no " + column + " column");
+            }
+        }
+        return columns;
+    }
+    
+    private List<ImportRow<R>> readChunk(CsvReader reader, Map<String, Integer> columns) throws IOException {
+        List<ImportRow<R>> chunk = new ArrayList<>(chunkSize);
+        String[] fields;
+        while (chunk.size() < chunkSize && (fields = reader.read()) != null) {
+            chunk.add(new ImportRow<>(reader.getRecordLineNumber(), new CsvRow(columns, fields)));
+        }
+        return chunk;
+    }
+    
+    private void parseChunk(List<ImportRow<R>> chunk) {
+        int tasks = Math.min(parallelism, (chunk.size() + MIN_ROWS_PER_TASK - 1) / MIN_ROWS_PER_TASK);
+        if (tasks <= 1) {
+            parseRange(chunk, 0, chunk.size());
+            return;
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>(tasks);
+        for (int task = 0; task < tasks; task++) {
+            int from = (int) ((long) chunk.size() * task / tasks);
+            int to = (int) ((long) chunk.size() * (task + 1) / tasks);
+            futures.add(CompletableFuture.runAsync(() -> parseRange(chunk, from, to), executor));
+        }
+        try {
+            for (CompletableFuture<Void> future : futures) {
+                future.join();
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    private void parseRange(List<ImportRow<R>> chunk, int from, int to) {
+        for (int i = from; i < to; i++) {
+            ImportRow<R> row = chunk.get(i);
+            try {
+                row.parsed(parse(row.csvRow));
+            } catch (IllegalArgumentException e) {
+                row.reject(e.getMessage());
+            }
+        }
+    }
+    
+    private static Writer openErrorReport(Path errorReport, boolean append) throws IOException {
+        if (errorReport == null) {
+            return null;
+        }
+        if (append && Files.exists(errorReport)) {
+            return Files.newBufferedWriter(errorReport, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        }
+        BufferedWriter report = Files.newBufferedWriter(errorReport, StandardCharsets.UTF_8);
+        report.write("line,error\n");
+        return report;
+    }
+    
+    private static String quote(String value) {
+        return "\"" + (value != null ? value.replace("\"", "\"\"") : "") + "\"";
+    }
+    
+    private static Checkpoint readCheckpoint(Path checkpointFile, Path file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(checkpointFile)) {
+            properties.load(in);
+        }
+        if (Long.parseLong(properties.getProperty("size")) != Files.size(file)
+                || Long.parseLong(properties.getProperty("modified")) != Files.getLastModifiedTime(file).toMillis()) {
+            throw new IllegalStateException("File " + file + " changed since its import checkpoint was written, " +
+                    "delete " + checkpointFile + " to import it from the start");
+        }
+        return new Checkpoint(Long.parseLong(properties.getProperty("offset")), Long.parseLong(properties.getProperty("line")),
+                Long.parseLong(properties.getProperty("rows")), Long.parseLong(properties.getProperty("imported")),
+                Long.parseLong(properties.getProperty("rejected")));
+    }
+    
+    private static void writeCheckpoint(Path checkpointFile, Path file, Checkpoint checkpoint) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("size", Long.toString(Files.size(file)));
+        properties.setProperty("modified", Long.toString(Files.getLastModifiedTime(file).toMillis()));
+        properties.setProperty("offset", Long.toString(checkpoint.offset));
+        properties.setProperty("line", Long.toString(checkpoint.lineNumber));
+        properties.setProperty("rows", Long.toString(checkpoint.rowCount));
+        properties.setProperty("imported", Long.toString(checkpoint.importedCount));
+        properties.setProperty("rejected", Long.toString(checkpoint.rejectedCount));
+        Path temporary = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            properties.store(out, null);
+        }
+        Files.move(temporary, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * A data row of the file with its fields accessible by column name
+     */
+    protected static final class CsvRow {
+        
+        private final Map<String, Integer> columns;
+        private final String[] fields;
+        
+        private CsvRow(Map<String, Integer> columns, String[] fields) {
+            this.columns = columns;
+            this.fields = fields;
+        }
+        
+        /**
+         * Get a field
+         * 
+         * @param column the lower-case column name
+         * @return the trimmed field, or null if the row has no such column or the field is empty
+         */
+        public String get(String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.length) {
+                return null;
+            }
+            String value = fields[index].trim();
+            return value.isEmpty() ? null : value;
+        }
+        
+        /**
+         * Get a required field
+         * 
+         * @throws IllegalArgumentException if the field is empty
+         */
+        public String getRequired(String column) {
+            String value = get(column);
+            if (value == null) {
+                throw new IllegalArgumentException("Column " + column + " is required");
+            }
+            return value;
+        }
+        
+        /**
+         * Get a field as an integer
+         * 
+         * @return the integer, or null if the field is empty
+         * @throws IllegalArgumentException if the field is not an integer
+         */
+        public Integer getInteger(String column) {
+            String value = get(column);
+            try {
+                return value != null ? Integer.valueOf(value) : null;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Column " + column + " is not a whole number: " + value);
+            }
+        }
+        
+        /**
+         * Get a field as a decimal number
+         * 
+         * @return the number, or null if the field is empty
+         * @throws IllegalArgumentException if the field is not a number
+         */
+        public BigDecimal getDecimal(String column) {
+            String value = get(column);
+            try {
+                return value != null ? new BigDecimal(value) : null;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Column " + column + " is not a number: " + value);
+            }
+        }
+    }
+    
+    /**
+     * A row of the file on its way through the import
+     * 
+     * @param <R> the type of an imported row
+     */
+    protected static final class ImportRow<R> {
+        
+        private final long lineNumber;
+        private CsvRow csvRow;
+        private R value;
+        private String error;
+        
+        private ImportRow(long lineNumber, CsvRow csvRow) {
+            this.lineNumber = lineNumber;
+            this.csvRow = csvRow;
+        }
+        
+        public long getLineNumber() {
+            return lineNumber;
+        }
+        
+        public R getValue() {
+            return value;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public boolean isRejected() {
+            return error != null;
+        }
+        
+        /**
+         * Reject the row, which is then reported instead of imported
+         * 
+         * @param message the reason
+         */
+        public void reject(String message) {
+            this.error = message != null ? message : "Invalid row";
+            this.csvRow = null;
+        }
+        
+        private void parsed(R value) {
+            this.value = value;
+            this.csvRow = null;
+        }
+    }
+    
+    private static final class Checkpoint {
+        
+        private final long offset;
+        private final long lineNumber;
+        private final long rowCount;
+        private final long importedCount;
+        private final long rejectedCount;
+        
+        private Checkpoint(long offset, long lineNumber, long rowCount, long importedCount, long rejectedCount) {
+            this.offset = offset;
+            this.lineNumber = lineNumber;
+            this.rowCount = rowCount;
+            this.importedCount = importedCount;
+            this.rejectedCount = rejectedCount;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.globaltech.inventory.model.service.base;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reader of RFC 4180 CSV records from a file channel, starting at any record boundary. Fields
+ * may be quoted, with doubled quotes for quotes and line breaks inside quotes; records end with
+ * LF or CRLF and empty lines are skipped. The reader tracks the byte offset and line number
+ * after the last record it returned, so reading can resume there later. Text is UTF-8.
+ */
+public class CsvReader {
+    
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final List<String> fields = new ArrayList<>();
+    private byte[] field = new byte[256];
+    private int fieldLength;
+    private long bufferOffset;
+    private long offset;
+    private long lineNumber;
+    private long recordLineNumber;
+    
+    /**
+     * Create a reader starting at a record boundary
+     * 
+     * @param channel the file to read
+     * @param offset the byte offset of the first record to read
+     * @param lineNumber the number of lines before that offset
+     */
+    public CsvReader(FileChannel channel, long offset, long lineNumber) throws IOException {
+        this.channel = channel;
+        this.bufferOffset = offset;
+        this.offset = offset;
+        this.lineNumber = lineNumber;
+        buffer.flip();
+        if (offset == 0) {
+            skipByteOrderMark();
+        }
+    }
+    
+    /**
+     * Read the next record
+     * 
+     * @return the fields of the record, or null at the end of the file
+     */
+    public String[] read() throws IOException {
+        while (true) {
+            int b = next();
+            if (b < 0) {
+                return null;
+            }
+            recordLineNumber = lineNumber + 1;
+            fields.clear();
+            fieldLength = 0;
+            boolean quoted = false;
+            boolean fieldQuoted = false;
+            while (true) {
+                if (quoted) {
+                    if (b < 0) {
+                        throw new IOException("Unterminated quoted field in record at line " + recordLineNumber);
+                    }
+                    if (b == '"') {
+                        if (peek() == '"') {
+                            next();
+                            append(b);
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        if (b == '\n') {
+                            lineNumber++;
+                        }
+                        append(b);
+                    }
+                } else if (b == '"' && fieldLength == 0 && !fieldQuoted) {
+                    quoted = true;
+                    fieldQuoted = true;
+                } else if (b == ',') {
+                    endField();
+                    fieldQuoted = false;
+                } else if (b < 0 || b == '\n' || b == '\r') {
+                    if (b == '\r' && peek() == '\n') {
+                        next();
+                    }
+                    if (b >= 0) {
+                        lineNumber++;
+                    }
+                    offset = bufferOffset + buffer.position();
+                    break;
+                } else {
+                    append(b);
+                }
+                b = next();
+            }
+            if (!fields.isEmpty() || fieldLength > 0 || fieldQuoted) {
+                endField();
+                return fields.toArray(new String[0]);
+            }
+        }
+    }
+    
+    /**
+     * Get the byte offset after the last record read
+     * 
+     * @return the offset to resume reading at
+     */
+    public long getOffset() {
+        return offset;
+    }
+    
+    /**
+     * Get the number of lines up to the end of the last record read
+     * 
+     * @return the line number to resume reading with
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+    
+    /**
+     * Get the line the last record read started on
+     * 
+     * @return the 1-based line number
+     */
+    public long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+    
+    private void append(int b) {
+        if (fieldLength == field.length) {
+            field = Arrays.copyOf(field, field.length * 2);
+        }
+        field[fieldLength++] = (byte) b;
+    }
+    
+    private void endField() {
+        fields.add(new String(field, 0, fieldLength, StandardCharsets.UTF_8));
+        fieldLength = 0;
+    }
+    
+    private int next() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+    
+    private int peek() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+    
+    private boolean fill() throws IOException {
+        bufferOffset += buffer.limit();
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer, bufferOffset + buffer.position());
+        } while (read == 0);
+        buffer.flip();
+        return read > 0;
+    }
+    
+    private void skipByteOrderMark() throws IOException {
+        if (peek() == 0xEF && buffer.remaining() >= 3 && (buffer.get(1) & 0xFF) == 0xBB && (buffer.get(2) & 0xFF) == 0xBF) {
+            buffer.position(3);
+            offset = 3;
+        }
+    }
+}
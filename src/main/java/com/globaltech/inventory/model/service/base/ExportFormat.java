@@ -0,0 +1,23 @@
+package com.globaltech.inventory.model.service.base;
+
+/**
+ * Enum representing the file format of an export
+ */
+public enum ExportFormat {
+    
+    /** RFC 4180 CSV with a header row */
+    CSV("csv"),
+    
+    /** One JSON object per line, keyed by column name */
+    JSON_LINES("jsonl");
+    
+    private final String extension;
+    
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+}
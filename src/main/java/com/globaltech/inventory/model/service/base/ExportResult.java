@@ -0,0 +1,71 @@
+package com.globaltech.inventory.model.service.base;
+
+/**
+ * Result of an export run. The byte count is what was written to the output, so it is the
+ * compressed size for gzipped exports.
+ */
+public class ExportResult {
+    
+    private final long rowCount;
+    private final long byteCount;
+    private final int sliceCount;
+    private final long elapsedNanos;
+    
+    public ExportResult(long rowCount, long byteCount, int sliceCount, long elapsedNanos) {
+        this.rowCount = rowCount;
+        this.byteCount = byteCount;
+        this.sliceCount = sliceCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+    
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    public long getByteCount() {
+        return byteCount;
+    }
+    
+    /**
+     * Get the number of date slices exported in parallel
+     * 
+     * @return the number of slices, 1 for a sequential export
+     */
+    public int getSliceCount() {
+        return sliceCount;
+    }
+    
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+    
+    /**
+     * Get the number of bytes written per second
+     * 
+     * @return the throughput in bytes per second
+     */
+    public double getBytesPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return byteCount * 1_000_000_000d / elapsedNanos;
+    }
+    
+    /**
+     * Get the number of rows written per second
+     * 
+     * @return the throughput in rows per second
+     */
+    public double getRowsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return rowCount * 1_000_000_000d / elapsedNanos;
+    }
+    
+    @Override
+    public String toString() {
+        return "ExportResult [rowCount=" + rowCount + ", byteCount=" + byteCount + ", sliceCount=" + sliceCount +
+                ", bytesPerSecond=" + String.format("%.0f", getBytesPerSecond()) + "]";
+    }
+}
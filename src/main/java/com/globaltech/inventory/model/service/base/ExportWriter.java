@@ -0,0 +1,386 @@
+package com.globaltech.inventory.model.service.base;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writer of export rows as CSV or JSON lines to a channel, optionally gzipped. Values are
+ * encoded as UTF-8 straight into a fixed buffer that is written out whenever it fills, so
+ * memory use does not depend on the number of rows. Rows are written one value at a time in
+ * column order, between {@link #beginRow()} and {@link #endRow()}.
+ * 
+ * CSV values are quoted only when they contain a separator, quote or line break. In JSON lines,
+ * numbers are written as numbers, dates as ISO-8601 strings and empty values as null.
+ */
+public class ExportWriter {
+    
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    /** Longest encoding of one char: a JSON unicode escape */
+    private static final int MAX_CHAR_BYTES = 6;
+    
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    
+    private final ExportFormat format;
+    private final List<String> columns;
+    private final byte[][] keys;
+    private final ChannelOutput channelOutput;
+    private final GZIPOutputStream gzip;
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int column = -1;
+    private long rowCount;
+    
+    /**
+     * Create a writer. The channel is not closed by the writer.
+     * 
+     * @param channel the channel to write to
+     * @param format the export format
+     * @param gzip whether to gzip the output
+     * @param columns the column names, in the order values are written
+     */
+    public ExportWriter(WritableByteChannel channel, ExportFormat format, boolean gzip, List<String> columns) throws IOException {
+        this.format = format;
+        this.columns = columns;
+        this.keys = new byte[columns.size()][];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((i == 0 ? "{\"" : ",\"") + columns.get(i) + "\":").getBytes(StandardCharsets.UTF_8);
+        }
+        this.channelOutput = new ChannelOutput(channel);
+        this.gzip = gzip ? new GZIPOutputStream(channelOutput, BUFFER_SIZE) : null;
+        this.out = gzip ? this.gzip : channelOutput;
+    }
+    
+    /**
+     * Write the header row naming the columns. Does nothing for JSON lines.
+     */
+    public void writeHeader() throws IOException {
+        if (format != ExportFormat.CSV) {
+            return;
+        }
+        beginRow();
+        for (String name : columns) {
+            writeString(name);
+        }
+        endRow();
+        rowCount--;
+    }
+    
+    /**
+     * Start a row
+     */
+    public void beginRow() {
+        column = 0;
+    }
+    
+    /**
+     * End a row after all its values have been written
+     * 
+     * @throws IllegalStateException if the row does not have a value for every column
+     */
+    public void endRow() throws IOException {
+        if (column != columns.size()) {
+            throw new IllegalStateException("Row has " + column + " values for " + columns.size() + " columns");
+        }
+        ensure(2);
+        if (format == ExportFormat.JSON_LINES) {
+            buffer[position++] = '}';
+        }
+        buffer[position++] = '\n';
+        column = -1;
+        rowCount++;
+    }
+    
+    /**
+     * Write an empty value
+     */
+    public void writeNull() throws IOException {
+        nextColumn();
+        if (format == ExportFormat.JSON_LINES) {
+            writeAscii(NULL);
+        }
+    }
+    
+    /**
+     * Write a whole number
+     */
+    public void writeLong(long value) throws IOException {
+        nextColumn();
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int end = position + digitCount(value);
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+    }
+    
+    /**
+     * Write a decimal number without an exponent, or an empty value for null
+     */
+    public void writeDecimal(BigDecimal value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        nextColumn();
+        writeAscii(value.toPlainString());
+    }
+    
+    /**
+     * Write a date and time in ISO-8601 format, or an empty value for null
+     */
+    public void writeDateTime(LocalDateTime value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        nextColumn();
+        boolean quoted = format == ExportFormat.JSON_LINES;
+        if (value.getYear() < 0 || value.getYear() > 9999) {
+            writeText(value.toString(), quoted);
+            return;
+        }
+        ensure(31);
+        if (quoted) {
+            buffer[position++] = '"';
+        }
+        writeDigits(value.getYear(), 4);
+        buffer[position++] = '-';
+        writeDigits(value.getMonthValue(), 2);
+        buffer[position++] = '-';
+        writeDigits(value.getDayOfMonth(), 2);
+        buffer[position++] = 'T';
+        writeDigits(value.getHour(), 2);
+        buffer[position++] = ':';
+        writeDigits(value.getMinute(), 2);
+        buffer[position++] = ':';
+        writeDigits(value.getSecond(), 2);
+        int nano = value.getNano();
+        if (nano != 0) {
+            buffer[position++] = '.';
+            if (nano % 1_000_000 == 0) {
+                writeDigits(nano / 1_000_000, 3);
+            } else if (nano % 1000 == 0) {
+                writeDigits(nano / 1000, 6);
+            } else {
+                writeDigits(nano, 9);
+            }
+        }
+        if (quoted) {
+            buffer[position++] = '"';
+        }
+    }
+    
+    /**
+     * Write a text value, or an empty value for null
+     */
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        nextColumn();
+        writeText(value, format == ExportFormat.JSON_LINES || needsQuotes(value));
+    }
+    
+    /**
+     * Write out the buffered rows and finish the gzip stream, leaving the channel open
+     * 
+     * @return the number of bytes written to the channel
+     */
+    public long finish() throws IOException {
+        flushBuffer();
+        if (gzip != null) {
+            gzip.finish();
+        }
+        out.flush();
+        return channelOutput.byteCount;
+    }
+    
+    /**
+     * Get the number of rows written, not counting the header
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    private void nextColumn() throws IOException {
+        if (column < 0 || column >= columns.size()) {
+            throw new IllegalStateException("Value written outside a row or beyond the last column");
+        }
+        if (format == ExportFormat.JSON_LINES) {
+            writeAscii(keys[column]);
+        } else if (column > 0) {
+            ensure(1);
+            buffer[position++] = ',';
+        }
+        column++;
+    }
+    
+    private void writeText(String value, boolean quoted) throws IOException {
+        boolean json = format == ExportFormat.JSON_LINES;
+        ensure(1);
+        if (quoted) {
+            buffer[position++] = '"';
+        }
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (position > BUFFER_SIZE - MAX_CHAR_BYTES - 1) {
+                flushBuffer();
+            }
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (json && (c == '"' || c == '\\' || c < 0x20)) {
+                    writeJsonEscape(c);
+                } else {
+                    if (c == '"') {
+                        buffer[position++] = '"';
+                    }
+                    buffer[position++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | c >> 6);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | c >> 12);
+                buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        if (quoted) {
+            ensure(1);
+            buffer[position++] = '"';
+        }
+    }
+    
+    private void writeJsonEscape(char c) {
+        buffer[position++] = '\\';
+        switch (c) {
+            case '"':
+            case '\\':
+                buffer[position++] = (byte) c;
+                break;
+            case '\n':
+                buffer[position++] = 'n';
+                break;
+            case '\r':
+                buffer[position++] = 'r';
+                break;
+            case '\t':
+                buffer[position++] = 't';
+                break;
+            default:
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = HEX_DIGITS[c >> 4];
+                buffer[position++] = HEX_DIGITS[c & 0xF];
+        }
+    }
+    
+    private void writeAscii(String value) throws IOException {
+        ensure(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer[position++] = (byte) value.charAt(i);
+        }
+    }
+    
+    private void writeAscii(byte[] value) throws IOException {
+        ensure(value.length);
+        System.arraycopy(value, 0, buffer, position, value.length);
+        position += value.length;
+    }
+    
+    private void writeDigits(int value, int digits) {
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+    
+    private void ensure(int length) throws IOException {
+        if (position + length > BUFFER_SIZE) {
+            flushBuffer();
+        }
+    }
+    
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+    
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static int digitCount(long value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Stream writing straight to the channel and counting the bytes written
+     */
+    private static class ChannelOutput extends OutputStream {
+        
+        private final WritableByteChannel channel;
+        private long byteCount;
+        
+        ChannelOutput(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+        
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            ByteBuffer source = ByteBuffer.wrap(bytes, offset, length);
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+            byteCount += length;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.globaltech.inventory.model.service.base;
+
+/**
+ * Result of a CSV import run. The row counts cover the whole file, including the rows of
+ * earlier runs the import was resumed from; the throughput covers this run only.
+ */
+public class ImportResult {
+    
+    private final long rowCount;
+    private final long importedCount;
+    private final long rejectedCount;
+    private final long processedCount;
+    private final long elapsedNanos;
+    private final boolean resumed;
+    
+    public ImportResult(long rowCount, long importedCount, long rejectedCount, long processedCount, long elapsedNanos, 
+                        boolean resumed) {
+        this.rowCount = rowCount;
+        this.importedCount = importedCount;
+        this.rejectedCount = rejectedCount;
+        this.processedCount = processedCount;
+        this.elapsedNanos = elapsedNanos;
+        this.resumed = resumed;
+    }
+    
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    public long getImportedCount() {
+        return importedCount;
+    }
+    
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+    
+    /**
+     * Get the number of rows read by this run
+     * 
+     * @return the number of rows processed since the run started or resumed
+     */
+    public long getProcessedCount() {
+        return processedCount;
+    }
+    
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+    
+    /**
+     * Check whether this run continued from the checkpoint of an earlier, interrupted run
+     * 
+     * @return true if the run was resumed
+     */
+    public boolean isResumed() {
+        return resumed;
+    }
+    
+    /**
+     * Get the number of rows processed per second during this run
+     * 
+     * @return the throughput in rows per second
+     */
+    public double getRowsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return processedCount * 1_000_000_000d / elapsedNanos;
+    }
+    
+    @Override
+    public String toString() {
+        return "ImportResult [rowCount=" + rowCount + ", importedCount=" + importedCount + ", rejectedCount=" + rejectedCount + 
+                ", resumed=" + resumed + ", rowsPerSecond=" + String.format("%.1f", getRowsPerSecond()) + "]";
+    }
+}
@@ -0,0 +1,74 @@
+package com.globaltech.inventory.model.service.base;
+
+/**
+ * Contention counters of one optimistic retry operation since startup or the last reset
+ */
+public class OptimisticRetryStatistics {
+    
+    private final String operation;
+    private final long attemptCount;
+    private final long successCount;
+    private final long conflictCount;
+    private final long exhaustedCount;
+    private final long backoffMillis;
+    
+    public OptimisticRetryStatistics(String operation, long attemptCount, long successCount, long conflictCount,
+                                     long exhaustedCount, long backoffMillis) {
+        this.operation = operation;
+        this.attemptCount = attemptCount;
+        this.successCount = successCount;
+        this.conflictCount = conflictCount;
+        this.exhaustedCount = exhaustedCount;
+        this.backoffMillis = backoffMillis;
+    }
+    
+    public String getOperation() {
+        return operation;
+    }
+    
+    public long getAttemptCount() {
+        return attemptCount;
+    }
+    
+    public long getSuccessCount() {
+        return successCount;
+    }
+    
+    public long getConflictCount() {
+        return conflictCount;
+    }
+    
+    /**
+     * Get the number of updates that gave up after conflicting on every attempt
+     * 
+     * @return the number of exhausted updates
+     */
+    public long getExhaustedCount() {
+        return exhaustedCount;
+    }
+    
+    /**
+     * Get the total time spent waiting between attempts
+     * 
+     * @return the total backoff in milliseconds
+     */
+    public long getBackoffMillis() {
+        return backoffMillis;
+    }
+    
+    /**
+     * Get the share of attempts that failed on a version conflict
+     * 
+     * @return the conflict ratio between 0 and 1, 0 if there were no attempts
+     */
+    public double getConflictRatio() {
+        return attemptCount > 0 ? (double) conflictCount / attemptCount : 0;
+    }
+    
+    @Override
+    public String toString() {
+        return "OptimisticRetryStatistics [operation=" + operation + ", attemptCount=" + attemptCount + ", successCount=" + 
+                successCount + ", conflictCount=" + conflictCount + ", exhaustedCount=" + exhaustedCount + 
+                ", backoffMillis=" + backoffMillis + "]";
+    }
+}
@@ -0,0 +1,147 @@
+package com.globaltech.inventory.model.service.base;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.persistence.OptimisticLockException;
+
+import org.hibernate.StaleStateException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.globaltech.inventory.model.repository.base.ConcurrentMaps;
+
+/**
+ * Runs an update of versioned entities in a new transaction per attempt. When the update or its
+ * commit fails on an optimistic lock conflict, the attempt is rolled back and the update runs
+ * again after a randomised exponential backoff, so it re-reads the entities and reapplies its
+ * changes to the current versions. Attempts, conflicts and exhausted retries are counted per
+ * operation name.
+ */
+@Component
+public class OptimisticRetryTemplate {
+    
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<>();
+    
+    public OptimisticRetryTemplate(PlatformTransactionManager transactionManager,
+                                   @Value("${inventory.optimistic-retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${inventory.optimistic-retry.backoff-ms:5}") long backoffMillis,
+                                   @Value("${inventory.optimistic-retry.max-backoff-ms:200}") long maxBackoffMillis) {
+        if (maxAttempts < 1 || backoffMillis < 0 || maxBackoffMillis < backoffMillis) {
+            throw new IllegalArgumentException("Retry needs at least one attempt and a backoff between 0 and the maximum backoff");
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+    
+    /**
+     * Run an update, retrying it on optimistic lock conflicts. The update must read the entities
+     * it changes itself, because it may run more than once. Each attempt commits on its own, so
+     * an update called inside a transaction does not join it.
+     * 
+     * @param operation the name the contention counters are kept under
+     * @param update the update to run
+     * @return the result of the successful attempt
+     * @throws OptimisticLockingFailureException if every attempt conflicted
+     */
+    public <T> T execute(String operation, Supplier<T> update) {
+        Counters operationCounters = ConcurrentMaps.getOrCompute(counters, operation, name -> new Counters());
+        for (int attempt = 1; ; attempt++) {
+            operationCounters.attempts.increment();
+            try {
+                T result = transactionTemplate.execute(status -> update.get());
+                operationCounters.successes.increment();
+                return result;
+            } catch (RuntimeException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                operationCounters.conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    operationCounters.exhausted.increment();
+                    throw e instanceof OptimisticLockingFailureException ? e
+                            : new OptimisticLockingFailureException("Optimistic lock conflict on " + operation, e);
+                }
+                backOff(attempt, operationCounters, e);
+            }
+        }
+    }
+    
+    /**
+     * Get the contention counters of every operation run since startup or the last reset
+     * 
+     * @return the counters, ordered by operation name
+     */
+    public List<OptimisticRetryStatistics> getStatistics() {
+        List<OptimisticRetryStatistics> statistics = new ArrayList<>(counters.size());
+        counters.forEach((operation, operationCounters) -> statistics.add(new OptimisticRetryStatistics(operation,
+                operationCounters.attempts.sum(), operationCounters.successes.sum(), operationCounters.conflicts.sum(),
+                operationCounters.exhausted.sum(), TimeUnit.NANOSECONDS.toMillis(operationCounters.backoffNanos.sum()))));
+        statistics.sort(Comparator.comparing(OptimisticRetryStatistics::getOperation));
+        return statistics;
+    }
+    
+    /**
+     * Reset the contention counters of every operation
+     */
+    public void resetStatistics() {
+        counters.clear();
+    }
+    
+    /**
+     * Wait a random time between zero and the exponentially growing backoff limit, so updates that
+     * conflicted with each other do not collide again on their next attempt
+     */
+    private void backOff(int attempt, Counters operationCounters, RuntimeException conflict) {
+        long limit = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 20));
+        long sleepNanos = ThreadLocalRandom.current().nextLong(TimeUnit.MILLISECONDS.toNanos(limit) + 1);
+        operationCounters.backoffNanos.add(sleepNanos);
+        try {
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+    
+    /**
+     * Check whether a failure was caused by a version conflict. Depending on where it surfaces,
+     * the conflict is translated by Spring, thrown by JPA or wrapped in a commit exception.
+     */
+    private static boolean isConflict(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException || cause instanceof OptimisticLockException
+                    || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static final class Counters {
+        
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+        private final LongAdder backoffNanos = new LongAdder();
+    }
+}
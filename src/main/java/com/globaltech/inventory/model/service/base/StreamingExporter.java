@@ -0,0 +1,315 @@
+package com.globaltech.inventory.model.service.base;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.globaltech.inventory.model.repository.base.BaseRepository;
+
+/**
+ * Base class of streaming exports over a date range. The export query is run on a forward-only,
+ * read-only JDBC cursor and every row is written to the output as it is read, so neither
+ * entities nor result lists are built and memory use does not grow with the range. On MySQL the
+ * driver is asked to stream rows one at a time; other drivers fetch {@link
+ * BaseRepository#STREAM_FETCH_SIZE} rows per round trip.
+ * 
+ * A range can also be exported in parallel: it is split into equal date slices, each slice is
+ * written to a part file by its own connection and the parts are then concatenated in order.
+ * Gzipped parts are separate gzip members, which together form a valid gzip file.
+ */
+public abstract class StreamingExporter implements DisposableBean {
+    
+    private static final String PART_SUFFIX = ".part";
+    
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final String query;
+    private final List<String> columns;
+    
+    /**
+     * Create an exporter
+     * 
+     * @param query the SQL query, with the start (inclusive) and end (exclusive) of the date range
+     *              as its two parameters
+     * @param columns the names of the exported columns, one per selected column
+     * @param parallelism the number of slices exported at once, or 0 for the number of processors
+     */
+    protected StreamingExporter(EntityManagerFactory entityManagerFactory, PlatformTransactionManager transactionManager,
+                                String query, List<String> columns, int parallelism) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.query = query;
+        this.columns = columns;
+        
+        this.executor = WorkerThreads.newFixedPool(getClass().getSimpleName(), parallelism);
+    }
+    
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Export a date range to a channel with one cursor
+     * 
+     * @param startDate the start of the range, inclusive
+     * @param endDate the end of the range, exclusive
+     * @param format the export format
+     * @param gzip whether to gzip the output
+     * @param channel the channel to write to, left open
+     * @return the result of the export
+     * @throws IllegalArgumentException if the range is invalid
+     */
+    protected ExportResult export(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, boolean gzip,
+                                  WritableByteChannel channel) {
+        checkRange(startDate, endDate);
+        long start = System.nanoTime();
+        SliceResult slice = exportSlice(startDate, endDate, format, gzip, true, channel);
+        ExportResult result = new ExportResult(slice.rowCount, slice.byteCount, 1, System.nanoTime() - start);
+        logger.info("Exported {} to {} as {}: {}", startDate, endDate, format, result);
+        return result;
+    }
+    
+    /**
+     * Export a date range to a file, with the slices of the range exported in parallel
+     * 
+     * @param startDate the start of the range, inclusive
+     * @param endDate the end of the range, exclusive
+     * @param format the export format
+     * @param gzip whether to gzip the output
+     * @param file the file to write, replaced if it exists
+     * @param slices the number of date slices to split the range into
+     * @return the result of the export
+     * @throws IllegalArgumentException if the range is invalid or slices is less than 1
+     */
+    protected ExportResult export(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, boolean gzip,
+                                  Path file, int slices) {
+        checkRange(startDate, endDate);
+        if (slices < 1) {
+            throw new IllegalArgumentException("Slices must be at least 1");
+        }
+        long start = System.nanoTime();
+        if (slices == 1) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                SliceResult slice = exportSlice(startDate, endDate, format, gzip, true, channel);
+                return logResult(file, new ExportResult(slice.rowCount, slice.byteCount, 1, System.nanoTime() - start));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not export to " + file, e);
+            }
+        }
+        
+        Duration sliceLength = Duration.between(startDate, endDate).dividedBy(slices);
+        List<Path> parts = new ArrayList<>(slices);
+        List<CompletableFuture<SliceResult>> futures = new ArrayList<>(slices);
+        try {
+            for (int i = 0; i < slices; i++) {
+                LocalDateTime sliceStart = startDate.plus(sliceLength.multipliedBy(i));
+                LocalDateTime sliceEnd = i == slices - 1 ? endDate : startDate.plus(sliceLength.multipliedBy(i + 1));
+                Path part = file.resolveSibling(file.getFileName() + PART_SUFFIX + i);
+                boolean header = i == 0;
+                parts.add(part);
+                futures.add(CompletableFuture.supplyAsync(() -> exportSlice(sliceStart, sliceEnd, format, gzip, header, part),
+                        executor));
+            }
+            long rowCount = 0;
+            long byteCount = 0;
+            for (CompletableFuture<SliceResult> future : futures) {
+                SliceResult slice = join(future);
+                rowCount += slice.rowCount;
+                byteCount += slice.byteCount;
+            }
+            concatenate(parts, file);
+            return logResult(file, new ExportResult(rowCount, byteCount, slices, System.nanoTime() - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not export to " + file, e);
+        } finally {
+            deleteParts(parts, futures);
+        }
+    }
+    
+    private SliceResult exportSlice(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, boolean gzip,
+                                    boolean header, Path part) {
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            return exportSlice(startDate, endDate, format, gzip, header, channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write export part " + part, e);
+        }
+    }
+    
+    private SliceResult exportSlice(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, boolean gzip,
+                                    boolean header, WritableByteChannel channel) {
+        return transactionTemplate.execute(status -> {
+            Session session = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory).unwrap(Session.class);
+            return session.doReturningWork(connection -> {
+                try {
+                    ExportWriter writer = new ExportWriter(channel, format, gzip, columns);
+                    if (header) {
+                        writer.writeHeader();
+                    }
+                    writeRows(connection, startDate, endDate, writer);
+                    long byteCount = writer.finish();
+                    return new SliceResult(writer.getRowCount(), byteCount);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not write export", e);
+                }
+            });
+        });
+    }
+    
+    private void writeRows(Connection connection, LocalDateTime startDate, LocalDateTime endDate, ExportWriter writer)
+            throws SQLException, IOException {
+        try (PreparedStatement statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY)) {
+            // Connector/J buffers the whole result unless the fetch size is MIN_VALUE or useCursorFetch is set
+            boolean mysql = "MySQL".equals(connection.getMetaData().getDatabaseProductName());
+            statement.setFetchSize(mysql ? Integer.MIN_VALUE : Integer.parseInt(BaseRepository.STREAM_FETCH_SIZE));
+            statement.setTimestamp(1, Timestamp.valueOf(startDate));
+            statement.setTimestamp(2, Timestamp.valueOf(endDate));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                int[] types = columnTypes(resultSet.getMetaData());
+                while (resultSet.next()) {
+                    writer.beginRow();
+                    for (int i = 0; i < types.length; i++) {
+                        writeValue(resultSet, i + 1, types[i], writer);
+                    }
+                    writer.endRow();
+                }
+            }
+        }
+    }
+    
+    private int[] columnTypes(ResultSetMetaData metaData) throws SQLException {
+        if (metaData.getColumnCount() != columns.size()) {
+            throw new IllegalStateException("Export query selects " + metaData.getColumnCount() + " columns for " +
+                    columns.size() + " names");
+        }
+        int[] types = new int[columns.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = metaData.getColumnType(i + 1);
+        }
+        return types;
+    }
+    
+    private static void writeValue(ResultSet resultSet, int index, int type, ExportWriter writer) throws SQLException, IOException {
+        switch (type) {
+            case Types.BIGINT:
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                long number = resultSet.getLong(index);
+                if (resultSet.wasNull()) {
+                    writer.writeNull();
+                } else {
+                    writer.writeLong(number);
+                }
+                break;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                writer.writeDecimal(resultSet.getBigDecimal(index));
+                break;
+            case Types.TIMESTAMP:
+                Timestamp timestamp = resultSet.getTimestamp(index);
+                writer.writeDateTime(timestamp != null ? timestamp.toLocalDateTime() : null);
+                break;
+            default:
+                writer.writeString(resultSet.getString(index));
+        }
+    }
+    
+    private static void concatenate(List<Path> parts, Path file) throws IOException {
+        try (FileChannel target = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Path part : parts) {
+                try (FileChannel source = FileChannel.open(part, StandardOpenOption.READ)) {
+                    long size = source.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += source.transferTo(position, size - position, target);
+                    }
+                }
+            }
+        }
+    }
+    
+    private void deleteParts(List<Path> parts, List<CompletableFuture<SliceResult>> futures) {
+        for (int i = 0; i < parts.size(); i++) {
+            try {
+                // After a failure other slices may still be writing their parts
+                futures.get(i).handle((result, e) -> null).join();
+                Files.deleteIfExists(parts.get(i));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not delete export part {}", parts.get(i), e);
+            }
+        }
+    }
+    
+    private ExportResult logResult(Path file, ExportResult result) {
+        logger.info("Exported {}: {}", file, result);
+        return result;
+    }
+    
+    private static SliceResult join(CompletableFuture<SliceResult> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    private static void checkRange(LocalDateTime startDate, LocalDateTime endDate) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start and end date are required");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+    }
+    
+    private static class SliceResult {
+        
+        private final long rowCount;
+        private final long byteCount;
+        
+        SliceResult(long rowCount, long byteCount) {
+            this.rowCount = rowCount;
+            this.byteCount = byteCount;
+        }
+    }
+}
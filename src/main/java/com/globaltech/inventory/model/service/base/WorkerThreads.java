@@ -0,0 +1,41 @@
+package com.globaltech.inventory.model.service.base;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed pools of daemon worker threads for the services that split batch work across threads.
+ * Daemon threads do not keep the JVM alive if the owning bean is never destroyed.
+ */
+public final class WorkerThreads {
+    
+    private WorkerThreads() {
+    }
+    
+    /**
+     * Resolve a configured parallelism
+     * 
+     * @param parallelism the configured number of threads, or 0 or less for the number of processors
+     * @return the number of threads to use
+     */
+    public static int parallelism(int parallelism) {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+    
+    /**
+     * Create a fixed pool of daemon threads named after the pool and numbered from 1
+     * 
+     * @param name the thread name prefix
+     * @param parallelism the number of threads, or 0 or less for the number of processors
+     * @return the new executor, to be shut down by the caller
+     */
+    public static ExecutorService newFixedPool(String name, int parallelism) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(parallelism(parallelism), runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
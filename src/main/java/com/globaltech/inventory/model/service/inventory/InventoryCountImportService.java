@@ -0,0 +1,28 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.nio.file.Path;
+
+import com.globaltech.inventory.model.service.base.ImportResult;
+
+/**
+ * Service for bulk imports of cycle count results
+ */
+public interface InventoryCountImportService {
+    
+    /**
+     * Import counted quantities from a CSV file with the columns sku, location (the location
+     * name) and quantity. The inventory item of the product and location is set to the counted
+     * quantity, or created if it does not exist, and the difference is recorded as an ADJUSTMENT
+     * movement referencing the file name. Invalid rows and rows with an unknown SKU or location
+     * are written to the error report and skipped. An interrupted import continues where it
+     * stopped when run again.
+     * 
+     * @param file the CSV file, with a header row
+     * @param errorReport the file to write rejected rows to, or null to only count them
+     * @return the result of the import
+     * @throws IllegalArgumentException if a required column is missing
+     * @throws org.springframework.dao.OptimisticLockingFailureException if a counted item changed
+     *         while its chunk was written; the import can be run again to continue
+     */
+    ImportResult importCounts(Path file, Path errorReport);
+}
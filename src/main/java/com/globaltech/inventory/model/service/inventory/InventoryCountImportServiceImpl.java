@@ -0,0 +1,343 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.globaltech.inventory.model.domain.base.PooledIdGenerator;
+import com.globaltech.inventory.model.domain.inventory.InventoryItem;
+import com.globaltech.inventory.model.domain.inventory.StockMovement;
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+import com.globaltech.inventory.model.service.base.CsvImporter;
+import com.globaltech.inventory.model.service.base.ImportResult;
+import com.globaltech.inventory.model.service.base.OptimisticRetryTemplate;
+import com.globaltech.inventory.model.service.metrics.InventoryCounters;
+
+/**
+ * Implementation of InventoryCountImportService. Each chunk resolves its SKUs, location names
+ * and existing inventory items with one query each and writes the item updates, new items and
+ * adjustment movements as JDBC batches. Counts are absolute, so a chunk repeated after a crash
+ * finds nothing left to adjust. Updates are guarded by the item version, so a reservation
+ * committed between reading and writing an item is not overwritten: the chunk is rolled back
+ * and written again from freshly read items. New items are upserted on their product and
+ * location, so an item created by another transaction since it was read is treated the same
+ * way instead of failing the import on a duplicate key.
+ */
+@Service
+public class InventoryCountImportServiceImpl extends CsvImporter<InventoryCountImportServiceImpl.Count> 
+        implements InventoryCountImportService {
+    
+    private static final String UPDATE_ITEM_SQL = 
+            "UPDATE inventory_items SET quantity = ?, version = version + 1, last_modified_date = ? WHERE id = ? AND version = ?";
+    
+    // Upsert on the (product, location) key; the version bump makes an item created concurrently report 2 rows
+    private static final String INSERT_ITEM_SQL = 
+            "INSERT INTO inventory_items (id, product_id, location_id, quantity, min_stock_level, max_stock_level, reorder_point, " +
+            "version, created_date) VALUES (?, ?, ?, ?, 0, 0, 0, 0, ?) ON DUPLICATE KEY UPDATE version = version + 1";
+    
+    private static final String INSERT_MOVEMENT_SQL = 
+            "INSERT INTO stock_movements (id, product_id, source_location_id, target_location_id, quantity, movement_type, " +
+            "reference_number, movement_date, created_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final ProductStockService productStockService;
+    private final StockLedger stockLedger;
+    private final InventoryCounters inventoryCounters;
+    
+    public InventoryCountImportServiceImpl(EntityManagerFactory entityManagerFactory, 
+                                           PlatformTransactionManager transactionManager, 
+                                           OptimisticRetryTemplate retryTemplate, 
+                                           ProductStockService productStockService, 
+                                           StockLedger stockLedger, 
+                                           InventoryCounters inventoryCounters, 
+                                           @Value("${inventory.import.chunk-size:1000}") int chunkSize, 
+                                           @Value("${inventory.import.parallelism:0}") int parallelism) {
+        super(entityManagerFactory, transactionManager, retryTemplate, chunkSize, parallelism, Arrays.asList("sku", "location", "quantity"));
+        this.productStockService = productStockService;
+        this.stockLedger = stockLedger;
+        this.inventoryCounters = inventoryCounters;
+    }
+    
+    @Override
+    public ImportResult importCounts(Path file, Path errorReport) {
+        return importFile(file, errorReport);
+    }
+    
+    @Override
+    protected Count parse(CsvRow row) {
+        InventoryItem item = new InventoryItem();
+        Integer quantity = row.getInteger("quantity");
+        if (quantity == null) {
+            throw new IllegalArgumentException("Column quantity is required");
+        }
+        item.setQuantity(quantity);
+        requireValid(item, "quantity");
+        return new Count(row.getRequired("sku"), row.getRequired("location"), quantity);
+    }
+    
+    @Override
+    protected void write(List<ImportRow<Count>> rows, String source) {
+        // A product and location counted twice within the chunk is set once, to its last count
+        Map<String, ImportRow<Count>> rowsByKey = new LinkedHashMap<>();
+        Set<String> skus = new HashSet<>();
+        Set<String> locationNames = new HashSet<>();
+        for (ImportRow<Count> row : rows) {
+            Count count = row.getValue();
+            rowsByKey.put(count.sku + '\u0000' + count.location, row);
+            skus.add(count.sku);
+            locationNames.add(count.location);
+        }
+        
+        EntityManager entityManager = getEntityManager();
+        Session session = entityManager.unwrap(Session.class);
+        Map<String, Long> productIds = session.doReturningWork(
+                connection -> findIds(connection, "SELECT sku, id FROM products WHERE sku IN ", skus));
+        Map<String, Long> locationIds = session.doReturningWork(
+                connection -> findIds(connection, "SELECT name, id FROM locations WHERE name IN ", locationNames));
+        Map<Long, ExistingItem> itemsByKey = session.doReturningWork(
+                connection -> findItems(connection, productIds.values(), locationIds.values()));
+        
+        SharedSessionContractImplementor sessionImplementor = entityManager.unwrap(SharedSessionContractImplementor.class);
+        List<Adjustment> adjustments = new ArrayList<>();
+        for (ImportRow<Count> row : rowsByKey.values()) {
+            Count count = row.getValue();
+            Long productId = productIds.get(count.sku);
+            Long locationId = locationIds.get(count.location);
+            if (productId == null) {
+                row.reject("Unknown SKU: " + count.sku);
+                continue;
+            }
+            if (locationId == null) {
+                row.reject("Unknown location: " + count.location);
+                continue;
+            }
+            ExistingItem item = itemsByKey.get(itemKey(productId, locationId));
+            int change = count.quantity - (item != null ? item.quantity : 0);
+            if (item != null && change == 0) {
+                continue;
+            }
+            Adjustment adjustment = new Adjustment(productId, locationId, count.quantity, change, item);
+            if (item == null) {
+                adjustment.itemId = PooledIdGenerator.nextId(sessionImplementor, InventoryItem.class);
+            }
+            if (change != 0) {
+                adjustment.movementId = PooledIdGenerator.nextId(sessionImplementor, StockMovement.class);
+            }
+            adjustments.add(adjustment);
+        }
+        if (adjustments.isEmpty()) {
+            return;
+        }
+        
+        session.doWork(connection -> write(sessionImplementor, connection, adjustments, source));
+        
+        Map<Long, Long> changesByProduct = new HashMap<>();
+        long movements = 0;
+        for (Adjustment adjustment : adjustments) {
+            changesByProduct.merge(adjustment.productId, (long) adjustment.change, Long::sum);
+            stockLedger.applyAfterCommit(adjustment.productId, adjustment.locationId, adjustment.change);
+            if (adjustment.change != 0) {
+                movements++;
+            }
+        }
+        inventoryCounters.countMovements(MovementType.ADJUSTMENT, movements);
+        for (Map.Entry<Long, Long> change : changesByProduct.entrySet()) {
+            productStockService.applyOnHandChange(change.getKey(), change.getValue());
+        }
+    }
+    
+    private void write(SharedSessionContractImplementor session, Connection connection, List<Adjustment> adjustments, 
+                       String source) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        MovementRollupChanges rollupChanges = new MovementRollupChanges();
+        
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_ITEM_SQL)) {
+            for (Adjustment adjustment : adjustments) {
+                if (adjustment.existing != null) {
+                    statement.setInt(1, adjustment.quantity);
+                    statement.setTimestamp(2, now);
+                    statement.setLong(3, adjustment.existing.id);
+                    statement.setLong(4, adjustment.existing.version);
+                    statement.addBatch();
+                }
+            }
+            for (int count : statement.executeBatch()) {
+                if (count == 0) {
+                    throw new OptimisticLockingFailureException("Inventory changed while importing counts");
+                }
+            }
+        }
+        
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_ITEM_SQL)) {
+            for (Adjustment adjustment : adjustments) {
+                if (adjustment.existing == null) {
+                    statement.setLong(1, adjustment.itemId);
+                    statement.setLong(2, adjustment.productId);
+                    statement.setLong(3, adjustment.locationId);
+                    statement.setInt(4, adjustment.quantity);
+                    statement.setTimestamp(5, now);
+                    statement.addBatch();
+                }
+            }
+            for (int count : statement.executeBatch()) {
+                if (count != 1) {
+                    throw new OptimisticLockingFailureException("Inventory item created while importing counts");
+                }
+            }
+        }
+        
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_MOVEMENT_SQL)) {
+            for (Adjustment adjustment : adjustments) {
+                if (adjustment.change != 0) {
+                    // A count above the stored quantity moves stock into the location, a lower count out of it
+                    statement.setLong(1, adjustment.movementId);
+                    statement.setLong(2, adjustment.productId);
+                    statement.setObject(3, adjustment.change < 0 ? adjustment.locationId : null, Types.BIGINT);
+                    statement.setObject(4, adjustment.change > 0 ? adjustment.locationId : null, Types.BIGINT);
+                    statement.setInt(5, Math.abs(adjustment.change));
+                    statement.setString(6, MovementType.ADJUSTMENT.name());
+                    statement.setString(7, source);
+                    statement.setTimestamp(8, now);
+                    statement.setTimestamp(9, now);
+                    statement.addBatch();
+                    rollupChanges.add(now.toLocalDateTime(), adjustment.productId, 
+                            adjustment.change < 0 ? adjustment.locationId : null, 
+                            adjustment.change > 0 ? adjustment.locationId : null, 
+                            MovementType.ADJUSTMENT, Math.abs(adjustment.change));
+                }
+            }
+            statement.executeBatch();
+        }
+        rollupChanges.write(session, connection);
+    }
+    
+    private static Map<String, Long> findIds(Connection connection, String query, Collection<String> names) throws SQLException {
+        Map<String, Long> ids = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(query + placeholders(names.size()))) {
+            int index = 1;
+            for (String name : names) {
+                statement.setString(index++, name);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.put(resultSet.getString(1), resultSet.getLong(2));
+                }
+            }
+        }
+        return ids;
+    }
+    
+    /**
+     * Find the inventory items of the counted products at the counted locations. Counts are
+     * usually grouped by location, so restricting both sides reads little more than the
+     * counted items.
+     */
+    private static Map<Long, ExistingItem> findItems(Connection connection, Collection<Long> productIds, 
+                                                     Collection<Long> locationIds) throws SQLException {
+        Map<Long, ExistingItem> items = new HashMap<>();
+        if (productIds.isEmpty() || locationIds.isEmpty()) {
+            return items;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT id, product_id, location_id, quantity, version FROM inventory_items WHERE product_id IN " + 
+                placeholders(productIds.size()) + " AND location_id IN " + placeholders(locationIds.size()))) {
+            int index = 1;
+            for (Long productId : productIds) {
+                statement.setLong(index++, productId);
+            }
+            for (Long locationId : locationIds) {
+                statement.setLong(index++, locationId);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    items.put(itemKey(resultSet.getLong(2), resultSet.getLong(3)),
+                            new ExistingItem(resultSet.getLong(1), resultSet.getInt(4), resultSet.getLong(5)));
+                }
+            }
+        }
+        return items;
+    }
+    
+    private static String placeholders(int count) {
+        return "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+    
+    private static long itemKey(long productId, long locationId) {
+        return productId << 32 ^ locationId;
+    }
+    
+    /**
+     * A counted quantity of a product at a location
+     */
+    static final class Count {
+        
+        private final String sku;
+        private final String location;
+        private final int quantity;
+        
+        private Count(String sku, String location, int quantity) {
+            this.sku = sku;
+            this.location = location;
+            this.quantity = quantity;
+        }
+    }
+    
+    private static final class ExistingItem {
+        
+        private final long id;
+        private final int quantity;
+        private final long version;
+        
+        private ExistingItem(long id, int quantity, long version) {
+            this.id = id;
+            this.quantity = quantity;
+            this.version = version;
+        }
+    }
+    
+    /**
+     * Change of one inventory item to its counted quantity
+     */
+    private static final class Adjustment {
+        
+        private final long productId;
+        private final long locationId;
+        private final int quantity;
+        private final int change;
+        private final ExistingItem existing;
+        private long itemId;
+        private long movementId;
+        
+        private Adjustment(long productId, long locationId, int quantity, int change, ExistingItem existing) {
+            this.productId = productId;
+            this.locationId = locationId;
+            this.quantity = quantity;
+            this.change = change;
+            this.existing = existing;
+        }
+    }
+}
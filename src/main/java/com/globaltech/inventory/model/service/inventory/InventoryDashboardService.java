@@ -0,0 +1,44 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.util.List;
+
+import com.globaltech.inventory.model.domain.inventory.ReorderCandidateRow;
+import com.globaltech.inventory.model.domain.inventory.StockLevelRow;
+
+/**
+ * Read-only queries for inventory dashboards. Results are flat, immutable rows built by the
+ * queries themselves, so no entities are loaded, snapshotted for dirty checking or kept in
+ * the persistence context.
+ */
+public interface InventoryDashboardService {
+    
+    /**
+     * Find the stock level of every product at every location
+     * 
+     * @return list of stock level rows, ordered by product and location name
+     */
+    List<StockLevelRow> findStockLevels();
+    
+    /**
+     * Find the stock levels of all products at a location
+     * 
+     * @param locationId the location ID
+     * @return list of stock level rows, ordered by product name
+     */
+    List<StockLevelRow> findStockLevelsByLocationId(Long locationId);
+    
+    /**
+     * Find the stock levels of a product at all locations
+     * 
+     * @param productId the product ID
+     * @return list of stock level rows, ordered by location name
+     */
+    List<StockLevelRow> findStockLevelsByProductId(Long productId);
+    
+    /**
+     * Find the inventory items at or below their reorder point, with the supplier to order from
+     * 
+     * @return list of reorder candidate rows, ordered by supplier, product and location name
+     */
+    List<ReorderCandidateRow> findReorderCandidates();
+}
@@ -0,0 +1,44 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.globaltech.inventory.model.domain.inventory.ReorderCandidateRow;
+import com.globaltech.inventory.model.domain.inventory.StockLevelRow;
+import com.globaltech.inventory.model.repository.inventory.InventoryRepository;
+
+/**
+ * Implementation of InventoryDashboardService
+ */
+@Service
+@Transactional(readOnly = true)
+public class InventoryDashboardServiceImpl implements InventoryDashboardService {
+    
+    private final InventoryRepository inventoryRepository;
+    
+    public InventoryDashboardServiceImpl(InventoryRepository inventoryRepository) {
+        this.inventoryRepository = inventoryRepository;
+    }
+    
+    @Override
+    public List<StockLevelRow> findStockLevels() {
+        return inventoryRepository.findStockLevels();
+    }
+    
+    @Override
+    public List<StockLevelRow> findStockLevelsByLocationId(Long locationId) {
+        return inventoryRepository.findStockLevelsByLocationId(locationId);
+    }
+    
+    @Override
+    public List<StockLevelRow> findStockLevelsByProductId(Long productId) {
+        return inventoryRepository.findStockLevelsByProductId(productId);
+    }
+    
+    @Override
+    public List<ReorderCandidateRow> findReorderCandidates() {
+        return inventoryRepository.findReorderCandidates();
+    }
+}
@@ -0,0 +1,117 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.globaltech.inventory.model.domain.inventory.InventoryItem;
+import com.globaltech.inventory.model.domain.inventory.StockMovement;
+import com.globaltech.inventory.model.service.base.CrudService;
+
+/**
+ * Service interface for InventoryItem entity
+ */
+public interface InventoryService extends CrudService<InventoryItem, Long> {
+    
+    /**
+     * Reserve stock for a product at a location. The quantity is removed with a single
+     * conditional update and a STOCK_OUT movement is recorded in the same transaction. When
+     * the stock ledger is enabled and has too little unheld stock, the reservation is refused
+     * without going to the database.
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID
+     * @param quantity the quantity to reserve
+     * @param referenceNumber the reference number recorded on the stock movement
+     * @return true if the stock was reserved, false if not enough quantity was available
+     */
+    boolean reserveStock(Long productId, Long locationId, int quantity, String referenceNumber);
+    
+    /**
+     * Reserve stock as {@link #reserveStock(Long, Long, int, String)} does, optionally with the
+     * STOCK_OUT movement written in the same transaction even when the movement journal writes
+     * behind, so the movement commits with the stock change and a caller acknowledged after the
+     * commit never loses it
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID
+     * @param quantity the quantity to reserve
+     * @param referenceNumber the reference number recorded on the stock movement
+     * @param durable whether to write the movement with the stock change
+     * @return true if the stock was reserved, false if not enough quantity was available
+     */
+    boolean reserveStock(Long productId, Long locationId, int quantity, String referenceNumber, boolean durable);
+    
+    /**
+     * Receive stock for a product at a location. The quantity is added with a single
+     * update and a STOCK_IN movement is recorded in the same transaction.
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID
+     * @param quantity the quantity to receive
+     * @param referenceNumber the reference number recorded on the stock movement
+     * @return true if the stock was received, false if no inventory item exists for the product and location
+     */
+    boolean receiveStock(Long productId, Long locationId, int quantity, String referenceNumber);
+    
+    /**
+     * Receive stock as {@link #receiveStock(Long, Long, int, String)} does, optionally with the
+     * STOCK_IN movement written in the same transaction even when the movement journal writes
+     * behind, so the movement commits with the stock change and a caller acknowledged after the
+     * commit never loses it
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID
+     * @param quantity the quantity to receive
+     * @param referenceNumber the reference number recorded on the stock movement
+     * @param durable whether to write the movement with the stock change
+     * @return true if the stock was received, false if no inventory item exists for the product and location
+     */
+    boolean receiveStock(Long productId, Long locationId, int quantity, String referenceNumber, boolean durable);
+    
+    /**
+     * Check whether a quantity of a product is in stock at a location. The check is answered
+     * from the stock ledger when it is enabled, and from the database otherwise.
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID
+     * @param quantity the quantity needed
+     * @return true if at least the quantity is in stock and not tentatively held by a reservation
+     */
+    boolean isAvailable(Long productId, Long locationId, int quantity);
+    
+    /**
+     * Update an inventory item under its optimistic lock. The item is read and changed in a new
+     * transaction; if another transaction changed it in the meantime, the item is read again and
+     * the mutation reapplied after a short random backoff, up to the configured number of
+     * attempts. Quantity changes made by the mutation are applied to the product stock totals.
+     * 
+     * @param id the inventory item ID
+     * @param mutation the change to apply, which may run more than once
+     * @return the updated item
+     * @throws IllegalArgumentException if the inventory item does not exist
+     * @throws org.springframework.dao.OptimisticLockingFailureException if every attempt conflicted
+     */
+    InventoryItem update(Long id, Consumer<InventoryItem> mutation);
+    
+    /**
+     * Stream the stock movements of a product. Movements are read-only and detached as soon
+     * as they are handed to the stream, so memory use stays bounded. Must be called within a
+     * transaction and the stream must be closed after use.
+     * 
+     * @param productId the product ID
+     * @return stream of stock movements for the specified product
+     */
+    Stream<StockMovement> streamMovementsByProductId(Long productId);
+    
+    /**
+     * Stream the stock movements between the specified start and end dates, read-only and
+     * detached like {@link #streamMovementsByProductId}. Must be called within a transaction
+     * and the stream must be closed after use.
+     * 
+     * @param startDate the start date
+     * @param endDate the end date
+     * @return stream of stock movements within the specified date range
+     */
+    Stream<StockMovement> streamMovementsByMovementDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+}
@@ -0,0 +1,226 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.globaltech.inventory.model.domain.inventory.InventoryItem;
+import com.globaltech.inventory.model.domain.inventory.Location;
+import com.globaltech.inventory.model.domain.inventory.StockMovement;
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+import com.globaltech.inventory.model.domain.product.Product;
+import com.globaltech.inventory.model.repository.inventory.InventoryRepository;
+import com.globaltech.inventory.model.repository.inventory.StockMovementRepository;
+import com.globaltech.inventory.model.service.base.BaseServiceImpl;
+import com.globaltech.inventory.model.service.base.OptimisticRetryTemplate;
+import com.globaltech.inventory.model.service.metrics.InventoryCounters;
+
+/**
+ * Implementation of InventoryService
+ */
+@Service
+@Transactional
+public class InventoryServiceImpl extends BaseServiceImpl<InventoryItem, Long, InventoryRepository> implements InventoryService {
+    
+    private final StockMovementRepository stockMovementRepository;
+    private final StockMovementJournal stockMovementJournal;
+    private final ProductStockService productStockService;
+    private final OptimisticRetryTemplate retryTemplate;
+    private final StockLedger stockLedger;
+    private final InventoryCounters inventoryCounters;
+    
+    public InventoryServiceImpl(InventoryRepository repository, StockMovementRepository stockMovementRepository, 
+                                StockMovementJournal stockMovementJournal, ProductStockService productStockService,
+                                OptimisticRetryTemplate retryTemplate, StockLedger stockLedger, InventoryCounters inventoryCounters) {
+        super(repository);
+        this.stockMovementRepository = stockMovementRepository;
+        this.stockMovementJournal = stockMovementJournal;
+        this.productStockService = productStockService;
+        this.retryTemplate = retryTemplate;
+        this.stockLedger = stockLedger;
+        this.inventoryCounters = inventoryCounters;
+    }
+    
+    @Override
+    @Transactional
+    public InventoryItem save(InventoryItem item) {
+        InventoryItem saved = repository.save(item);
+        applyUnsavedQuantityChanges(Collections.singletonList(saved));
+        item.markQuantitySaved();
+        return saved;
+    }
+    
+    @Override
+    @Transactional
+    public List<InventoryItem> saveAll(List<InventoryItem> items) {
+        List<InventoryItem> saved = repository.saveAll(items);
+        applyUnsavedQuantityChanges(saved);
+        for (InventoryItem item : items) {
+            item.markQuantitySaved();
+        }
+        return saved;
+    }
+    
+    @Override
+    @Transactional
+    public void delete(InventoryItem item) {
+        deleteById(item.getId());
+    }
+    
+    @Override
+    @Transactional
+    public void deleteById(Long id) {
+        // Load the managed item so the totals are reduced by the quantity stored in the database
+        repository.findById(id).ifPresent(item -> {
+            int storedQuantity = item.getQuantity() - item.getUnsavedQuantityChange();
+            repository.delete(item);
+            productStockService.applyOnHandChange(item.getProduct().getId(), -storedQuantity);
+            stockLedger.removeAfterCommit(item.getProduct().getId(), item.getLocation().getId());
+        });
+    }
+    
+    @Override
+    @Transactional
+    public boolean reserveStock(Long productId, Long locationId, int quantity, String referenceNumber) {
+        return reserveStock(productId, locationId, quantity, referenceNumber, false);
+    }
+    
+    @Override
+    @Transactional
+    public boolean reserveStock(Long productId, Long locationId, int quantity, String referenceNumber, boolean durable) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity to reserve must be at least 1");
+        }
+        // The ledger only counts committed stock less the holds of pending reservations, so it
+        // never shows more than the database will have; refuse from it without a round trip
+        StockLedger.Hold hold = stockLedger.tryHold(productId, locationId, quantity);
+        if (hold == StockLedger.Hold.INSUFFICIENT) {
+            return false;
+        }
+        // A held or untracked reservation is written through, the conditional decrement has the last word
+        if (repository.decrementQuantity(productId, locationId, quantity) == 0) {
+            if (hold == StockLedger.Hold.HELD) {
+                // The ledger entry was ahead of the database, stop answering from it until it is refreshed
+                stockLedger.release(productId, locationId, quantity);
+                stockLedger.removeAfterCommit(productId, locationId);
+            }
+            return false;
+        }
+        if (hold == StockLedger.Hold.HELD) {
+            stockLedger.settleAfterCompletion(productId, locationId, quantity);
+        } else {
+            stockLedger.applyAfterCommit(productId, locationId, -quantity);
+        }
+        productStockService.applyOnHandChange(productId, -quantity);
+        recordMovement(productId, locationId, null, quantity, MovementType.STOCK_OUT, referenceNumber, durable);
+        return true;
+    }
+    
+    @Override
+    @Transactional
+    public boolean receiveStock(Long productId, Long locationId, int quantity, String referenceNumber) {
+        return receiveStock(productId, locationId, quantity, referenceNumber, false);
+    }
+    
+    @Override
+    @Transactional
+    public boolean receiveStock(Long productId, Long locationId, int quantity, String referenceNumber, boolean durable) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity to receive must be at least 1");
+        }
+        if (repository.incrementQuantity(productId, locationId, quantity) == 0) {
+            return false;
+        }
+        productStockService.applyOnHandChange(productId, quantity);
+        stockLedger.applyAfterCommit(productId, locationId, quantity);
+        recordMovement(productId, null, locationId, quantity, MovementType.STOCK_IN, referenceNumber, durable);
+        return true;
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public boolean isAvailable(Long productId, Long locationId, int quantity) {
+        int available = stockLedger.getAvailable(productId, locationId);
+        if (available != StockLedger.UNKNOWN) {
+            return available >= quantity;
+        }
+        return repository.findByProductIdAndLocationId(productId, locationId)
+                .map(item -> item.getQuantity() >= quantity)
+                .orElse(false);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public InventoryItem update(Long id, Consumer<InventoryItem> mutation) {
+        return retryTemplate.execute("InventoryItem.update", () -> {
+            InventoryItem item = repository.findById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Inventory item not found: " + id));
+            mutation.accept(item);
+            applyUnsavedQuantityChanges(Collections.singletonList(item));
+            return item;
+        });
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public Stream<StockMovement> streamMovementsByProductId(Long productId) {
+        return stockMovementRepository.streamByProductId(productId).peek(entityManager::detach);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public Stream<StockMovement> streamMovementsByMovementDateBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        return stockMovementRepository.streamByMovementDateBetween(startDate, endDate).peek(entityManager::detach);
+    }
+    
+    /**
+     * Push the quantity changes of managed items to the product stock totals and the stock
+     * ledger. The changes are collected first because applying one flushes the items, which
+     * marks them all as saved.
+     */
+    private void applyUnsavedQuantityChanges(List<InventoryItem> items) {
+        Map<Long, Long> changes = new HashMap<>();
+        for (InventoryItem item : items) {
+            changes.merge(item.getProduct().getId(), (long) item.getUnsavedQuantityChange(), Long::sum);
+            stockLedger.applyAfterCommit(item.getProduct().getId(), item.getLocation().getId(), item.getUnsavedQuantityChange());
+            item.markQuantitySaved();
+        }
+        for (Map.Entry<Long, Long> change : changes.entrySet()) {
+            productStockService.applyOnHandChange(change.getKey(), change.getValue());
+        }
+    }
+    
+    /**
+     * Record a stock movement using entity references so that neither the product
+     * nor the locations are loaded from the database. When the journal is enabled the
+     * movement is written by the journal: with the stock change when the journal is durable
+     * or the caller asked for a durable movement, otherwise after the transaction commits when
+     * it writes behind, in which case write failures are retried and logged by the journal.
+     * Otherwise it is saved as an entity and {@link MovementRollupEventListener} rolls it up.
+     * Either way the movement is added to the movement rollups in the transaction that inserts
+     * it, and counted once the transaction has committed.
+     */
+    private void recordMovement(Long productId, Long sourceLocationId, Long targetLocationId, 
+                                int quantity, MovementType movementType, String referenceNumber, boolean durable) {
+        StockMovement movement = new StockMovement(
+                entityManager.getReference(Product.class, productId),
+                sourceLocationId != null ? entityManager.getReference(Location.class, sourceLocationId) : null,
+                targetLocationId != null ? entityManager.getReference(Location.class, targetLocationId) : null,
+                quantity, movementType);
+        movement.setReferenceNumber(referenceNumber);
+        if (stockMovementJournal.isEnabled()) {
+            stockMovementJournal.append(movement, durable);
+        } else {
+            stockMovementRepository.save(movement);
+        }
+        inventoryCounters.countMovements(movementType, 1);
+    }
+}
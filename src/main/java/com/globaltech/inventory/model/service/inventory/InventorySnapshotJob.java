@@ -0,0 +1,34 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled job that takes an inventory snapshot and deletes the snapshots older than the
+ * retention period. Runs daily at 00:30 by default; the schedule is set with
+ * inventory.snapshot.cron and requires scheduling to be enabled. Snapshots are kept forever
+ * unless inventory.snapshot.retention-days is set.
+ */
+@Component
+public class InventorySnapshotJob {
+    
+    private final InventorySnapshotService inventorySnapshotService;
+    private final int retentionDays;
+    
+    public InventorySnapshotJob(InventorySnapshotService inventorySnapshotService, 
+                                @Value("${inventory.snapshot.retention-days:0}") int retentionDays) {
+        this.inventorySnapshotService = inventorySnapshotService;
+        this.retentionDays = retentionDays;
+    }
+    
+    @Scheduled(cron = "${inventory.snapshot.cron:0 30 0 * * *}")
+    public void takeSnapshot() {
+        inventorySnapshotService.takeSnapshot();
+        if (retentionDays > 0) {
+            inventorySnapshotService.deleteSnapshotsBefore(LocalDateTime.now().minusDays(retentionDays));
+        }
+    }
+}
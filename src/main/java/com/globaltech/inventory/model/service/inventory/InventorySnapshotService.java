@@ -0,0 +1,55 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import com.globaltech.inventory.model.domain.inventory.InventorySnapshot;
+
+/**
+ * Service capturing periodic snapshots of the inventory item quantities and answering
+ * point-in-time stock queries from them. The stock of a product at a location as of a time
+ * is the quantity in the nearest earlier snapshot plus the stock movements after it: a
+ * movement adds its quantity to its target location and removes it from its source location.
+ * 
+ * Without an earlier snapshot every movement up to the requested time is replayed from a
+ * quantity of zero. Point-in-time answers are only as complete as the movement history, so
+ * quantities edited without recording a movement are not reflected until the next snapshot.
+ */
+public interface InventorySnapshotService {
+    
+    /**
+     * Capture the quantity of every inventory item. Items are streamed from a consistent read
+     * that takes no locks, so stock updates carry on while the snapshot is written.
+     * 
+     * @return the completed snapshot
+     */
+    InventorySnapshot takeSnapshot();
+    
+    /**
+     * Get the quantity of a product at a location as of a point in time
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID
+     * @param asOf the point in time, inclusive
+     * @return the quantity on hand at that time
+     */
+    long getQuantityAsOf(Long productId, Long locationId, LocalDateTime asOf);
+    
+    /**
+     * Get the quantity of a product at every location it was stocked at as of a point in time
+     * 
+     * @param productId the product ID
+     * @param asOf the point in time, inclusive
+     * @return the quantity on hand per location ID
+     */
+    Map<Long, Long> getQuantitiesAsOf(Long productId, LocalDateTime asOf);
+    
+    /**
+     * Delete the snapshots taken before a point in time together with their items. Stock as of
+     * an earlier time is then answered by replaying from an older snapshot or from the start.
+     * 
+     * @param before the point in time, exclusive
+     * @return the number of snapshots deleted
+     */
+    int deleteSnapshotsBefore(LocalDateTime before);
+}
@@ -0,0 +1,331 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.globaltech.inventory.model.domain.inventory.InventorySnapshot;
+import com.globaltech.inventory.model.domain.inventory.ItemQuantity;
+import com.globaltech.inventory.model.domain.inventory.LocationQuantity;
+import com.globaltech.inventory.model.domain.inventory.ProductLocationQuantity;
+import com.globaltech.inventory.model.repository.inventory.InventoryRepository;
+import com.globaltech.inventory.model.repository.inventory.InventorySnapshotItemRepository;
+import com.globaltech.inventory.model.repository.inventory.InventorySnapshotRepository;
+import com.globaltech.inventory.model.repository.inventory.StockMovementRepository;
+
+/**
+ * Implementation of InventorySnapshotService. A snapshot streams the inventory items from a
+ * read-only repeatable read transaction, which InnoDB serves from a consistent view without
+ * locking rows, and inserts them in JDBC batches on a separate connection, committing every
+ * batch. The snapshot is marked complete once every item has been written; a failed snapshot
+ * is deleted again.
+ * 
+ * The snapshot holds the stock as of a watermark taken before the consistent view, a settle
+ * period in the past. Movements dated after the watermark that the view can see are taken back
+ * out of the stored quantities, so a movement is in the snapshot exactly when its date is at or
+ * before the watermark and replaying the later movements adds every other one. A movement
+ * dated before the watermark but committed after the view was established is only missed if
+ * its transaction ran for longer than the settle period. Items with a quantity of zero are not
+ * stored.
+ * 
+ * Movements replayed from before the end of the {@link MovementArchive} are read from the
+ * archive and later ones from the table.
+ */
+@Service
+public class InventorySnapshotServiceImpl implements InventorySnapshotService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InventorySnapshotServiceImpl.class);
+    
+    private static final String INSERT_SQL = "INSERT INTO inventory_snapshot_items (snapshot_id, product_id, " +
+            "location_id, quantity) VALUES (?, ?, ?, ?)";
+    
+    /**
+     * Replay start used without an earlier snapshot, the lowest date a MySQL DATETIME can hold
+     */
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1000, 1, 1, 0, 0);
+    
+    private final InventoryRepository inventoryRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final MovementArchive movementArchive;
+    private final InventorySnapshotRepository snapshotRepository;
+    private final InventorySnapshotItemRepository snapshotItemRepository;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final TransactionTemplate snapshotReadTemplate;
+    private final int batchSize;
+    private final Duration settle;
+    
+    public InventorySnapshotServiceImpl(InventoryRepository inventoryRepository,
+                                        StockMovementRepository stockMovementRepository,
+                                        MovementArchive movementArchive,
+                                        InventorySnapshotRepository snapshotRepository,
+                                        InventorySnapshotItemRepository snapshotItemRepository,
+                                        DataSource dataSource,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${inventory.snapshot.batch-size:1000}") int batchSize,
+                                        @Value("${inventory.snapshot.settle-seconds:60}") int settleSeconds) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Snapshot batch size must be at least 1");
+        }
+        if (settleSeconds < 0) {
+            throw new IllegalArgumentException("Snapshot settle period must not be negative");
+        }
+        this.inventoryRepository = inventoryRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.movementArchive = movementArchive;
+        this.snapshotRepository = snapshotRepository;
+        this.snapshotItemRepository = snapshotItemRepository;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.snapshotReadTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotReadTemplate.setReadOnly(true);
+        this.snapshotReadTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.batchSize = batchSize;
+        this.settle = Duration.ofSeconds(settleSeconds);
+    }
+    
+    @Override
+    public InventorySnapshot takeSnapshot() {
+        long start = System.nanoTime();
+        LocalDateTime takenAt = LocalDateTime.now().minus(settle);
+        LocalDateTime archivedUntil = movementArchive.getArchivedUntil();
+        if (archivedUntil != null && takenAt.isBefore(archivedUntil)) {
+            throw new IllegalStateException("Cannot take a snapshot as of " + takenAt + ", the movements since are archived up to "
+                    + archivedUntil);
+        }
+        InventorySnapshot snapshot = transactionTemplate.execute(
+                status -> snapshotRepository.save(new InventorySnapshot(takenAt)));
+        Long snapshotId = snapshot.getId();
+        try {
+            long itemCount = snapshotReadTemplate.execute(status -> {
+                // The first read establishes the consistent view, so the later changes are the ones it sees
+                Map<Long, long[]> laterChanges = summarizeChangesAfter(takenAt);
+                try (Stream<ItemQuantity> rows = inventoryRepository.streamItemQuantities()) {
+                    return writeItems(snapshotId, rows.iterator(), laterChanges);
+                }
+            });
+            snapshot.setItemCount(itemCount);
+            snapshot.setComplete(true);
+            InventorySnapshot completed = transactionTemplate.execute(status -> snapshotRepository.save(snapshot));
+            logger.info("Inventory snapshot {} taken at {}: {} items written in {} ms", snapshotId, takenAt, 
+                    itemCount, (System.nanoTime() - start) / 1_000_000);
+            return completed;
+        } catch (RuntimeException e) {
+            logger.warn("Inventory snapshot {} failed, deleting it", snapshotId, e);
+            deleteSnapshot(snapshotId);
+            throw e;
+        }
+    }
+    
+    @Override
+    public long getQuantityAsOf(Long productId, Long locationId, LocalDateTime asOf) {
+        if (productId == null || locationId == null || asOf == null) {
+            throw new IllegalArgumentException("Product ID, location ID and point in time are required");
+        }
+        return readOnlyTransactionTemplate.execute(status -> {
+            Optional<InventorySnapshot> snapshot = snapshotRepository.findFirstByCompleteTrueAndTakenAtLessThanEqualOrderByTakenAtDesc(asOf);
+            long quantity = 0;
+            LocalDateTime replayAfter = BEGINNING;
+            if (snapshot.isPresent()) {
+                Integer captured = snapshotItemRepository.findQuantity(snapshot.get().getId(), productId, locationId);
+                quantity = captured != null ? captured : 0;
+                replayAfter = snapshot.get().getTakenAt();
+            }
+            LocalDateTime archivedUntil = movementArchive.getArchivedUntil();
+            if (archivedUntil != null && replayAfter.isBefore(archivedUntil)) {
+                quantity += replayArchived(productId, replayAfter, asOf, archivedUntil).getOrDefault(locationId, 0L);
+                replayAfter = liveAfter(replayAfter, archivedUntil);
+            }
+            Long change = stockMovementRepository.sumNetQuantity(productId, locationId, replayAfter, asOf);
+            return quantity + (change != null ? change : 0);
+        });
+    }
+    
+    @Override
+    public Map<Long, Long> getQuantitiesAsOf(Long productId, LocalDateTime asOf) {
+        if (productId == null || asOf == null) {
+            throw new IllegalArgumentException("Product ID and point in time are required");
+        }
+        return readOnlyTransactionTemplate.execute(status -> {
+            Map<Long, Long> quantities = new HashMap<>();
+            Optional<InventorySnapshot> snapshot = snapshotRepository.findFirstByCompleteTrueAndTakenAtLessThanEqualOrderByTakenAtDesc(asOf);
+            LocalDateTime replayAfter = BEGINNING;
+            if (snapshot.isPresent()) {
+                for (LocationQuantity captured : snapshotItemRepository.findQuantitiesByProductId(snapshot.get().getId(), productId)) {
+                    quantities.put(captured.getLocationId(), captured.getTotalQuantity());
+                }
+                replayAfter = snapshot.get().getTakenAt();
+            }
+            LocalDateTime archivedUntil = movementArchive.getArchivedUntil();
+            if (archivedUntil != null && replayAfter.isBefore(archivedUntil)) {
+                replayArchived(productId, replayAfter, asOf, archivedUntil).forEach((locationId, change) -> 
+                        quantities.merge(locationId, change, Long::sum));
+                replayAfter = liveAfter(replayAfter, archivedUntil);
+            }
+            LocalDateTime liveAfter = replayAfter;
+            for (LocationQuantity incoming : stockMovementRepository.summarizeIncomingByLocation(productId, liveAfter, asOf)) {
+                quantities.merge(incoming.getLocationId(), incoming.getTotalQuantity(), Long::sum);
+            }
+            for (LocationQuantity outgoing : stockMovementRepository.summarizeOutgoingByLocation(productId, liveAfter, asOf)) {
+                quantities.merge(outgoing.getLocationId(), -outgoing.getTotalQuantity(), Long::sum);
+            }
+            return quantities;
+        });
+    }
+    
+    @Override
+    public int deleteSnapshotsBefore(LocalDateTime before) {
+        if (before == null) {
+            throw new IllegalArgumentException("Point in time is required");
+        }
+        int deleted = 0;
+        for (InventorySnapshot snapshot : readOnlyTransactionTemplate.execute(status -> snapshotRepository.findByTakenAtBefore(before))) {
+            deleteSnapshot(snapshot.getId());
+            deleted++;
+        }
+        return deleted;
+    }
+    
+    /**
+     * Net quantity moved in and out of each location for a product after a point in time and up
+     * to another, as far as the archive reaches. Movement dates have microsecond precision, so
+     * the range is converted to the archive's half-open one by moving both ends on by one
+     * microsecond.
+     */
+    private Map<Long, Long> replayArchived(Long productId, LocalDateTime after, LocalDateTime until, LocalDateTime archivedUntil) {
+        LocalDateTime to = nextMicrosecond(until);
+        return movementArchive.sumNetByLocation(productId, nextMicrosecond(after), to.isBefore(archivedUntil) ? to : archivedUntil);
+    }
+    
+    /**
+     * Get the replay start for the live table, which holds the movements dated at or after the
+     * end of the archive
+     */
+    private static LocalDateTime liveAfter(LocalDateTime after, LocalDateTime archivedUntil) {
+        LocalDateTime lastArchived = archivedUntil.minus(1, ChronoUnit.MICROS);
+        return lastArchived.isAfter(after) ? lastArchived : after;
+    }
+    
+    private static LocalDateTime nextMicrosecond(LocalDateTime date) {
+        return date.truncatedTo(ChronoUnit.MICROS).plus(1, ChronoUnit.MICROS);
+    }
+    
+    /**
+     * Net quantity moved in and out of each item after a point in time, keyed by item
+     * 
+     * @return the product ID, location ID and net change of each item that changed
+     */
+    private Map<Long, long[]> summarizeChangesAfter(LocalDateTime after) {
+        Map<Long, long[]> changes = new HashMap<>();
+        for (ProductLocationQuantity incoming : stockMovementRepository.summarizeIncomingAfter(after)) {
+            addChange(changes, incoming.getProductId(), incoming.getLocationId(), incoming.getTotalQuantity());
+        }
+        for (ProductLocationQuantity outgoing : stockMovementRepository.summarizeOutgoingAfter(after)) {
+            addChange(changes, outgoing.getProductId(), outgoing.getLocationId(), -outgoing.getTotalQuantity());
+        }
+        return changes;
+    }
+    
+    private static void addChange(Map<Long, long[]> changes, long productId, long locationId, long quantity) {
+        changes.computeIfAbsent(itemKey(productId, locationId), key -> new long[] {productId, locationId, 0})[2] += quantity;
+    }
+    
+    private static long itemKey(long productId, long locationId) {
+        return productId << 32 ^ locationId;
+    }
+    
+    private void deleteSnapshot(Long snapshotId) {
+        transactionTemplate.execute(status -> {
+            snapshotItemRepository.deleteBySnapshotId(snapshotId);
+            snapshotRepository.deleteById(snapshotId);
+            return null;
+        });
+    }
+    
+    /**
+     * Insert the streamed items of a snapshot, less the changes made after the snapshot time,
+     * committing every batch so that the write transaction stays short however many items there
+     * are. Changed items that no longer exist are written from their changes alone.
+     * 
+     * @return the number of items written
+     */
+    private long writeItems(Long snapshotId, Iterator<ItemQuantity> rows, Map<Long, long[]> laterChanges) {
+        long written = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                int pending = 0;
+                Iterator<long[]> removedItems = null;
+                while (true) {
+                    long productId;
+                    long locationId;
+                    long quantity;
+                    if (rows.hasNext()) {
+                        ItemQuantity row = rows.next();
+                        productId = row.getProductId();
+                        locationId = row.getLocationId();
+                        long[] change = laterChanges.remove(itemKey(productId, locationId));
+                        quantity = (row.getQuantity() != null ? row.getQuantity() : 0) - (change != null ? change[2] : 0);
+                    } else {
+                        if (removedItems == null) {
+                            removedItems = laterChanges.values().iterator();
+                        }
+                        if (!removedItems.hasNext()) {
+                            break;
+                        }
+                        long[] change = removedItems.next();
+                        productId = change[0];
+                        locationId = change[1];
+                        quantity = -change[2];
+                    }
+                    if (quantity == 0) {
+                        continue;
+                    }
+                    statement.setLong(1, snapshotId);
+                    statement.setLong(2, productId);
+                    statement.setLong(3, locationId);
+                    statement.setInt(4, Math.toIntExact(quantity));
+                    statement.addBatch();
+                    if (++pending == batchSize) {
+                        statement.executeBatch();
+                        connection.commit();
+                        written += pending;
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                    written += pending;
+                }
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not write items of inventory snapshot " + snapshotId, e);
+        }
+        return written;
+    }
+}
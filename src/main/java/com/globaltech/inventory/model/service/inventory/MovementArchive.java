@@ -0,0 +1,298 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+
+/**
+ * Append-only store of archived stock movements, kept as {@link MovementArchiveSegment} files
+ * in one directory. Segments cover consecutive date ranges up to {@link #getArchivedUntil()},
+ * and no archived movement is dated after it. Movements dated into the archived range after it
+ * was archived are added later as follow-up segments of the days they fall on.
+ * 
+ * A segment is written to a temporary file, forced to disk and then renamed into place as
+ * pending, so a crash never leaves a partial segment behind. It stays pending until its
+ * movements have been deleted from the table and it is confirmed, so readers know which
+ * ranges may still hold movements in the table that are also archived. Scans read the mapped
+ * segments concurrently with appends.
+ */
+@Component
+public class MovementArchive implements InitializingBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MovementArchive.class);
+    
+    private static final String SEGMENT_PREFIX = "movements-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String PENDING_SUFFIX = ".pending";
+    
+    private final Path directory;
+    private volatile List<MovementArchiveSegment> segments = Collections.emptyList();
+    
+    public MovementArchive(@Value("${inventory.movement-archive.directory:movement-archive}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+    
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        Files.createDirectories(directory);
+        List<MovementArchiveSegment> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, 
+                SEGMENT_PREFIX + "*{" + SEGMENT_SUFFIX + "," + PENDING_SUFFIX + "}")) {
+            for (Path file : files) {
+                loaded.add(MovementArchiveSegment.open(file));
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.tmp")) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        loaded.sort(Comparator.comparingLong(MovementArchiveSegment::getFromMicros));
+        segments = Collections.unmodifiableList(loaded);
+        logger.info("Opened stock movement archive {} with {} segments", directory, loaded.size());
+    }
+    
+    /**
+     * Get the end of the archived date range
+     * 
+     * @return the date before which every movement is archived, or null if the archive is empty
+     */
+    public LocalDateTime getArchivedUntil() {
+        List<MovementArchiveSegment> current = segments;
+        return current.isEmpty() ? null : toDateTime(archivedUntilMicros(current));
+    }
+    
+    /**
+     * Get the segments whose movements may still be in the table
+     * 
+     * @return the pending segments, ordered by the start of their range
+     */
+    public List<MovementArchiveSegment> getPendingSegments() {
+        List<MovementArchiveSegment> pending = new ArrayList<>();
+        for (MovementArchiveSegment segment : segments) {
+            if (isPending(segment)) {
+                pending.add(segment);
+            }
+        }
+        return pending;
+    }
+    
+    /**
+     * Get the number of archived movements
+     * 
+     * @return the number of movements across all segments
+     */
+    public long getMovementCount() {
+        long count = 0;
+        for (MovementArchiveSegment segment : segments) {
+            count += segment.getRowCount();
+        }
+        return count;
+    }
+    
+    /**
+     * Write a pending segment and add it to the archive. The segment must either start where the
+     * archive ends, or be a follow-up segment within the archived range.
+     * 
+     * @param builder the segment rows
+     * @return the new segment
+     * @throws IllegalArgumentException if the segment neither continues nor lies within the archived range
+     */
+    public synchronized MovementArchiveSegment append(MovementArchiveSegment.Builder builder) {
+        List<MovementArchiveSegment> current = segments;
+        String name = SEGMENT_PREFIX + builder.getFromMicros() + "-" + builder.getToMicros();
+        if (!current.isEmpty() && archivedUntilMicros(current) != builder.getFromMicros()) {
+            if (builder.getToMicros() > archivedUntilMicros(current)) {
+                throw new IllegalArgumentException("Segment must start at the end of the archive or lie within it, " 
+                        + getArchivedUntil());
+            }
+            // Segments are never removed, so their number tells follow-ups of the same range apart
+            name += "-" + current.size();
+        }
+        Path temporary = directory.resolve(name + ".tmp");
+        Path target = directory.resolve(name + PENDING_SUFFIX);
+        try {
+            Files.deleteIfExists(temporary);
+            builder.write(temporary);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            MovementArchiveSegment segment = MovementArchiveSegment.open(target);
+            List<MovementArchiveSegment> appended = new ArrayList<>(current);
+            appended.add(segment);
+            appended.sort(Comparator.comparingLong(MovementArchiveSegment::getFromMicros));
+            segments = Collections.unmodifiableList(appended);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write stock movement archive segment " + target, e);
+        }
+    }
+    
+    /**
+     * Confirm the pending segments within a date range once their movements have been deleted
+     * from the table
+     * 
+     * @param from the start date, inclusive, or null for the start of the archive
+     * @param to the end date, exclusive
+     * @return the number of segments confirmed
+     */
+    public synchronized int confirm(LocalDateTime from, LocalDateTime to) {
+        long fromMicros = from != null ? toMicros(from) : Long.MIN_VALUE;
+        long toMicros = toMicros(to);
+        List<MovementArchiveSegment> confirmed = new ArrayList<>(segments);
+        int count = 0;
+        for (int i = 0; i < confirmed.size(); i++) {
+            MovementArchiveSegment segment = confirmed.get(i);
+            if (isPending(segment) && segment.getFromMicros() >= fromMicros && segment.getToMicros() <= toMicros) {
+                String name = segment.getPath().getFileName().toString();
+                Path target = segment.getPath().resolveSibling(
+                        name.substring(0, name.length() - PENDING_SUFFIX.length()) + SEGMENT_SUFFIX);
+                try {
+                    Files.move(segment.getPath(), target, StandardCopyOption.ATOMIC_MOVE);
+                    confirmed.set(i, MovementArchiveSegment.open(target));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not confirm stock movement archive segment " + target, e);
+                }
+                count++;
+            }
+        }
+        segments = Collections.unmodifiableList(confirmed);
+        return count;
+    }
+    
+    /**
+     * Count the archived movements within a date range
+     * 
+     * @param from the start date, inclusive
+     * @param to the end date, exclusive
+     * @return the number of movements within the range
+     */
+    public long count(LocalDateTime from, LocalDateTime to) {
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        long count = 0;
+        for (MovementArchiveSegment segment : segments) {
+            if (segment.getToMicros() > fromMicros && segment.getFromMicros() < toMicros) {
+                count += segment.count(fromMicros, toMicros);
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Sum the archived quantity per movement type within a date range. A movement belongs to its
+     * source location, or its target location if it has no source.
+     * 
+     * @param productId the product ID, or null for all products
+     * @param locationId the location ID, or null for all locations
+     * @param from the start date, inclusive
+     * @param to the end date, exclusive
+     * @return the total quantity per movement type, with every movement type present
+     */
+    public Map<MovementType, Long> sumByMovementType(Long productId, Long locationId, LocalDateTime from, LocalDateTime to) {
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        long[] totals = new long[MovementType.values().length];
+        for (MovementArchiveSegment segment : segments) {
+            if (segment.getToMicros() > fromMicros && segment.getFromMicros() < toMicros) {
+                segment.sumByMovementType(productId, locationId, fromMicros, toMicros, totals);
+            }
+        }
+        Map<MovementType, Long> byType = new EnumMap<>(MovementType.class);
+        for (MovementType movementType : MovementType.values()) {
+            byType.put(movementType, totals[movementType.ordinal()]);
+        }
+        return byType;
+    }
+    
+    /**
+     * Sum the archived quantity per product within a date range
+     * 
+     * @param movementType the movement type, or null for all types
+     * @param from the start date, inclusive
+     * @param to the end date, exclusive
+     * @return the total quantity by product ID, for the products moved within the range
+     */
+    public Map<Long, Long> sumByProduct(MovementType movementType, LocalDateTime from, LocalDateTime to) {
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        int ordinal = movementType != null ? movementType.ordinal() : -1;
+        Map<Long, Long> totals = new HashMap<>();
+        for (MovementArchiveSegment segment : segments) {
+            if (segment.getToMicros() > fromMicros && segment.getFromMicros() < toMicros) {
+                segment.sumByProduct(ordinal, fromMicros, toMicros, totals);
+            }
+        }
+        return totals;
+    }
+    
+    /**
+     * Sum the archived net quantity moved in and out of each location for a product within a
+     * date range
+     * 
+     * @param productId the product ID
+     * @param from the start date, inclusive
+     * @param to the end date, exclusive
+     * @return the net quantity by location ID, for the locations the product moved in or out of
+     */
+    public Map<Long, Long> sumNetByLocation(long productId, LocalDateTime from, LocalDateTime to) {
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        Map<Long, Long> totals = new HashMap<>();
+        for (MovementArchiveSegment segment : segments) {
+            if (segment.getToMicros() > fromMicros && segment.getFromMicros() < toMicros) {
+                segment.sumNetByLocation(productId, fromMicros, toMicros, totals);
+            }
+        }
+        return totals;
+    }
+    
+    private static boolean isPending(MovementArchiveSegment segment) {
+        return segment.getPath().getFileName().toString().endsWith(PENDING_SUFFIX);
+    }
+    
+    /**
+     * Follow-up segments lie within the archived range, so the end of the archive is the latest
+     * segment end rather than the end of the last segment by start date
+     */
+    private static long archivedUntilMicros(List<MovementArchiveSegment> current) {
+        long until = Long.MIN_VALUE;
+        for (MovementArchiveSegment segment : current) {
+            until = Math.max(until, segment.getToMicros());
+        }
+        return until;
+    }
+    
+    /**
+     * Convert a date to epoch microseconds, rounding up any remaining nanoseconds. Movement dates
+     * are stored with microsecond precision, so a movement is at or after a date exactly when it
+     * is at or after the rounded up value.
+     */
+    static long toMicros(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + (date.getNano() + 999) / 1000;
+    }
+    
+    static LocalDateTime toDateTime(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000), (int) Math.floorMod(micros, 1_000_000) * 1000, 
+                ZoneOffset.UTC);
+    }
+}
\ No newline at end of file
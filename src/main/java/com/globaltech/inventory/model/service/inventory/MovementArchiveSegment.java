@@ -0,0 +1,456 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Immutable columnar file holding the stock movements of a date range [from, to), ordered by
+ * movement date. Each column is stored contiguously with frame-of-reference packing: values
+ * are written as the unsigned difference to the column minimum in the narrowest of 1, 2, 4, 6
+ * or 8 bytes that fits, so a segment of one week typically takes about 11 bytes per movement.
+ * Because every column stays fixed width, the file is scanned in place through a read-only
+ * MappedByteBuffer without copying rows onto the heap.
+ * 
+ * Movement dates are stored as epoch microseconds of the local date-time read as UTC, the
+ * precision of a DATETIME(6) column, and missing locations as 0. Reference numbers and notes
+ * are not archived.
+ */
+public final class MovementArchiveSegment {
+    
+    private static final int MAGIC = 0x474D4131;
+    
+    static final int DATE = 0;
+    static final int PRODUCT = 1;
+    static final int SOURCE_LOCATION = 2;
+    static final int TARGET_LOCATION = 3;
+    static final int QUANTITY = 4;
+    static final int MOVEMENT_TYPE = 5;
+    
+    private static final int COLUMNS = 6;
+    private static final int COLUMN_HEADER_SIZE = 1 + 8 + 8;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + COLUMNS * COLUMN_HEADER_SIZE;
+    
+    /**
+     * Largest product ID range aggregated into a dense array rather than a map
+     */
+    private static final long DENSE_PRODUCT_RANGE = 1 << 20;
+    
+    private final Path path;
+    private final int rowCount;
+    private final long fromMicros;
+    private final long toMicros;
+    private final Column[] columns = new Column[COLUMNS];
+    
+    private MovementArchiveSegment(Path path, MappedByteBuffer buffer) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Not a stock movement archive segment: " + path);
+        }
+        this.path = path;
+        this.rowCount = buffer.getInt(4);
+        this.fromMicros = buffer.getLong(8);
+        this.toMicros = buffer.getLong(16);
+        int offset = HEADER_SIZE;
+        for (int i = 0; i < COLUMNS; i++) {
+            int header = 24 + i * COLUMN_HEADER_SIZE;
+            int width = buffer.get(header);
+            columns[i] = new Column(buffer, offset, width, buffer.getLong(header + 1), buffer.getLong(header + 9));
+            offset += width * rowCount;
+        }
+        if (offset > buffer.capacity()) {
+            throw new IllegalStateException("Truncated stock movement archive segment: " + path);
+        }
+    }
+    
+    /**
+     * Map an existing segment file
+     * 
+     * @param path the segment file
+     * @return the segment
+     * @throws IOException if the file cannot be read
+     */
+    public static MovementArchiveSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MovementArchiveSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+    
+    public Path getPath() {
+        return path;
+    }
+    
+    public int getRowCount() {
+        return rowCount;
+    }
+    
+    public long getFromMicros() {
+        return fromMicros;
+    }
+    
+    public long getToMicros() {
+        return toMicros;
+    }
+    
+    /**
+     * Count the movements within a date range
+     * 
+     * @param fromMicros the start date, inclusive
+     * @param toMicros the end date, exclusive
+     * @return the number of movements within the range
+     */
+    public int count(long fromMicros, long toMicros) {
+        return Math.max(0, lowerBound(toMicros) - lowerBound(fromMicros));
+    }
+    
+    /**
+     * Add the quantity of the movements within a date range to per-type totals. A movement
+     * belongs to its source location, or its target location if it has no source.
+     * 
+     * @param productId the product ID, or null for all products
+     * @param locationId the location ID, or null for all locations
+     * @param fromMicros the start date, inclusive
+     * @param toMicros the end date, exclusive
+     * @param totals the totals indexed by movement type ordinal
+     */
+    public void sumByMovementType(Long productId, Long locationId, long fromMicros, long toMicros, long[] totals) {
+        int first = lowerBound(fromMicros);
+        int last = lowerBound(toMicros);
+        Column product = columns[PRODUCT];
+        Column source = columns[SOURCE_LOCATION];
+        Column target = columns[TARGET_LOCATION];
+        Column quantity = columns[QUANTITY];
+        Column type = columns[MOVEMENT_TYPE];
+        if (productId == null && locationId == null) {
+            for (int row = first; row < last; row++) {
+                totals[(int) type.get(row)] += quantity.get(row);
+            }
+            return;
+        }
+        if (productId != null && (productId < product.min || productId > product.max)) {
+            return;
+        }
+        for (int row = first; row < last; row++) {
+            if (productId != null && product.get(row) != productId) {
+                continue;
+            }
+            if (locationId != null) {
+                long sourceId = source.get(row);
+                if ((sourceId != 0 ? sourceId : target.get(row)) != locationId) {
+                    continue;
+                }
+            }
+            totals[(int) type.get(row)] += quantity.get(row);
+        }
+    }
+    
+    /**
+     * Add the net quantity moved in and out of each location for a product within a date range
+     * to per-location totals
+     * 
+     * @param productId the product ID
+     * @param fromMicros the start date, inclusive
+     * @param toMicros the end date, exclusive
+     * @param totals the net quantity by location ID
+     */
+    public void sumNetByLocation(long productId, long fromMicros, long toMicros, Map<Long, Long> totals) {
+        Column product = columns[PRODUCT];
+        if (productId < product.min || productId > product.max) {
+            return;
+        }
+        int first = lowerBound(fromMicros);
+        int last = lowerBound(toMicros);
+        Column source = columns[SOURCE_LOCATION];
+        Column target = columns[TARGET_LOCATION];
+        Column quantity = columns[QUANTITY];
+        for (int row = first; row < last; row++) {
+            if (product.get(row) == productId) {
+                long sourceId = source.get(row);
+                long targetId = target.get(row);
+                if (targetId != 0) {
+                    totals.merge(targetId, quantity.get(row), Long::sum);
+                }
+                if (sourceId != 0) {
+                    totals.merge(sourceId, -quantity.get(row), Long::sum);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Add the quantity of the movements within a date range to per-product totals
+     * 
+     * @param movementTypeOrdinal the movement type ordinal, or -1 for all types
+     * @param fromMicros the start date, inclusive
+     * @param toMicros the end date, exclusive
+     * @param totals the totals by product ID
+     */
+    public void sumByProduct(int movementTypeOrdinal, long fromMicros, long toMicros, Map<Long, Long> totals) {
+        int first = lowerBound(fromMicros);
+        int last = lowerBound(toMicros);
+        if (first == last) {
+            return;
+        }
+        Column product = columns[PRODUCT];
+        Column quantity = columns[QUANTITY];
+        Column type = columns[MOVEMENT_TYPE];
+        long range = product.max - product.min;
+        if (range >= 0 && range < DENSE_PRODUCT_RANGE) {
+            long[] dense = new long[(int) range + 1];
+            boolean[] seen = new boolean[dense.length];
+            for (int row = first; row < last; row++) {
+                if (movementTypeOrdinal < 0 || type.get(row) == movementTypeOrdinal) {
+                    int index = (int) (product.get(row) - product.min);
+                    dense[index] += quantity.get(row);
+                    seen[index] = true;
+                }
+            }
+            for (int index = 0; index < dense.length; index++) {
+                if (seen[index]) {
+                    totals.merge(product.min + index, dense[index], Long::sum);
+                }
+            }
+            return;
+        }
+        for (int row = first; row < last; row++) {
+            if (movementTypeOrdinal < 0 || type.get(row) == movementTypeOrdinal) {
+                totals.merge(product.get(row), quantity.get(row), Long::sum);
+            }
+        }
+    }
+    
+    /**
+     * Pass the column values of every movement within a date range to an action, in date order.
+     * The array is indexed by the column constants and reused between rows.
+     * 
+     * @param fromMicros the start date, inclusive
+     * @param toMicros the end date, exclusive
+     * @param action the action to perform for each movement
+     */
+    public void forEachRow(long fromMicros, long toMicros, Consumer<long[]> action) {
+        int last = lowerBound(toMicros);
+        long[] row = new long[COLUMNS];
+        for (int index = lowerBound(fromMicros); index < last; index++) {
+            for (int column = 0; column < COLUMNS; column++) {
+                row[column] = columns[column].get(index);
+            }
+            action.accept(row);
+        }
+    }
+    
+    /**
+     * Find the first row dated at or after a time, relying on the rows being ordered by date
+     */
+    private int lowerBound(long micros) {
+        if (micros <= fromMicros) {
+            return 0;
+        }
+        if (micros >= toMicros) {
+            return rowCount;
+        }
+        Column date = columns[DATE];
+        int low = 0;
+        int high = rowCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (date.get(middle) < micros) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+    
+    @Override
+    public String toString() {
+        return "MovementArchiveSegment [path=" + path + ", rows=" + rowCount + "]";
+    }
+    
+    /**
+     * One fixed-width column of a mapped segment
+     */
+    private static final class Column {
+        
+        private final ByteBuffer buffer;
+        private final int offset;
+        private final int width;
+        private final long min;
+        private final long max;
+        
+        private Column(ByteBuffer buffer, int offset, int width, long min, long max) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.width = width;
+            this.min = min;
+            this.max = max;
+        }
+        
+        private long get(int row) {
+            switch (width) {
+                case 1:
+                    return min + (buffer.get(offset + row) & 0xFFL);
+                case 2:
+                    return min + (buffer.getShort(offset + 2 * row) & 0xFFFFL);
+                case 4:
+                    return min + (buffer.getInt(offset + 4 * row) & 0xFFFFFFFFL);
+                case 6:
+                    return min + ((buffer.getInt(offset + 6 * row) & 0xFFFFFFFFL) 
+                            | (buffer.getShort(offset + 6 * row + 4) & 0xFFFFL) << 32);
+                default:
+                    return min + buffer.getLong(offset + 8 * row);
+            }
+        }
+    }
+    
+    /**
+     * Collects the rows of a segment in memory, in movement date order, and writes them out
+     */
+    public static final class Builder {
+        
+        private final long fromMicros;
+        private final long toMicros;
+        private long[][] values = new long[COLUMNS][1024];
+        private int size;
+        
+        /**
+         * @param fromMicros the start of the segment range, inclusive
+         * @param toMicros the end of the segment range, exclusive
+         */
+        public Builder(long fromMicros, long toMicros) {
+            if (fromMicros >= toMicros) {
+                throw new IllegalArgumentException("Segment range must not be empty");
+            }
+            this.fromMicros = fromMicros;
+            this.toMicros = toMicros;
+        }
+        
+        /**
+         * Add a movement. Movements must be added in date order.
+         * 
+         * @param productId the product ID
+         * @param sourceLocationId the source location ID, or null
+         * @param targetLocationId the target location ID, or null
+         * @param quantity the quantity
+         * @param movementTypeOrdinal the movement type ordinal
+         * @param dateMicros the movement date in epoch microseconds
+         * @throws IllegalArgumentException if the movement is outside the segment range or out of order
+         */
+        public void add(long productId, Long sourceLocationId, Long targetLocationId, int quantity,
+                        int movementTypeOrdinal, long dateMicros) {
+            if (dateMicros < fromMicros || dateMicros >= toMicros || (size > 0 && dateMicros < values[DATE][size - 1])) {
+                throw new IllegalArgumentException("Movement dated " + dateMicros + " is out of order or outside the segment");
+            }
+            if (size == values[0].length) {
+                if (size == Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException("Segment is full");
+                }
+                int capacity = (int) Math.min(size * 2L, Integer.MAX_VALUE - 8);
+                for (int i = 0; i < COLUMNS; i++) {
+                    values[i] = Arrays.copyOf(values[i], capacity);
+                }
+            }
+            values[DATE][size] = dateMicros;
+            values[PRODUCT][size] = productId;
+            values[SOURCE_LOCATION][size] = sourceLocationId != null ? sourceLocationId : 0;
+            values[TARGET_LOCATION][size] = targetLocationId != null ? targetLocationId : 0;
+            values[QUANTITY][size] = quantity;
+            values[MOVEMENT_TYPE][size] = movementTypeOrdinal;
+            size++;
+        }
+        
+        public int size() {
+            return size;
+        }
+        
+        public long getFromMicros() {
+            return fromMicros;
+        }
+        
+        public long getToMicros() {
+            return toMicros;
+        }
+        
+        /**
+         * Write the segment to a new file and force it to disk
+         * 
+         * @param path the file to create
+         * @throws IOException if the file exists or cannot be written
+         */
+        public void write(Path path) throws IOException {
+            long[] min = new long[COLUMNS];
+            long[] max = new long[COLUMNS];
+            int[] width = new int[COLUMNS];
+            long length = HEADER_SIZE;
+            for (int i = 0; i < COLUMNS; i++) {
+                min[i] = size > 0 ? Long.MAX_VALUE : 0;
+                max[i] = size > 0 ? Long.MIN_VALUE : 0;
+                for (int row = 0; row < size; row++) {
+                    min[i] = Math.min(min[i], values[i][row]);
+                    max[i] = Math.max(max[i], values[i][row]);
+                }
+                width[i] = width(min[i], max[i]);
+                length += (long) width[i] * size;
+            }
+            if (length > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Segment of " + size + " movements exceeds 2 GB, use a shorter segment range");
+            }
+            
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                buffer.putInt(MAGIC).putInt(size).putLong(fromMicros).putLong(toMicros);
+                for (int i = 0; i < COLUMNS; i++) {
+                    buffer.put((byte) width[i]).putLong(min[i]).putLong(max[i]);
+                }
+                for (int i = 0; i < COLUMNS; i++) {
+                    for (int row = 0; row < size; row++) {
+                        long packed = values[i][row] - min[i];
+                        switch (width[i]) {
+                            case 1:
+                                buffer.put((byte) packed);
+                                break;
+                            case 2:
+                                buffer.putShort((short) packed);
+                                break;
+                            case 4:
+                                buffer.putInt((int) packed);
+                                break;
+                            case 6:
+                                buffer.putInt((int) packed).putShort((short) (packed >>> 32));
+                                break;
+                            default:
+                                buffer.putLong(packed);
+                        }
+                    }
+                }
+                buffer.force();
+            }
+        }
+        
+        private static int width(long min, long max) {
+            long range = max - min;
+            if (range < 0) {
+                return 8;
+            }
+            if (range <= 0xFFL) {
+                return 1;
+            }
+            if (range <= 0xFFFFL) {
+                return 2;
+            }
+            if (range <= 0xFFFFFFFFL) {
+                return 4;
+            }
+            return range <= 0xFFFFFFFFFFFFL ? 6 : 8;
+        }
+    }
+}
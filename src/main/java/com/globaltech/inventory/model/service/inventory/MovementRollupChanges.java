@@ -0,0 +1,146 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import com.globaltech.inventory.model.domain.base.PooledIdGenerator;
+import com.globaltech.inventory.model.domain.inventory.DailyMovementRollup;
+import com.globaltech.inventory.model.domain.inventory.HourlyMovementRollup;
+import com.globaltech.inventory.model.domain.inventory.MovementRollup;
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+
+/**
+ * Changes to the hourly and daily stock movement rollups from movements being written, either
+ * with plain JDBC by the services that batch them or as entities through
+ * {@link MovementRollupEventListener}. The
+ * movements are added up per bucket, product, location and movement type, and written with one
+ * upsert per rollup on the connection that writes the movements, so the rollups commit or roll
+ * back with them. Rollups are written in unique key order, hourly before daily, so concurrent
+ * writers lock them in the same order.
+ */
+public class MovementRollupChanges {
+    
+    private static final String HOURLY_UPSERT_SQL = upsertSql("stock_movement_hourly");
+    private static final String DAILY_UPSERT_SQL = upsertSql("stock_movement_daily");
+    
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator.comparingLong((RollupKey key) -> key.productId)
+            .thenComparing(key -> key.bucketStart)
+            .thenComparingLong(key -> key.locationId)
+            .thenComparing(key -> key.movementType.name());
+    
+    private final NavigableMap<RollupKey, long[]> hourly = new TreeMap<>(KEY_ORDER);
+    
+    /**
+     * Add a movement. It counts towards its source location, else its target location, as in
+     * the rollups built from the movement table.
+     * 
+     * @param movementDate the movement date
+     * @param productId the product ID
+     * @param sourceLocationId the source location ID, may be null
+     * @param targetLocationId the target location ID, may be null
+     * @param movementType the movement type
+     * @param quantity the quantity moved
+     */
+    public void add(LocalDateTime movementDate, long productId, Long sourceLocationId, Long targetLocationId,
+                    MovementType movementType, long quantity) {
+        change(movementDate, productId, sourceLocationId, targetLocationId, movementType, quantity, 1);
+    }
+    
+    /**
+     * Remove a movement that was rolled up, when it is deleted or before it is added again with
+     * its updated values
+     * 
+     * @param movementDate the movement date
+     * @param productId the product ID
+     * @param sourceLocationId the source location ID, may be null
+     * @param targetLocationId the target location ID, may be null
+     * @param movementType the movement type
+     * @param quantity the quantity moved
+     */
+    public void remove(LocalDateTime movementDate, long productId, Long sourceLocationId, Long targetLocationId,
+                       MovementType movementType, long quantity) {
+        change(movementDate, productId, sourceLocationId, targetLocationId, movementType, -quantity, -1);
+    }
+    
+    private void change(LocalDateTime movementDate, long productId, Long sourceLocationId, Long targetLocationId,
+                        MovementType movementType, long quantity, long count) {
+        long locationId = sourceLocationId != null ? sourceLocationId
+                : targetLocationId != null ? targetLocationId : MovementRollup.NO_LOCATION;
+        RollupKey key = new RollupKey(movementDate.truncatedTo(ChronoUnit.HOURS), productId, locationId, movementType);
+        long[] totals = hourly.computeIfAbsent(key, k -> new long[2]);
+        totals[0] += quantity;
+        totals[1] += count;
+    }
+    
+    /**
+     * Add the movements to the rollups, creating the rollups that do not exist yet
+     * 
+     * @param session the session to take rollup IDs from
+     * @param connection the connection of the transaction writing the movements
+     * @throws SQLException if a rollup cannot be written
+     */
+    public void write(SharedSessionContractImplementor session, Connection connection) throws SQLException {
+        if (hourly.isEmpty()) {
+            return;
+        }
+        NavigableMap<RollupKey, long[]> daily = new TreeMap<>(KEY_ORDER);
+        for (Map.Entry<RollupKey, long[]> change : hourly.entrySet()) {
+            RollupKey hour = change.getKey();
+            long[] totals = daily.computeIfAbsent(new RollupKey(hour.bucketStart.truncatedTo(ChronoUnit.DAYS),
+                    hour.productId, hour.locationId, hour.movementType), k -> new long[2]);
+            totals[0] += change.getValue()[0];
+            totals[1] += change.getValue()[1];
+        }
+        upsert(session, connection, HOURLY_UPSERT_SQL, HourlyMovementRollup.class, hourly);
+        upsert(session, connection, DAILY_UPSERT_SQL, DailyMovementRollup.class, daily);
+    }
+    
+    private static void upsert(SharedSessionContractImplementor session, Connection connection, String sql,
+                               Class<? extends MovementRollup> rollupClass, Map<RollupKey, long[]> changes) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (Map.Entry<RollupKey, long[]> change : changes.entrySet()) {
+                RollupKey key = change.getKey();
+                statement.setLong(1, PooledIdGenerator.nextId(session, rollupClass));
+                statement.setTimestamp(2, Timestamp.valueOf(key.bucketStart));
+                statement.setLong(3, key.productId);
+                statement.setLong(4, key.locationId);
+                statement.setString(5, key.movementType.name());
+                statement.setLong(6, change.getValue()[0]);
+                statement.setLong(7, change.getValue()[1]);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+    
+    private static String upsertSql(String table) {
+        return "INSERT INTO " + table + " (id, bucket_start, product_id, location_id, movement_type, quantity, movement_count) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), " +
+                "movement_count = movement_count + VALUES(movement_count)";
+    }
+    
+    private static final class RollupKey {
+        
+        private final LocalDateTime bucketStart;
+        private final long productId;
+        private final long locationId;
+        private final MovementType movementType;
+        
+        private RollupKey(LocalDateTime bucketStart, long productId, long locationId, MovementType movementType) {
+            this.bucketStart = bucketStart;
+            this.productId = productId;
+            this.locationId = locationId;
+            this.movementType = movementType;
+        }
+    }
+}
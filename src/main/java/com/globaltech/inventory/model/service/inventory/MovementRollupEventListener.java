@@ -0,0 +1,130 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tuple.entity.EntityMetamodel;
+
+import com.globaltech.inventory.model.domain.base.BaseEntity;
+import com.globaltech.inventory.model.domain.inventory.StockMovement;
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+
+/**
+ * Adds the stock movements written as entities to the movement rollups, whichever repository or
+ * service saves, updates or deletes them. The changes of a session are collected into one
+ * {@link MovementRollupChanges} and written before its transaction completes, after the
+ * movements have been flushed, so they commit or roll back with the movements. Movements
+ * inserted with plain JDBC and bulk deletes do not raise entity events; the services doing
+ * those add them to the rollups themselves.
+ * 
+ * Registered with every session factory through META-INF/services, like any Hibernate Integrator.
+ */
+public class MovementRollupEventListener implements Integrator, PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final ConcurrentMap<SharedSessionContractImplementor, MovementRollupChanges> changes = new ConcurrentHashMap<>();
+    
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+    
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        changes.clear();
+    }
+    
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof StockMovement) {
+            change(event.getSession(), event.getPersister(), event.getState(), 1);
+        }
+    }
+    
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof StockMovement) {
+            if (event.getOldState() == null) {
+                throw new IllegalStateException("Cannot roll up an update of stock movement " + event.getId() 
+                        + " without its previous state");
+            }
+            change(event.getSession(), event.getPersister(), event.getOldState(), -1);
+            change(event.getSession(), event.getPersister(), event.getState(), 1);
+        }
+    }
+    
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof StockMovement) {
+            change(event.getSession(), event.getPersister(), event.getDeletedState(), -1);
+        }
+    }
+    
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+    
+    private void change(EventSource session, EntityPersister persister, Object[] state, int sign) {
+        EntityMetamodel metamodel = persister.getEntityMetamodel();
+        LocalDateTime movementDate = (LocalDateTime) state[metamodel.getPropertyIndex("movementDate")];
+        long productId = id(state[metamodel.getPropertyIndex("product")]);
+        Long sourceLocationId = id(state[metamodel.getPropertyIndex("sourceLocation")]);
+        Long targetLocationId = id(state[metamodel.getPropertyIndex("targetLocation")]);
+        MovementType movementType = (MovementType) state[metamodel.getPropertyIndex("movementType")];
+        int quantity = (Integer) state[metamodel.getPropertyIndex("quantity")];
+        MovementRollupChanges sessionChanges = changes.computeIfAbsent(session, key -> {
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::write);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completed) -> 
+                    changes.remove(completed));
+            return new MovementRollupChanges();
+        });
+        if (sign > 0) {
+            sessionChanges.add(movementDate, productId, sourceLocationId, targetLocationId, movementType, quantity);
+        } else {
+            sessionChanges.remove(movementDate, productId, sourceLocationId, targetLocationId, movementType, quantity);
+        }
+    }
+    
+    private void write(SessionImplementor session) {
+        MovementRollupChanges sessionChanges = changes.remove(session);
+        if (sessionChanges != null) {
+            session.doWork(connection -> sessionChanges.write(session, connection));
+        }
+    }
+    
+    /**
+     * Get the ID of a referenced entity, without initializing it if it is a proxy
+     */
+    private static Long id(Object entity) {
+        if (entity instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) entity).getHibernateLazyInitializer().getIdentifier();
+        }
+        return entity != null ? ((BaseEntity) entity).getId() : null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled job that repairs drift of the materialised product stock totals, for example
+ * after inventory was edited directly in the database. Runs hourly by default; the schedule
+ * is set with inventory.product-stock.reconcile-cron and requires scheduling to be enabled.
+ */
+@Component
+public class ProductStockReconcileJob {
+    
+    private final ProductStockService productStockService;
+    
+    public ProductStockReconcileJob(ProductStockService productStockService) {
+        this.productStockService = productStockService;
+    }
+    
+    @Scheduled(cron = "${inventory.product-stock.reconcile-cron:0 0 * * * *}")
+    public void reconcile() {
+        productStockService.reconcile();
+    }
+}
@@ -0,0 +1,65 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+import com.globaltech.inventory.model.domain.inventory.ProductStock;
+import com.globaltech.inventory.model.domain.order.OrderItem;
+import com.globaltech.inventory.model.service.base.CrudService;
+
+/**
+ * Service interface for the materialised per-product stock totals. The totals are kept in
+ * step by the services that change inventory quantities or order reservations, and
+ * {@link #reconcile()} repairs any drift against the inventory items and orders.
+ */
+public interface ProductStockService extends CrudService<ProductStock, Long> {
+    
+    /**
+     * Find the stock totals of a product
+     * 
+     * @param productId the product ID
+     * @return optional of the stock totals for the specified product
+     */
+    Optional<ProductStock> findByProductId(Long productId);
+    
+    /**
+     * Find the stock totals of several products with one query
+     * 
+     * @param productIds the product IDs
+     * @return map of product ID to stock totals; products without totals are absent
+     */
+    Map<Long, ProductStock> findByProductIds(Collection<Long> productIds);
+    
+    /**
+     * Get the quantity of a product that can still be promised to new orders
+     * 
+     * @param productId the product ID
+     * @return the available quantity, 0 if the product has no stock
+     */
+    long getAvailableQuantity(Long productId);
+    
+    /**
+     * Apply a change of the quantity on hand of a product
+     * 
+     * @param productId the product ID
+     * @param quantity the quantity added (negative if removed)
+     */
+    void applyOnHandChange(Long productId, long quantity);
+    
+    /**
+     * Reserve the quantities of order items, or release them
+     * 
+     * @param items the order items
+     * @param reserve true to reserve the quantities, false to release them
+     */
+    void applyReservations(Collection<OrderItem> items, boolean reserve);
+    
+    /**
+     * Recompute the totals from the inventory items and pending orders and repair any
+     * product whose totals have drifted
+     * 
+     * @return the number of products repaired
+     */
+    int reconcile();
+}
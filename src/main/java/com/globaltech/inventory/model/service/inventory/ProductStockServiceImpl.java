@@ -0,0 +1,142 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.globaltech.inventory.model.domain.base.PooledIdGenerator;
+import com.globaltech.inventory.model.domain.inventory.ProductStock;
+import com.globaltech.inventory.model.domain.order.OrderItem;
+import com.globaltech.inventory.model.domain.order.OrderStatus;
+import com.globaltech.inventory.model.repository.inventory.ProductStockRepository;
+import com.globaltech.inventory.model.service.base.BaseServiceImpl;
+
+/**
+ * Implementation of ProductStockService
+ */
+@Service
+@Transactional
+public class ProductStockServiceImpl extends BaseServiceImpl<ProductStock, Long, ProductStockRepository> implements ProductStockService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProductStockServiceImpl.class);
+    
+    private static final String UPSERT_STOCK_SQL = 
+            "INSERT INTO product_stock (id, product_id, on_hand, reserved) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE on_hand = on_hand + VALUES(on_hand), reserved = reserved + VALUES(reserved)";
+    
+    public ProductStockServiceImpl(ProductStockRepository repository) {
+        super(repository);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ProductStock> findByProductId(Long productId) {
+        return repository.findByProductId(productId);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, ProductStock> findByProductIds(Collection<Long> productIds) {
+        Map<Long, ProductStock> stockByProductId = new HashMap<>();
+        for (ProductStock stock : repository.findByProductIdIn(productIds)) {
+            stockByProductId.put(stock.getProductId(), stock);
+        }
+        return stockByProductId;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public long getAvailableQuantity(Long productId) {
+        return repository.findByProductId(productId).map(ProductStock::getAvailable).orElse(0L);
+    }
+    
+    @Override
+    @Transactional
+    public void applyOnHandChange(Long productId, long quantity) {
+        if (quantity != 0 && repository.addOnHand(productId, quantity) == 0) {
+            upsert(productId, quantity, 0);
+        }
+    }
+    
+    @Override
+    @Transactional
+    public void applyReservations(Collection<OrderItem> items, boolean reserve) {
+        Map<Long, Long> changes = new HashMap<>();
+        for (OrderItem item : items) {
+            changes.merge(item.getProduct().getId(), (long) (reserve ? item.getQuantity() : -item.getQuantity()), Long::sum);
+        }
+        for (Map.Entry<Long, Long> change : changes.entrySet()) {
+            if (change.getValue() != 0 && repository.addReserved(change.getKey(), change.getValue()) == 0) {
+                upsert(change.getKey(), 0, change.getValue());
+            }
+        }
+    }
+    
+    /**
+     * Create the totals row of a product, or add to it if another transaction created it since
+     * the update found none. A plain insert would fail on the unique product ID instead.
+     */
+    private void upsert(Long productId, long onHand, long reserved) {
+        Long id = PooledIdGenerator.nextId(entityManager.unwrap(SharedSessionContractImplementor.class), ProductStock.class);
+        entityManager.createNativeQuery(UPSERT_STOCK_SQL)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(ProductStock.class)
+                .setParameter(1, id)
+                .setParameter(2, productId)
+                .setParameter(3, onHand)
+                .setParameter(4, reserved)
+                .executeUpdate();
+    }
+    
+    @Override
+    @Transactional
+    public int reconcile() {
+        List<OrderStatus> statuses = new ArrayList<>();
+        for (OrderStatus status : OrderStatus.values()) {
+            if (status.isReservingStock()) {
+                statuses.add(status);
+            }
+        }
+        
+        Map<Long, ProductStock> expected = new HashMap<>();
+        for (ProductStock stock : repository.summarizeInventory()) {
+            expected.put(stock.getProductId(), stock);
+        }
+        for (ProductStock stock : repository.summarizeReservations(statuses)) {
+            expected.computeIfAbsent(stock.getProductId(), productId -> new ProductStock(productId, 0, 0))
+                    .setReserved(stock.getReserved());
+        }
+        
+        // Drift is repaired with relative updates, so changes committed while the job runs are kept
+        int repaired = 0;
+        for (ProductStock stock : repository.findAll()) {
+            ProductStock actual = expected.remove(stock.getProductId());
+            long onHandDrift = (actual != null ? actual.getOnHand() : 0) - stock.getOnHand();
+            long reservedDrift = (actual != null ? actual.getReserved() : 0) - stock.getReserved();
+            if (onHandDrift != 0 || reservedDrift != 0) {
+                logger.warn("Repairing stock totals of product {}: on hand off by {}, reserved off by {}", 
+                        stock.getProductId(), onHandDrift, reservedDrift);
+                repository.addOnHand(stock.getProductId(), onHandDrift);
+                repository.addReserved(stock.getProductId(), reservedDrift);
+                repaired++;
+            }
+        }
+        for (ProductStock missing : expected.values()) {
+            logger.warn("Creating missing stock totals: {}", missing);
+            upsert(missing.getProductId(), missing.getOnHand(), missing.getReserved());
+            repaired++;
+        }
+        logger.info("Reconciled product stock totals, {} products repaired", repaired);
+        return repaired;
+    }
+}
@@ -0,0 +1,28 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.util.List;
+
+/**
+ * Service computing purchase suggestions for all inventory in one pass
+ */
+public interface ReplenishmentService {
+    
+    /**
+     * Plan replenishment with the configured velocity window and lead time
+     * 
+     * @return the suggestions grouped by supplier, ordered by supplier name
+     */
+    List<SupplierReplenishment> plan();
+    
+    /**
+     * Plan replenishment for every inventory item. An item is replenished when its quantity,
+     * less its share of open order demand and the quantity expected to ship during the lead
+     * time, falls to or below its reorder point. The suggested quantity brings it back to its
+     * maximum stock level, or to the reorder point plus the lead time demand if that is higher.
+     * 
+     * @param velocityDays the number of past days of STOCK_OUT movements used for the daily velocity
+     * @param leadTimeDays the number of days until ordered stock arrives
+     * @return the suggestions grouped by supplier, ordered by supplier name
+     */
+    List<SupplierReplenishment> plan(int velocityDays, int leadTimeDays);
+}
@@ -0,0 +1,173 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.globaltech.inventory.model.domain.inventory.ProductDemand;
+import com.globaltech.inventory.model.domain.inventory.ProductQuantity;
+import com.globaltech.inventory.model.domain.inventory.ReorderCandidateRow;
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+import com.globaltech.inventory.model.repository.inventory.InventoryRepository;
+import com.globaltech.inventory.model.repository.inventory.ProductStockRepository;
+import com.globaltech.inventory.model.repository.inventory.StockMovementRepository;
+import com.globaltech.inventory.model.service.base.WorkerThreads;
+
+/**
+ * Implementation of ReplenishmentService. Open demand is read once from the materialised
+ * product stock totals. Each location is then planned on its own worker thread and read-only
+ * transaction: its STOCK_OUT volume is summed per product by one grouped query and its inventory
+ * is streamed as projection rows, so no entities are loaded.
+ */
+@Service
+public class ReplenishmentServiceImpl implements ReplenishmentService, DisposableBean {
+    
+    private static final Comparator<ReplenishmentSuggestion> SUGGESTION_ORDER =
+            Comparator.comparing(ReplenishmentSuggestion::getProductName, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(ReplenishmentSuggestion::getLocationName, Comparator.nullsLast(Comparator.naturalOrder()));
+    
+    private static final Comparator<SupplierReplenishment> SUPPLIER_ORDER =
+            Comparator.comparing(SupplierReplenishment::getSupplierName, Comparator.nullsLast(Comparator.naturalOrder()));
+    
+    private final InventoryRepository inventoryRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final ProductStockRepository productStockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int velocityDays;
+    private final int leadTimeDays;
+    
+    public ReplenishmentServiceImpl(InventoryRepository inventoryRepository,
+                                    StockMovementRepository stockMovementRepository,
+                                    ProductStockRepository productStockRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${inventory.replenishment.velocity-days:30}") int velocityDays,
+                                    @Value("${inventory.replenishment.lead-time-days:7}") int leadTimeDays,
+                                    @Value("${inventory.replenishment.parallelism:0}") int parallelism) {
+        this.inventoryRepository = inventoryRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.productStockRepository = productStockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.velocityDays = velocityDays;
+        this.leadTimeDays = leadTimeDays;
+        
+        this.executor = WorkerThreads.newFixedPool("replenishment-planner", parallelism);
+    }
+    
+    @Override
+    public List<SupplierReplenishment> plan() {
+        return plan(velocityDays, leadTimeDays);
+    }
+    
+    @Override
+    public List<SupplierReplenishment> plan(int velocityDays, int leadTimeDays) {
+        if (velocityDays < 1 || leadTimeDays < 0) {
+            throw new IllegalArgumentException("Velocity window must be at least one day and lead time cannot be negative");
+        }
+        LocalDateTime since = LocalDateTime.now().minusDays(velocityDays);
+        Map<Long, ProductDemand> demandByProduct = new HashMap<>();
+        List<Long> locationIds = transactionTemplate.execute(status -> {
+            for (ProductDemand demand : productStockRepository.findOpenDemand()) {
+                demandByProduct.put(demand.getProductId(), demand);
+            }
+            return inventoryRepository.findLocationIds();
+        });
+        
+        List<CompletableFuture<List<Candidate>>> locations = new ArrayList<>(locationIds.size());
+        for (Long locationId : locationIds) {
+            locations.add(CompletableFuture.supplyAsync(() -> transactionTemplate.execute(
+                    status -> planLocation(locationId, since, velocityDays, leadTimeDays, demandByProduct)), executor));
+        }
+        
+        Map<Long, List<Candidate>> candidatesBySupplier = new LinkedHashMap<>();
+        try {
+            for (CompletableFuture<List<Candidate>> location : locations) {
+                for (Candidate candidate : location.join()) {
+                    candidatesBySupplier.computeIfAbsent(candidate.row.getSupplierId(), supplierId -> new ArrayList<>()).add(candidate);
+                }
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        
+        List<SupplierReplenishment> plan = new ArrayList<>(candidatesBySupplier.size());
+        for (List<Candidate> candidates : candidatesBySupplier.values()) {
+            ReorderCandidateRow first = candidates.get(0).row;
+            List<ReplenishmentSuggestion> suggestions = new ArrayList<>(candidates.size());
+            for (Candidate candidate : candidates) {
+                suggestions.add(candidate.suggestion);
+            }
+            suggestions.sort(SUGGESTION_ORDER);
+            plan.add(new SupplierReplenishment(first.getSupplierId(), first.getSupplierName(), first.getSupplierEmail(), suggestions));
+        }
+        plan.sort(SUPPLIER_ORDER);
+        return plan;
+    }
+    
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+    
+    private List<Candidate> planLocation(Long locationId, LocalDateTime since, int velocityDays, int leadTimeDays,
+                                         Map<Long, ProductDemand> demandByProduct) {
+        Map<Long, Long> shippedByProduct = new HashMap<>();
+        for (ProductQuantity shipped : stockMovementRepository.summarizeOutgoingByProduct(locationId, MovementType.STOCK_OUT, since)) {
+            shippedByProduct.put(shipped.getProductId(), shipped.getTotalQuantity());
+        }
+        
+        List<Candidate> candidates = new ArrayList<>();
+        try (Stream<ReorderCandidateRow> rows = inventoryRepository.streamReplenishmentRowsByLocationId(locationId)) {
+            rows.forEach(row -> {
+                double dailyVelocity = shippedByProduct.getOrDefault(row.getProductId(), 0L) / (double) velocityDays;
+                ProductDemand demand = demandByProduct.get(row.getProductId());
+                double openDemand = demand != null ? demand.getShare(row.getQuantity()) : 0;
+                double leadTimeDemand = dailyVelocity * leadTimeDays;
+                double projected = row.getQuantity() - openDemand - leadTimeDemand;
+                if (projected > row.getReorderPoint()) {
+                    return;
+                }
+                double target = Math.max(row.getMaxStockLevel(), row.getReorderPoint() + leadTimeDemand);
+                long suggestedQuantity = (long) Math.ceil(target - projected);
+                if (suggestedQuantity > 0) {
+                    candidates.add(new Candidate(row, new ReplenishmentSuggestion(row.getProductId(), row.getSku(),
+                            row.getProductName(), row.getLocationId(), row.getLocationName(), row.getQuantity(),
+                            row.getReorderPoint(), row.getMaxStockLevel(), dailyVelocity, openDemand, suggestedQuantity)));
+                }
+            });
+        }
+        return candidates;
+    }
+    
+    /**
+     * A suggestion with the row it was computed from, which carries the supplier to group by
+     */
+    private static final class Candidate {
+        
+        private final ReorderCandidateRow row;
+        private final ReplenishmentSuggestion suggestion;
+        
+        private Candidate(ReorderCandidateRow row, ReplenishmentSuggestion suggestion) {
+            this.row = row;
+            this.suggestion = suggestion;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.globaltech.inventory.model.service.inventory;
+
+/**
+ * Suggested purchase of a product for one location
+ */
+public class ReplenishmentSuggestion {
+    
+    private final Long productId;
+    private final String sku;
+    private final String productName;
+    private final Long locationId;
+    private final String locationName;
+    private final int quantity;
+    private final int reorderPoint;
+    private final int maxStockLevel;
+    private final double dailyVelocity;
+    private final double openDemand;
+    private final long suggestedQuantity;
+    
+    public ReplenishmentSuggestion(Long productId, String sku, String productName, Long locationId, String locationName, 
+                                   int quantity, int reorderPoint, int maxStockLevel, 
+                                   double dailyVelocity, double openDemand, long suggestedQuantity) {
+        this.productId = productId;
+        this.sku = sku;
+        this.productName = productName;
+        this.locationId = locationId;
+        this.locationName = locationName;
+        this.quantity = quantity;
+        this.reorderPoint = reorderPoint;
+        this.maxStockLevel = maxStockLevel;
+        this.dailyVelocity = dailyVelocity;
+        this.openDemand = openDemand;
+        this.suggestedQuantity = suggestedQuantity;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public String getSku() {
+        return sku;
+    }
+    
+    public String getProductName() {
+        return productName;
+    }
+    
+    public Long getLocationId() {
+        return locationId;
+    }
+    
+    public String getLocationName() {
+        return locationName;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public int getReorderPoint() {
+        return reorderPoint;
+    }
+    
+    public int getMaxStockLevel() {
+        return maxStockLevel;
+    }
+    
+    /**
+     * Get the average quantity shipped from the location per day over the velocity window
+     * 
+     * @return the daily STOCK_OUT velocity
+     */
+    public double getDailyVelocity() {
+        return dailyVelocity;
+    }
+    
+    /**
+     * Get the part of the product's open order demand charged to this location
+     * 
+     * @return the open demand
+     */
+    public double getOpenDemand() {
+        return openDemand;
+    }
+    
+    public long getSuggestedQuantity() {
+        return suggestedQuantity;
+    }
+    
+    @Override
+    public String toString() {
+        return "ReplenishmentSuggestion [product=" + productName + ", location=" + locationName + 
+                ", quantity=" + quantity + ", suggestedQuantity=" + suggestedQuantity + "]";
+    }
+}
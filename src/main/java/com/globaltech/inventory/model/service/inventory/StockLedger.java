@@ -0,0 +1,583 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.globaltech.inventory.model.domain.inventory.ItemQuantity;
+
+/**
+ * In-memory copy of the quantity of every inventory item, keyed by product and location, that
+ * answers availability checks without a database round trip. Next to the quantity, each entry
+ * holds the quantity tentatively reserved by transactions that have not completed yet, so
+ * concurrent reservations cannot promise the same stock twice.
+ * 
+ * Entries live in open-addressing tables of primitive arrays, split into stripes that each
+ * have their own StampedLock; reads are optimistic and only retry under the read lock when a
+ * write to the same stripe interferes. The database stays authoritative: every inventory
+ * quantity write registers with the ledger before it commits and applies its change here once
+ * its transaction has committed. Changes are only applied to entries that exist; products and
+ * locations the ledger does not track answer "unknown" so callers fall back to the database.
+ * Reservations the ledger has too little unheld stock for are refused from memory, so stock
+ * added directly in the database is only offered once the next reload has picked it up.
+ * 
+ * A load may run while writes go on. The products and locations written to while the items
+ * are read are left out of the loaded content and refreshed one by one afterwards, each only
+ * when no write to its stripe started or finished during the refresh. The ledger is disabled
+ * unless inventory.stock-ledger.enabled is set and answers nothing until it has been loaded.
+ */
+@Component
+public class StockLedger {
+    
+    /**
+     * Outcome of a tentative reservation
+     */
+    public enum Hold {
+        /** The quantity is held until the reservation is committed or released */
+        HELD,
+        /** Not enough unheld stock as far as the ledger knows */
+        INSUFFICIENT,
+        /** The ledger is disabled, not loaded or has no entry for the product and location */
+        UNTRACKED
+    }
+    
+    /** Available quantity returned for products and locations the ledger does not track */
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+    
+    private static final int INITIAL_CAPACITY = 64;
+    
+    private final boolean enabled;
+    private final Stripe[] stripes;
+    private final int stripeShift;
+    private final List<Long> unloaded = new ArrayList<>();
+    private volatile boolean loaded;
+    
+    public StockLedger(@Value("${inventory.stock-ledger.enabled:false}") boolean enabled,
+                       @Value("${inventory.stock-ledger.stripes:64}") int stripeCount) {
+        if (stripeCount < 1 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two, got " + stripeCount);
+        }
+        this.enabled = enabled;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeShift = 64 - Integer.numberOfTrailingZeros(stripeCount);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Check whether the ledger has been loaded and answers availability checks
+     * 
+     * @return true if enabled and loaded
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    /**
+     * Start recording the products and locations written to, before the items to load are read.
+     * Products and locations with writes in progress count as written to.
+     */
+    public synchronized void beginLoad() {
+        if (!enabled) {
+            throw new IllegalStateException("Stock ledger is disabled");
+        }
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.writeLock();
+            try {
+                stripe.written = new HashSet<>(stripe.pending.keySet());
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+    }
+    
+    /**
+     * Replace the content of the ledger with items read after {@link #beginLoad()}. The
+     * products and locations written to since are left out, to be refreshed with
+     * {@link #refreshUnloaded}; quantities held by reservations in progress are kept.
+     * 
+     * @param items the quantity of every inventory item
+     * @return the number of entries loaded
+     */
+    public synchronized int load(Iterator<? extends ItemQuantity> items) {
+        if (!enabled) {
+            throw new IllegalStateException("Stock ledger is disabled");
+        }
+        if (stripes[0].written == null) {
+            throw new IllegalStateException("Stock ledger load has not begun");
+        }
+        Table[] tables = new Table[stripes.length];
+        for (int i = 0; i < tables.length; i++) {
+            tables[i] = new Table(INITIAL_CAPACITY);
+        }
+        int count = 0;
+        while (items.hasNext()) {
+            ItemQuantity item = items.next();
+            long key = key(item.getProductId(), item.getLocationId());
+            if (key != 0) {
+                long hash = hash(key);
+                int index = stripeIndex(hash);
+                Table table = tables[index].ensureCapacity();
+                tables[index] = table;
+                int slot = table.insert(key, hash);
+                table.quantities[slot] = item.getQuantity();
+                count++;
+            }
+        }
+        unloaded.clear();
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[i];
+            long stamp = stripe.lock.writeLock();
+            try {
+                Table table = tables[i];
+                for (long key : stripe.written) {
+                    if (table.find(key, hash(key)) >= 0) {
+                        table = table.copyWithout(key);
+                        count--;
+                    }
+                    unloaded.add(key);
+                }
+                table.keepHeld(stripe.table);
+                stripe.table = table;
+                stripe.written = null;
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+        loaded = true;
+        return count;
+    }
+    
+    /**
+     * Refresh the products and locations left out of the last load from their stored quantity.
+     * Those still being written to stay untracked until the next load.
+     * 
+     * @param storedQuantity reads the committed quantity of a product at a location, null if there is no such item
+     * @return the number of products and locations left untracked
+     */
+    public synchronized int refreshUnloaded(BiFunction<Long, Long, Integer> storedQuantity) {
+        int untracked = 0;
+        for (long key : unloaded) {
+            if (!refresh(key >>> 32, key & 0xFFFFFFFFL, storedQuantity)) {
+                untracked++;
+            }
+        }
+        unloaded.clear();
+        return untracked;
+    }
+    
+    /**
+     * Set the quantity of a product at a location to its stored quantity, unless a write to the
+     * same stripe starts or finishes in the meantime
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID
+     * @param storedQuantity reads the committed quantity of a product at a location, null if there is no such item
+     * @return true if the entry was refreshed
+     */
+    public boolean refresh(Long productId, Long locationId, BiFunction<Long, Long, Integer> storedQuantity) {
+        long key = key(productId, locationId);
+        if (!loaded || key == 0) {
+            return false;
+        }
+        long hash = hash(key);
+        Stripe stripe = stripes[stripeIndex(hash)];
+        long changes;
+        long stamp = stripe.lock.readLock();
+        try {
+            if (stripe.pending.containsKey(key)) {
+                return false;
+            }
+            changes = stripe.changes;
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+        Integer quantity = storedQuantity.apply(productId, locationId);
+        stamp = stripe.lock.writeLock();
+        try {
+            if (stripe.changes != changes) {
+                return false;
+            }
+            int slot = stripe.table.find(key, hash);
+            if (quantity == null) {
+                if (slot >= 0) {
+                    stripe.table = stripe.table.copyWithout(key);
+                }
+            } else {
+                if (slot < 0) {
+                    stripe.table = stripe.table.ensureCapacity();
+                    slot = stripe.table.insert(key, hash);
+                }
+                stripe.table.quantities[slot] = quantity;
+            }
+            return true;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+    
+    /**
+     * Get the quantity of a product at a location that is neither reserved nor tentatively held
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID
+     * @return the available quantity, or {@link #UNKNOWN} if the ledger does not track it
+     */
+    public int getAvailable(Long productId, Long locationId) {
+        long key = key(productId, locationId);
+        if (!loaded || key == 0) {
+            return UNKNOWN;
+        }
+        long hash = hash(key);
+        Stripe stripe = stripes[stripeIndex(hash)];
+        long stamp = stripe.lock.tryOptimisticRead();
+        int available = stamp != 0 ? stripe.table.available(key, hash) : UNKNOWN;
+        if (stamp == 0 || !stripe.lock.validate(stamp)) {
+            stamp = stripe.lock.readLock();
+            try {
+                available = stripe.table.available(key, hash);
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return available;
+    }
+    
+    /**
+     * Tentatively hold a quantity of a product at a location, if enough of it is available
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID
+     * @param quantity the quantity to hold
+     * @return the outcome; a held quantity must later be passed to settleAfterCompletion
+     */
+    public Hold tryHold(Long productId, Long locationId, int quantity) {
+        long key = key(productId, locationId);
+        if (!loaded || key == 0) {
+            return Hold.UNTRACKED;
+        }
+        long hash = hash(key);
+        Stripe stripe = stripes[stripeIndex(hash)];
+        long stamp = stripe.lock.writeLock();
+        try {
+            Table table = stripe.table;
+            int slot = table.find(key, hash);
+            if (slot < 0) {
+                return Hold.UNTRACKED;
+            }
+            if (table.quantities[slot] - table.held[slot] < quantity) {
+                return Hold.INSUFFICIENT;
+            }
+            table.held[slot] += quantity;
+            return Hold.HELD;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+    
+    /**
+     * Settle a held quantity when the current transaction completes: on commit it is taken from
+     * the quantity, on rollback it becomes available again
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID
+     * @param quantity the held quantity
+     */
+    public void settleAfterCompletion(Long productId, Long locationId, int quantity) {
+        afterCompletion(productId, locationId, committed -> update(productId, locationId, committed ? -quantity : 0, -quantity));
+    }
+    
+    /**
+     * Release a held quantity immediately
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID
+     * @param quantity the held quantity
+     */
+    public void release(Long productId, Long locationId, int quantity) {
+        update(productId, locationId, 0, -quantity);
+    }
+    
+    /**
+     * Apply a quantity change once the current transaction has committed. Must be called before
+     * the transaction commits. Products and locations that are not tracked stay untracked.
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID
+     * @param change the change of the stored quantity
+     */
+    public void applyAfterCommit(Long productId, Long locationId, int change) {
+        if (change != 0) {
+            afterCompletion(productId, locationId, committed -> {
+                if (committed) {
+                    update(productId, locationId, change, 0);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Remove the entry of a product and location once the current transaction has committed
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID
+     */
+    public void removeAfterCommit(Long productId, Long locationId) {
+        afterCompletion(productId, locationId, committed -> {
+            if (committed) {
+                remove(productId, locationId);
+            }
+        });
+    }
+    
+    /**
+     * Get the number of tracked products and locations
+     * 
+     * @return the number of entries
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                size += stripe.table.size;
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+    
+    private void update(Long productId, Long locationId, int quantityChange, int heldChange) {
+        long key = key(productId, locationId);
+        if (!loaded || key == 0) {
+            return;
+        }
+        long hash = hash(key);
+        Stripe stripe = stripes[stripeIndex(hash)];
+        long stamp = stripe.lock.writeLock();
+        try {
+            int slot = stripe.table.find(key, hash);
+            if (slot < 0) {
+                // A change cannot tell the quantity of an entry that is not tracked
+                return;
+            }
+            stripe.table.quantities[slot] += quantityChange;
+            stripe.table.held[slot] = Math.max(0, stripe.table.held[slot] + heldChange);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+    
+    private void remove(Long productId, Long locationId) {
+        long key = key(productId, locationId);
+        if (key == 0) {
+            return;
+        }
+        long hash = hash(key);
+        Stripe stripe = stripes[stripeIndex(hash)];
+        long stamp = stripe.lock.writeLock();
+        try {
+            // Removed entries are rebuilt into a fresh table so optimistic readers never see a shifted probe chain
+            if (stripe.table.find(key, hash) >= 0) {
+                stripe.table = stripe.table.copyWithout(key);
+            }
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+    
+    private int stripeIndex(long hash) {
+        return stripes.length == 1 ? 0 : (int) (hash >>> stripeShift);
+    }
+    
+    /**
+     * Register a write to a product and location and run an action when the current transaction
+     * completes, or right away outside a transaction
+     */
+    private void afterCompletion(Long productId, Long locationId, CompletionAction action) {
+        long key = key(productId, locationId);
+        if (!enabled || key == 0) {
+            return;
+        }
+        Stripe stripe = stripes[stripeIndex(hash(key))];
+        stripe.begin(key);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                action.run(true);
+            } finally {
+                stripe.end(key);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    action.run(status == STATUS_COMMITTED);
+                } finally {
+                    stripe.end(key);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Pack a product and location ID into one key, or 0 if either does not fit in 32 bits
+     */
+    private static long key(Long productId, Long locationId) {
+        if (productId == null || locationId == null || productId <= 0 || locationId <= 0
+                || productId > 0xFFFFFFFFL || locationId > 0xFFFFFFFFL) {
+            return 0;
+        }
+        return productId << 32 | locationId;
+    }
+    
+    private static long hash(long key) {
+        // Murmur3 finalizer: the high bits pick the stripe, the low bits the slot
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+    
+    private interface CompletionAction {
+        
+        void run(boolean committed);
+    }
+    
+    private static final class Stripe {
+        
+        private final StampedLock lock = new StampedLock();
+        private Table table = new Table(INITIAL_CAPACITY);
+        /** Writes in progress by key */
+        private final Map<Long, Integer> pending = new HashMap<>();
+        /** Writes started or finished */
+        private long changes;
+        /** Keys written to since a load began, null outside a load */
+        private Set<Long> written;
+        
+        private void begin(long key) {
+            long stamp = lock.writeLock();
+            try {
+                pending.merge(key, 1, Integer::sum);
+                changes++;
+                if (written != null) {
+                    written.add(key);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        
+        private void end(long key) {
+            long stamp = lock.writeLock();
+            try {
+                pending.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+                changes++;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+    
+    /**
+     * Linear probing table, at most half full. Slots are only ever claimed, never cleared, so a
+     * reader racing a writer on the same table still finds an empty slot ends every probe.
+     */
+    private static final class Table {
+        
+        private final long[] keys;
+        private final int[] quantities;
+        private final int[] held;
+        private final int mask;
+        private int size;
+        
+        private Table(int capacity) {
+            keys = new long[capacity];
+            quantities = new int[capacity];
+            held = new int[capacity];
+            mask = capacity - 1;
+        }
+        
+        private int find(long key, long hash) {
+            for (int slot = (int) hash & mask, probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+                long found = keys[slot];
+                if (found == key) {
+                    return slot;
+                }
+                if (found == 0) {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+        
+        private int available(long key, long hash) {
+            int slot = find(key, hash);
+            return slot >= 0 ? quantities[slot] - held[slot] : UNKNOWN;
+        }
+        
+        private int insert(long key, long hash) {
+            int slot = (int) hash & mask;
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            size++;
+            return slot;
+        }
+        
+        /**
+         * Take over the quantities held in a previous table for the keys of this one
+         */
+        private void keepHeld(Table previous) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    int slot = previous.find(keys[i], hash(keys[i]));
+                    if (slot >= 0) {
+                        held[i] = previous.held[slot];
+                    }
+                }
+            }
+        }
+        
+        private Table ensureCapacity() {
+            return size + 1 > keys.length / 2 ? copyWithout(0, keys.length * 2) : this;
+        }
+        
+        private Table copyWithout(long removedKey) {
+            return copyWithout(removedKey, keys.length);
+        }
+        
+        private Table copyWithout(long removedKey, int capacity) {
+            Table copy = new Table(capacity);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0 && keys[i] != removedKey) {
+                    int slot = copy.insert(keys[i], hash(keys[i]));
+                    copy.quantities[slot] = quantities[i];
+                    copy.held[slot] = held[i];
+                }
+            }
+            return copy;
+        }
+    }
+}
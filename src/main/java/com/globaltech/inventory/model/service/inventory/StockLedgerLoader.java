@@ -0,0 +1,77 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.globaltech.inventory.model.domain.inventory.InventoryItem;
+import com.globaltech.inventory.model.domain.inventory.ItemQuantity;
+import com.globaltech.inventory.model.repository.inventory.InventoryRepository;
+
+/**
+ * Loads the stock ledger, when it is enabled, once the application context has started, and
+ * reloads it on a schedule to repair any drift from the stored quantities, for example after
+ * inventory was edited directly in the database. Reloads run every 15 minutes by default; the
+ * schedule is set with inventory.stock-ledger.reload-cron and requires scheduling to be enabled.
+ */
+@Component
+public class StockLedgerLoader {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StockLedgerLoader.class);
+    
+    private final StockLedger stockLedger;
+    private final InventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    public StockLedgerLoader(StockLedger stockLedger, InventoryRepository inventoryRepository, 
+                             PlatformTransactionManager transactionManager) {
+        this.stockLedger = stockLedger;
+        this.inventoryRepository = inventoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+    
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        // Child contexts, such as the web context, refresh after the root context
+        if (stockLedger.isEnabled() && event.getApplicationContext().getParent() == null) {
+            load();
+        }
+    }
+    
+    @Scheduled(cron = "${inventory.stock-ledger.reload-cron:0 */15 * * * *}")
+    public void reload() {
+        if (stockLedger.isLoaded()) {
+            load();
+        }
+    }
+    
+    /**
+     * Replace the content of the stock ledger with the current inventory quantities. Items
+     * written to during the load are read again one by one afterwards.
+     * 
+     * @return the number of inventory items loaded
+     */
+    public int load() {
+        long start = System.nanoTime();
+        stockLedger.beginLoad();
+        int count = transactionTemplate.execute(status -> {
+            try (Stream<ItemQuantity> items = inventoryRepository.streamItemQuantities()) {
+                return stockLedger.load(items.iterator());
+            }
+        });
+        int untracked = stockLedger.refreshUnloaded((productId, locationId) -> transactionTemplate.execute(
+                status -> inventoryRepository.findByProductIdAndLocationId(productId, locationId)
+                        .map(InventoryItem::getQuantity).orElse(null)));
+        logger.info("Loaded {} inventory items into the stock ledger in {} ms, {} left untracked while being written", 
+                count, (System.nanoTime() - start) / 1_000_000, untracked);
+        return count;
+    }
+}
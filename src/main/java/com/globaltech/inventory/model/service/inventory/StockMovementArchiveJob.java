@@ -0,0 +1,31 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled job that archives the stock movements older than the retention window. Archiving
+ * removes movements from the database, so the job only runs when
+ * inventory.movement-archive.enabled is set. Runs daily at 03:00 by default; the schedule is
+ * set with inventory.movement-archive.cron and requires scheduling to be enabled.
+ */
+@Component
+public class StockMovementArchiveJob {
+    
+    private final StockMovementArchiveService stockMovementArchiveService;
+    private final boolean enabled;
+    
+    public StockMovementArchiveJob(StockMovementArchiveService stockMovementArchiveService, 
+                                   @Value("${inventory.movement-archive.enabled:false}") boolean enabled) {
+        this.stockMovementArchiveService = stockMovementArchiveService;
+        this.enabled = enabled;
+    }
+    
+    @Scheduled(cron = "${inventory.movement-archive.cron:0 0 3 * * *}")
+    public void archive() {
+        if (enabled) {
+            stockMovementArchiveService.archive();
+        }
+    }
+}
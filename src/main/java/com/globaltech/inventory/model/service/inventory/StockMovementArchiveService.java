@@ -0,0 +1,60 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+
+/**
+ * Service moving stock movements older than the retention window out of the stock_movements
+ * table into the {@link MovementArchive}, and answering historical totals across the archive
+ * and the live table. Movements are read from the archive up to its end and from the table
+ * for the whole range, so movements dated into the archived range after it was archived are
+ * counted both before and after the next run moves them into the archive.
+ * 
+ * Archived movements are no longer visible to the repository finders. The historical stock of
+ * InventorySnapshotService and the raw totals of StockMovementRollupService read them from the
+ * archive; the rollup backfill skips archived ranges and the movement export refuses them.
+ */
+public interface StockMovementArchiveService {
+    
+    /**
+     * Archive the movements older than the configured retention window
+     * 
+     * @return the number of movements archived
+     */
+    long archive();
+    
+    /**
+     * Archive the movements dated before the start of a day, one segment of whole days at a time.
+     * Each segment is written and forced to disk before its movements are deleted from the table.
+     * Movements dated into the already archived range are archived first, as follow-up segments.
+     * 
+     * @param before the end of the range to archive, rounded down to the day
+     * @return the number of movements archived
+     * @throws IllegalStateException if movements were added to a range while it was being archived
+     */
+    long archiveBefore(LocalDateTime before);
+    
+    /**
+     * Get the total quantity moved for a product per movement type within a date range, from the
+     * archive and the live movements
+     * 
+     * @param productId the product ID
+     * @param from the start date, inclusive
+     * @param to the end date, exclusive
+     * @return the total quantity per movement type, with every movement type present
+     */
+    Map<MovementType, Long> getTotalQuantities(Long productId, LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * Get the total quantity moved per product for a movement type within a date range, from the
+     * archive and the live movements
+     * 
+     * @param movementType the movement type
+     * @param from the start date, inclusive
+     * @param to the end date, exclusive
+     * @return the total quantity by product ID, for the products moved within the range
+     */
+    Map<Long, Long> getTotalQuantitiesByProduct(MovementType movementType, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,290 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import static com.globaltech.inventory.model.service.inventory.MovementArchiveSegment.DATE;
+import static com.globaltech.inventory.model.service.inventory.MovementArchiveSegment.MOVEMENT_TYPE;
+import static com.globaltech.inventory.model.service.inventory.MovementArchiveSegment.PRODUCT;
+import static com.globaltech.inventory.model.service.inventory.MovementArchiveSegment.QUANTITY;
+import static com.globaltech.inventory.model.service.inventory.MovementArchiveSegment.SOURCE_LOCATION;
+import static com.globaltech.inventory.model.service.inventory.MovementArchiveSegment.TARGET_LOCATION;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.globaltech.inventory.model.domain.inventory.MovementTypeQuantity;
+import com.globaltech.inventory.model.domain.inventory.ProductQuantity;
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+import com.globaltech.inventory.model.domain.inventory.StockMovementRow;
+import com.globaltech.inventory.model.repository.inventory.StockMovementRepository;
+
+/**
+ * Implementation of StockMovementArchiveService. A segment is filled from a streamed read of its
+ * date range, checked against a fresh count of the range and appended to the archive as pending
+ * before the movements are deleted one day per transaction, and confirmed once every day is
+ * deleted. Each run first clears the days of the archived range that still have movements in
+ * the table: the movements matching archived ones are left over from a crash between the append
+ * and the delete, and the others were dated into the range after it was archived and go into a
+ * follow-up segment of their day before the day is deleted.
+ * 
+ * The queries read the table for the whole range outside pending segments, so movements dated
+ * into the archived range are counted before the next run archives them, while movements that
+ * may be both archived and still in the table are only counted from the archive.
+ */
+@Service
+public class StockMovementArchiveServiceImpl implements StockMovementArchiveService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StockMovementArchiveServiceImpl.class);
+    
+    private final StockMovementRepository stockMovementRepository;
+    private final MovementArchive movementArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int retentionDays;
+    private final int segmentDays;
+    
+    public StockMovementArchiveServiceImpl(StockMovementRepository stockMovementRepository,
+                                           MovementArchive movementArchive,
+                                           PlatformTransactionManager transactionManager,
+                                           @Value("${inventory.movement-archive.retention-days:365}") int retentionDays,
+                                           @Value("${inventory.movement-archive.segment-days:7}") int segmentDays) {
+        if (retentionDays < 1 || segmentDays < 1) {
+            throw new IllegalArgumentException("Archive retention and segment length must be at least one day");
+        }
+        this.stockMovementRepository = stockMovementRepository;
+        this.movementArchive = movementArchive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.retentionDays = retentionDays;
+        this.segmentDays = segmentDays;
+    }
+    
+    @Override
+    public long archive() {
+        return archiveBefore(LocalDateTime.now().minusDays(retentionDays));
+    }
+    
+    @Override
+    public long archiveBefore(LocalDateTime before) {
+        if (before == null) {
+            throw new IllegalArgumentException("Archive cutoff is required");
+        }
+        LocalDateTime until = before.truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime from = movementArchive.getArchivedUntil();
+        if (from != null) {
+            LocalDateTime first = readOnlyTransactionTemplate.execute(status -> stockMovementRepository.findFirstMovementDate());
+            if (deleteArchived(first != null && first.isBefore(from) ? first : from, from, false)) {
+                movementArchive.confirm(null, from);
+            }
+        } else {
+            LocalDateTime first = readOnlyTransactionTemplate.execute(status -> stockMovementRepository.findFirstMovementDate());
+            if (first == null) {
+                return 0;
+            }
+            from = first.truncatedTo(ChronoUnit.DAYS);
+        }
+        
+        long archived = 0;
+        while (from.isBefore(until)) {
+            LocalDateTime segmentStart = from;
+            LocalDateTime segmentEnd = from.plusDays(segmentDays).isBefore(until) ? from.plusDays(segmentDays) : until;
+            MovementArchiveSegment.Builder builder = new MovementArchiveSegment.Builder(
+                    MovementArchive.toMicros(segmentStart), MovementArchive.toMicros(segmentEnd));
+            readOnlyTransactionTemplate.execute(status -> {
+                try (Stream<StockMovementRow> rows = stockMovementRepository.streamRowsByMovementDateRange(segmentStart, segmentEnd)) {
+                    rows.forEach(row -> builder.add(row.getProductId(), row.getSourceLocationId(), row.getTargetLocationId(), 
+                            row.getQuantity(), row.getMovementType().ordinal(), MovementArchive.toMicros(row.getMovementDate())));
+                }
+                return null;
+            });
+            long live = readOnlyTransactionTemplate.execute(
+                    status -> stockMovementRepository.countByMovementDateRange(segmentStart, segmentEnd));
+            if (live != builder.size()) {
+                throw new IllegalStateException("Movements from " + segmentStart + " to " + segmentEnd + 
+                        " changed while being archived: read " + builder.size() + ", now " + live);
+            }
+            movementArchive.append(builder);
+            if (deleteArchived(segmentStart, segmentEnd, true)) {
+                movementArchive.confirm(segmentStart, segmentEnd);
+            }
+            archived += builder.size();
+            logger.info("Archived {} stock movements from {} to {}", builder.size(), segmentStart, segmentEnd);
+            from = segmentEnd;
+        }
+        return archived;
+    }
+    
+    @Override
+    public Map<MovementType, Long> getTotalQuantities(Long productId, LocalDateTime from, LocalDateTime to) {
+        if (productId == null || from == null || to == null) {
+            throw new IllegalArgumentException("Product ID and date range are required");
+        }
+        LocalDateTime archivedUntil = movementArchive.getArchivedUntil();
+        Map<MovementType, Long> totals = movementArchive.sumByMovementType(productId, null, from, earlier(to, archivedUntil));
+        for (LocalDateTime[] range : liveRanges(from, to)) {
+            for (MovementTypeQuantity quantity : readOnlyTransactionTemplate.execute(
+                    status -> stockMovementRepository.summarizeByMovementType(productId, null, range[0], range[1]))) {
+                if (quantity.getTotalQuantity() != null) {
+                    totals.merge(quantity.getMovementType(), quantity.getTotalQuantity(), Long::sum);
+                }
+            }
+        }
+        return totals;
+    }
+    
+    @Override
+    public Map<Long, Long> getTotalQuantitiesByProduct(MovementType movementType, LocalDateTime from, LocalDateTime to) {
+        if (movementType == null || from == null || to == null) {
+            throw new IllegalArgumentException("Movement type and date range are required");
+        }
+        LocalDateTime archivedUntil = movementArchive.getArchivedUntil();
+        Map<Long, Long> totals = movementArchive.sumByProduct(movementType, from, earlier(to, archivedUntil));
+        for (LocalDateTime[] range : liveRanges(from, to)) {
+            for (ProductQuantity quantity : readOnlyTransactionTemplate.execute(
+                    status -> stockMovementRepository.summarizeByProduct(movementType, range[0], range[1]))) {
+                totals.merge(quantity.getProductId(), quantity.getTotalQuantity(), Long::sum);
+            }
+        }
+        return totals;
+    }
+    
+    /**
+     * Delete the live movements within an archived range, one day per transaction. Only the
+     * movements of pending segments can be both archived and in the table, so the movements of a
+     * day are matched against those, unless some of them are missing because the day was already
+     * deleted. The unmatched movements are first appended as a follow-up segment of the day,
+     * which is confirmed once the day is deleted. Right after a segment is appended, a day whose
+     * movements match the archived ones in number and total quantity is deleted without
+     * comparing them one by one.
+     * 
+     * @param appended whether the range was just appended from the movements in the table
+     * @return whether every day of the range was deleted
+     */
+    private boolean deleteArchived(LocalDateTime from, LocalDateTime to, boolean appended) {
+        boolean deleted = true;
+        for (LocalDateTime day = from.truncatedTo(ChronoUnit.DAYS); day.isBefore(to); day = day.plusDays(1)) {
+            LocalDateTime dayStart = day;
+            LocalDateTime dayEnd = day.plusDays(1).isBefore(to) ? day.plusDays(1) : to;
+            Boolean followedUp = transactionTemplate.execute(status -> {
+                long live = stockMovementRepository.countByMovementDateRange(dayStart, dayEnd);
+                if (live == 0) {
+                    return false;
+                }
+                if (appended && live == movementArchive.count(dayStart, dayEnd) 
+                        && stockMovementRepository.sumQuantityByMovementDateRange(dayStart, dayEnd) 
+                                == movementArchive.sumByMovementType(null, null, dayStart, dayEnd).values().stream()
+                                        .mapToLong(Long::longValue).sum()) {
+                    return deleteDay(status, dayStart, dayEnd, live) ? false : null;
+                }
+                long dayStartMicros = MovementArchive.toMicros(dayStart);
+                long dayEndMicros = MovementArchive.toMicros(dayEnd);
+                Map<List<Long>, Integer> archived = new HashMap<>();
+                for (MovementArchiveSegment segment : movementArchive.getPendingSegments()) {
+                    segment.forEachRow(dayStartMicros, dayEndMicros, row -> archived.merge(rowKey(row), 1, Integer::sum));
+                }
+                MovementArchiveSegment.Builder unmatched = new MovementArchiveSegment.Builder(dayStartMicros, dayEndMicros);
+                MovementArchiveSegment.Builder all = new MovementArchiveSegment.Builder(dayStartMicros, dayEndMicros);
+                long[] values = new long[MOVEMENT_TYPE + 1];
+                try (Stream<StockMovementRow> rows = stockMovementRepository.streamRowsByMovementDateRange(dayStart, dayEnd)) {
+                    for (StockMovementRow row : (Iterable<StockMovementRow>) rows::iterator) {
+                        values[DATE] = MovementArchive.toMicros(row.getMovementDate());
+                        values[PRODUCT] = row.getProductId();
+                        values[SOURCE_LOCATION] = row.getSourceLocationId() != null ? row.getSourceLocationId() : 0;
+                        values[TARGET_LOCATION] = row.getTargetLocationId() != null ? row.getTargetLocationId() : 0;
+                        values[QUANTITY] = row.getQuantity();
+                        values[MOVEMENT_TYPE] = row.getMovementType().ordinal();
+                        List<Long> key = rowKey(values);
+                        Integer matches = archived.get(key);
+                        all.add(row.getProductId(), row.getSourceLocationId(), row.getTargetLocationId(), 
+                                row.getQuantity(), row.getMovementType().ordinal(), values[DATE]);
+                        if (matches == null) {
+                            unmatched.add(row.getProductId(), row.getSourceLocationId(), row.getTargetLocationId(), 
+                                    row.getQuantity(), row.getMovementType().ordinal(), values[DATE]);
+                        } else if (matches == 1) {
+                            archived.remove(key);
+                        } else {
+                            archived.put(key, matches - 1);
+                        }
+                    }
+                }
+                MovementArchiveSegment.Builder followUp = archived.isEmpty() ? unmatched : all;
+                if (followUp.size() > 0) {
+                    movementArchive.append(followUp);
+                    logger.info("Archived {} stock movements dated from {} to {} after the range was archived", 
+                            followUp.size(), dayStart, dayEnd);
+                }
+                return deleteDay(status, dayStart, dayEnd, all.size()) ? followUp.size() > 0 : null;
+            });
+            if (followedUp == null) {
+                deleted = false;
+            } else if (followedUp) {
+                movementArchive.confirm(dayStart, dayEnd);
+            }
+        }
+        return deleted;
+    }
+    
+    /**
+     * Delete the live movements of a day, rolling back if they are not the ones just read
+     */
+    private boolean deleteDay(TransactionStatus status, LocalDateTime dayStart, LocalDateTime dayEnd, long read) {
+        if (stockMovementRepository.deleteByMovementDateRange(dayStart, dayEnd) != read) {
+            status.setRollbackOnly();
+            logger.warn("Kept the stock movements from {} to {} that changed while being archived", dayStart, dayEnd);
+            return false;
+        }
+        return true;
+    }
+    
+    private static List<Long> rowKey(long[] row) {
+        List<Long> key = new ArrayList<>(row.length);
+        for (long value : row) {
+            key.add(value);
+        }
+        return key;
+    }
+    
+    private static LocalDateTime earlier(LocalDateTime date, LocalDateTime archivedUntil) {
+        return archivedUntil != null && archivedUntil.isBefore(date) ? archivedUntil : date;
+    }
+    
+    /**
+     * Split a date range around the pending segments, whose movements may still be in the table
+     * as well as in the archive
+     * 
+     * @return the start and end of each part of the range to read from the table, in date order
+     */
+    private List<LocalDateTime[]> liveRanges(LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime[]> ranges = new ArrayList<>();
+        LocalDateTime start = from;
+        for (MovementArchiveSegment segment : movementArchive.getPendingSegments()) {
+            LocalDateTime segmentStart = MovementArchive.toDateTime(segment.getFromMicros());
+            LocalDateTime segmentEnd = MovementArchive.toDateTime(segment.getToMicros());
+            if (segmentStart.isAfter(start)) {
+                ranges.add(new LocalDateTime[] { start, segmentStart.isBefore(to) ? segmentStart : to });
+            }
+            if (segmentEnd.isAfter(start)) {
+                start = segmentEnd;
+            }
+            if (!start.isBefore(to)) {
+                return ranges;
+            }
+        }
+        if (start.isBefore(to)) {
+            ranges.add(new LocalDateTime[] { start, to });
+        }
+        return ranges;
+    }
+}
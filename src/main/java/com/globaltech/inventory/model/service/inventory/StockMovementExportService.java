@@ -0,0 +1,48 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import com.globaltech.inventory.model.service.base.ExportFormat;
+import com.globaltech.inventory.model.service.base.ExportResult;
+
+/**
+ * Service for finance extracts of stock movements
+ */
+public interface StockMovementExportService {
+    
+    /**
+     * Export the stock movements within a date range, with the product SKU and location names,
+     * ordered by movement date. Rows are streamed to the channel as they are read. Movements
+     * already moved to the archive by StockMovementArchiveService cannot be exported.
+     * 
+     * @param startDate the start of the range, inclusive
+     * @param endDate the end of the range, exclusive
+     * @param format the export format
+     * @param gzip whether to gzip the output
+     * @param channel the channel to write to, left open
+     * @return the result of the export
+     * @throws IllegalArgumentException if the range is invalid or starts before the end of the archive
+     */
+    ExportResult exportMovements(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, boolean gzip, 
+                                 WritableByteChannel channel);
+    
+    /**
+     * Export the stock movements within a date range to a file like {@link #exportMovements(
+     * LocalDateTime, LocalDateTime, ExportFormat, boolean, WritableByteChannel)}, with the range
+     * split into date slices that are exported in parallel.
+     * 
+     * @param startDate the start of the range, inclusive
+     * @param endDate the end of the range, exclusive
+     * @param format the export format
+     * @param gzip whether to gzip the output
+     * @param file the file to write, replaced if it exists
+     * @param slices the number of date slices
+     * @return the result of the export
+     * @throws IllegalArgumentException if the range is invalid or starts before the end of the archive,
+     *         or slices is less than 1
+     */
+    ExportResult exportMovements(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, boolean gzip, Path file, 
+                                 int slices);
+}
@@ -0,0 +1,541 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.globaltech.inventory.model.domain.base.PooledIdGenerator;
+import com.globaltech.inventory.model.domain.inventory.StockMovement;
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+
+/**
+ * Opt-in journal that writes stock movements with multi-row INSERT statements instead of one
+ * Hibernate insert per movement. It runs in one of two modes.
+ * 
+ * Durable, the default: the movements appended during a transaction are inserted together on
+ * that transaction's connection just before it commits, so they commit or roll back with the
+ * stock changes they record. Outside a transaction a movement is inserted right away.
+ * 
+ * Write-behind: movements are appended to a bounded in-memory buffer and a single writer thread
+ * inserts them, committing a group of movements at once when the batch is full or the flush
+ * interval expires. When a transaction is active, a movement is only appended once that
+ * transaction commits, so movements of rolled back work are never written; movements still
+ * buffered when the process dies are lost. A failed write is retried with a growing backoff;
+ * movements that still cannot be written are logged in full. The future returned by
+ * {@link #append(StockMovement)} completes once the movement has been committed; callers that
+ * need to know wait on it, or call {@link #flush()}, after their own transaction. A caller that
+ * must not be acknowledged before its movement is durable appends it with
+ * {@link #append(StockMovement, boolean)} instead, which writes it with the transaction as the
+ * durable mode does. Pending movements are drained when the bean is destroyed; movements that
+ * reach the buffer after the writer has stopped are failed.
+ */
+@Component
+public class StockMovementJournal implements InitializingBean, DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StockMovementJournal.class);
+    
+    private static final String INSERT_SQL = "INSERT INTO stock_movements (id, product_id, source_location_id, " +
+            "target_location_id, quantity, movement_type, reference_number, notes, movement_date, created_date) VALUES ";
+    
+    private static final String VALUES_SQL = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 30_000;
+    
+    private static final long FLUSH_TIMEOUT_MILLIS = 30_000;
+    
+    private static final long RETRY_BACKOFF_MILLIS = 100;
+    
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final SessionFactoryImplementor sessionFactory;
+    private final boolean enabled;
+    private final boolean durable;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long flushIntervalNanos;
+    private final BlockingQueue<Entry> buffer;
+    private final Thread writer;
+    private volatile boolean running;
+    private volatile boolean stopped;
+    
+    public StockMovementJournal(DataSource dataSource, 
+                                EntityManagerFactory entityManagerFactory, 
+                                @Value("${inventory.movement-journal.enabled:false}") boolean enabled, 
+                                @Value("${inventory.movement-journal.durable:true}") boolean durable, 
+                                @Value("${inventory.movement-journal.batch-size:500}") int batchSize, 
+                                @Value("${inventory.movement-journal.flush-interval-ms:20}") long flushIntervalMillis, 
+                                @Value("${inventory.movement-journal.capacity:65536}") int capacity, 
+                                @Value("${inventory.movement-journal.max-attempts:5}") int maxAttempts) {
+        if (batchSize <= 0 || capacity < batchSize) {
+            throw new IllegalArgumentException("Journal capacity must be at least the batch size and the batch size at least 1");
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Journal write attempts must be at least 1");
+        }
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.enabled = enabled;
+        this.durable = durable;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::writeLoop, "stock-movement-journal");
+    }
+    
+    @Override
+    public void afterPropertiesSet() {
+        if (enabled && !durable) {
+            running = true;
+            writer.start();
+        }
+    }
+    
+    /**
+     * Check if movements should be written through the journal
+     * 
+     * @return true if the journal is enabled and running
+     */
+    public boolean isEnabled() {
+        return enabled && (durable || running);
+    }
+    
+    /**
+     * Check if movements are written with the transaction that appends them
+     * 
+     * @return true if the journal is durable, false if it writes behind
+     */
+    public boolean isDurable() {
+        return durable;
+    }
+    
+    /**
+     * Append a movement to the journal. The movement is only read, it is not persisted as an entity.
+     * A durable journal writes it with the active transaction; a write-behind journal blocks
+     * while the buffer is full.
+     * 
+     * @param movement the movement to write
+     * @return a future completed once the movement has been committed
+     * @throws IllegalStateException if the journal is not running
+     */
+    public CompletableFuture<Void> append(StockMovement movement) {
+        return append(movement, false);
+    }
+    
+    /**
+     * Append a movement to the journal, written with the active transaction when the journal is
+     * durable or the caller asks for it, so the movement has committed once the transaction has
+     * 
+     * @param movement the movement to write
+     * @param writeWithTransaction whether to write the movement with the active transaction
+     *        even when the journal writes behind
+     * @return a future completed once the movement has been committed
+     * @throws IllegalStateException if the journal is not running
+     */
+    public CompletableFuture<Void> append(StockMovement movement, boolean writeWithTransaction) {
+        Entry entry = new Entry(movement);
+        if (durable || writeWithTransaction) {
+            appendDurable(entry);
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        entry.future.cancel(false);
+                        return;
+                    }
+                    try {
+                        enqueue(entry);
+                    } catch (IllegalStateException e) {
+                        entry.future.completeExceptionally(e);
+                        throw e;
+                    }
+                }
+            });
+        } else {
+            enqueue(entry);
+        }
+        return entry.future;
+    }
+    
+    /**
+     * Collect the movement with the others of the active transaction, which are inserted on its
+     * connection before it commits, or insert it right away when there is no transaction
+     */
+    private void appendDurable(Entry entry) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            try {
+                insert(Collections.singletonList(entry));
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to write stock movement", e);
+            }
+            entry.future.complete(null);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Entry> entries = (List<Entry>) TransactionSynchronizationManager.getResource(this);
+        if (entries == null) {
+            List<Entry> transactionEntries = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transactionEntries);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+                    if (entityManager == null) {
+                        throw new IllegalStateException("Durable stock movement journal requires a JPA transaction");
+                    }
+                    SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+                    long[] ids = nextIds(session, transactionEntries.size());
+                    entityManager.unwrap(Session.class).doWork(connection -> write(session, connection, transactionEntries, ids));
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(StockMovementJournal.this);
+                    for (Entry transactionEntry : transactionEntries) {
+                        if (status == STATUS_COMMITTED) {
+                            transactionEntry.future.complete(null);
+                        } else {
+                            transactionEntry.future.cancel(false);
+                        }
+                    }
+                }
+            });
+            entries = transactionEntries;
+        }
+        entries.add(entry);
+    }
+    
+    /**
+     * Block until every movement appended before this call has been committed, for at most 30
+     * seconds. A durable journal has nothing to wait for.
+     * 
+     * @throws IllegalStateException if the journal is not running, a write failed or the
+     *         movements were not written in time
+     */
+    public void flush() {
+        if (durable) {
+            return;
+        }
+        Entry marker = new Entry(null);
+        enqueue(marker);
+        try {
+            marker.future.get(FLUSH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while flushing the stock movement journal", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to flush the stock movement journal", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Stock movement journal did not flush within " + FLUSH_TIMEOUT_MILLIS + 
+                    " ms, " + buffer.size() + " entries pending", e);
+        }
+    }
+    
+    /**
+     * Get the number of entries waiting to be written
+     * 
+     * @return the number of buffered entries
+     */
+    public int getPendingCount() {
+        return buffer.size();
+    }
+    
+    @Override
+    public void destroy() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        if (writer.isAlive()) {
+            logger.error("Stock movement journal did not drain within {} ms, {} entries pending", 
+                    SHUTDOWN_TIMEOUT_MILLIS, buffer.size());
+        }
+    }
+    
+    private void enqueue(Entry entry) {
+        if (!running) {
+            throw new IllegalStateException("Stock movement journal is not running");
+        }
+        try {
+            buffer.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while appending to the stock movement journal", e);
+        }
+        // Shutdown may have begun after the check above and the writer finished draining since
+        if (stopped) {
+            failPending(Collections.emptyList());
+        }
+    }
+    
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !buffer.isEmpty()) {
+                try {
+                    Entry first = buffer.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    fillBatch(batch);
+                } catch (InterruptedException e) {
+                    // Keep draining; shutdown is signalled through the running flag
+                }
+                if (!batch.isEmpty()) {
+                    writeBatch(batch);
+                    batch.clear();
+                }
+            }
+        } finally {
+            stopped = true;
+            failPending(batch);
+        }
+    }
+    
+    /**
+     * Fail the entries left in a batch and in the buffer once the writer has stopped, so no
+     * caller waits for them forever
+     */
+    private void failPending(List<Entry> batch) {
+        List<Entry> pending = new ArrayList<>(batch);
+        buffer.drainTo(pending);
+        List<Entry> movements = new ArrayList<>();
+        IllegalStateException failure = new IllegalStateException("Stock movement journal stopped before writing the movement");
+        for (Entry entry : pending) {
+            if (entry.future.completeExceptionally(failure) && !entry.isFlushMarker()) {
+                movements.add(entry);
+            }
+        }
+        if (!movements.isEmpty()) {
+            logger.error("Stock movement journal stopped with {} movements unwritten, lost movements: {}", 
+                    movements.size(), movements);
+        }
+    }
+    
+    /**
+     * Collect entries until the batch is full, a flush marker arrives or the flush interval expires
+     */
+    private void fillBatch(List<Entry> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize && !batch.get(batch.size() - 1).isFlushMarker()) {
+            Entry next = buffer.poll();
+            if (next == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !running) {
+                    return;
+                }
+                next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+            }
+            batch.add(next);
+        }
+    }
+    
+    private void writeBatch(List<Entry> batch) {
+        List<Entry> movements = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            if (!entry.isFlushMarker()) {
+                movements.add(entry);
+            }
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (!movements.isEmpty()) {
+                    insert(movements);
+                }
+                for (Entry entry : batch) {
+                    entry.future.complete(null);
+                }
+                return;
+            } catch (SQLException | RuntimeException e) {
+                if (attempt >= maxAttempts || !backOff(attempt)) {
+                    logger.error("Failed to write {} stock movements from the journal after {} attempts, lost movements: {}", 
+                            movements.size(), attempt, movements, e);
+                    for (Entry entry : batch) {
+                        entry.future.completeExceptionally(e);
+                    }
+                    return;
+                }
+                logger.warn("Failed to write {} stock movements from the journal, attempt {} of {}", 
+                        movements.size(), attempt, maxAttempts, e);
+            }
+        }
+    }
+    
+    /**
+     * Wait before the next write attempt, longer after every failure
+     * 
+     * @return false if interrupted
+     */
+    private static boolean backOff(int attempt) {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS << Math.min(attempt - 1, 6));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private void insert(List<Entry> entries) throws SQLException {
+        try (StatelessSession statelessSession = sessionFactory.openStatelessSession(); 
+             Connection connection = dataSource.getConnection()) {
+            SharedSessionContractImplementor session = (SharedSessionContractImplementor) statelessSession;
+            long[] ids = nextIds(session, entries.size());
+            connection.setAutoCommit(false);
+            try {
+                write(session, connection, entries, ids);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+    
+    /**
+     * Insert movements with one multi-row statement, and add them to the movement rollups, on
+     * a connection whose transaction is committed by the caller
+     */
+    private static void write(SharedSessionContractImplementor session, Connection connection, List<Entry> entries, 
+                              long[] ids) throws SQLException {
+        StringBuilder sql = new StringBuilder(INSERT_SQL.length() + entries.size() * (VALUES_SQL.length() + 2));
+        sql.append(INSERT_SQL);
+        for (int i = 0; i < entries.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(VALUES_SQL);
+        }
+        
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        MovementRollupChanges rollupChanges = new MovementRollupChanges();
+        try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                statement.setLong(index++, ids[i]);
+                statement.setLong(index++, entry.productId);
+                setNullableLong(statement, index++, entry.sourceLocationId);
+                setNullableLong(statement, index++, entry.targetLocationId);
+                statement.setInt(index++, entry.quantity);
+                statement.setString(index++, entry.movementType);
+                statement.setString(index++, entry.referenceNumber);
+                statement.setString(index++, entry.notes);
+                statement.setTimestamp(index++, entry.movementDate);
+                statement.setTimestamp(index++, now);
+                rollupChanges.add(entry.movementDate.toLocalDateTime(), entry.productId, entry.sourceLocationId, 
+                        entry.targetLocationId, MovementType.valueOf(entry.movementType), entry.quantity);
+            }
+            statement.executeUpdate();
+        }
+        rollupChanges.write(session, connection);
+    }
+    
+    /**
+     * Take IDs from the StockMovement generator so journal rows never collide with IDs handed out by Hibernate
+     */
+    private static long[] nextIds(SharedSessionContractImplementor session, int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = PooledIdGenerator.nextId(session, StockMovement.class);
+        }
+        return ids;
+    }
+    
+    private static void setNullableLong(PreparedStatement statement, int index, Long value) throws SQLException {
+        if (value != null) {
+            statement.setLong(index, value);
+        } else {
+            statement.setNull(index, Types.BIGINT);
+        }
+    }
+    
+    /**
+     * Snapshot of a movement waiting to be written, or a flush marker if it has no movement
+     */
+    private static final class Entry {
+        
+        private final Long productId;
+        private final Long sourceLocationId;
+        private final Long targetLocationId;
+        private final int quantity;
+        private final String movementType;
+        private final String referenceNumber;
+        private final String notes;
+        private final Timestamp movementDate;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        
+        private Entry(StockMovement movement) {
+            if (movement == null) {
+                productId = null;
+                sourceLocationId = null;
+                targetLocationId = null;
+                quantity = 0;
+                movementType = null;
+                referenceNumber = null;
+                notes = null;
+                movementDate = null;
+                return;
+            }
+            if (movement.getProduct() == null || movement.getMovementType() == null || movement.getQuantity() < 1) {
+                throw new IllegalArgumentException("Stock movement requires a product, a movement type and a quantity of at least 1");
+            }
+            productId = movement.getProduct().getId();
+            sourceLocationId = movement.getSourceLocation() != null ? movement.getSourceLocation().getId() : null;
+            targetLocationId = movement.getTargetLocation() != null ? movement.getTargetLocation().getId() : null;
+            quantity = movement.getQuantity();
+            movementType = movement.getMovementType().name();
+            referenceNumber = movement.getReferenceNumber();
+            notes = movement.getNotes();
+            movementDate = Timestamp.valueOf(movement.getMovementDate() != null ? movement.getMovementDate() : LocalDateTime.now());
+        }
+        
+        private boolean isFlushMarker() {
+            return productId == null;
+        }
+        
+        @Override
+        public String toString() {
+            return "[productId=" + productId + ", sourceLocationId=" + sourceLocationId + ", targetLocationId=" + 
+                    targetLocationId + ", quantity=" + quantity + ", movementType=" + movementType + 
+                    ", referenceNumber=" + referenceNumber + ", movementDate=" + movementDate + "]";
+        }
+    }
+}
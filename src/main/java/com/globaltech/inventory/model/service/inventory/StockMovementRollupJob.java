@@ -0,0 +1,26 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled job that rebuilds the rollups of the most recently closed hours and days from the
+ * stock movements, see {@link StockMovementRollupService#rollUp()}. The rollups are kept
+ * current by the services writing movements; this repairs recent changes made around them.
+ * Runs five minutes past every hour by default; the schedule is set with
+ * inventory.movement-rollup.cron and requires scheduling to be enabled.
+ */
+@Component
+public class StockMovementRollupJob {
+    
+    private final StockMovementRollupService stockMovementRollupService;
+    
+    public StockMovementRollupJob(StockMovementRollupService stockMovementRollupService) {
+        this.stockMovementRollupService = stockMovementRollupService;
+    }
+    
+    @Scheduled(cron = "${inventory.movement-rollup.cron:0 5 * * * *}")
+    public void rollUp() {
+        stockMovementRollupService.rollUp();
+    }
+}
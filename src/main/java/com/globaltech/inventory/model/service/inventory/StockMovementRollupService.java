@@ -0,0 +1,66 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+
+/**
+ * Service maintaining the hourly and daily stock movement rollups and answering range totals
+ * from them. Every movement written, by the services inserting them in batches or as an entity
+ * through {@link MovementRollupEventListener}, is added to the hourly and daily rollups in the
+ * same transaction, whatever the movement date, so the rollups include the current hour and
+ * movements dated in the past. Whole hours and days are read from the rollups; only the
+ * partial hours at the ends of a range, and hours after the latest rollup, are summed from the
+ * raw movements.
+ * 
+ * The rollups are assumed to cover every movement before the latest rollup, so
+ * {@link #backfill(LocalDateTime, LocalDateTime)} has to be run over the history written
+ * before the rollups were maintained, once, before they are used.
+ */
+public interface StockMovementRollupService {
+    
+    /**
+     * Get the total quantity moved for a product by movement type within a date range
+     * 
+     * @param productId the product ID
+     * @param movementType the movement type
+     * @param from the start date, inclusive
+     * @param to the end date, exclusive
+     * @return the total quantity, 0 if there were no movements
+     */
+    long getTotalQuantity(Long productId, MovementType movementType, LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * Get the total quantity moved for a product per movement type within a date range
+     * 
+     * @param productId the product ID
+     * @param locationId the location ID, or null for all locations
+     * @param from the start date, inclusive
+     * @param to the end date, exclusive
+     * @return the total quantity per movement type, with every movement type present
+     */
+    Map<MovementType, Long> getTotalQuantities(Long productId, Long locationId, LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * Rebuild the rollups of the last few closed hours, inventory.movement-rollup.grace-hours
+     * of them, and of the days among them that have closed, from the movements. This repairs
+     * rollups missing movements that were written around the services, for example by SQL
+     * scripts; movements older than that need a {@link #backfill(LocalDateTime, LocalDateTime)}
+     * of their range. With no rollups yet, this backfills the whole history.
+     * 
+     * @return the number of hourly and daily rollups written
+     */
+    int rollUp();
+    
+    /**
+     * Rebuild the rollups of the closed hours within a range, one day per transaction. Daily
+     * rollups are rebuilt for the days the range covers up to their end. Archived movements
+     * cannot be rolled up again, so the range starts no earlier than the end of the archive.
+     * 
+     * @param from the start date, rounded down to the hour
+     * @param to the end date, rounded down to the hour and capped at the current hour
+     * @return the number of hourly and daily rollups written
+     */
+    int backfill(LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,211 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.globaltech.inventory.model.domain.inventory.DailyMovementRollup;
+import com.globaltech.inventory.model.domain.inventory.HourlyMovementRollup;
+import com.globaltech.inventory.model.domain.inventory.MovementTypeQuantity;
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+import com.globaltech.inventory.model.repository.inventory.DailyMovementRollupRepository;
+import com.globaltech.inventory.model.repository.inventory.HourlyMovementRollupRepository;
+import com.globaltech.inventory.model.repository.inventory.StockMovementRepository;
+
+/**
+ * Implementation of StockMovementRollupService. Movements are added to the rollups as they are
+ * written, see {@link MovementRollupChanges} and {@link MovementRollupEventListener}; this
+ * service only rebuilds rollups, per bucket: the rollups of a bucket are deleted and summed
+ * again from the movements, so rebuilding is idempotent. The delete runs first and locks the buckets, so a movement added to a bucket
+ * while it is rebuilt is counted exactly once.
+ * 
+ * Totals summed from the raw movements read those dated before the end of the
+ * {@link MovementArchive} from the archive. Rollups of archived buckets are kept as they are,
+ * as the movements they were built from are no longer in the table to rebuild them.
+ */
+@Service
+public class StockMovementRollupServiceImpl implements StockMovementRollupService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StockMovementRollupServiceImpl.class);
+    
+    private final StockMovementRepository stockMovementRepository;
+    private final MovementArchive movementArchive;
+    private final HourlyMovementRollupRepository hourlyRepository;
+    private final DailyMovementRollupRepository dailyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int graceHours;
+    
+    public StockMovementRollupServiceImpl(StockMovementRepository stockMovementRepository,
+                                          MovementArchive movementArchive,
+                                          HourlyMovementRollupRepository hourlyRepository,
+                                          DailyMovementRollupRepository dailyRepository,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${inventory.movement-rollup.grace-hours:2}") int graceHours) {
+        if (graceHours < 0) {
+            throw new IllegalArgumentException("Rollup grace period cannot be negative");
+        }
+        this.stockMovementRepository = stockMovementRepository;
+        this.movementArchive = movementArchive;
+        this.hourlyRepository = hourlyRepository;
+        this.dailyRepository = dailyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.graceHours = graceHours;
+    }
+    
+    @Override
+    public long getTotalQuantity(Long productId, MovementType movementType, LocalDateTime from, LocalDateTime to) {
+        return getTotalQuantities(productId, null, from, to).get(movementType);
+    }
+    
+    @Override
+    public Map<MovementType, Long> getTotalQuantities(Long productId, Long locationId, LocalDateTime from, LocalDateTime to) {
+        if (productId == null || from == null || to == null) {
+            throw new IllegalArgumentException("Product ID and date range are required");
+        }
+        Map<MovementType, Long> totals = new EnumMap<>(MovementType.class);
+        for (MovementType movementType : MovementType.values()) {
+            totals.put(movementType, 0L);
+        }
+        if (!from.isBefore(to)) {
+            return totals;
+        }
+        
+        readOnlyTransactionTemplate.execute(status -> {
+            LocalDateTime hourlyUntil = closedUntil(hourlyRepository.findLastBucketStart(), ChronoUnit.HOURS, to);
+            LocalDateTime firstHour = ceil(from, ChronoUnit.HOURS);
+            if (hourlyUntil == null || !firstHour.isBefore(hourlyUntil)) {
+                addRaw(totals, productId, locationId, from, to);
+                return null;
+            }
+            addRaw(totals, productId, locationId, from, firstHour);
+            addRaw(totals, productId, locationId, hourlyUntil, to);
+            
+            LocalDateTime dailyUntil = closedUntil(dailyRepository.findLastBucketStart(), ChronoUnit.DAYS, hourlyUntil);
+            LocalDateTime firstDay = ceil(firstHour, ChronoUnit.DAYS);
+            if (dailyUntil != null && firstDay.isBefore(dailyUntil)) {
+                add(totals, dailyRepository.summarizeByMovementType(productId, locationId, firstDay, dailyUntil));
+                addHourly(totals, productId, locationId, firstHour, firstDay);
+                addHourly(totals, productId, locationId, dailyUntil, hourlyUntil);
+            } else {
+                addHourly(totals, productId, locationId, firstHour, hourlyUntil);
+            }
+            return null;
+        });
+        return totals;
+    }
+    
+    @Override
+    public int rollUp() {
+        LocalDateTime lastHour = readOnlyTransactionTemplate.execute(status -> hourlyRepository.findLastBucketStart());
+        LocalDateTime from = lastHour != null
+                ? lastHour.minusHours(graceHours)
+                : readOnlyTransactionTemplate.execute(status -> stockMovementRepository.findFirstMovementDate());
+        if (from == null) {
+            return 0;
+        }
+        return backfill(from, LocalDateTime.now());
+    }
+    
+    @Override
+    public int backfill(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Backfill range is required");
+        }
+        LocalDateTime start = from.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime archivedUntil = movementArchive.getArchivedUntil();
+        if (archivedUntil != null && start.isBefore(archivedUntil)) {
+            start = ceil(archivedUntil, ChronoUnit.HOURS);
+            logger.info("Not rolling up stock movements before {}, they are archived", start);
+        }
+        LocalDateTime currentHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = to.truncatedTo(ChronoUnit.HOURS);
+        if (end.isAfter(currentHour)) {
+            end = currentHour;
+        }
+        
+        int written = 0;
+        for (LocalDateTime day = start.truncatedTo(ChronoUnit.DAYS); day.isBefore(end); day = day.plusDays(1)) {
+            LocalDateTime dayStart = day;
+            LocalDateTime dayEnd = day.plusDays(1);
+            LocalDateTime chunkStart = start.isAfter(dayStart) ? start : dayStart;
+            LocalDateTime chunkEnd = end.isBefore(dayEnd) ? end : dayEnd;
+            written += transactionTemplate.execute(status -> {
+                hourlyRepository.deleteBuckets(chunkStart, chunkEnd);
+                List<HourlyMovementRollup> hourly = stockMovementRepository.summarizeHourly(chunkStart, chunkEnd);
+                hourlyRepository.saveAll(hourly);
+                int rollups = hourly.size();
+                if (chunkEnd.equals(dayEnd)) {
+                    hourlyRepository.flush();
+                    dailyRepository.deleteBuckets(dayStart, dayEnd);
+                    List<DailyMovementRollup> daily = hourlyRepository.summarizeDaily(dayStart, dayEnd);
+                    dailyRepository.saveAll(daily);
+                    rollups += daily.size();
+                }
+                return rollups;
+            });
+        }
+        logger.info("Rolled up stock movements from {} to {}: {} rollups written", start, end, written);
+        return written;
+    }
+    
+    private void addRaw(Map<MovementType, Long> totals, Long productId, Long locationId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        LocalDateTime archivedUntil = movementArchive.getArchivedUntil();
+        if (archivedUntil != null && from.isBefore(archivedUntil)) {
+            LocalDateTime archivedTo = to.isBefore(archivedUntil) ? to : archivedUntil;
+            movementArchive.sumByMovementType(productId, locationId, from, archivedTo).forEach(
+                    (movementType, quantity) -> totals.merge(movementType, quantity, Long::sum));
+            from = archivedTo;
+        }
+        if (from.isBefore(to)) {
+            add(totals, stockMovementRepository.summarizeByMovementType(productId, locationId, from, to));
+        }
+    }
+    
+    private void addHourly(Map<MovementType, Long> totals, Long productId, Long locationId, LocalDateTime from, LocalDateTime to) {
+        if (from.isBefore(to)) {
+            add(totals, hourlyRepository.summarizeByMovementType(productId, locationId, from, to));
+        }
+    }
+    
+    private static void add(Map<MovementType, Long> totals, List<MovementTypeQuantity> quantities) {
+        for (MovementTypeQuantity quantity : quantities) {
+            if (quantity.getTotalQuantity() != null) {
+                totals.merge(quantity.getMovementType(), quantity.getTotalQuantity(), Long::sum);
+            }
+        }
+    }
+    
+    /**
+     * Get the end of the rolled up buckets within a range end, rounded down to a whole bucket
+     * 
+     * @return the end of the rolled up buckets, or null if there are none
+     */
+    private static LocalDateTime closedUntil(LocalDateTime lastBucketStart, ChronoUnit unit, LocalDateTime to) {
+        if (lastBucketStart == null) {
+            return null;
+        }
+        LocalDateTime closed = lastBucketStart.plus(1, unit);
+        LocalDateTime until = closed.isBefore(to) ? closed : to;
+        return until.truncatedTo(unit);
+    }
+    
+    private static LocalDateTime ceil(LocalDateTime date, ChronoUnit unit) {
+        LocalDateTime truncated = date.truncatedTo(unit);
+        return truncated.equals(date) ? date : truncated.plus(1, unit);
+    }
+}
@@ -0,0 +1,63 @@
+package com.globaltech.inventory.model.service.inventory;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Purchase suggestions for the products of one supplier
+ */
+public class SupplierReplenishment {
+    
+    private final Long supplierId;
+    private final String supplierName;
+    private final String supplierEmail;
+    private final List<ReplenishmentSuggestion> suggestions;
+    
+    public SupplierReplenishment(Long supplierId, String supplierName, String supplierEmail, 
+                                 List<ReplenishmentSuggestion> suggestions) {
+        this.supplierId = supplierId;
+        this.supplierName = supplierName;
+        this.supplierEmail = supplierEmail;
+        this.suggestions = Collections.unmodifiableList(suggestions);
+    }
+    
+    /**
+     * Get the supplier ID
+     * 
+     * @return the supplier ID, or null for products without a supplier
+     */
+    public Long getSupplierId() {
+        return supplierId;
+    }
+    
+    public String getSupplierName() {
+        return supplierName;
+    }
+    
+    public String getSupplierEmail() {
+        return supplierEmail;
+    }
+    
+    public List<ReplenishmentSuggestion> getSuggestions() {
+        return suggestions;
+    }
+    
+    /**
+     * Get the total quantity suggested for the supplier
+     * 
+     * @return the sum of the suggested quantities
+     */
+    public long getTotalQuantity() {
+        long total = 0;
+        for (ReplenishmentSuggestion suggestion : suggestions) {
+            total += suggestion.getSuggestedQuantity();
+        }
+        return total;
+    }
+    
+    @Override
+    public String toString() {
+        return "SupplierReplenishment [supplier=" + supplierName + ", suggestions=" + suggestions.size() + 
+                ", totalQuantity=" + getTotalQuantity() + "]";
+    }
+}
@@ -0,0 +1,92 @@
+package com.globaltech.inventory.model.service.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+import com.globaltech.inventory.model.domain.order.OrderStatus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts the stock movements and order status changes written by every service, published as
+ * inventory.stock.movements tagged with the movement type and inventory.order.status.changes
+ * tagged with the previous and the new status. Within a transaction they are counted once it
+ * has committed, so writes rolled back, including attempts retried after an optimistic lock
+ * conflict, are never counted.
+ */
+@Component
+public class InventoryCounters {
+    
+    private final Map<MovementType, Counter> movementCounters = new EnumMap<>(MovementType.class);
+    
+    /** Status change counters indexed by the ordinals of the previous and the new status */
+    private final Counter[][] statusChangeCounters;
+    
+    public InventoryCounters(MeterRegistry meterRegistry) {
+        for (MovementType movementType : MovementType.values()) {
+            movementCounters.put(movementType, Counter.builder("inventory.stock.movements")
+                    .description("Stock movements recorded")
+                    .tag("type", movementType.name())
+                    .register(meterRegistry));
+        }
+        OrderStatus[] statuses = OrderStatus.values();
+        statusChangeCounters = new Counter[statuses.length][statuses.length];
+        for (OrderStatus from : statuses) {
+            for (OrderStatus to : statuses) {
+                if (from != to) {
+                    statusChangeCounters[from.ordinal()][to.ordinal()] = Counter.builder("inventory.order.status.changes")
+                            .description("Order status changes")
+                            .tag("from", from.name())
+                            .tag("to", to.name())
+                            .register(meterRegistry);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Count stock movements once the current transaction has committed
+     * 
+     * @param movementType the movement type
+     * @param count the number of movements
+     */
+    public void countMovements(MovementType movementType, long count) {
+        countAfterCommit(movementCounters.get(movementType), count);
+    }
+    
+    /**
+     * Count order status changes once the current transaction has committed
+     * 
+     * @param from the previous status
+     * @param to the new status
+     * @param count the number of orders changed
+     */
+    public void countStatusChanges(OrderStatus from, OrderStatus to, long count) {
+        if (from == to) {
+            throw new IllegalArgumentException("Status did not change: " + from);
+        }
+        countAfterCommit(statusChangeCounters[from.ordinal()][to.ordinal()], count);
+    }
+    
+    private static void countAfterCommit(Counter counter, long count) {
+        if (count <= 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.increment(count);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counter.increment(count);
+            }
+        });
+    }
+}
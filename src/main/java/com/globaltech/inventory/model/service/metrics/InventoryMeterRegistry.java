@@ -0,0 +1,19 @@
+package com.globaltech.inventory.model.service.metrics;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+
+/**
+ * The registry all application meters are kept in, scraped in the Prometheus text format by
+ * {@link MetricsService}. It has no dependencies, so the post-processor instrumenting services
+ * and repositories can be given it before any other bean is created.
+ */
+@Component
+public class InventoryMeterRegistry extends PrometheusMeterRegistry {
+    
+    public InventoryMeterRegistry() {
+        super(PrometheusConfig.DEFAULT);
+    }
+}
@@ -0,0 +1,155 @@
+package com.globaltech.inventory.model.service.metrics;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import com.globaltech.inventory.model.repository.base.ConcurrentMaps;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every call to the methods of one service or repository and records how many rows the
+ * methods returning entities gave back. The meters of a method are looked up without locking
+ * after its first call, so a call costs two clock reads and a histogram update.
+ * 
+ * Durations are published as inventory.method.duration, tagged with the layer, the service or
+ * repository type, the method name and whether the call returned or threw. Row counts of
+ * methods returning a collection, page, array or Optional are published as
+ * inventory.method.rows.
+ */
+public class MethodMetricsInterceptor implements MethodInterceptor {
+    
+    static final Duration MIN_EXPECTED_DURATION = Duration.ofNanos(100_000);
+    static final Duration MAX_EXPECTED_DURATION = Duration.ofSeconds(30);
+    
+    private final MeterRegistry meterRegistry;
+    private final Tags tags;
+    private final boolean histograms;
+    private final ConcurrentMap<Method, MethodMeters> methodMeters = new ConcurrentHashMap<>();
+    
+    /**
+     * Create an interceptor for one service or repository
+     * 
+     * @param meterRegistry the registry to create the meters in
+     * @param layer the layer tag, "service" or "repository"
+     * @param type the type tag, the simple name of the service or repository
+     * @param histograms whether to publish duration histograms for percentiles
+     */
+    public MethodMetricsInterceptor(MeterRegistry meterRegistry, String layer, String type, boolean histograms) {
+        this.meterRegistry = meterRegistry;
+        this.tags = Tags.of("layer", layer, "type", type);
+        this.histograms = histograms;
+    }
+    
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        MethodMeters meters = getMethodMeters(method);
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            meters.getFailure().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        meters.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (meters.rows != null) {
+            long rowCount = countRows(result);
+            if (rowCount >= 0) {
+                meters.rows.record(rowCount);
+            }
+        }
+        return result;
+    }
+    
+    private MethodMeters getMethodMeters(Method method) {
+        return ConcurrentMaps.getOrCompute(methodMeters, method, this::createMethodMeters);
+    }
+    
+    private MethodMeters createMethodMeters(Method method) {
+        Tags methodTags = tags.and("method", method.getName());
+        Class<?> returnType = method.getReturnType();
+        boolean returnsRows = Iterable.class.isAssignableFrom(returnType) || Optional.class == returnType
+                || returnType.isArray();
+        return new MethodMeters(methodTags, createTimer(methodTags.and("outcome", "success")),
+                returnsRows ? DistributionSummary.builder("inventory.method.rows")
+                        .description("Rows returned per call")
+                        .baseUnit("rows")
+                        .tags(methodTags)
+                        .register(meterRegistry) : null);
+    }
+    
+    private Timer createTimer(Tags timerTags) {
+        return Timer.builder("inventory.method.duration")
+                .description("Duration of service and repository calls")
+                .tags(timerTags)
+                .publishPercentileHistogram(histograms)
+                .minimumExpectedValue(MIN_EXPECTED_DURATION)
+                .maximumExpectedValue(MAX_EXPECTED_DURATION)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Count the rows of a result, or return -1 for results that cannot be counted without
+     * consuming them, such as streams and lazy iterables
+     */
+    private static long countRows(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Object[]) {
+            return ((Object[]) result).length;
+        }
+        return -1;
+    }
+    
+    /**
+     * The meters of one method. The error timer is only registered once the method has thrown,
+     * so methods that never fail do not publish an empty series.
+     */
+    private class MethodMeters {
+        
+        private final Tags methodTags;
+        private final Timer success;
+        private final DistributionSummary rows;
+        private volatile Timer failure;
+        
+        MethodMeters(Tags methodTags, Timer success, DistributionSummary rows) {
+            this.methodTags = methodTags;
+            this.success = success;
+            this.rows = rows;
+        }
+        
+        Timer getFailure() {
+            // the registry returns the same timer to threads racing to register it
+            Timer timer = failure;
+            if (timer == null) {
+                timer = createTimer(methodTags.and("outcome", "error"));
+                failure = timer;
+            }
+            return timer;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.globaltech.inventory.model.service.metrics;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.globaltech.inventory.model.service.base.BaseServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Instruments every service extending BaseServiceImpl, every Spring Data repository and every
+ * transaction manager as they are created, so new services and repositories are measured
+ * without any code of their own.
+ * 
+ * Beans that are already proxies, such as transactional services and repositories, get the
+ * metrics interceptor added in front of their other advice, so a service call is timed
+ * including its transaction. Other beans are wrapped in a new proxy of their interfaces; a
+ * transaction manager must be injected as PlatformTransactionManager then, as the methods it
+ * is timed by are final and cannot be intercepted by a class proxy.
+ */
+@Component
+public class MetricsBeanPostProcessor implements BeanPostProcessor {
+    
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final boolean histograms;
+    
+    public MetricsBeanPostProcessor(MeterRegistry meterRegistry,
+                                    @Value("${inventory.metrics.enabled:true}") boolean enabled,
+                                    @Value("${inventory.metrics.histograms:true}") boolean histograms) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.histograms = histograms;
+    }
+    
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled) {
+            return bean;
+        }
+        // A transactional service is usually a JDK proxy of its interfaces by now, so look at its target
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        if (BaseServiceImpl.class.isAssignableFrom(targetClass)) {
+            return addAdvice(bean, new MethodMetricsInterceptor(meterRegistry, "service", targetClass.getSimpleName(), histograms));
+        }
+        if (bean instanceof Repository) {
+            return addAdvice(bean, new MethodMetricsInterceptor(meterRegistry, "repository",
+                    getRepositoryInterface(bean).getSimpleName(), histograms));
+        }
+        if (bean instanceof PlatformTransactionManager) {
+            return addAdvice(bean, new TransactionMetricsInterceptor(meterRegistry, histograms));
+        }
+        return bean;
+    }
+    
+    private static Object addAdvice(Object bean, Advice advice) {
+        if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            ((Advised) bean).addAdvice(0, advice);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(proxyFactory.getProxiedInterfaces().length == 0);
+        proxyFactory.addAdvice(advice);
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+    
+    /**
+     * Get the interface a repository was declared with, which Spring Data proxies first
+     */
+    private static Class<?> getRepositoryInterface(Object repository) {
+        if (repository instanceof Advised) {
+            for (Class<?> proxiedInterface : ((Advised) repository).getProxiedInterfaces()) {
+                if (Repository.class.isAssignableFrom(proxiedInterface)) {
+                    return proxiedInterface;
+                }
+            }
+        }
+        return AopUtils.getTargetClass(repository);
+    }
+}
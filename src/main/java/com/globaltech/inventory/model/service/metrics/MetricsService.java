@@ -0,0 +1,20 @@
+package com.globaltech.inventory.model.service.metrics;
+
+/**
+ * Service interface for reading the application metrics
+ */
+public interface MetricsService {
+    
+    /**
+     * Content type of the scrape output, the Prometheus text exposition format 0.0.4
+     */
+    String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    
+    /**
+     * Get the current value of every meter in the Prometheus text format, for the endpoint
+     * Prometheus scrapes
+     * 
+     * @return the meters as Prometheus text
+     */
+    String scrape();
+}
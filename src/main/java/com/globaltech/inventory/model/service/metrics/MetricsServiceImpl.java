@@ -0,0 +1,23 @@
+package com.globaltech.inventory.model.service.metrics;
+
+import org.springframework.stereotype.Service;
+
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+
+/**
+ * Implementation of MetricsService on top of the Prometheus registry
+ */
+@Service
+public class MetricsServiceImpl implements MetricsService {
+    
+    private final PrometheusMeterRegistry meterRegistry;
+    
+    public MetricsServiceImpl(PrometheusMeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    public String scrape() {
+        return meterRegistry.scrape();
+    }
+}
@@ -0,0 +1,112 @@
+package com.globaltech.inventory.model.service.metrics;
+
+import java.sql.SQLException;
+import java.util.function.ToDoubleFunction;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Publishes the Hibernate statistics and the state of the DBCP2 connection pool. The meters
+ * read the counters Hibernate and the pool keep anyway when they are scraped, so they cost
+ * nothing on the request path.
+ * 
+ * The Hibernate counters are only collected when hibernate.generate_statistics is enabled;
+ * without it they are not registered. The pool meters are registered when the data source is,
+ * or wraps, a BasicDataSource.
+ */
+@Component
+public class PersistenceMetrics implements InitializingBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PersistenceMetrics.class);
+    
+    private final MeterRegistry meterRegistry;
+    private final Statistics statistics;
+    private final DataSource dataSource;
+    
+    public PersistenceMetrics(MeterRegistry meterRegistry, EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+        this.meterRegistry = meterRegistry;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.dataSource = dataSource;
+    }
+    
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        if (statistics.isStatisticsEnabled()) {
+            bindHibernateStatistics();
+        } else {
+            logger.info("Hibernate statistics are disabled, Hibernate meters are not registered");
+        }
+        if (dataSource.isWrapperFor(BasicDataSource.class)) {
+            bindConnectionPool(dataSource.unwrap(BasicDataSource.class));
+        }
+    }
+    
+    private void bindHibernateStatistics() {
+        counter("hibernate.sessions.open", "Sessions opened", Tags.empty(), Statistics::getSessionOpenCount);
+        counter("hibernate.connections.obtained", "JDBC connections obtained", Tags.empty(), Statistics::getConnectCount);
+        counter("hibernate.statements.prepared", "JDBC statements prepared", Tags.empty(), Statistics::getPrepareStatementCount);
+        counter("hibernate.flushes", "Session flushes", Tags.empty(), Statistics::getFlushCount);
+        counter("hibernate.queries.executed", "HQL and SQL queries executed", Tags.empty(), Statistics::getQueryExecutionCount);
+        Gauge.builder("hibernate.query.executions.max", statistics, Statistics::getQueryExecutionMaxTime)
+                .description("Longest query execution")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        counter("hibernate.query.cache.requests", "Query cache lookups", Tags.of("result", "hit"), Statistics::getQueryCacheHitCount);
+        counter("hibernate.query.cache.requests", "Query cache lookups", Tags.of("result", "miss"), Statistics::getQueryCacheMissCount);
+        counter("hibernate.query.cache.puts", "Query cache puts", Tags.empty(), Statistics::getQueryCachePutCount);
+        counter("hibernate.second.level.cache.requests", "Second-level cache lookups", Tags.of("result", "hit"),
+                Statistics::getSecondLevelCacheHitCount);
+        counter("hibernate.second.level.cache.requests", "Second-level cache lookups", Tags.of("result", "miss"),
+                Statistics::getSecondLevelCacheMissCount);
+        counter("hibernate.second.level.cache.puts", "Second-level cache puts", Tags.empty(), Statistics::getSecondLevelCachePutCount);
+        counter("hibernate.entities", "Entity operations", Tags.of("operation", "load"), Statistics::getEntityLoadCount);
+        counter("hibernate.entities", "Entity operations", Tags.of("operation", "fetch"), Statistics::getEntityFetchCount);
+        counter("hibernate.entities", "Entity operations", Tags.of("operation", "insert"), Statistics::getEntityInsertCount);
+        counter("hibernate.entities", "Entity operations", Tags.of("operation", "update"), Statistics::getEntityUpdateCount);
+        counter("hibernate.entities", "Entity operations", Tags.of("operation", "delete"), Statistics::getEntityDeleteCount);
+        counter("hibernate.optimistic.failures", "Optimistic lock failures", Tags.empty(), Statistics::getOptimisticFailureCount);
+    }
+    
+    private void counter(String name, String description, Tags tags, ToDoubleFunction<Statistics> count) {
+        FunctionCounter.builder(name, statistics, count)
+                .description(description)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Register the pool gauges. Saturation is the share of the maximum number of connections in
+     * use; it is not published for an unbounded pool.
+     */
+    private void bindConnectionPool(BasicDataSource pool) {
+        Gauge.builder("db.pool.connections", pool, BasicDataSource::getNumActive)
+                .description("Connections of the pool")
+                .tag("state", "active")
+                .register(meterRegistry);
+        Gauge.builder("db.pool.connections", pool, BasicDataSource::getNumIdle)
+                .description("Connections of the pool")
+                .tag("state", "idle")
+                .register(meterRegistry);
+        Gauge.builder("db.pool.connections.max", pool, BasicDataSource::getMaxTotal)
+                .description("Maximum number of connections of the pool")
+                .register(meterRegistry);
+        Gauge.builder("db.pool.saturation", pool,
+                        dataSource -> dataSource.getMaxTotal() > 0 ? (double) dataSource.getNumActive() / dataSource.getMaxTotal() : Double.NaN)
+                .description("Share of the maximum number of connections in use")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,73 @@
+package com.globaltech.inventory.model.service.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times the transactions begun by a transaction manager, from getTransaction until completion.
+ * Calls joining an existing transaction are not timed, so every physical transaction is timed
+ * once. The duration is published as inventory.transaction.duration, tagged with whether the
+ * transaction was read-only and whether it committed or rolled back.
+ * 
+ * The end of a transaction is observed through a transaction synchronization, so only
+ * transactions begun while synchronization is enabled, the default, are timed.
+ */
+public class TransactionMetricsInterceptor implements MethodInterceptor {
+    
+    private static final String GET_TRANSACTION = "getTransaction";
+    
+    /** Timers indexed by read-only flag, then by synchronization completion status */
+    private final Timer[][] timers = new Timer[2][3];
+    
+    /**
+     * Create an interceptor for a transaction manager
+     * 
+     * @param meterRegistry the registry to create the meters in
+     * @param histograms whether to publish duration histograms for percentiles
+     */
+    public TransactionMetricsInterceptor(MeterRegistry meterRegistry, boolean histograms) {
+        String[] outcomes = new String[3];
+        outcomes[TransactionSynchronization.STATUS_COMMITTED] = "committed";
+        outcomes[TransactionSynchronization.STATUS_ROLLED_BACK] = "rolled_back";
+        outcomes[TransactionSynchronization.STATUS_UNKNOWN] = "unknown";
+        for (int readOnly = 0; readOnly < timers.length; readOnly++) {
+            for (int status = 0; status < outcomes.length; status++) {
+                timers[readOnly][status] = Timer.builder("inventory.transaction.duration")
+                        .description("Duration of transactions from begin to completion")
+                        .tag("read_only", String.valueOf(readOnly == 1))
+                        .tag("outcome", outcomes[status])
+                        .publishPercentileHistogram(histograms)
+                        .minimumExpectedValue(MethodMetricsInterceptor.MIN_EXPECTED_DURATION)
+                        .maximumExpectedValue(MethodMetricsInterceptor.MAX_EXPECTED_DURATION)
+                        .register(meterRegistry);
+            }
+        }
+    }
+    
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!GET_TRANSACTION.equals(invocation.getMethod().getName())) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        Object result = invocation.proceed();
+        if (((TransactionStatus) result).isNewTransaction() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            Timer[] outcomeTimers = timers[TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? 1 : 0];
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    outcomeTimers[status].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            });
+        }
+        return result;
+    }
+}
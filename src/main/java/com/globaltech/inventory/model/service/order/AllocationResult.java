@@ -0,0 +1,57 @@
+package com.globaltech.inventory.model.service.order;
+
+/**
+ * Result of an order allocation run
+ */
+public class AllocationResult {
+    
+    private final int ordersConsidered;
+    private final int ordersAllocated;
+    private final int movementsWritten;
+    private final long elapsedNanos;
+    
+    public AllocationResult(int ordersConsidered, int ordersAllocated, int movementsWritten, long elapsedNanos) {
+        this.ordersConsidered = ordersConsidered;
+        this.ordersAllocated = ordersAllocated;
+        this.movementsWritten = movementsWritten;
+        this.elapsedNanos = elapsedNanos;
+    }
+    
+    public int getOrdersConsidered() {
+        return ordersConsidered;
+    }
+    
+    public int getOrdersAllocated() {
+        return ordersAllocated;
+    }
+    
+    public int getOrdersSkipped() {
+        return ordersConsidered - ordersAllocated;
+    }
+    
+    public int getMovementsWritten() {
+        return movementsWritten;
+    }
+    
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+    
+    /**
+     * Get the number of orders considered per second during the run
+     * 
+     * @return the throughput in orders per second
+     */
+    public double getOrdersPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return ordersConsidered * 1_000_000_000d / elapsedNanos;
+    }
+    
+    @Override
+    public String toString() {
+        return "AllocationResult [ordersConsidered=" + ordersConsidered + ", ordersAllocated=" + ordersAllocated + 
+                ", movementsWritten=" + movementsWritten + ", ordersPerSecond=" + String.format("%.1f", getOrdersPerSecond()) + "]";
+    }
+}
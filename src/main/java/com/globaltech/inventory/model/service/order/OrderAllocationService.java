@@ -0,0 +1,21 @@
+package com.globaltech.inventory.model.service.order;
+
+/**
+ * Service interface for allocating inventory to pending orders
+ */
+public interface OrderAllocationService {
+    
+    /**
+     * Allocate stock to the next batch of pending orders. Orders are processed oldest first and
+     * each order is either allocated completely or left pending. Allocated orders move to
+     * PROCESSING and a STOCK_OUT movement is recorded for every inventory item used.
+     * 
+     * Each run continues after the last order considered by the previous one and starts again
+     * from the oldest pending order once it reaches the newest, so orders left pending are
+     * considered again on the next pass without keeping newer orders from being allocated.
+     * 
+     * @param batchSize the maximum number of pending orders to process
+     * @return the result of the allocation run
+     */
+    AllocationResult allocatePendingOrders(int batchSize);
+}
@@ -0,0 +1,384 @@
+package com.globaltech.inventory.model.service.order;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.globaltech.inventory.model.domain.base.PooledIdGenerator;
+import com.globaltech.inventory.model.domain.inventory.InventoryItem;
+import com.globaltech.inventory.model.domain.inventory.StockMovement;
+import com.globaltech.inventory.model.domain.inventory.StockMovement.MovementType;
+import com.globaltech.inventory.model.domain.order.Order;
+import com.globaltech.inventory.model.domain.order.OrderItem;
+import com.globaltech.inventory.model.domain.order.OrderStatus;
+import com.globaltech.inventory.model.repository.inventory.InventoryRepository;
+import com.globaltech.inventory.model.repository.order.OrderItemRepository;
+import com.globaltech.inventory.model.repository.order.OrderRepository;
+import com.globaltech.inventory.model.service.base.OptimisticRetryTemplate;
+import com.globaltech.inventory.model.service.inventory.MovementRollupChanges;
+import com.globaltech.inventory.model.service.inventory.ProductStockService;
+import com.globaltech.inventory.model.service.inventory.StockLedger;
+import com.globaltech.inventory.model.service.metrics.InventoryCounters;
+
+/**
+ * Implementation of OrderAllocationService that allocates a whole batch of orders with
+ * one query per table and writes the results with JDBC batches. Successive runs walk the
+ * pending orders with a keyset cursor on (order date, ID) and wrap around at the end.
+ * 
+ * The inventory and status updates are guarded, so a reservation or status change committed
+ * after the batch was read fails the batch. It is then rolled back and allocated again from
+ * freshly read orders and stock by the OptimisticRetryTemplate. The cursor only moves past a
+ * batch once the batch has committed.
+ */
+@Service
+@Transactional
+public class OrderAllocationServiceImpl implements OrderAllocationService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OrderAllocationServiceImpl.class);
+    
+    private static final String DECREMENT_INVENTORY_SQL = 
+            "UPDATE inventory_items SET quantity = quantity - ?, version = version + 1, last_modified_date = ? " +
+            "WHERE id = ? AND quantity >= ?";
+    
+    private static final String INSERT_MOVEMENT_SQL = 
+            "INSERT INTO stock_movements (id, product_id, source_location_id, quantity, movement_type, reference_number, " +
+            "movement_date, created_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String UPDATE_ORDER_STATUS_SQL = 
+            "UPDATE orders SET status = ?, version = version + 1, last_modified_date = ? WHERE id = ? AND status = ?";
+    
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final InventoryRepository inventoryRepository;
+    private final ProductSalesService productSalesService;
+    private final ProductStockService productStockService;
+    private final StockLedger stockLedger;
+    private final OptimisticRetryTemplate retryTemplate;
+    private final InventoryCounters inventoryCounters;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Where the next run continues, so orders that cannot be filled do not hold up newer ones
+    private volatile AllocationCursor cursor;
+    
+    public OrderAllocationServiceImpl(OrderRepository orderRepository, OrderItemRepository orderItemRepository, 
+                                      InventoryRepository inventoryRepository, ProductSalesService productSalesService, 
+                                      ProductStockService productStockService, StockLedger stockLedger,
+                                      OptimisticRetryTemplate retryTemplate, InventoryCounters inventoryCounters) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.productSalesService = productSalesService;
+        this.productStockService = productStockService;
+        this.stockLedger = stockLedger;
+        this.retryTemplate = retryTemplate;
+        this.inventoryCounters = inventoryCounters;
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AllocationResult allocatePendingOrders(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        long start = System.nanoTime();
+        AllocationResult result = retryTemplate.execute("Order.allocate", () -> allocateBatch(batchSize, start));
+        logger.debug("Allocated pending orders with batch size {}: {}", batchSize, result);
+        return result;
+    }
+    
+    /**
+     * Allocate the next batch in the current transaction. May run more than once for the same
+     * batch, so it reads the cursor, the orders and the stock itself.
+     */
+    private AllocationResult allocateBatch(int batchSize, long start) {
+        AllocationCursor after = cursor;
+        List<Long> orderIds = findPendingOrderIds(after, batchSize);
+        if (orderIds.isEmpty() && after != null) {
+            // The end of the pending orders was reached, start again from the oldest
+            orderIds = findPendingOrderIds(null, batchSize);
+        }
+        if (orderIds.isEmpty()) {
+            cursor = null;
+            return new AllocationResult(0, 0, 0, System.nanoTime() - start);
+        }
+        
+        Map<Long, Order> ordersById = new HashMap<>();
+        for (Order order : orderRepository.findAllById(orderIds)) {
+            ordersById.put(order.getId(), order);
+        }
+        Order last = ordersById.get(orderIds.get(orderIds.size() - 1));
+        AllocationCursor next = orderIds.size() < batchSize || last == null 
+                ? null : new AllocationCursor(last.getOrderDate(), last.getId());
+        
+        Map<Long, List<OrderItem>> itemsByOrderId = new HashMap<>();
+        Set<Long> productIds = new HashSet<>();
+        for (OrderItem item : orderItemRepository.findByOrderIdIn(orderIds)) {
+            itemsByOrderId.computeIfAbsent(item.getOrder().getId(), id -> new ArrayList<>()).add(item);
+            productIds.add(item.getProduct().getId());
+        }
+        
+        Map<Long, List<StockSlot>> stockByProductId = loadStock(productIds);
+        
+        // Orders in a batch are allocated oldest first so earlier orders win contended stock
+        List<Allocation> allocations = new ArrayList<>();
+        List<Long> allocatedOrderIds = new ArrayList<>();
+        List<OrderItem> allocatedItems = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            Order order = ordersById.get(orderId);
+            List<OrderItem> items = itemsByOrderId.get(orderId);
+            if (order == null || items == null) {
+                continue;
+            }
+            List<Allocation> orderAllocations = allocate(order, items, stockByProductId);
+            if (orderAllocations != null) {
+                allocations.addAll(orderAllocations);
+                allocatedOrderIds.add(orderId);
+                allocatedItems.addAll(items);
+            }
+        }
+        
+        if (!allocatedOrderIds.isEmpty()) {
+            entityManager.flush();
+            // Movement IDs come from the StockMovement generator so they never collide with IDs handed out by Hibernate
+            SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+            for (Allocation allocation : allocations) {
+                allocation.movementId = PooledIdGenerator.nextId(session, StockMovement.class);
+            }
+            entityManager.unwrap(Session.class).doWork(connection -> write(session, connection, allocations, allocatedOrderIds));
+            // The JDBC writes bypass the persistence context, so drop the now stale entities before
+            // the rollup updates below would dirty check all of them on every auto flush
+            entityManager.clear();
+            // PROCESSING counts as a sale, so the rollup gets one update per product in the batch
+            productSalesService.applyOrderItems(allocatedItems, true);
+            // The items are no longer reserved, they have been taken from inventory
+            productStockService.applyReservations(allocatedItems, false);
+            for (Map.Entry<Long, Long> allocated : allocatedQuantities(allocations).entrySet()) {
+                productStockService.applyOnHandChange(allocated.getKey(), -allocated.getValue());
+            }
+            for (Allocation allocation : allocations) {
+                stockLedger.applyAfterCommit(allocation.productId, allocation.slot.locationId, -allocation.quantity);
+            }
+            inventoryCounters.countMovements(MovementType.STOCK_OUT, allocations.size());
+            inventoryCounters.countStatusChanges(OrderStatus.PENDING, OrderStatus.PROCESSING, allocatedOrderIds.size());
+        }
+        // Only once the batch has committed, so a batch that fails to commit is tried again by the next run
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cursor = next;
+            }
+        });
+        
+        return new AllocationResult(orderIds.size(), allocatedOrderIds.size(), allocations.size(), System.nanoTime() - start);
+    }
+    
+    private List<Long> findPendingOrderIds(AllocationCursor after, int batchSize) {
+        PageRequest page = PageRequest.of(0, batchSize);
+        if (after == null) {
+            return orderRepository.findIdsByStatus(OrderStatus.PENDING, page);
+        }
+        return orderRepository.findIdsByStatusAfter(OrderStatus.PENDING, after.orderDate, after.orderId, page);
+    }
+    
+    /**
+     * Load the inventory for all products in one query, ordered by location so that
+     * allocation always draws from locations in the same order.
+     */
+    private Map<Long, List<StockSlot>> loadStock(Set<Long> productIds) {
+        Map<Long, List<StockSlot>> stockByProductId = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return stockByProductId;
+        }
+        for (InventoryItem item : inventoryRepository.findByProductIdIn(productIds)) {
+            if (item.getQuantity() > 0) {
+                stockByProductId.computeIfAbsent(item.getProduct().getId(), id -> new ArrayList<>())
+                        .add(new StockSlot(item.getId(), item.getLocation().getId(), item.getQuantity()));
+            }
+        }
+        for (List<StockSlot> slots : stockByProductId.values()) {
+            slots.sort(Comparator.comparingLong(slot -> slot.locationId));
+        }
+        return stockByProductId;
+    }
+    
+    /**
+     * Allocate stock to every item of an order, or to none of them.
+     * 
+     * @return the allocations for the order, or null if the order cannot be fully allocated
+     */
+    private List<Allocation> allocate(Order order, List<OrderItem> items, Map<Long, List<StockSlot>> stockByProductId) {
+        Map<Long, Integer> demandByProductId = new LinkedHashMap<>();
+        for (OrderItem item : items) {
+            demandByProductId.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        
+        for (Map.Entry<Long, Integer> demand : demandByProductId.entrySet()) {
+            int available = 0;
+            for (StockSlot slot : stockByProductId.getOrDefault(demand.getKey(), Collections.emptyList())) {
+                available += slot.available;
+            }
+            if (available < demand.getValue()) {
+                return null;
+            }
+        }
+        
+        List<Allocation> allocations = new ArrayList<>();
+        for (Map.Entry<Long, Integer> demand : demandByProductId.entrySet()) {
+            int remaining = demand.getValue();
+            for (StockSlot slot : stockByProductId.get(demand.getKey())) {
+                if (remaining == 0) {
+                    break;
+                }
+                int taken = Math.min(remaining, slot.available);
+                if (taken > 0) {
+                    slot.available -= taken;
+                    remaining -= taken;
+                    allocations.add(new Allocation(demand.getKey(), slot, taken, order.getOrderNumber()));
+                }
+            }
+        }
+        return allocations;
+    }
+    
+    private void write(SharedSessionContractImplementor session, Connection connection, List<Allocation> allocations, 
+                       List<Long> orderIds) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        MovementRollupChanges rollupChanges = new MovementRollupChanges();
+        
+        try (PreparedStatement statement = connection.prepareStatement(DECREMENT_INVENTORY_SQL)) {
+            for (Allocation allocation : allocations) {
+                statement.setInt(1, allocation.quantity);
+                statement.setTimestamp(2, now);
+                statement.setLong(3, allocation.slot.inventoryItemId);
+                statement.setInt(4, allocation.quantity);
+                statement.addBatch();
+            }
+            checkUpdated(statement.executeBatch(), "Inventory changed while allocating orders");
+        }
+        
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_MOVEMENT_SQL)) {
+            for (Allocation allocation : allocations) {
+                statement.setLong(1, allocation.movementId);
+                statement.setLong(2, allocation.productId);
+                statement.setLong(3, allocation.slot.locationId);
+                statement.setInt(4, allocation.quantity);
+                statement.setString(5, MovementType.STOCK_OUT.name());
+                statement.setString(6, allocation.referenceNumber);
+                statement.setTimestamp(7, now);
+                statement.setTimestamp(8, now);
+                statement.addBatch();
+                rollupChanges.add(now.toLocalDateTime(), allocation.productId, allocation.slot.locationId, null, 
+                        MovementType.STOCK_OUT, allocation.quantity);
+            }
+            statement.executeBatch();
+        }
+        rollupChanges.write(session, connection);
+        
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_ORDER_STATUS_SQL)) {
+            for (Long orderId : orderIds) {
+                statement.setString(1, OrderStatus.PROCESSING.name());
+                statement.setTimestamp(2, now);
+                statement.setLong(3, orderId);
+                statement.setString(4, OrderStatus.PENDING.name());
+                statement.addBatch();
+            }
+            checkUpdated(statement.executeBatch(), "Order status changed while allocating orders");
+        }
+    }
+    
+    private static Map<Long, Long> allocatedQuantities(List<Allocation> allocations) {
+        Map<Long, Long> quantities = new HashMap<>();
+        for (Allocation allocation : allocations) {
+            quantities.merge(allocation.productId, (long) allocation.quantity, Long::sum);
+        }
+        return quantities;
+    }
+    
+    /**
+     * Fail the allocation (and roll back the transaction) if any guarded update matched no rows.
+     */
+    private static void checkUpdated(int[] updateCounts, String message) {
+        for (int count : updateCounts) {
+            if (count == 0) {
+                throw new OptimisticLockingFailureException(message);
+            }
+        }
+    }
+    
+    /**
+     * Remaining stock of an inventory item during an allocation run
+     */
+    private static final class StockSlot {
+        
+        private final long inventoryItemId;
+        private final long locationId;
+        private int available;
+        
+        private StockSlot(long inventoryItemId, long locationId, int available) {
+            this.inventoryItemId = inventoryItemId;
+            this.locationId = locationId;
+            this.available = available;
+        }
+    }
+    
+    /**
+     * Order date and ID of the last order considered by an allocation run
+     */
+    private static final class AllocationCursor {
+        
+        private final LocalDateTime orderDate;
+        private final long orderId;
+        
+        private AllocationCursor(LocalDateTime orderDate, long orderId) {
+            this.orderDate = orderDate;
+            this.orderId = orderId;
+        }
+    }
+    
+    /**
+     * Quantity taken from an inventory item for an order
+     */
+    private static final class Allocation {
+        
+        private final long productId;
+        private final StockSlot slot;
+        private final int quantity;
+        private final String referenceNumber;
+        private long movementId;
+        
+        private Allocation(long productId, StockSlot slot, int quantity, String referenceNumber) {
+            this.productId = productId;
+            this.slot = slot;
+            this.quantity = quantity;
+            this.referenceNumber = referenceNumber;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.globaltech.inventory.model.service.order;
+
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import com.globaltech.inventory.model.service.base.ExportFormat;
+import com.globaltech.inventory.model.service.base.ExportResult;
+
+/**
+ * Service for finance extracts of orders and their items
+ */
+public interface OrderExportService {
+    
+    /**
+     * Export the orders placed within a date range, one row per order item with the order columns
+     * repeated; an order without items has one row with empty item columns. Rows are ordered by
+     * order date, order and item, and are streamed to the channel as they are read.
+     * 
+     * @param startDate the start of the range, inclusive
+     * @param endDate the end of the range, exclusive
+     * @param format the export format
+     * @param gzip whether to gzip the output
+     * @param channel the channel to write to, left open
+     * @return the result of the export
+     * @throws IllegalArgumentException if the range is invalid
+     */
+    ExportResult exportOrders(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, boolean gzip, 
+                              WritableByteChannel channel);
+    
+    /**
+     * Export the orders placed within a date range to a file like {@link #exportOrders(LocalDateTime, 
+     * LocalDateTime, ExportFormat, boolean, WritableByteChannel)}, with the range split into date
+     * slices that are exported in parallel. The file has the same rows in the same order.
+     * 
+     * @param startDate the start of the range, inclusive
+     * @param endDate the end of the range, exclusive
+     * @param format the export format
+     * @param gzip whether to gzip the output
+     * @param file the file to write, replaced if it exists
+     * @param slices the number of date slices
+     * @return the result of the export
+     * @throws IllegalArgumentException if the range is invalid or slices is less than 1
+     */
+    ExportResult exportOrders(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, boolean gzip, Path file, 
+                              int slices);
+}
@@ -0,0 +1,52 @@
+package com.globaltech.inventory.model.service.order;
+
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.globaltech.inventory.model.service.base.ExportFormat;
+import com.globaltech.inventory.model.service.base.ExportResult;
+import com.globaltech.inventory.model.service.base.StreamingExporter;
+
+/**
+ * Implementation of OrderExportService. The orders are read through the order date index and
+ * joined to their items and the item products, so each row carries the product SKU.
+ */
+@Service
+public class OrderExportServiceImpl extends StreamingExporter implements OrderExportService {
+    
+    private static final String EXPORT_SQL = 
+            "SELECT o.id, o.order_number, o.order_date, o.status, o.customer_name, o.customer_email, o.payment_method, " +
+            "o.shipping_method, o.shipping_country, o.subtotal, o.tax, o.shipping_cost, o.total, " + 
+            "i.id, p.sku, i.quantity, i.unit_price, i.subtotal " +
+            "FROM orders o LEFT JOIN order_items i ON i.order_id = o.id LEFT JOIN products p ON p.id = i.product_id " +
+            "WHERE o.order_date >= ? AND o.order_date < ? ORDER BY o.order_date, o.id, i.id";
+    
+    public OrderExportServiceImpl(EntityManagerFactory entityManagerFactory, 
+                                  PlatformTransactionManager transactionManager, 
+                                  @Value("${inventory.export.parallelism:0}") int parallelism) {
+        super(entityManagerFactory, transactionManager, EXPORT_SQL, Arrays.asList(
+                "order_id", "order_number", "order_date", "status", "customer_name", "customer_email", "payment_method", 
+                "shipping_method", "shipping_country", "subtotal", "tax", "shipping_cost", "total", 
+                "item_id", "sku", "quantity", "unit_price", "item_subtotal"), parallelism);
+    }
+    
+    @Override
+    public ExportResult exportOrders(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, boolean gzip, 
+                                     WritableByteChannel channel) {
+        return export(startDate, endDate, format, gzip, channel);
+    }
+    
+    @Override
+    public ExportResult exportOrders(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, boolean gzip, Path file, 
+                                     int slices) {
+        return export(startDate, endDate, format, gzip, file, slices);
+    }
+}
@@ -0,0 +1,61 @@
+package com.globaltech.inventory.model.service.order;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.globaltech.inventory.model.domain.order.Order;
+import com.globaltech.inventory.model.domain.order.OrderStatus;
+import com.globaltech.inventory.model.service.base.CrudService;
+
+/**
+ * Service interface for Order entity
+ */
+public interface OrderService extends CrudService<Order, Long> {
+    
+    /**
+     * Change the status of an order. Status changes should go through this method so that
+     * the product sales rollup stays in step when an order starts or stops counting as a sale.
+     * 
+     * @param orderId the order ID
+     * @param status the new status
+     * @return the updated order
+     * @throws IllegalArgumentException if the order does not exist
+     */
+    Order updateStatus(Long orderId, OrderStatus status);
+    
+    /**
+     * Update an order under its optimistic lock. The order is read and changed in a new
+     * transaction; if another transaction changed it in the meantime, the order is read again and
+     * the mutation reapplied after a short random backoff, up to the configured number of
+     * attempts. A status change made by the mutation updates the rollups like updateStatus.
+     * 
+     * @param orderId the order ID
+     * @param mutation the change to apply, which may run more than once
+     * @return the updated order
+     * @throws IllegalArgumentException if the order does not exist
+     * @throws org.springframework.dao.OptimisticLockingFailureException if every attempt conflicted
+     */
+    Order update(Long orderId, Consumer<Order> mutation);
+    
+    /**
+     * Stream the orders with the specified status. Orders are read-only and detached as soon
+     * as they are handed to the stream, so memory use stays bounded. Must be called within a
+     * transaction and the stream must be closed after use.
+     * 
+     * @param status the order status
+     * @return stream of orders with the specified status
+     */
+    Stream<Order> streamByStatus(OrderStatus status);
+    
+    /**
+     * Stream the orders placed between the specified start and end dates, read-only and
+     * detached like {@link #streamByStatus}. Must be called within a transaction and the
+     * stream must be closed after use.
+     * 
+     * @param startDate the start date
+     * @param endDate the end date
+     * @return stream of orders within the specified date range
+     */
+    Stream<Order> streamByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+}
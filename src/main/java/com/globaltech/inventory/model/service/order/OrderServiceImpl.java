@@ -0,0 +1,170 @@
+package com.globaltech.inventory.model.service.order;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.globaltech.inventory.model.domain.order.Order;
+import com.globaltech.inventory.model.domain.order.OrderItem;
+import com.globaltech.inventory.model.domain.order.OrderStatus;
+import com.globaltech.inventory.model.repository.order.OrderRepository;
+import com.globaltech.inventory.model.service.base.BaseServiceImpl;
+import com.globaltech.inventory.model.service.base.OptimisticRetryTemplate;
+import com.globaltech.inventory.model.service.inventory.ProductStockService;
+import com.globaltech.inventory.model.service.metrics.InventoryCounters;
+
+/**
+ * Implementation of OrderService
+ */
+@Service
+@Transactional
+public class OrderServiceImpl extends BaseServiceImpl<Order, Long, OrderRepository> implements OrderService {
+    
+    private final ProductSalesService productSalesService;
+    private final ProductStockService productStockService;
+    private final OptimisticRetryTemplate retryTemplate;
+    private final InventoryCounters inventoryCounters;
+    
+    public OrderServiceImpl(OrderRepository repository, ProductSalesService productSalesService, 
+                            ProductStockService productStockService, OptimisticRetryTemplate retryTemplate,
+                            InventoryCounters inventoryCounters) {
+        super(repository);
+        this.productSalesService = productSalesService;
+        this.productStockService = productStockService;
+        this.retryTemplate = retryTemplate;
+        this.inventoryCounters = inventoryCounters;
+    }
+    
+    /**
+     * Save an order and update the sales and stock rollups for the change from its stored
+     * status, or for its whole status when it is new. Item changes of existing orders are
+     * picked up by the rollup rebuild and the stock reconciliation.
+     */
+    @Override
+    @Transactional
+    public Order save(Order order) {
+        Order saved = repository.save(order);
+        applyStatusChanges(Collections.singletonList(saved));
+        return saved;
+    }
+    
+    /**
+     * Save orders and update the sales and stock rollups as {@link #save(Order)} does, with one
+     * rollup update per product for the whole batch
+     */
+    @Override
+    @Transactional
+    public List<Order> saveAll(List<Order> orders) {
+        List<Order> saved = repository.saveAll(orders);
+        applyStatusChanges(saved);
+        return saved;
+    }
+    
+    @Override
+    @Transactional
+    public void delete(Order order) {
+        deleteById(order.getId());
+    }
+    
+    @Override
+    @Transactional
+    public void deleteById(Long id) {
+        repository.findById(id).ifPresent(order -> {
+            // Reverse what the rollups accounted for, nothing if they never saw the order
+            OrderStatus stored = order.getSavedStatus();
+            if (stored != null && stored.isReservingStock()) {
+                productStockService.applyReservations(order.getItems(), false);
+            }
+            if (stored != null && stored.isCountedAsSale()) {
+                productSalesService.applyOrderItems(order.getItems(), false);
+            }
+            repository.delete(order);
+        });
+    }
+    
+    @Override
+    @Transactional
+    public Order updateStatus(Long orderId, OrderStatus status) {
+        Order order = repository.findById(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
+        order.setStatus(status);
+        applyStatusChanges(Collections.singletonList(order));
+        return order;
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Order update(Long orderId, Consumer<Order> mutation) {
+        return retryTemplate.execute("Order.update", () -> {
+            Order order = repository.findById(orderId)
+                    .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
+            mutation.accept(order);
+            applyStatusChanges(Collections.singletonList(order));
+            return order;
+        });
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public Stream<Order> streamByStatus(OrderStatus status) {
+        return repository.streamByStatus(status).peek(entityManager::detach);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public Stream<Order> streamByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        return repository.streamByOrderDateBetween(startDate, endDate).peek(entityManager::detach);
+    }
+    
+    /**
+     * Update the sales and stock rollups for orders that start or stop counting as a sale or
+     * reserving stock since their saved status, count the status changes once the transaction
+     * has committed and record the new statuses as saved. A new order has no saved status and counts as neither.
+     */
+    private void applyStatusChanges(List<Order> orders) {
+        List<OrderItem> salesAdded = new ArrayList<>();
+        List<OrderItem> salesRemoved = new ArrayList<>();
+        List<OrderItem> reserved = new ArrayList<>();
+        List<OrderItem> released = new ArrayList<>();
+        for (Order order : orders) {
+            OrderStatus previous = order.getSavedStatus();
+            OrderStatus status = order.getStatus();
+            if (previous == status) {
+                continue;
+            }
+            if (previous != null) {
+                inventoryCounters.countStatusChanges(previous, status, 1);
+            }
+            boolean previouslyCountedAsSale = previous != null && previous.isCountedAsSale();
+            if (previouslyCountedAsSale != status.isCountedAsSale()) {
+                (status.isCountedAsSale() ? salesAdded : salesRemoved).addAll(order.getItems());
+            }
+            boolean previouslyReservingStock = previous != null && previous.isReservingStock();
+            if (previouslyReservingStock != status.isReservingStock()) {
+                (status.isReservingStock() ? reserved : released).addAll(order.getItems());
+            }
+        }
+        if (!salesAdded.isEmpty()) {
+            productSalesService.applyOrderItems(salesAdded, true);
+        }
+        if (!salesRemoved.isEmpty()) {
+            productSalesService.applyOrderItems(salesRemoved, false);
+        }
+        if (!reserved.isEmpty()) {
+            productStockService.applyReservations(reserved, true);
+        }
+        if (!released.isEmpty()) {
+            productStockService.applyReservations(released, false);
+        }
+        for (Order order : orders) {
+            order.markStatusSaved();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.globaltech.inventory.model.service.order;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.globaltech.inventory.model.domain.order.OrderItem;
+import com.globaltech.inventory.model.domain.order.ProductSales;
+import com.globaltech.inventory.model.service.base.CrudService;
+
+/**
+ * Service interface for the pre-aggregated product sales rollup
+ */
+public interface ProductSalesService extends CrudService<ProductSales, Long> {
+    
+    /**
+     * Add the quantity and revenue of order items to the rollup, or remove them
+     * 
+     * @param items the order items
+     * @param add true to add the items, false to remove them
+     */
+    void applyOrderItems(Collection<OrderItem> items, boolean add);
+    
+    /**
+     * Find top selling products by quantity from the rollup
+     * 
+     * @param limit the number of products to return
+     * @return list of top selling products by quantity
+     */
+    List<ProductSales> findTopByQuantity(int limit);
+    
+    /**
+     * Find top selling products by revenue from the rollup
+     * 
+     * @param limit the number of products to return
+     * @return list of top selling products by revenue
+     */
+    List<ProductSales> findTopByRevenue(int limit);
+    
+    /**
+     * Rebuild the whole rollup from the order items of orders counted as sales
+     * 
+     * @return the number of products in the rollup
+     */
+    int rebuild();
+}
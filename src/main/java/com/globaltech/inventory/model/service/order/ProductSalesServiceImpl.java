@@ -0,0 +1,107 @@
+package com.globaltech.inventory.model.service.order;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.globaltech.inventory.model.domain.base.PooledIdGenerator;
+import com.globaltech.inventory.model.domain.order.OrderItem;
+import com.globaltech.inventory.model.domain.order.OrderStatus;
+import com.globaltech.inventory.model.domain.order.ProductSales;
+import com.globaltech.inventory.model.repository.order.ProductSalesRepository;
+import com.globaltech.inventory.model.service.base.BaseServiceImpl;
+
+/**
+ * Implementation of ProductSalesService
+ */
+@Service
+@Transactional
+public class ProductSalesServiceImpl extends BaseServiceImpl<ProductSales, Long, ProductSalesRepository> implements ProductSalesService {
+    
+    private static final String UPSERT_SALES_SQL = 
+            "INSERT INTO product_sales (id, product_id, total_quantity, total_revenue) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE total_quantity = total_quantity + VALUES(total_quantity), " +
+            "total_revenue = total_revenue + VALUES(total_revenue)";
+    
+    public ProductSalesServiceImpl(ProductSalesRepository repository) {
+        super(repository);
+    }
+    
+    @Override
+    @Transactional
+    public void applyOrderItems(Collection<OrderItem> items, boolean add) {
+        Map<Long, ProductSales> changes = new HashMap<>();
+        for (OrderItem item : items) {
+            ProductSales change = changes.computeIfAbsent(item.getProduct().getId(), 
+                    productId -> new ProductSales(productId, 0, BigDecimal.ZERO));
+            BigDecimal subtotal = item.getSubtotal() != null ? item.getSubtotal() : BigDecimal.ZERO;
+            change.setTotalQuantity(change.getTotalQuantity() + (add ? item.getQuantity() : -item.getQuantity()));
+            change.setTotalRevenue(change.getTotalRevenue().add(add ? subtotal : subtotal.negate()));
+        }
+        for (ProductSales change : changes.values()) {
+            if (repository.addSales(change.getProductId(), change.getTotalQuantity(), change.getTotalRevenue()) == 0) {
+                upsert(change);
+            }
+        }
+    }
+    
+    /**
+     * Create the rollup row of a product, or add to it if another transaction created it since
+     * the update found none. A plain insert would fail on the unique product ID instead.
+     */
+    private void upsert(ProductSales change) {
+        Long id = PooledIdGenerator.nextId(entityManager.unwrap(SharedSessionContractImplementor.class), ProductSales.class);
+        entityManager.createNativeQuery(UPSERT_SALES_SQL)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(ProductSales.class)
+                .setParameter(1, id)
+                .setParameter(2, change.getProductId())
+                .setParameter(3, change.getTotalQuantity())
+                .setParameter(4, change.getTotalRevenue())
+                .executeUpdate();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductSales> findTopByQuantity(int limit) {
+        return repository.findTopByQuantity(limit);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductSales> findTopByRevenue(int limit) {
+        return repository.findTopByRevenue(limit);
+    }
+    
+    /**
+     * Rebuild the rollup with every rollup row locked first, so order changes applying their
+     * items wait until the rebuilt rows have committed, and the order items are summarized as
+     * they stood once no other transaction could still change the rollup. Without the lock an
+     * upsert landing between the delete and the inserts would be lost or hit a duplicate key.
+     */
+    @Override
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public int rebuild() {
+        List<OrderStatus> statuses = new ArrayList<>();
+        for (OrderStatus status : OrderStatus.values()) {
+            if (status.isCountedAsSale()) {
+                statuses.add(status);
+            }
+        }
+        repository.lockAllSales();
+        repository.deleteAllSales();
+        // Inserted through Hibernate so the rows get pooled IDs and are written in JDBC batches
+        List<ProductSales> rollup = repository.summarizeOrderItems(statuses);
+        repository.saveAll(rollup);
+        return rollup.size();
+    }
+}
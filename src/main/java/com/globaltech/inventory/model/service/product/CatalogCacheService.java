@@ -0,0 +1,27 @@
+package com.globaltech.inventory.model.service.product;
+
+import java.util.List;
+
+/**
+ * Service interface for the second-level cache of the product catalogue
+ */
+public interface CatalogCacheService {
+    
+    /**
+     * Get the hit and miss counters of the catalogue cache regions
+     * 
+     * @return statistics of the entity and query regions of the catalogue
+     */
+    List<CatalogCacheStatistics> getStatistics();
+    
+    /**
+     * Reset the counters of all cache regions
+     */
+    void resetStatistics();
+    
+    /**
+     * Evict all catalogue entities and cached queries, for example after the catalogue
+     * tables were changed outside the application
+     */
+    void evictAll();
+}
@@ -0,0 +1,71 @@
+package com.globaltech.inventory.model.service.product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import com.globaltech.inventory.model.domain.product.CatalogCacheRegions;
+import com.globaltech.inventory.model.domain.product.Category;
+import com.globaltech.inventory.model.domain.product.Product;
+import com.globaltech.inventory.model.domain.product.Supplier;
+
+/**
+ * Implementation of CatalogCacheService on top of the Hibernate statistics. The counters
+ * are only collected when hibernate.generate_statistics is enabled.
+ */
+@Service
+public class CatalogCacheServiceImpl implements CatalogCacheService {
+    
+    private static final String[] REGIONS = {
+        CatalogCacheRegions.PRODUCT, CatalogCacheRegions.CATEGORY, CatalogCacheRegions.SUPPLIER, 
+        CatalogCacheRegions.PRODUCTS_BY_CATEGORY, CatalogCacheRegions.PRODUCTS_BY_SUPPLIER, CatalogCacheRegions.CATEGORIES
+    };
+    
+    private final SessionFactory sessionFactory;
+    
+    public CatalogCacheServiceImpl(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+    
+    @Override
+    public List<CatalogCacheStatistics> getStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<CatalogCacheStatistics> result = new ArrayList<>(REGIONS.length);
+        for (String region : REGIONS) {
+            // Regions are created on first use, so a region may not have statistics yet.
+            // JCache does not report its size, which Hibernate signals with a negative count.
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                result.add(new CatalogCacheStatistics(region, 0, 0, 0, 0));
+            } else {
+                result.add(new CatalogCacheStatistics(region, regionStatistics.getHitCount(), 
+                        regionStatistics.getMissCount(), regionStatistics.getPutCount(), 
+                        Math.max(-1, regionStatistics.getElementCountInMemory())));
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public void resetStatistics() {
+        sessionFactory.getStatistics().clear();
+    }
+    
+    @Override
+    public void evictAll() {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(Product.class);
+        cache.evictEntityData(Category.class);
+        cache.evictEntityData(Supplier.class);
+        cache.evictQueryRegion(CatalogCacheRegions.PRODUCTS_BY_CATEGORY);
+        cache.evictQueryRegion(CatalogCacheRegions.PRODUCTS_BY_SUPPLIER);
+        cache.evictQueryRegion(CatalogCacheRegions.CATEGORIES);
+    }
+}
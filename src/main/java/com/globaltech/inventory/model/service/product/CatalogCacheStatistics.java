@@ -0,0 +1,62 @@
+package com.globaltech.inventory.model.service.product;
+
+/**
+ * Hit and miss counters of one second-level cache region since startup or the last reset
+ */
+public class CatalogCacheStatistics {
+    
+    private final String regionName;
+    private final long hitCount;
+    private final long missCount;
+    private final long putCount;
+    private final long elementCount;
+    
+    public CatalogCacheStatistics(String regionName, long hitCount, long missCount, long putCount, long elementCount) {
+        this.regionName = regionName;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.putCount = putCount;
+        this.elementCount = elementCount;
+    }
+    
+    public String getRegionName() {
+        return regionName;
+    }
+    
+    public long getHitCount() {
+        return hitCount;
+    }
+    
+    public long getMissCount() {
+        return missCount;
+    }
+    
+    public long getPutCount() {
+        return putCount;
+    }
+    
+    /**
+     * Get the number of entries held by the region
+     * 
+     * @return the number of entries, or -1 if the cache provider does not report it
+     */
+    public long getElementCount() {
+        return elementCount;
+    }
+    
+    /**
+     * Get the share of lookups served from the cache
+     * 
+     * @return the hit ratio between 0 and 1, 0 if there were no lookups
+     */
+    public double getHitRatio() {
+        long lookups = hitCount + missCount;
+        return lookups > 0 ? (double) hitCount / lookups : 0;
+    }
+    
+    @Override
+    public String toString() {
+        return "CatalogCacheStatistics [regionName=" + regionName + ", hitCount=" + hitCount + ", missCount=" + missCount + 
+                ", putCount=" + putCount + ", elementCount=" + elementCount + "]";
+    }
+}
@@ -0,0 +1,24 @@
+package com.globaltech.inventory.model.service.product;
+
+import java.nio.file.Path;
+
+import com.globaltech.inventory.model.service.base.ImportResult;
+
+/**
+ * Service for bulk imports of supplier catalogues
+ */
+public interface ProductImportService {
+    
+    /**
+     * Import products from a CSV file with the columns sku, name, price and optionally description
+     * and image_url. A product whose SKU exists is updated, any other product is created. Rows are
+     * validated against the constraints of Product; invalid rows are written to the error report
+     * and skipped. An interrupted import continues where it stopped when run again.
+     * 
+     * @param file the CSV file, with a header row
+     * @param errorReport the file to write rejected rows to, or null to only count them
+     * @return the result of the import
+     * @throws IllegalArgumentException if a required column is missing
+     */
+    ImportResult importProducts(Path file, Path errorReport);
+}
@@ -0,0 +1,153 @@
+package com.globaltech.inventory.model.service.product;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.globaltech.inventory.model.domain.base.PooledIdGenerator;
+import com.globaltech.inventory.model.domain.product.Product;
+import com.globaltech.inventory.model.service.base.CsvImporter;
+import com.globaltech.inventory.model.service.base.ImportResult;
+
+/**
+ * Implementation of ProductImportService. Each chunk looks up its SKUs with one query and writes
+ * the updates and inserts as JDBC batches. Writing a row twice leaves the same product, so a
+ * chunk repeated after a crash is harmless. Once a chunk has committed, its products are evicted
+ * from the second-level cache and indexed for search.
+ */
+@Service
+public class ProductImportServiceImpl extends CsvImporter<Product> implements ProductImportService {
+    
+    private static final String UPDATE_PRODUCT_SQL = 
+            "UPDATE products SET name = ?, description = ?, price = ?, image_url = ?, last_modified_date = ? WHERE id = ?";
+    
+    private static final String INSERT_PRODUCT_SQL = 
+            "INSERT INTO products (id, name, description, price, sku, image_url, created_date) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    private final ProductSearchIndex searchIndex;
+    
+    public ProductImportServiceImpl(EntityManagerFactory entityManagerFactory, 
+                                    PlatformTransactionManager transactionManager, 
+                                    ProductSearchIndex searchIndex, 
+                                    @Value("${inventory.import.chunk-size:1000}") int chunkSize, 
+                                    @Value("${inventory.import.parallelism:0}") int parallelism) {
+        super(entityManagerFactory, transactionManager, chunkSize, parallelism, Arrays.asList("sku", "name", "price"));
+        this.searchIndex = searchIndex;
+    }
+    
+    @Override
+    public ImportResult importProducts(Path file, Path errorReport) {
+        return importFile(file, errorReport);
+    }
+    
+    @Override
+    protected Product parse(CsvRow row) {
+        Product product = new Product();
+        product.setSku(row.getRequired("sku"));
+        product.setName(row.get("name"));
+        product.setDescription(row.get("description"));
+        product.setPrice(row.getDecimal("price"));
+        product.setImageUrl(row.get("image_url"));
+        requireValid(product);
+        return product;
+    }
+    
+    @Override
+    protected void write(List<ImportRow<Product>> rows, String source) {
+        // A SKU repeated within the chunk is written once, with its last row
+        Map<String, Product> productsBySku = new LinkedHashMap<>();
+        for (ImportRow<Product> row : rows) {
+            productsBySku.put(row.getValue().getSku(), row.getValue());
+        }
+        
+        EntityManager entityManager = getEntityManager();
+        Session session = entityManager.unwrap(Session.class);
+        Map<String, Long> existingIds = session.doReturningWork(connection -> {
+            Map<String, Long> ids = new HashMap<>();
+            String placeholders = String.join(", ", Collections.nCopies(productsBySku.size(), "?"));
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id, sku FROM products WHERE sku IN (" + placeholders + ")")) {
+                int index = 1;
+                for (String sku : productsBySku.keySet()) {
+                    statement.setString(index++, sku);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        ids.put(resultSet.getString(2), resultSet.getLong(1));
+                    }
+                }
+            }
+            return ids;
+        });
+        
+        List<Product> updated = new ArrayList<>();
+        List<Product> created = new ArrayList<>();
+        SharedSessionContractImplementor sessionImplementor = entityManager.unwrap(SharedSessionContractImplementor.class);
+        for (Product product : productsBySku.values()) {
+            Long id = existingIds.get(product.getSku());
+            if (id != null) {
+                product.setId(id);
+                updated.add(product);
+            } else {
+                product.setId(PooledIdGenerator.nextId(sessionImplementor, Product.class));
+                created.add(product);
+            }
+        }
+        
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_PRODUCT_SQL)) {
+                for (Product product : updated) {
+                    statement.setString(1, product.getName());
+                    statement.setString(2, product.getDescription());
+                    statement.setBigDecimal(3, product.getPrice());
+                    statement.setString(4, product.getImageUrl());
+                    statement.setTimestamp(5, now);
+                    statement.setLong(6, product.getId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_PRODUCT_SQL)) {
+                for (Product product : created) {
+                    statement.setLong(1, product.getId());
+                    statement.setString(2, product.getName());
+                    statement.setString(3, product.getDescription());
+                    statement.setBigDecimal(4, product.getPrice());
+                    statement.setString(5, product.getSku());
+                    statement.setString(6, product.getImageUrl());
+                    statement.setTimestamp(7, now);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+        
+        afterCommit(() -> {
+            for (Product product : updated) {
+                entityManagerFactory.getCache().evict(Product.class, product.getId());
+            }
+            for (Product product : productsBySku.values()) {
+                searchIndex.index(product);
+            }
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.globaltech.inventory.model.service.product;
+
+/**
+ * A product found by the search index, with its relevance score
+ */
+public class ProductSearchHit {
+    
+    private final long productId;
+    private final float score;
+    
+    public ProductSearchHit(long productId, float score) {
+        this.productId = productId;
+        this.score = score;
+    }
+    
+    public long getProductId() {
+        return productId;
+    }
+    
+    public float getScore() {
+        return score;
+    }
+    
+    @Override
+    public String toString() {
+        return "ProductSearchHit [productId=" + productId + ", score=" + score + "]";
+    }
+}
@@ -0,0 +1,641 @@
+package com.globaltech.inventory.model.service.product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.globaltech.inventory.model.domain.product.Product;
+
+/**
+ * In-memory inverted index over product name, description and SKU.
+ * 
+ * Text is split into lower-case words. Every query word must match a product, either
+ * exactly, as a prefix of an indexed word, or with one typo (two for words of eight or
+ * more letters). Typo matching uses a trigram index over the indexed words and skips
+ * words containing digits, such as SKU numbers. Products are ranked by the sum of their
+ * best match per query word, weighted by field and by how rare the matched word is.
+ * 
+ * Updates replace the whole product. Replaced and removed products are only marked as
+ * deleted; once enough of them have accumulated their postings are dropped and the live
+ * products renumbered, so the per-query scratch space stays proportional to the live products.
+ * A rebuild fills a new index while searches keep using the current one, and then replaces
+ * it in one step.
+ */
+@Component
+public class ProductSearchIndex {
+    
+    private static final float NAME_WEIGHT = 3f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float SKU_WEIGHT = 4f;
+    
+    private static final float PREFIX_BOOST = 0.6f;
+    private static final float TYPO_BOOST = 0.4f;
+    
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_TYPO_LENGTH = 4;
+    private static final int LONG_WORD_LENGTH = 8;
+    private static final int MAX_EXPANSIONS = 64;
+    private static final int PROBE_RATIO = 32;
+    
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_DELETED_BEFORE_COMPACTION = 1024;
+    
+    private static final Comparator<ProductSearchHit> RANKING =
+            Comparator.comparingDouble(ProductSearchHit::getScore).reversed().thenComparingLong(ProductSearchHit::getProductId);
+    
+    private static final Comparator<TypoCandidate> TYPO_RANKING =
+            Comparator.comparingInt((TypoCandidate candidate) -> candidate.typos)
+                    .thenComparing(Comparator.comparingInt((TypoCandidate candidate) -> candidate.sharedTrigrams).reversed())
+                    .thenComparing(candidate -> candidate.term);
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+    private NavigableMap<String, Postings> postingsByTerm = new TreeMap<>();
+    private Map<String, Set<String>> termsByTrigram = new HashMap<>();
+    private Map<Long, Integer> ordinalByProductId = new HashMap<>();
+    private BitSet deleted = new BitSet();
+    private long[] productIds = new long[INITIAL_CAPACITY];
+    private int nextOrdinal;
+    private int deletedCount;
+    
+    /** Changes made while a rebuild is running, by product ID, null for removed products */
+    private Map<Long, IndexedText> changesDuringRebuild;
+    
+    /**
+     * Add a product to the index, replacing any previous version of it
+     * 
+     * @param product the product to index
+     */
+    public void index(Product product) {
+        index(product.getId(), product.getName(), product.getDescription(), product.getSku());
+    }
+    
+    /**
+     * Add a product to the index, replacing any previous version of it
+     * 
+     * @param productId the product ID
+     * @param name the product name
+     * @param description the product description, may be null
+     * @param sku the product SKU, may be null
+     */
+    public void index(Long productId, String name, String description, String sku) {
+        if (productId == null) {
+            throw new IllegalArgumentException("Only saved products can be indexed");
+        }
+        Map<String, Float> weights = new HashMap<>();
+        addTerms(weights, name, NAME_WEIGHT);
+        addTerms(weights, description, DESCRIPTION_WEIGHT);
+        addTerms(weights, sku, SKU_WEIGHT);
+        if (sku != null) {
+            // The whole SKU without separators, so that "abc123" finds "ABC-123"
+            String compactSku = String.join("", tokenize(sku));
+            if (!compactSku.isEmpty()) {
+                weights.merge(compactSku, SKU_WEIGHT, Float::sum);
+            }
+        }
+        
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(productId, new IndexedText(name, description, sku));
+            }
+            markDeleted(productId);
+            int ordinal = nextOrdinal++;
+            if (ordinal == productIds.length) {
+                productIds = Arrays.copyOf(productIds, productIds.length * 2);
+            }
+            productIds[ordinal] = productId;
+            ordinalByProductId.put(productId, ordinal);
+            for (Map.Entry<String, Float> weight : weights.entrySet()) {
+                postingsFor(weight.getKey()).add(ordinal, weight.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Remove a product from the index
+     * 
+     * @param productId the product ID
+     */
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(productId, null);
+            }
+            markDeleted(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Remove all products from the index
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            replaceContents(new ProductSearchIndex());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Replace the contents of the index with the products the loader adds to a new, empty
+     * index. Searches use the current contents until the new index is complete. Products
+     * indexed or removed here while the loader runs are applied to the new index before it
+     * replaces the current one, so changes committed during a rebuild are not lost.
+     * 
+     * @param loader adds every product to the index it is given
+     * @return the number of products in the rebuilt index
+     */
+    public int rebuild(Consumer<ProductSearchIndex> loader) {
+        synchronized (rebuildLock) {
+            ProductSearchIndex rebuilt = new ProductSearchIndex();
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = new LinkedHashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                loader.accept(rebuilt);
+                lock.writeLock().lock();
+                try {
+                    for (Map.Entry<Long, IndexedText> change : changesDuringRebuild.entrySet()) {
+                        IndexedText text = change.getValue();
+                        if (text != null) {
+                            rebuilt.index(change.getKey(), text.name, text.description, text.sku);
+                        } else {
+                            rebuilt.remove(change.getKey());
+                        }
+                    }
+                    replaceContents(rebuilt);
+                    return ordinalByProductId.size();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    changesDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Take over the contents of another index, which must no longer be used. Called with the
+     * write lock held.
+     */
+    private void replaceContents(ProductSearchIndex other) {
+        postingsByTerm = other.postingsByTerm;
+        termsByTrigram = other.termsByTrigram;
+        ordinalByProductId = other.ordinalByProductId;
+        deleted = other.deleted;
+        productIds = other.productIds;
+        nextOrdinal = other.nextOrdinal;
+        deletedCount = other.deletedCount;
+    }
+    
+    /**
+     * Get the number of indexed products
+     * 
+     * @return the number of products in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalByProductId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Search the index
+     * 
+     * @param query the search text
+     * @param offset the number of hits to skip
+     * @param limit the maximum number of hits to return
+     * @return the requested page of hits, best match first, and the total number of hits
+     */
+    public ProductSearchResult search(String query, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative");
+        }
+        Set<String> words = new LinkedHashSet<>(tokenize(query));
+        if (words.isEmpty()) {
+            return new ProductSearchResult(Collections.emptyList(), 0);
+        }
+        
+        lock.readLock().lock();
+        try {
+            List<List<TermMatch>> expansions = new ArrayList<>(words.size());
+            for (String word : words) {
+                List<TermMatch> matches = expand(word);
+                if (matches.isEmpty()) {
+                    return new ProductSearchResult(Collections.emptyList(), 0);
+                }
+                expansions.add(matches);
+            }
+            // Start with the most selective word so that later words only probe its candidates
+            expansions.sort(Comparator.comparingLong(ProductSearchIndex::postingsCount));
+            
+            // Dense per-ordinal scratch arrays avoid boxing a score for each of possibly millions of matches
+            float[] best = new float[nextOrdinal];
+            float[] totals = new float[nextOrdinal];
+            BitSet candidates = null;
+            for (List<TermMatch> matches : expansions) {
+                candidates = score(matches, candidates, best, totals);
+                if (candidates.isEmpty()) {
+                    return new ProductSearchResult(Collections.emptyList(), 0);
+                }
+            }
+            return new ProductSearchResult(topHits(candidates, totals, offset, limit), candidates.cardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Find the indexed terms a query word matches: the word itself, terms it is a prefix of
+     * and terms within the allowed number of typos
+     */
+    private List<TermMatch> expand(String word) {
+        List<TermMatch> matches = new ArrayList<>();
+        Postings exact = postingsByTerm.get(word);
+        if (exact != null) {
+            matches.add(new TermMatch(exact, 1f));
+        }
+        
+        if (word.length() >= MIN_PREFIX_LENGTH) {
+            int expansions = 0;
+            for (Postings postings : postingsByTerm.subMap(word, false, word + Character.MAX_VALUE, false).values()) {
+                if (expansions++ == MAX_EXPANSIONS) {
+                    break;
+                }
+                matches.add(new TermMatch(postings, PREFIX_BOOST));
+            }
+        }
+        
+        if (word.length() >= MIN_TYPO_LENGTH && !containsDigit(word)) {
+            int maxTypos = word.length() >= LONG_WORD_LENGTH ? 2 : 1;
+            Map<String, Integer> sharedTrigrams = new HashMap<>();
+            for (String trigram : trigrams(word)) {
+                Set<String> terms = termsByTrigram.get(trigram);
+                if (terms != null) {
+                    for (String term : terms) {
+                        sharedTrigrams.merge(term, 1, Integer::sum);
+                    }
+                }
+            }
+            // A word has as many padded trigrams as letters, and each typo changes at most four of them
+            int minShared = word.length() - 4 * maxTypos;
+            List<TypoCandidate> candidates = new ArrayList<>();
+            for (Map.Entry<String, Integer> candidate : sharedTrigrams.entrySet()) {
+                String term = candidate.getKey();
+                if (candidate.getValue() < minShared || term.startsWith(word)
+                        || Math.abs(term.length() - word.length()) > maxTypos) {
+                    continue;
+                }
+                int typos = editDistance(word, term, maxTypos);
+                if (typos <= maxTypos) {
+                    candidates.add(new TypoCandidate(term, typos, candidate.getValue()));
+                }
+            }
+            // Keep the closest terms, in an order that does not depend on hash iteration
+            candidates.sort(TYPO_RANKING);
+            for (TypoCandidate candidate : candidates.subList(0, Math.min(candidates.size(), MAX_EXPANSIONS))) {
+                matches.add(new TermMatch(postingsByTerm.get(candidate.term), TYPO_BOOST / candidate.typos));
+            }
+        }
+        return matches;
+    }
+    
+    /**
+     * Score the products matching one query word. A product scores its best matching term;
+     * if there are previous candidates, only those products are kept and the scores are added.
+     * 
+     * @return the products matching this word and all previous ones, their scores are in totals
+     */
+    private BitSet score(List<TermMatch> matches, BitSet previous, float[] best, float[] totals) {
+        BitSet matched = new BitSet(nextOrdinal);
+        int liveCount = ordinalByProductId.size();
+        int previousCount = previous != null ? previous.cardinality() : Integer.MAX_VALUE;
+        for (TermMatch match : matches) {
+            Postings postings = match.postings;
+            float factor = match.boost * (float) Math.log(1 + (double) liveCount / postings.size);
+            if (previousCount < postings.size / PROBE_RATIO) {
+                // Few candidates left: look them up in the sorted postings instead of scanning them
+                for (int ordinal = previous.nextSetBit(0); ordinal >= 0; ordinal = previous.nextSetBit(ordinal + 1)) {
+                    int i = Arrays.binarySearch(postings.ordinals, 0, postings.size, ordinal);
+                    if (i >= 0) {
+                        accumulate(matched, best, ordinal, postings.weights[i] * factor);
+                    }
+                }
+                continue;
+            }
+            for (int i = 0; i < postings.size; i++) {
+                int ordinal = postings.ordinals[i];
+                if (!deleted.get(ordinal) && (previous == null || previous.get(ordinal))) {
+                    accumulate(matched, best, ordinal, postings.weights[i] * factor);
+                }
+            }
+        }
+        for (int ordinal = matched.nextSetBit(0); ordinal >= 0; ordinal = matched.nextSetBit(ordinal + 1)) {
+            totals[ordinal] = previous != null ? totals[ordinal] + best[ordinal] : best[ordinal];
+        }
+        return matched;
+    }
+    
+    private static void accumulate(BitSet matched, float[] best, int ordinal, float score) {
+        if (!matched.get(ordinal)) {
+            matched.set(ordinal);
+            best[ordinal] = score;
+        } else if (score > best[ordinal]) {
+            best[ordinal] = score;
+        }
+    }
+    
+    private List<ProductSearchHit> topHits(BitSet candidates, float[] totals, int offset, int limit) {
+        int wanted = (int) Math.min((long) offset + limit, candidates.cardinality());
+        if (offset >= wanted) {
+            return Collections.emptyList();
+        }
+        PriorityQueue<ProductSearchHit> best = new PriorityQueue<>(wanted, RANKING.reversed());
+        for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+            if (best.size() == wanted) {
+                ProductSearchHit worst = best.peek();
+                float score = totals[ordinal];
+                if (score < worst.getScore() || (score == worst.getScore() && productIds[ordinal] > worst.getProductId())) {
+                    continue;
+                }
+                best.poll();
+            }
+            best.add(new ProductSearchHit(productIds[ordinal], totals[ordinal]));
+        }
+        List<ProductSearchHit> hits = new ArrayList<>(best);
+        hits.sort(RANKING);
+        return hits.subList(offset, hits.size());
+    }
+    
+    private void markDeleted(Long productId) {
+        Integer ordinal = ordinalByProductId.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+        deleted.set(ordinal);
+        deletedCount++;
+        if (deletedCount >= MIN_DELETED_BEFORE_COMPACTION && deletedCount > ordinalByProductId.size() / 4) {
+            compact();
+        }
+    }
+    
+    /**
+     * Drop the postings of deleted products and the terms left without postings, and renumber
+     * the live products from zero in their current order
+     */
+    private void compact() {
+        int[] newOrdinals = new int[nextOrdinal];
+        int live = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (deleted.get(ordinal)) {
+                newOrdinals[ordinal] = -1;
+            } else {
+                newOrdinals[ordinal] = live;
+                productIds[live] = productIds[ordinal];
+                ordinalByProductId.put(productIds[live], live);
+                live++;
+            }
+        }
+        
+        Iterator<Map.Entry<String, Postings>> iterator = postingsByTerm.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Postings> entry = iterator.next();
+            if (entry.getValue().renumber(newOrdinals) == 0) {
+                iterator.remove();
+                for (String trigram : trigrams(entry.getKey())) {
+                    Set<String> terms = termsByTrigram.get(trigram);
+                    if (terms != null && terms.remove(entry.getKey()) && terms.isEmpty()) {
+                        termsByTrigram.remove(trigram);
+                    }
+                }
+            }
+        }
+        productIds = Arrays.copyOf(productIds, Math.max(INITIAL_CAPACITY, live + live / 2));
+        deleted = new BitSet();
+        nextOrdinal = live;
+        deletedCount = 0;
+    }
+    
+    private Postings postingsFor(String term) {
+        Postings postings = postingsByTerm.get(term);
+        if (postings == null) {
+            postings = new Postings();
+            postingsByTerm.put(term, postings);
+            if (!containsDigit(term)) {
+                for (String trigram : trigrams(term)) {
+                    termsByTrigram.computeIfAbsent(trigram, key -> new HashSet<>()).add(term);
+                }
+            }
+        }
+        return postings;
+    }
+    
+    private static void addTerms(Map<String, Float> weights, String text, float weight) {
+        for (String term : tokenize(text)) {
+            weights.merge(term, weight, Float::sum);
+        }
+    }
+    
+    private static long postingsCount(List<TermMatch> matches) {
+        long count = 0;
+        for (TermMatch match : matches) {
+            count += match.postings.size;
+        }
+        return count;
+    }
+    
+    /**
+     * Split text into lower-case words of letters and digits
+     */
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        List<String> words = new ArrayList<>();
+        String lowerCase = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lowerCase.length(); i++) {
+            boolean wordCharacter = i < lowerCase.length() && Character.isLetterOrDigit(lowerCase.charAt(i));
+            if (wordCharacter && start < 0) {
+                start = i;
+            } else if (!wordCharacter && start >= 0) {
+                words.add(lowerCase.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+    
+    private static List<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        List<String> trigrams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+    
+    private static boolean containsDigit(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            if (Character.isDigit(term.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Edit distance counting insertions, deletions, substitutions and swaps of adjacent
+     * characters. Stops early and returns maxDistance + 1 once the distance is exceeded.
+     */
+    static int editDistance(String a, String b, int maxDistance) {
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, previousPrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMinimum = Math.min(rowMinimum, distance);
+            }
+            if (rowMinimum > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], maxDistance + 1);
+    }
+    
+    /**
+     * Products containing a term, in ascending ordinal order since ordinals are handed out
+     * in indexing order, with the weight of the term
+     */
+    private static final class Postings {
+        
+        private int[] ordinals = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+        
+        private void add(int ordinal, float weight) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ordinals[size] = ordinal;
+            weights[size] = weight;
+            size++;
+        }
+        
+        /**
+         * Move the postings to new ordinals, which keep their order, and drop those mapped to -1
+         * 
+         * @return the number of postings left
+         */
+        private int renumber(int[] newOrdinals) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int ordinal = newOrdinals[ordinals[i]];
+                if (ordinal >= 0) {
+                    ordinals[kept] = ordinal;
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            if (size > 0 && size < ordinals.length / 4) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            return kept;
+        }
+    }
+    
+    private static final class TypoCandidate {
+        
+        private final String term;
+        private final int typos;
+        private final int sharedTrigrams;
+        
+        private TypoCandidate(String term, int typos, int sharedTrigrams) {
+            this.term = term;
+            this.typos = typos;
+            this.sharedTrigrams = sharedTrigrams;
+        }
+    }
+    
+    /**
+     * The indexed fields of a product changed during a rebuild
+     */
+    private static final class IndexedText {
+        
+        private final String name;
+        private final String description;
+        private final String sku;
+        
+        private IndexedText(String name, String description, String sku) {
+            this.name = name;
+            this.description = description;
+            this.sku = sku;
+        }
+    }
+    
+    private static final class TermMatch {
+        
+        private final Postings postings;
+        private final float boost;
+        
+        private TermMatch(Postings postings, float boost) {
+            this.postings = postings;
+            this.boost = boost;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.globaltech.inventory.model.service.product;
+
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the product search index when the application context has started
+ */
+@Component
+public class ProductSearchIndexLoader {
+    
+    private final ProductService productService;
+    
+    public ProductSearchIndexLoader(ProductService productService) {
+        this.productService = productService;
+    }
+    
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        // Child contexts, such as the web context, refresh after the root context
+        if (event.getApplicationContext().getParent() == null) {
+            productService.rebuildSearchIndex();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.globaltech.inventory.model.service.product;
+
+import java.util.List;
+
+/**
+ * One page of search hits and the total number of products matching the query
+ */
+public class ProductSearchResult {
+    
+    private final List<ProductSearchHit> hits;
+    private final int totalHits;
+    
+    public ProductSearchResult(List<ProductSearchHit> hits, int totalHits) {
+        this.hits = hits;
+        this.totalHits = totalHits;
+    }
+    
+    public List<ProductSearchHit> getHits() {
+        return hits;
+    }
+    
+    public int getTotalHits() {
+        return totalHits;
+    }
+}
@@ -0,0 +1,30 @@
+package com.globaltech.inventory.model.service.product;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.globaltech.inventory.model.domain.product.Product;
+import com.globaltech.inventory.model.service.base.CrudService;
+
+/**
+ * Service interface for Product entity
+ */
+public interface ProductService extends CrudService<Product, Long> {
+    
+    /**
+     * Search products by name, description and SKU through the in-memory search index.
+     * Words match as prefixes and tolerate typos; the best matches come first.
+     * 
+     * @param query the search text
+     * @param pageable the page to return
+     * @return the page of matching products and the total number of matches
+     */
+    Page<Product> search(String query, Pageable pageable);
+    
+    /**
+     * Rebuild the search index from all products in the database
+     * 
+     * @return the number of products indexed
+     */
+    int rebuildSearchIndex();
+}
@@ -0,0 +1,128 @@
+package com.globaltech.inventory.model.service.product;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.globaltech.inventory.model.domain.product.Product;
+import com.globaltech.inventory.model.repository.product.ProductRepository;
+import com.globaltech.inventory.model.service.base.BaseServiceImpl;
+
+/**
+ * Implementation of ProductService. Product writes update the search index once their
+ * transaction has committed, so the index never shows rolled back changes.
+ */
+@Service
+@Transactional
+public class ProductServiceImpl extends BaseServiceImpl<Product, Long, ProductRepository> implements ProductService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
+    
+    private static final int INDEX_BATCH_SIZE = 1000;
+    
+    private final ProductSearchIndex searchIndex;
+    
+    public ProductServiceImpl(ProductRepository repository, ProductSearchIndex searchIndex) {
+        super(repository);
+        this.searchIndex = searchIndex;
+    }
+    
+    @Override
+    @Transactional
+    public Product save(Product product) {
+        Product saved = repository.save(product);
+        afterCommit(() -> searchIndex.index(saved));
+        return saved;
+    }
+    
+    @Override
+    @Transactional
+    public List<Product> saveAll(List<Product> products) {
+        List<Product> saved = repository.saveAll(products);
+        afterCommit(() -> saved.forEach(searchIndex::index));
+        return saved;
+    }
+    
+    @Override
+    @Transactional
+    public void delete(Product product) {
+        repository.delete(product);
+        Long productId = product.getId();
+        afterCommit(() -> searchIndex.remove(productId));
+    }
+    
+    @Override
+    @Transactional
+    public void deleteById(Long id) {
+        repository.deleteById(id);
+        afterCommit(() -> searchIndex.remove(id));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Product> search(String query, Pageable pageable) {
+        ProductSearchResult result = searchIndex.search(query, (int) pageable.getOffset(), pageable.getPageSize());
+        List<Long> productIds = new ArrayList<>(result.getHits().size());
+        for (ProductSearchHit hit : result.getHits()) {
+            productIds.add(hit.getProductId());
+        }
+        Map<Long, Product> productsById = new HashMap<>();
+        for (Product product : repository.findAllById(productIds)) {
+            productsById.put(product.getId(), product);
+        }
+        // Keep the ranking of the index; products deleted since the search are skipped
+        List<Product> products = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            Product product = productsById.get(productId);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return new PageImpl<>(products, pageable, result.getTotalHits());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public int rebuildSearchIndex() {
+        long start = System.nanoTime();
+        // Searches keep using the current index until the rebuilt one replaces it
+        int size = searchIndex.rebuild(index -> {
+            Long lastId = null;
+            List<Product> batch;
+            do {
+                batch = findAllAfter(lastId, INDEX_BATCH_SIZE);
+                for (Product product : batch) {
+                    index.index(product);
+                    lastId = product.getId();
+                }
+                entityManager.clear();
+            } while (batch.size() == INDEX_BATCH_SIZE);
+        });
+        logger.info("Indexed {} products for search in {} ms", size, (System.nanoTime() - start) / 1_000_000);
+        return size;
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
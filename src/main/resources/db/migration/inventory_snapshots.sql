@@ -0,0 +1,26 @@
+-- Create the inventory snapshot tables on MySQL
+-- (com.globaltech.inventory.model.domain.inventory.InventorySnapshot and InventorySnapshotItem).
+--
+-- Snapshot items are keyed by snapshot, product and location without a generated ID, so each
+-- captured inventory item costs one compact row. Until the first snapshot has been taken,
+-- point-in-time queries replay every stock movement.
+
+CREATE TABLE IF NOT EXISTS inventory_snapshots (
+    id BIGINT NOT NULL,
+    taken_at DATETIME(6) NOT NULL,
+    item_count BIGINT NOT NULL,
+    complete BIT NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_inventory_snapshots_taken_at (taken_at)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS inventory_snapshot_items (
+    snapshot_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    location_id BIGINT NOT NULL,
+    quantity INT NOT NULL,
+    PRIMARY KEY (snapshot_id, product_id, location_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS inventory_snapshots_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO inventory_snapshots_seq (next_val) VALUES (1);
@@ -0,0 +1,10 @@
+-- Add the optimistic lock version columns on MySQL
+-- (com.globaltech.inventory.model.domain.inventory.InventoryItem and order.Order).
+--
+-- Existing rows start at version 0. The bulk quantity updates of InventoryRepository and the
+-- JDBC batches of order allocation increment the version themselves, so entities loaded before
+-- such an update fail their optimistic check instead of overwriting it.
+
+ALTER TABLE inventory_items ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
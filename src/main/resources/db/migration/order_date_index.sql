@@ -0,0 +1,6 @@
+-- Add the order date index on MySQL (com.globaltech.inventory.model.domain.order.Order).
+--
+-- Order exports read a date range in order date order; with this index the range is read in
+-- index order instead of scanning and sorting the whole table.
+
+CREATE INDEX idx_orders_date ON orders (order_date, id);
@@ -0,0 +1,42 @@
+-- Migrate existing MySQL tables from AUTO_INCREMENT IDs to the pooled ID generator
+-- (com.globaltech.inventory.model.domain.base.PooledIdGenerator).
+--
+-- MySQL has no sequences, so Hibernate keeps the next value of each table in a
+-- single-row table named <table>_seq. Each one is seeded past the highest existing ID.
+-- Run this with the application stopped, after product_sales.sql has created the
+-- product_sales table. The AUTO_INCREMENT attribute on the id columns can stay in place;
+-- Hibernate always supplies the ID now.
+--
+-- Set @increment_size to inventory.id.increment_size before running. The pooled optimizer
+-- hands out the block ending at the stored value, so each table is seeded at
+-- MAX(id) + 1 + increment size. That is safe for every optimizer; pooled-lo, hilo and none
+-- just start further along than they need to.
+
+SET @increment_size = 50;
+
+CREATE TABLE IF NOT EXISTS product_categories_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO product_categories_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 + @increment_size FROM product_categories;
+
+CREATE TABLE IF NOT EXISTS suppliers_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO suppliers_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 + @increment_size FROM suppliers;
+
+CREATE TABLE IF NOT EXISTS products_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO products_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 + @increment_size FROM products;
+
+CREATE TABLE IF NOT EXISTS locations_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO locations_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 + @increment_size FROM locations;
+
+CREATE TABLE IF NOT EXISTS inventory_items_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO inventory_items_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 + @increment_size FROM inventory_items;
+
+CREATE TABLE IF NOT EXISTS stock_movements_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO stock_movements_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 + @increment_size FROM stock_movements;
+
+CREATE TABLE IF NOT EXISTS orders_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO orders_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 + @increment_size FROM orders;
+
+CREATE TABLE IF NOT EXISTS order_items_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO order_items_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 + @increment_size FROM order_items;
+
+CREATE TABLE IF NOT EXISTS product_sales_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO product_sales_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 + @increment_size FROM product_sales;
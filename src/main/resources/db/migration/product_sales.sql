@@ -0,0 +1,18 @@
+-- Create the per-product sales rollup on MySQL
+-- (com.globaltech.inventory.model.domain.order.ProductSales).
+--
+-- Run this before pooled_id_tables.sql, which seeds product_sales_seq from this table. The
+-- unique product_id is the key ProductSalesService upserts on, and the top selling reads scan
+-- the quantity and revenue indexes backwards. The table starts empty. Run
+-- ProductSalesService.rebuild() once after deploying to fill it from the orders counted as sales.
+
+CREATE TABLE IF NOT EXISTS product_sales (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    product_id BIGINT NOT NULL,
+    total_quantity BIGINT NOT NULL,
+    total_revenue DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_product_sales_product UNIQUE (product_id),
+    INDEX idx_product_sales_quantity (total_quantity),
+    INDEX idx_product_sales_revenue (total_revenue)
+) ENGINE = InnoDB;
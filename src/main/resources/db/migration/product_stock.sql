@@ -0,0 +1,17 @@
+-- Create the materialised per-product stock totals on MySQL
+-- (com.globaltech.inventory.model.domain.inventory.ProductStock).
+--
+-- The table starts empty. Run ProductStockService.reconcile() once after deploying to
+-- fill it from inventory_items and the pending orders.
+
+CREATE TABLE IF NOT EXISTS product_stock (
+    id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    on_hand BIGINT NOT NULL,
+    reserved BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_product_stock_product UNIQUE (product_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS product_stock_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO product_stock_seq (next_val) VALUES (1);
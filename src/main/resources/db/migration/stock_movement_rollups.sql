@@ -0,0 +1,39 @@
+-- Create the hourly and daily stock movement rollups on MySQL
+-- (com.globaltech.inventory.model.domain.inventory.HourlyMovementRollup and DailyMovementRollup).
+--
+-- The tables start empty. Movements are added to them as they are written once the release is
+-- deployed; run StockMovementRollupService.backfill() from the first movement up to the
+-- deployment once to add the history, one day per transaction. The scheduled job rebuilds the
+-- last hours, including the hour of the deployment, from stock_movements.
+
+CREATE TABLE IF NOT EXISTS stock_movement_hourly (
+    id BIGINT NOT NULL,
+    bucket_start DATETIME(6) NOT NULL,
+    product_id BIGINT NOT NULL,
+    location_id BIGINT NOT NULL,
+    movement_type VARCHAR(255) NOT NULL,
+    quantity BIGINT NOT NULL,
+    movement_count BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_stock_movement_hourly UNIQUE (product_id, bucket_start, location_id, movement_type),
+    INDEX idx_stock_movement_hourly_bucket (bucket_start)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS stock_movement_daily (
+    id BIGINT NOT NULL,
+    bucket_start DATETIME(6) NOT NULL,
+    product_id BIGINT NOT NULL,
+    location_id BIGINT NOT NULL,
+    movement_type VARCHAR(255) NOT NULL,
+    quantity BIGINT NOT NULL,
+    movement_count BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_stock_movement_daily UNIQUE (product_id, bucket_start, location_id, movement_type),
+    INDEX idx_stock_movement_daily_bucket (bucket_start)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS stock_movement_hourly_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO stock_movement_hourly_seq (next_val) VALUES (1);
+
+CREATE TABLE IF NOT EXISTS stock_movement_daily_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO stock_movement_daily_seq (next_val) VALUES (1);